@@ -140,14 +140,20 @@ import bibliothek.gui.dock.event.DockableFocusEvent;
 import bibliothek.gui.dock.event.DockableFocusListener;
 import bibliothek.gui.dock.event.DoubleClickListener;
 import bibliothek.gui.dock.event.KeyboardListener;
+import bibliothek.gui.dock.facile.mode.Location;
+import bibliothek.gui.dock.facile.mode.LocationMode;
 import bibliothek.gui.dock.facile.mode.LocationModeManager;
 import bibliothek.gui.dock.facile.station.split.ConflictResolver;
 import bibliothek.gui.dock.facile.station.split.DefaultConflictResolver;
 import bibliothek.gui.dock.focus.DockableSelection;
+import bibliothek.gui.dock.frontend.DockFrontendSnapshot;
 import bibliothek.gui.dock.frontend.FrontendEntry;
+import bibliothek.gui.dock.frontend.LayoutChangeTracker;
+import bibliothek.gui.dock.frontend.LayoutChunkFile;
 import bibliothek.gui.dock.frontend.MissingDockableStrategy;
 import bibliothek.gui.dock.layout.DockSituationIgnore;
 import bibliothek.gui.dock.layout.DockableProperty;
+import bibliothek.gui.dock.layout.LayoutProfiler;
 import bibliothek.gui.dock.perspective.PerspectiveDockable;
 import bibliothek.gui.dock.perspective.PerspectiveElement;
 import bibliothek.gui.dock.perspective.PerspectiveStation;
@@ -163,8 +169,13 @@ import bibliothek.gui.dock.station.stack.action.DockActionDistributor;
 import bibliothek.gui.dock.station.stack.menu.CombinedMenuContent;
 import bibliothek.gui.dock.station.stack.tab.TabPane;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+import bibliothek.gui.dock.support.mode.ModeManager;
+import bibliothek.gui.dock.support.mode.ModeManagerListener;
 import bibliothek.gui.dock.support.util.ApplicationResource;
+import bibliothek.gui.dock.support.util.ApplicationResourceSnapshot;
 import bibliothek.gui.dock.support.util.ApplicationResourceManager;
+import bibliothek.gui.dock.support.util.AsyncResourceWriter;
+import bibliothek.gui.dock.support.util.SnapshotApplicationResource;
 import bibliothek.gui.dock.themes.BasicTheme;
 import bibliothek.gui.dock.themes.ColorScheme;
 import bibliothek.gui.dock.themes.ThemeFactory;
@@ -185,6 +196,7 @@ import bibliothek.gui.dock.util.extension.ExtensionName;
 import bibliothek.gui.dock.util.icon.DefaultIconScheme;
 import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.gui.dock.util.text.DefaultTextScheme;
+import bibliothek.util.FileReplacement;
 import bibliothek.util.Filter;
 import bibliothek.util.Path;
 import bibliothek.util.Version;
@@ -297,6 +309,18 @@ public class CControl {
 
     /** a manager allowing the user to change the extended-state of some {@link CDockable}s */
     private CLocationModeManager locationManager;
+    
+    /** observes the layout and tells which parts have to be written by {@link #writeIncremental(File)}, lazily created */
+    private LayoutChangeTracker layoutChangeTracker;
+    
+    /** marks {@link #layoutChangeTracker} dirty whenever the mode of a {@link CDockable} changes */
+    private ModeManagerListener<Location, LocationMode> layoutModeListener;
+    
+    /** the file used by the last call to {@link #writeIncremental(File)} */
+    private LayoutChunkFile layoutChunkFile;
+    
+    /** writes the layout on a background thread, lazily created */
+    private AsyncResourceWriter resourceWriter;
 
     /** the default location of newly opened {@link CDockable}s */
     private CLocation defaultLocation;
@@ -330,6 +354,15 @@ public class CControl {
 
     /** the collection of global listeners */
     private CListenerCollection listenerCollection = new CListenerCollection();
+    
+    /** forwards {@link KeyEvent}s to the {@link CKeyboardListener}s, only registered if there is at least one {@link CKeyboardListener} */
+    private KeyboardListener keyboardForwarder;
+    
+    /** whether {@link #keyboardForwarder} is currently registered at the {@link bibliothek.gui.dock.control.KeyboardController} */
+    private boolean keyboardForwarderInstalled = false;
+    
+    /** all the {@link CDockable}s which currently have at least one {@link CKeyboardListener} */
+    private Set<CDockable> keyboardDockables = new HashSet<CDockable>();
 
     /** the preferences used by this instance of {@link CControl} */
     private PreferenceStorage preferences = new PreferenceStorage();
@@ -676,7 +709,7 @@ public class CControl {
     }
 
     private void initInputListener( DockController controller ){
-        controller.getKeyboardController().addListener( new KeyboardListener(){
+        keyboardForwarder = new KeyboardListener(){
             public boolean keyPressed( DockElement element, KeyEvent event ) {
                 if( element instanceof CommonDockable ){
                     CDockable source = ((CommonDockable)element).getDockable();
@@ -719,7 +752,7 @@ public class CControl {
             public DockElement getTreeLocation() {
                 return null;
             }	        
-        });
+        };
 
         controller.getDoubleClickController().addListener( new DoubleClickListener(){
             public boolean process( Dockable dockable, MouseEvent event ) {
@@ -863,11 +896,23 @@ public class CControl {
         try{
         	addMultipleDockableFactory( "", NullMultipleCDockableFactory.NULL, false );
         	
-            resources.put( "ccontrol.frontend", new ApplicationResource(){
+            resources.put( "ccontrol.frontend", new SnapshotApplicationResource(){
                 public void write( DataOutputStream out ) throws IOException {
                     Version.write( out, Version.VERSION_1_1_1 );
                     frontend.write( out );
                 }
+                public ApplicationResourceSnapshot snapshot(){
+                	final DockFrontendSnapshot snapshot = frontend.createSnapshot();
+                	return new ApplicationResourceSnapshot(){
+                		public void write( DataOutputStream out ) throws IOException{
+                			Version.write( out, Version.VERSION_1_1_1 );
+                			snapshot.write( out );
+                		}
+                		public void writeXML( XElement element ){
+                			snapshot.writeXML( element.addElement( "frontend" ) );
+                		}
+                	};
+                }
                 public void read( DataInputStream in ) throws IOException {
                     Version version = Version.read( in );
                     version.checkCurrent();
@@ -1056,6 +1101,7 @@ public class CControl {
      */
     public void addKeyboardListener( CKeyboardListener listener ){
         listenerCollection.addKeyboardListener( listener );
+        updateKeyboardForwarder();
     }
 
     /**
@@ -1064,6 +1110,28 @@ public class CControl {
      */
     public void removeKeyboardListener( CKeyboardListener listener ){
         listenerCollection.removeKeyboardListener( listener );
+        updateKeyboardForwarder();
+    }
+    
+    /**
+     * Adds or removes the listener which forwards {@link KeyEvent}s to the {@link CKeyboardListener}s. The
+     * listener cannot know in advance which {@link javax.swing.KeyStroke}s are of interest, hence it is
+     * only registered while there is at least one {@link CKeyboardListener} to inform. Otherwise the
+     * {@link bibliothek.gui.dock.control.KeyboardController} would have to search the source of every
+     * {@link KeyEvent}.
+     */
+    private void updateKeyboardForwarder(){
+    	boolean required = listenerCollection.hasKeyboardListeners() || !keyboardDockables.isEmpty();
+    	
+    	if( required != keyboardForwarderInstalled ){
+    		keyboardForwarderInstalled = required;
+    		if( required ){
+    			intern().getController().getKeyboardController().addListener( keyboardForwarder );
+    		}
+    		else{
+    			intern().getController().getKeyboardController().removeListener( keyboardForwarder );
+    		}
+    	}
     }
 
     /**
@@ -1206,6 +1274,15 @@ public class CControl {
      * work correctly after this method was called.
      */
     public void destroy(){
+    	if( resourceWriter != null ){
+    		resourceWriter.flush();
+    	}
+    	if( layoutChangeTracker != null ){
+    		locationManager.removeModeManagerListener( layoutModeListener );
+    		layoutChangeTracker.destroy();
+    		layoutChangeTracker = null;
+    		layoutModeListener = null;
+    	}
         frontend.kill();
         for( DestroyHook hook : hooks )
             hook.destroy();
@@ -2377,6 +2454,25 @@ public class CControl {
     public MissingCDockableStrategy getMissingStrategy() {
         return missingStrategy;
     }
+    
+    /**
+     * Sets a profiler which measures how much time the factories of this control need to read, write
+     * and apply layouts. The profiler is used by all the methods like {@link #readXML(XElement)} or
+     * {@link #write(DataOutputStream)}, its report tells which factories slow down loading a layout.
+     * @param profiler the profiler, can be <code>null</code>
+     */
+    public void setLayoutProfiler( LayoutProfiler profiler ){
+    	frontend.setLayoutProfiler( profiler );
+    }
+    
+    /**
+     * Gets the profiler which measures how much time the factories of this control need.
+     * @return the profiler, can be <code>null</code>
+     * @see #setLayoutProfiler(LayoutProfiler)
+     */
+    public LayoutProfiler getLayoutProfiler(){
+    	return frontend.getLayoutProfiler();
+    }
 
     /**
      * Adds a {@link ResizeRequestListener} to this {@link CControl}. The listener
@@ -2564,18 +2660,137 @@ public class CControl {
     }
     
     /**
-     * Reads the current and other known layouts from <code>file</code>.
+     * Reads the current and other known layouts from <code>file</code>. An interrupted replacement
+     * of <code>file</code> by {@link #writeXMLAsync(File)} is finished first.
      * @param file the file to open and to read
      * @throws IOException if the file cannot be read
      * @throws XException if the xml file has the wrong structure
      */
     public void readXML( File file ) throws IOException{
+    	FileReplacement.recover( file );
         BufferedInputStream in = new BufferedInputStream( new FileInputStream( file ));
         XElement element = XIO.readUTF( in );
         in.close();
         readXML( element );
     }
 
+    /**
+     * Writes the current and all known layouts into <code>file</code> without blocking the calling thread.
+     * A copy of the layout is taken on the EDT after a short delay, then a background thread writes
+     * the copy into a temporary file which replaces <code>file</code> once it is complete. Bursts of
+     * requests for the same file are coalesced, only the newest layout is written. The file has the same
+     * format as the file written by {@link #write(File)}.<br>
+     * This is the same as calling <code>getResourceWriter().write( file )</code>.
+     * @param file the file to write into
+     * @see #getResourceWriter()
+     */
+    public void writeAsync( File file ){
+    	getResourceWriter().write( file );
+    }
+    
+    /**
+     * Writes the current and all known layouts into <code>file</code> in xml format without blocking the
+     * calling thread. See {@link #writeAsync(File)} for details.<br>
+     * This is the same as calling <code>getResourceWriter().writeXML( file )</code>.
+     * @param file the file to write into
+     */
+    public void writeXMLAsync( File file ){
+    	getResourceWriter().writeXML( file );
+    }
+    
+    /**
+     * Gets the writer which is used by {@link #writeAsync(File)} and {@link #writeXMLAsync(File)}. Clients
+     * can use the writer to observe when files have been written, or to wait until all files are written.
+     * The writer is created the first time this method is called.
+     * @return the writer, not <code>null</code>
+     */
+    public AsyncResourceWriter getResourceWriter(){
+    	if( resourceWriter == null ){
+    		resourceWriter = new AsyncResourceWriter( getResources() );
+    	}
+    	return resourceWriter;
+    }
+    
+    /**
+     * Writes the current and all known layouts into <code>file</code>. Unlike {@link #write(File)}
+     * this method only writes those parts of the layout that changed since the last time
+     * <code>file</code> was written. Each root station, each stored layout, and the remaining
+     * information of the current layout are stored as separate chunks in <code>file</code>, and only
+     * chunks that changed are appended to the file. This method is intended to be called often,
+     * e.g. by an autosave feature.<br>
+     * Not all changes of the layout are detected automatically, for example moving the divider of
+     * a {@link SplitDockStation} does not mark the station as dirty. Clients can use
+     * {@link #getLayoutChangeTracker()} to mark parts of the layout as dirty.<br>
+     * Note that the {@link #getResources() resources} are not written into <code>file</code>.
+     * @param file the file to write into
+     * @throws IOException if the file cannot be written
+     * @see #readIncremental(File)
+     */
+    public void writeIncremental( File file ) throws IOException{
+    	LayoutChangeTracker tracker = getLayoutChangeTracker();
+    	if( layoutChunkFile == null || !layoutChunkFile.getFile().equals( file )){
+    		layoutChunkFile = new LayoutChunkFile( file );
+    		tracker.markAllDirty();
+    	}
+    	frontend.writeIncremental( layoutChunkFile, tracker );
+    }
+    
+    /**
+     * Reads the current and all known layouts from <code>file</code>, the file must have been
+     * written by {@link #writeIncremental(File)}. All existing layouts are deleted.
+     * @param file the file to read from
+     * @throws IOException if the file cannot be read
+     */
+    public void readIncremental( File file ) throws IOException{
+    	LayoutChunkFile chunks = new LayoutChunkFile( file );
+    	frontend.readIncremental( chunks, false );
+    	if( layoutChangeTracker != null ){
+    		layoutChangeTracker.markAllDirty();
+    	}
+    }
+    
+    /**
+     * Gets the {@link LayoutChangeTracker} which tells {@link #writeIncremental(File)} which parts
+     * of the layout changed. The tracker is created the first time this method is called, it does
+     * not only observe the {@link DockStation}s but also the changes of the {@link ExtendedMode}
+     * of the {@link CDockable}s.
+     * @return the tracker, not <code>null</code>
+     */
+    public LayoutChangeTracker getLayoutChangeTracker(){
+    	if( layoutChangeTracker == null ){
+    		layoutChangeTracker = new LayoutChangeTracker( frontend );
+    		layoutModeListener = new ModeManagerListener<Location, LocationMode>(){
+    			public void dockableAdded( ModeManager<? extends Location, ? extends LocationMode> manager, Dockable dockable ){
+    				markDirty();
+    			}
+    			
+    			public void dockableRemoved( ModeManager<? extends Location, ? extends LocationMode> manager, Dockable dockable ){
+    				markDirty();
+    			}
+    			
+    			public void modeChanged( ModeManager<? extends Location, ? extends LocationMode> manager, Dockable dockable, LocationMode oldMode, LocationMode newMode ){
+    				markDirty();
+    			}
+    			
+    			public void modeAdded( ModeManager<? extends Location, ? extends LocationMode> manager, LocationMode mode ){
+    				// ignore
+    			}
+    			
+    			public void modeRemoved( ModeManager<? extends Location, ? extends LocationMode> manager, LocationMode mode ){
+    				// ignore
+    			}
+    			
+    			private void markDirty(){
+    				if( layoutChangeTracker != null ){
+    					layoutChangeTracker.markCurrentDirty();
+    				}
+    			}
+    		};
+    		locationManager.addModeManagerListener( layoutModeListener );
+    	}
+    	return layoutChangeTracker;
+    }
+
     /**
      * Stores the current layout with the given name. This creates "entry" (partial) layout information.
      * @param name the name of the current layout.
@@ -2637,6 +2852,18 @@ public class CControl {
                     dockable.addCDockableStateListener( listenerCollection.getCDockableStateListener() );
                 }
             }
+            keyboardListenersChanged( dockable );
+        }
+        
+        public void keyboardListenersChanged( CDockable dockable ){
+        	CDockableAccess access = accesses.get( dockable );
+        	if( access != null && access.hasKeyboardListeners() ){
+        		keyboardDockables.add( dockable );
+        	}
+        	else{
+        		keyboardDockables.remove( dockable );
+        	}
+        	updateKeyboardForwarder();
         }
 
         public CDockableAccess access( CDockable dockable ) {
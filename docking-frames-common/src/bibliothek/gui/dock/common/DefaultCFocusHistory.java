@@ -66,19 +66,24 @@ public class DefaultCFocusHistory implements CFocusHistory{
 		return result.toArray( new CDockable[ result.size() ] );
 	}
 	
-	public CDockable getFirst( Filter<CDockable> filter ){
-		CDockable[] history = getHistory();
-		Set<CDockable> visited = new HashSet<CDockable>();
-		
-		for( CDockable dockable : history ){
-			if( filter.includes( dockable )){
-				return dockable;
+	public CDockable getFirst( final Filter<CDockable> filter ){
+		FocusHistory history = control.getController().getFocusHistory();
+		Dockable first = history.getFirst( new Filter<Dockable>(){
+			public boolean includes( Dockable item ){
+				return item instanceof CommonDockable && filter.includes( ((CommonDockable)item).getDockable() );
 			}
+		});
+		if( first != null ){
+			return ((CommonDockable)first).getDockable();
+		}
+		
+		Set<Dockable> visited = new HashSet<Dockable>();
+		for( Dockable dockable : history.getHistory() ){
 			visited.add( dockable );
 		}
 		
 		for( CDockable dockable : control.getRegister().getDockables() ){
-			if( !visited.contains( dockable )){
+			if( !visited.contains( dockable.intern() )){
 				if( filter.includes( dockable )){
 					return dockable;
 				}
@@ -230,10 +230,16 @@ public abstract class AbstractCDockable implements CDockable {
     
     public void addKeyboardListener( CKeyboardListener listener ){
         listenerCollection.addKeyboardListener( listener );
+        if( control != null ){
+        	control.keyboardListenersChanged( this );
+        }
     }
     
     public void removeKeyboardListener( CKeyboardListener listener ){
         listenerCollection.removeKeyboardListener( listener );
+        if( control != null ){
+        	control.keyboardListenersChanged( this );
+        }
     }
     
     public void addDoubleClickListener( CDoubleClickListener listener ){
@@ -789,6 +795,9 @@ public abstract class AbstractCDockable implements CDockable {
                 public CKeyboardListener getKeyboardListener() {
                     return listenerCollection.getKeyboardListener();
                 }
+                public boolean hasKeyboardListeners() {
+                	return listenerCollection.hasKeyboardListeners();
+                }
                 public CDoubleClickListener getDoubleClickListener() {
                     return listenerCollection.getDoubleClickListener();
                 }
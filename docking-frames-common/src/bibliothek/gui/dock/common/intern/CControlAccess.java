@@ -31,6 +31,7 @@ import bibliothek.gui.dock.common.CControl;
 import bibliothek.gui.dock.common.CLocation;
 import bibliothek.gui.dock.common.MissingCDockableStrategy;
 import bibliothek.gui.dock.common.MultipleCDockableFactory;
+import bibliothek.gui.dock.common.event.CKeyboardListener;
 import bibliothek.gui.dock.common.mode.CLocationModeManager;
 import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.util.FrameworkOnly;
@@ -142,4 +143,11 @@ public interface CControlAccess {
 	 * @return the location or <code>null</code> if not available
 	 */
 	public CLocation getAutoBaseLocation( CDockable dockable, boolean noBackwardTransformation );
+	
+	/**
+	 * Informs the {@link CControl} that a {@link CKeyboardListener} was added to or removed from
+	 * a {@link CDockable}.
+	 * @param dockable the element whose listeners changed
+	 */
+	public void keyboardListenersChanged( CDockable dockable );
 }
@@ -26,6 +26,7 @@
 package bibliothek.gui.dock.common.intern;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import bibliothek.gui.DockController;
@@ -130,10 +131,10 @@ public class CDockFrontend extends DockFrontend{
     }
 
     @Override
-    public Setting getSetting( boolean entry ) {
+    public Setting getSetting( boolean entry, Collection<String> rootNames ) {
     	CLocationModeManager manager = control.getLocationManager();
     	
-    	CSetting setting = (CSetting)super.getSetting( entry );
+    	CSetting setting = (CSetting)super.getSetting( entry, rootNames );
         
         ModeSettings<Location, Location> modeSettings = manager.createSettings( new LocationSettingConverter( getController() ) );
         setting.setModes( modeSettings );
@@ -83,6 +83,13 @@ public interface CDockableAccess {
      */
     public CKeyboardListener getKeyboardListener();
     
+    /**
+     * Tells whether at least one {@link CKeyboardListener} is registered at the owner
+     * of this access.
+     * @return <code>true</code> if {@link #getKeyboardListener()} has to be called for key events
+     */
+    public boolean hasKeyboardListeners();
+    
     /**
      * A double click listener which will be informed about double click events
      * that happen on the owner of this access.
@@ -441,6 +441,14 @@ public class CListenerCollection {
         keyboardListeners.remove( listener );
     }
     
+    /**
+     * Tells whether at least one {@link CKeyboardListener} is stored in this collection.
+     * @return <code>true</code> if there is at least one listener
+     */
+    public boolean hasKeyboardListeners(){
+        return !keyboardListeners.isEmpty();
+    }
+    
     /**
      * Gets all currently registered {@link CKeyboardListener}s collected
      * in an array. Modifications of the array will not modify this collection.
@@ -31,6 +31,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
 import bibliothek.gui.Dockable;
@@ -75,6 +76,9 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 	/** Factory used to access missing {@link PerspectiveElement}s */
 	private FrontendPerspectiveCache cache;
 	
+	/** The factories that were registered when this factory was created, <code>null</code> if the factories are read from {@link #control} */
+	private Map<String, DockFactory<?, ?, ?>> factories;
+	
 	/**
 	 * Creates a new factory
 	 * @param control the {@link CControl} in whose realm this factory works, not <code>null</code>
@@ -93,6 +97,38 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 		this.singleDockableFactory = singleDockableFactory;
 	}
 	
+	/**
+	 * Creates a new factory that does not access the {@link DockFactory}s of <code>control</code>, instead
+	 * it only uses <code>factories</code>. This factory can then be used by a thread other than the
+	 * EDT to convert perspectives.
+	 * @param control the {@link CControl} in whose realm this factory works, not <code>null</code>
+	 * @param cache used to create missing {@link PerspectiveElement}s, can be <code>null</code>
+	 * @param singleDockableFactory the factory used to create new {@link CommonDockStation}s that are also {@link SingleCDockable}s, not <code>null</code>
+	 * @param factories the factories to which the work is forwarded, not <code>null</code>
+	 */
+	public CommonDockStationFactory( CControl control, FrontendPerspectiveCache cache, CommonSingleDockableFactory singleDockableFactory, DockFactory<?, ?, ?>[] factories ){
+		this( control, cache, singleDockableFactory );
+		if( factories == null ){
+			throw new IllegalArgumentException( "factories must not be null" );
+		}
+		this.factories = new HashMap<String, DockFactory<?, ?, ?>>();
+		for( DockFactory<?, ?, ?> factory : factories ){
+			this.factories.put( factory.getID(), factory );
+		}
+	}
+	
+	/**
+	 * Searches the {@link DockFactory} with identifier <code>id</code>.
+	 * @param id the identifier of the factory
+	 * @return the factory or <code>null</code> if not found
+	 */
+	protected DockFactory<?, ?, ?> getDockFactory( String id ){
+		if( factories != null ){
+			return factories.get( id );
+		}
+		return control.intern().getDockFactory( id );
+	}
+	
 	/**
 	 * Creates a new {@link CommonDockStation} whose {@link CStation} is also a {@link SingleCDockable} with
 	 * unique identifier <code>id</code>.
@@ -152,7 +188,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 	@SuppressWarnings("unchecked")
 	public CommonDockStationLayout getLayout( CommonDockStation<?, ?> element, Map<Dockable, Integer> children ){
 		String factoryId = element.getConverterID();
-		DockFactory<DockElement, ?, ?> factory = (DockFactory<DockElement, ?, ?>)control.intern().getDockFactory( factoryId );
+		DockFactory<DockElement, ?, ?> factory = (DockFactory<DockElement, ?, ?>)getDockFactory( factoryId );
 		if( factory == null ){
 			return null;
 		}
@@ -192,7 +228,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 	@SuppressWarnings("unchecked")
 	public void setLayout( CommonDockStation<?, ?> element, CommonDockStationLayout layout, Map<Integer, Dockable> children, PlaceholderStrategy placeholders ){
 		String factoryId = element.getConverterID();
-		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)control.intern().getDockFactory( factoryId );
+		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)getDockFactory( factoryId );
 		if( factory == null ){
 			return;
 		}
@@ -224,7 +260,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 		if( factoryId == null ){
 			return;
 		}
-		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)control.intern().getDockFactory( factoryId );
+		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)getDockFactory( factoryId );
 		if( factory == null ){
 			return;
 		}
@@ -254,7 +290,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 		CStationPerspective station = element.getElement().asStation();
 		station.setRoot( layout.isRoot() );
 		
-		DockFactory<?, PerspectiveElement, Object> factory = (DockFactory<?, PerspectiveElement, Object>)control.intern().getDockFactory( layout.getFactoryId() );
+		DockFactory<?, PerspectiveElement, Object> factory = (DockFactory<?, PerspectiveElement, Object>)getDockFactory( layout.getFactoryId() );
 		if( factory == null ){
 			return;
 		}
@@ -271,7 +307,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 	@SuppressWarnings("unchecked")
 	public CommonDockStationLayout getPerspectiveLayout( CommonDockStationPerspective element, Map<PerspectiveDockable, Integer> children ){
 		String factoryId = element.getConverterID();
-		DockFactory<?, PerspectiveElement, Object> dockFactory = (DockFactory<?, PerspectiveElement, Object>)control.intern().getDockFactory( factoryId );
+		DockFactory<?, PerspectiveElement, Object> dockFactory = (DockFactory<?, PerspectiveElement, Object>)getDockFactory( factoryId );
 		DockFactory<?, PerspectiveElement, Object> factory = dockFactory;
 		if( factory == null ){
 			return null;
@@ -292,7 +328,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 	@SuppressWarnings("unchecked")
 	public void write( CommonDockStationLayout layout, XElement element ){
 		String factoryId = layout.getFactoryId();
-		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)control.intern().getDockFactory( factoryId );
+		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)getDockFactory( factoryId );
 		XElement content = layout.getLayoutXML();
 		if( content == null ){
 			layout.updateLayout( factory, null );
@@ -330,7 +366,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 		}
 		
 		String factoryId = xcontent.getString( "delegate" );
-		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)control.intern().getDockFactory( factoryId );
+		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)getDockFactory( factoryId );
 		if( factory == null ){
 			return new CommonDockStationLayout( id, root, factoryId, xcontent );
 		}
@@ -347,7 +383,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 	@SuppressWarnings("unchecked")
 	public void write( CommonDockStationLayout layout, DataOutputStream out ) throws IOException{
 		String factoryId = layout.getFactoryId();
-		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)control.intern().getDockFactory( factoryId );
+		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)getDockFactory( factoryId );
 		byte[] content = layout.getLayoutBytes();
 		if( content == null ){
 			layout.updateLayout( factory, null );
@@ -409,7 +445,7 @@ public class CommonDockStationFactory implements DockFactory<CommonDockStation<?
 			offset += delta;
 		}
 		
-		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)control.intern().getDockFactory( factoryId );
+		DockFactory<DockElement, ?, Object> factory = (DockFactory<DockElement, ?, Object>)getDockFactory( factoryId );
 		if( factory == null ){
 			return new CommonDockStationLayout( id, root, factoryId, content );
 		}
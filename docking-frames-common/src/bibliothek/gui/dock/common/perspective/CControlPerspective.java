@@ -38,6 +38,7 @@ import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.DockElement;
 import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.CControlRegister;
 import bibliothek.gui.dock.common.CStation;
 import bibliothek.gui.dock.common.CWorkingArea;
 import bibliothek.gui.dock.common.MultipleCDockable;
@@ -53,6 +54,7 @@ import bibliothek.gui.dock.common.intern.CommonSingleDockableFactory;
 import bibliothek.gui.dock.common.intern.RootStationAdjacentFactory;
 import bibliothek.gui.dock.common.intern.station.CommonDockStationFactory;
 import bibliothek.gui.dock.common.mode.ExtendedMode;
+import bibliothek.gui.dock.facile.mode.CLocationModeSettings;
 import bibliothek.gui.dock.facile.mode.Location;
 import bibliothek.gui.dock.facile.mode.LocationSettingConverter;
 import bibliothek.gui.dock.frontend.DockFrontendPerspective;
@@ -226,10 +228,19 @@ public class CControlPerspective {
      * (<code>includeWorkingAreas = true</code>) or not (<code>includeWorkingAreas = false</code>)
      */
     public void writeXML( XElement root, CPerspective perspective, boolean includeWorkingAreas ){
+    	writeXML( root, writer( perspective, includeWorkingAreas ) );
+    }
+    
+    /**
+     * Writes the perspective of <code>converter</code> into <code>root</code>.
+     * @param root the element to write into, not <code>null</code>
+     * @param converter the prepared factories and the perspective to write
+     */
+    void writeXML( XElement root, CPerspectiveConverter converter ){
+    	CPerspective perspective = converter.getPerspective();
     	perspective.storeLocations();
     	
-    	DockFrontendPerspective frontend = conversion( perspective, includeWorkingAreas );
-    	Perspective conversion = frontend.getPerspective();
+    	Perspective conversion = converter.getFrontend().getPerspective();
     	
     	Map<String, DockLayoutComposition> stations = new HashMap<String, DockLayoutComposition>();
     	for( String key : perspective.getStationKeys() ){
@@ -243,7 +254,7 @@ public class CControlPerspective {
     	
     	// Store the last location of all known elements
     	XElement xinvisible = root.addElement( "invisible" );
-    	PropertyTransformer transformer = frontend.getPropertyTransformer();
+    	PropertyTransformer transformer = converter.getPropertyTransformer();
     	for( String key : perspective.getDockableKeys() ){
     		CDockablePerspective dockable = perspective.getDockable( key );
     		Location location = getInvisibleLocation( dockable );
@@ -264,7 +275,7 @@ public class CControlPerspective {
     	}
     	
     	// store more location information
-    	ModeSettings<Location, ?> settings = perspective.getLocationManager().writeModes( control );
+    	ModeSettings<Location, ?> settings = perspective.getLocationManager().writeModes( converter.getRegister(), converter.getModes() );
     	
     	settings.writeXML( root.addElement( "modes" ) );
     }
@@ -290,11 +301,21 @@ public class CControlPerspective {
      * @throws IOException if <code>out</code> is not writeable
      */
     public void write( DataOutputStream out, CPerspective perspective, boolean includeWorkingAreas ) throws IOException{
+    	write( out, writer( perspective, includeWorkingAreas ) );
+    }
+    
+    /**
+     * Writes the perspective of <code>converter</code> into <code>out</code>.
+     * @param out the stream to write into, not <code>null</code>
+     * @param converter the prepared factories and the perspective to write
+     * @throws IOException if <code>out</code> is not writeable
+     */
+    void write( DataOutputStream out, CPerspectiveConverter converter ) throws IOException{
+    	CPerspective perspective = converter.getPerspective();
     	perspective.storeLocations();
     	Version.write( out, Version.VERSION_1_1_1a );
     	
-    	DockFrontendPerspective frontend = conversion( perspective, includeWorkingAreas );
-    	Perspective conversion = frontend.getPerspective();
+    	Perspective conversion = converter.getFrontend().getPerspective();
     	
     	Map<String, DockLayoutComposition> stations = new HashMap<String, DockLayoutComposition>();
     	for( String key : perspective.getStationKeys() ){
@@ -307,7 +328,7 @@ public class CControlPerspective {
     	// Store the last location of all known elements
     	String[] keys = perspective.getDockableKeys();
     	out.writeInt( keys.length );
-    	PropertyTransformer transformer = frontend.getPropertyTransformer();
+    	PropertyTransformer transformer = converter.getPropertyTransformer();
     	
     	for( String key : keys ){
     		CDockablePerspective dockable = perspective.getDockable( key );
@@ -336,7 +357,7 @@ public class CControlPerspective {
     	
     	
     	// write more location information
-    	ModeSettings<Location, ?> settings = perspective.getLocationManager().writeModes( control );
+    	ModeSettings<Location, ?> settings = perspective.getLocationManager().writeModes( converter.getRegister(), converter.getModes() );
     	
     	settings.write( out );
     }
@@ -390,15 +411,20 @@ public class CControlPerspective {
      * @throws XException if the structure of <code>root</code> is not as expected
      */
     public CPerspective readXML( XElement root, boolean includeWorkingAreas ) throws XException{
-    	CPerspective perspective = createEmptyPerspective();
-    	
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( perspective );
-    	DockFrontendPerspective frontend = wrap( perspective, includeWorkingAreas, factory );
-    	Perspective conversion = frontend.getPerspective();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
-    	}
+    	return readXML( root, reader( includeWorkingAreas ) );
+    }
+    
+    /**
+     * Reads the contents of <code>root</code> into the empty perspective of <code>converter</code>.
+     * @param root the element which contains information about a perspective
+     * @param converter the prepared factories and the perspective to fill
+     * @return the perspective of <code>converter</code>
+     * @throws XException if the structure of <code>root</code> is not as expected
+     */
+    CPerspective readXML( XElement root, CPerspectiveConverter converter ) throws XException{
+    	CPerspective perspective = converter.getPerspective();
+    	PerspectiveElementFactory factory = converter.getFactory();
+    	Perspective conversion = converter.getFrontend().getPerspective();
     	
     	XElement xstations = root.getElement( "stations" );
     	if( xstations == null ){
@@ -423,7 +449,7 @@ public class CControlPerspective {
     	// read the last known location of all elements
     	XElement xinvisible = root.getElement( "invisible" );
     	if( xinvisible != null ){
-    		PropertyTransformer transformer = frontend.getPropertyTransformer();
+    		PropertyTransformer transformer = converter.getPropertyTransformer();
     		for( XElement xdockable : xinvisible.getElements( "dockable" )){
     			String key = xdockable.getString( "key" );
     			CDockablePerspective dockable = perspective.getDockable( key );
@@ -459,11 +485,10 @@ public class CControlPerspective {
     		throw new XException( "missing element 'modes'" );
     	}
     	
-    	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
-    	ModeSettings<Location, Location> modes = control.getOwner().getLocationManager().createModeSettings( converter );
+    	ModeSettings<Location, Location> modes = converter.getModes();
     	modes.readXML( xmodes );
     	
-    	perspective.getLocationManager().readModes( modes, perspective, control );
+    	perspective.getLocationManager().readModes( modes, perspective, converter.getRegister() );
     	
     	return perspective;
     }
@@ -507,6 +532,17 @@ public class CControlPerspective {
      * @throws IOException if <code>in</code> is not readable or in the wrong format
      */
     public CPerspective read( DataInputStream in, boolean includeWorkingAreas ) throws IOException{
+    	return read( in, reader( includeWorkingAreas ) );
+    }
+    
+    /**
+     * Reads the contents of <code>in</code> into the empty perspective of <code>converter</code>.
+     * @param in the stream to read data from
+     * @param converter the prepared factories and the perspective to fill
+     * @return the perspective of <code>converter</code>
+     * @throws IOException if <code>in</code> is not readable or in the wrong format
+     */
+    CPerspective read( DataInputStream in, CPerspectiveConverter converter ) throws IOException{
     	Version version = Version.read( in );
     	
     	boolean version111 = version.equals( Version.VERSION_1_1_1 );
@@ -516,15 +552,9 @@ public class CControlPerspective {
     		throw new IOException( "unknown version: " + version );
     	}
     	
-    	CPerspective perspective = createEmptyPerspective();
-    	
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( perspective );
-    	DockFrontendPerspective frontend = wrap( perspective, includeWorkingAreas, factory );
-    	Perspective conversion = frontend.getPerspective();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
-    	}
+    	CPerspective perspective = converter.getPerspective();
+    	PerspectiveElementFactory factory = converter.getFactory();
+    	Perspective conversion = converter.getFrontend().getPerspective();
     	
     	Map<String, DockLayoutComposition> stations = conversion.getSituation().readCompositions( in );
     	factory.setStations( stations );
@@ -541,7 +571,7 @@ public class CControlPerspective {
     	
     	if( version111a ){
     		perspective.storeLocations();
-    		PropertyTransformer transformer = frontend.getPropertyTransformer();
+    		PropertyTransformer transformer = converter.getPropertyTransformer();
     		for( int i = 0, n = in.readInt(); i<n; i++ ){
     			if( in.readBoolean() ){
     				String key = in.readUTF();
@@ -577,11 +607,10 @@ public class CControlPerspective {
     		}
     	}
     	
-    	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
-    	ModeSettings<Location, Location> modes = control.getOwner().getLocationManager().createModeSettings( converter );
+    	ModeSettings<Location, Location> modes = converter.getModes();
     	modes.read( in );
     	
-    	perspective.getLocationManager().readModes( modes, perspective, control );
+    	perspective.getLocationManager().readModes( modes, perspective, converter.getRegister() );
     	
     	return perspective;
     }
@@ -596,11 +625,104 @@ public class CControlPerspective {
     	return convert( setting, includeWorkingAreas );
     }
     
+    /**
+     * Creates a new {@link CPerspectiveConverter} which is able to write <code>perspective</code>. This method
+     * collects all the factories that are required for writing and must be called on the EventDispatchThread.
+     * The converter can then be handed over to another thread, e.g. to write a layout while a splash screen is 
+     * showing. The factories are called by that other thread, see {@link CPerspectiveConverter} for the details. The
+     * result of the converter can be applied by calling {@link #setSetting(CSetting, boolean)} on the EventDispatchThread.
+     * @param perspective the perspective to write, not <code>null</code>
+     * @param includeWorkingAreas whether the contents of {@link CStation#isWorkingArea() working areas}
+     * should be included in the layout or not
+     * @return the new converter
+     */
+    public CPerspectiveConverter createWriter( CPerspective perspective, boolean includeWorkingAreas ){
+    	if( perspective == null ){
+    		throw new IllegalArgumentException( "perspective must not be null" );
+    	}
+    	CPerspectiveConverter converter = writer( perspective, includeWorkingAreas );
+    	converter.detach();
+    	return converter;
+    }
+    
+    /**
+     * Creates a new {@link CPerspectiveConverter} which is able to read one layout into a new, empty {@link CPerspective}.
+     * This method collects all the factories and the {@link MissingPerspectiveStrategy} that are required for reading and must be 
+     * called on the EventDispatchThread. The converter can then be handed over to another thread, see {@link CPerspectiveConverter}
+     * for the details.
+     * @param includeWorkingAreas whether the layout contains information about children of {@link CStation#isWorkingArea() working areas}
+     * @return the new converter
+     * @see #createWriter(CPerspective, boolean)
+     */
+    public CPerspectiveConverter createReader( boolean includeWorkingAreas ){
+    	CPerspectiveConverter converter = reader( includeWorkingAreas );
+    	converter.detach();
+    	return converter;
+    }
+    
+    /**
+     * Changes the layout of the associated {@link CControl} such that it matches <code>setting</code>. Together
+     * with {@link #createWriter(CPerspective, boolean)} this method allows to prepare a layout on a background thread, and
+     * to apply the layout on the EventDispatchThread.
+     * @param setting the layout to apply, not <code>null</code>
+     * @param includeWorkingAreas whether {@link Dockable}s that are managed by a working-area should be
+     * included in the layout or not
+     */
+    public void setSetting( CSetting setting, boolean includeWorkingAreas ){
+    	if( setting == null ){
+    		throw new IllegalArgumentException( "setting must not be null" );
+    	}
+    	control.getOwner().intern().setSetting( setting, !includeWorkingAreas );
+    }
+    
+    /**
+     * Collects the factories that are required to write <code>perspective</code>.
+     * @param perspective the perspective to write
+     * @param includeWorkingAreas whether the children of {@link CWorkingArea}s should be stored as well
+     * @return the new converter
+     */
+    private CPerspectiveConverter writer( CPerspective perspective, boolean includeWorkingAreas ){
+    	DockFrontendPerspective frontend = conversion( perspective, includeWorkingAreas );
+    	ModeSettings<Location, Location> modes = new CLocationModeSettings<Location>( new LocationSettingConverter( control.getOwner().getController() ) );
+    	return new CPerspectiveConverter( this, perspective, includeWorkingAreas, false, null, frontend, modes, control.getRegister() );
+    }
+    
+    /**
+     * Creates an empty {@link CPerspective} and collects the factories that are required to read a layout.
+     * @param includeWorkingAreas whether the layout contains information about children of {@link CWorkingArea}s
+     * @return the new converter
+     */
+    private CPerspectiveConverter reader( boolean includeWorkingAreas ){
+    	CPerspective perspective = createEmptyPerspective();
+    	
+    	PerspectiveElementFactory factory = new PerspectiveElementFactory( perspective );
+    	DockFrontendPerspective frontend = wrap( perspective, includeWorkingAreas, factory );
+    	Perspective conversion = frontend.getPerspective();
+    	
+    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
+    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
+    	}
+    	
+    	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
+    	ModeSettings<Location, Location> modes = control.getOwner().getLocationManager().createModeSettings( converter );
+    	
+    	return new CPerspectiveConverter( this, perspective, includeWorkingAreas, true, factory, frontend, modes, control.getRegister() );
+    }
+    
     private CSetting convert( CPerspective perspective, boolean includeWorkingAreas ){
+    	return convert( writer( perspective, includeWorkingAreas ) );
+    }
+    
+    /**
+     * Converts the perspective of <code>converter</code> into a {@link CSetting}.
+     * @param converter the prepared factories and the perspective to convert
+     * @return the converted perspective
+     */
+    CSetting convert( CPerspectiveConverter converter ){
+    	CPerspective perspective = converter.getPerspective();
     	perspective.storeLocations();
     	
-    	DockFrontendPerspective frontend = conversion( perspective, includeWorkingAreas );
-    	Perspective conversion = frontend.getPerspective();
+    	Perspective conversion = converter.getFrontend().getPerspective();
     	CSetting setting = new CSetting();
     	
     	// layout
@@ -620,21 +742,25 @@ public class CControlPerspective {
 	    	}
     	}
     	
-    	ModeSettings<Location, Location> settings = perspective.getLocationManager().writeModes( control );
+    	ModeSettings<Location, Location> settings = perspective.getLocationManager().writeModes( converter.getRegister(), converter.getModes() );
     	setting.setModes( settings );
     	return setting;
     }
     
     private CPerspective convert( CSetting setting, boolean includeWorkingAreas ){
-    	CPerspective cperspective = createEmptyPerspective();
-    	
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( cperspective );
-    	DockFrontendPerspective frontend = wrap( cperspective, includeWorkingAreas, factory );
-    	Perspective conversion = frontend.getPerspective();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, cperspective ) );
-    	}
+    	return convert( setting, reader( includeWorkingAreas ) );
+    }
+    
+    /**
+     * Fills the empty perspective of <code>converter</code> with the contents of <code>setting</code>.
+     * @param setting the layout to convert
+     * @param converter the prepared factories and the perspective to fill
+     * @return the perspective of <code>converter</code>
+     */
+    CPerspective convert( CSetting setting, CPerspectiveConverter converter ){
+    	CPerspective cperspective = converter.getPerspective();
+    	PerspectiveElementFactory factory = converter.getFactory();
+    	Perspective conversion = converter.getFrontend().getPerspective();
     	
     	// registered dockables
     	Map<String, DockLayoutComposition> stations = new HashMap<String, DockLayoutComposition>();
@@ -679,7 +805,7 @@ public class CControlPerspective {
     	// location information 
     	ModeSettings<Location, Location> modes = setting.getModes();
     	
-    	cperspective.getLocationManager().readModes( modes, cperspective, control );
+    	cperspective.getLocationManager().readModes( modes, cperspective, converter.getRegister() );
     	
     	return cperspective;    	
     }
@@ -730,7 +856,7 @@ public class CControlPerspective {
     	
     	CommonSingleDockableFactory singleDockableFactory = new CommonSingleDockableFactory( control.getOwner(), perspective );
     	inner.getSituation().add( singleDockableFactory );
-    	inner.getSituation().add( new CommonDockStationFactory( control.getOwner(), factory, singleDockableFactory ) );
+    	inner.getSituation().add( new CommonDockStationFactory( control.getOwner(), factory, singleDockableFactory, control.getOwner().intern().getDockFactories() ) );
     	
     	return frontend;
     }
@@ -739,18 +865,26 @@ public class CControlPerspective {
      * Helper class for converting {@link DockElement}s to {@link PerspectiveElement}s.
      * @author Benjamin Sigg
      */
-    private class PerspectiveElementFactory implements FrontendPerspectiveCache{
+    class PerspectiveElementFactory implements FrontendPerspectiveCache{
     	private CPerspective perspective;
     	private Perspective basePerspective;
     	private Map<String, SingleCDockablePerspective> dockables = new HashMap<String, SingleCDockablePerspective>();
     	private Map<String, DockLayoutComposition> stations;
+    	/** translates the identifiers of the dockables */
+    	private CControlRegister register;
+    	/** creates stations that are not yet in {@link #perspective} */
+    	private MissingPerspectiveStrategy missingStrategy;
     	
     	/**
-    	 * Creates a new factory.
+    	 * Creates a new factory. The {@link CControlRegister} and the {@link MissingPerspectiveStrategy}
+    	 * of the {@link CControl} are read now, later calls to {@link CControl#setMissingPerspectiveStrategy(MissingPerspectiveStrategy)}
+    	 * have no effect on this factory.
     	 * @param perspective the perspective for which items are required
     	 */
     	public PerspectiveElementFactory( CPerspective perspective ){
     		this.perspective = perspective;
+    		this.register = control.getRegister();
+    		this.missingStrategy = control.getOwner().getMissingPerspectiveStrategy();
     		Iterator<PerspectiveElement> elements = perspective.elements();
     		while( elements.hasNext() ){
     			PerspectiveElement element = elements.next();
@@ -808,8 +942,8 @@ public class CControlPerspective {
 		@SuppressWarnings("unchecked")
 		public PerspectiveElement get( String id, boolean rootStation ){
 			String key = id;
-			if( !rootStation && control.getRegister().isSingleId( id )){
-				key = control.getRegister().singleToNormalId( id );
+			if( !rootStation && register.isSingleId( id )){
+				key = register.singleToNormalId( id );
 			}
 			
 			// maybe a station
@@ -831,7 +965,7 @@ public class CControlPerspective {
 			
 				CStationPerspective station = perspective.getStation( key );
 				if( station == null ){
-					station = control.getOwner().getMissingPerspectiveStrategy().createStation( key, stationType );
+					station = missingStrategy.createStation( key, stationType );
 					if( station != null ){
 						perspective.addStation( station );
 						station.setRoot( rootStation );
@@ -842,7 +976,7 @@ public class CControlPerspective {
 				}
 				return station.intern();
 			}
-			else if( control.getRegister().isSingleId( id )){
+			else if( register.isSingleId( id )){
 				// maybe a dockable
 				SingleCDockablePerspective result = dockables.get( key );
 				if( result == null ){
@@ -884,11 +1018,11 @@ public class CControlPerspective {
 	    		}
 	    		if( currentId.startsWith( DockFrontend.DOCKABLE_KEY_PREFIX )){
 	    			currentId = currentId.substring( DockFrontend.DOCKABLE_KEY_PREFIX.length() );
-	    			if( control.getRegister().isSingleId( currentId )){
-	    				currentId = control.getRegister().singleToNormalId( currentId );
+	    			if( register.isSingleId( currentId )){
+	    				currentId = register.singleToNormalId( currentId );
 	    			}
-	    			else if( control.getRegister().isMultiId( currentId )){
-	    				currentId = control.getRegister().multiToNormalId( currentId );
+	    			else if( register.isMultiId( currentId )){
+	    				currentId = register.multiToNormalId( currentId );
 	    			}
 	    			if( currentId.equals( id )){
 	    				return current;
@@ -920,7 +1054,7 @@ public class CControlPerspective {
 			if( element instanceof CommonElementPerspective ){
 				CElementPerspective celement = ((CommonElementPerspective)element).getElement();
 				if( celement instanceof SingleCDockablePerspective ){
-					return control.getRegister().toSingleId( ((SingleCDockablePerspective)celement).getUniqueId() );
+					return register.toSingleId( ((SingleCDockablePerspective)celement).getUniqueId() );
 				}
 			}
 			
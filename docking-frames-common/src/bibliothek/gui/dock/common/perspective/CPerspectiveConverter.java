@@ -0,0 +1,283 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common.perspective;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.CControlRegister;
+import bibliothek.gui.dock.common.intern.CSetting;
+import bibliothek.gui.dock.facile.mode.Location;
+import bibliothek.gui.dock.frontend.DockFrontendPerspective;
+import bibliothek.gui.dock.layout.PropertyTransformer;
+import bibliothek.gui.dock.support.mode.ModeSettings;
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XException;
+
+/**
+ * A {@link CPerspectiveConverter} reads or writes exactly one {@link CPerspective}. All the factories that
+ * are required for the conversion are collected when the converter is created by 
+ * {@link CControlPerspective#createWriter(CPerspective, boolean)} or {@link CControlPerspective#createReader(boolean)}, 
+ * which has to happen on the EventDispatchThread. At that time the converter copies the {@link bibliothek.gui.dock.DockFactory}s
+ * of the {@link CControl}, the {@link bibliothek.gui.dock.common.MultipleCDockableFactory}s, the {@link MissingPerspectiveStrategy} and a reference to the
+ * {@link CControlRegister}. Afterwards the converter only uses these objects:
+ * <ul>
+ * 	<li>The factories and the {@link MissingPerspectiveStrategy} are called by the thread that uses the converter, hence
+ * they must not access Swing components or the {@link CControl}. The factories of the framework follow this rule.</li>
+ * 	<li>The {@link CControlRegister} is only used to translate identifiers, which does not depend on its state.</li>
+ * </ul>
+ * The converter itself is not synchronized, only one thread at a time must use it, and each converter can be used only once.
+ * Clients must not add or remove factories while the converter is in use.<br>
+ * A typical application creates a writer on the EventDispatchThread, calls {@link #write()} on a background thread,
+ * and then calls {@link CControlPerspective#setSetting(CSetting, boolean)} with the result on the EventDispatchThread.
+ * Two layouts can be diffed on a background thread as well: write both perspectives with their own converters, e.g. by
+ * calling {@link #writeXML(XElement)}, and compare the results. 
+ * @author Benjamin Sigg
+ */
+public class CPerspectiveConverter {
+	/** the creator of this converter */
+	private CControlPerspective control;
+	
+	/** the perspective that is read or written */
+	private CPerspective perspective;
+	
+	/** whether the contents of working areas are included */
+	private boolean includeWorkingAreas;
+	
+	/** whether this converter reads into {@link #perspective} */
+	private boolean reader;
+	
+	/** whether this converter already read or wrote a layout */
+	private boolean used = false;
+	
+	/** translates identifiers to elements of {@link #perspective}, only set for readers */
+	private CControlPerspective.PerspectiveElementFactory factory;
+	
+	/** the factories to convert elements */
+	private DockFrontendPerspective frontend;
+	
+	/** reads and writes {@link bibliothek.gui.dock.layout.DockableProperty}s */
+	private PropertyTransformer transformer;
+	
+	/** the empty settings to fill with the modes */
+	private ModeSettings<Location, Location> modes;
+	
+	/** translates the identifiers of the dockables */
+	private CControlRegister register;
+	
+	/**
+	 * Creates a new converter.
+	 * @param control the creator of this converter
+	 * @param perspective the perspective to read or write
+	 * @param includeWorkingAreas whether the contents of working areas are included
+	 * @param reader whether this converter reads into <code>perspective</code>
+	 * @param factory translates identifiers to elements, only required for readers
+	 * @param frontend the factories to convert elements
+	 * @param modes the empty settings to fill with the modes
+	 * @param register translates the identifiers of the dockables
+	 */
+	CPerspectiveConverter( CControlPerspective control, CPerspective perspective, boolean includeWorkingAreas, boolean reader, 
+			CControlPerspective.PerspectiveElementFactory factory, DockFrontendPerspective frontend, ModeSettings<Location, Location> modes,
+			CControlRegister register ){
+		this.control = control;
+		this.perspective = perspective;
+		this.includeWorkingAreas = includeWorkingAreas;
+		this.reader = reader;
+		this.factory = factory;
+		this.frontend = frontend;
+		this.modes = modes;
+		this.register = register;
+		transformer = frontend.getPropertyTransformer();
+	}
+	
+	/**
+	 * Ensures that the conversion does not access objects that are shared with the {@link CControl}. Currently
+	 * this means removing the {@link bibliothek.gui.dock.layout.LayoutProfiler} that is not thread safe.
+	 */
+	void detach(){
+		frontend.getPerspective().getSituation().setProfiler( null );
+	}
+	
+	/**
+	 * Gets the perspective which is read or written by this converter. In case of a reader
+	 * the perspective is empty until one of the <code>read</code> methods was called.
+	 * @return the perspective, not <code>null</code>
+	 */
+	public CPerspective getPerspective(){
+		return perspective;
+	}
+	
+	/**
+	 * Tells whether the contents of {@link bibliothek.gui.dock.common.CStation#isWorkingArea() working areas}
+	 * are included in the layout.
+	 * @return whether working areas are included
+	 */
+	public boolean isIncludeWorkingAreas(){
+		return includeWorkingAreas;
+	}
+	
+	/**
+	 * Tells whether this converter reads a layout into a new perspective, or writes an existing perspective.
+	 * @return <code>true</code> if this is a reader
+	 */
+	public boolean isReader(){
+		return reader;
+	}
+	
+	/**
+	 * Gets the factories which are used to convert elements.
+	 * @return the factories
+	 */
+	DockFrontendPerspective getFrontend(){
+		return frontend;
+	}
+	
+	/**
+	 * Gets the factory which translates identifiers to elements of the perspective.
+	 * @return the factory, <code>null</code> if this is not a reader
+	 */
+	CControlPerspective.PerspectiveElementFactory getFactory(){
+		return factory;
+	}
+	
+	/**
+	 * Gets the transformer which reads and writes locations.
+	 * @return the transformer
+	 */
+	PropertyTransformer getPropertyTransformer(){
+		return transformer;
+	}
+	
+	/**
+	 * Gets the settings which store the modes of the perspective. These settings are empty
+	 * until they were filled by reading or writing the perspective.
+	 * @return the settings
+	 */
+	ModeSettings<Location, Location> getModes(){
+		return modes;
+	}
+	
+	/**
+	 * Gets the register which is used to translate the identifiers of the dockables.
+	 * @return the register
+	 */
+	CControlRegister getRegister(){
+		return register;
+	}
+	
+	/**
+	 * Converts the perspective into a {@link CSetting}.
+	 * @return the new setting
+	 * @throws IllegalStateException if this is a reader, or if this writer was already used
+	 */
+	public CSetting write(){
+		checkWriter();
+		return control.convert( this );
+	}
+	
+	/**
+	 * Writes the perspective into <code>out</code>.
+	 * @param out the stream to write into
+	 * @throws IOException if <code>out</code> is not writeable
+	 * @throws IllegalStateException if this is a reader, or if this writer was already used
+	 * @see CControlPerspective#write(DataOutputStream, CPerspective, boolean)
+	 */
+	public void write( DataOutputStream out ) throws IOException{
+		checkWriter();
+		control.write( out, this );
+	}
+	
+	/**
+	 * Writes the perspective into <code>root</code>.
+	 * @param root the element to write into
+	 * @throws IllegalStateException if this is a reader, or if this writer was already used
+	 * @see CControlPerspective#writeXML(XElement, CPerspective, boolean)
+	 */
+	public void writeXML( XElement root ){
+		checkWriter();
+		control.writeXML( root, this );
+	}
+	
+	/**
+	 * Fills the perspective with the contents of <code>setting</code>.
+	 * @param setting the layout to read
+	 * @return the perspective
+	 * @throws IllegalStateException if this is not a reader, or if this reader was already used
+	 */
+	public CPerspective read( CSetting setting ){
+		checkReader();
+		return control.convert( setting, this );
+	}
+	
+	/**
+	 * Fills the perspective with the contents of <code>in</code>.
+	 * @param in the stream to read from
+	 * @return the perspective
+	 * @throws IOException if <code>in</code> is not readable or in the wrong format
+	 * @throws IllegalStateException if this is not a reader, or if this reader was already used
+	 * @see CControlPerspective#read(DataInputStream, boolean)
+	 */
+	public CPerspective read( DataInputStream in ) throws IOException{
+		checkReader();
+		return control.read( in, this );
+	}
+	
+	/**
+	 * Fills the perspective with the contents of <code>root</code>.
+	 * @param root the element to read from
+	 * @return the perspective
+	 * @throws XException if the structure of <code>root</code> is not as expected
+	 * @throws IllegalStateException if this is not a reader, or if this reader was already used
+	 * @see CControlPerspective#readXML(XElement, boolean)
+	 */
+	public CPerspective readXML( XElement root ) throws XException{
+		checkReader();
+		return control.readXML( root, this );
+	}
+	
+	private void checkWriter(){
+		if( reader ){
+			throw new IllegalStateException( "this converter can only read perspectives" );
+		}
+		checkUnused();
+	}
+	
+	private void checkReader(){
+		if( !reader ){
+			throw new IllegalStateException( "this converter can only write perspectives" );
+		}
+		checkUnused();
+	}
+	
+	private void checkUnused(){
+		if( used ){
+			throw new IllegalStateException( "this converter was already used" );
+		}
+		used = true;
+	}
+}
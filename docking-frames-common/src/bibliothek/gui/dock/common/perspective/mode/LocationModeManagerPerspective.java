@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 
 import bibliothek.gui.DockStation;
+import bibliothek.gui.dock.common.CControlRegister;
 import bibliothek.gui.dock.common.intern.CControlAccess;
 import bibliothek.gui.dock.common.mode.CLocationModeManager;
 import bibliothek.gui.dock.common.mode.ExtendedMode;
@@ -217,7 +218,19 @@ public class LocationModeManagerPerspective {
 	 */
 	public ModeSettings<Location, Location> writeModes( CControlAccess control ){
 		ModeSettings<Location, Location> modes = new CLocationModeSettings<Location>( new LocationSettingConverter( control.getOwner().getController() ) );
-    	
+		writeModes( control.getRegister(), modes );
+		return modes;
+	}
+	
+	/**
+	 * Writes the contents of this {@link LocationModeManagerPerspective} into <code>modes</code>. This method
+	 * does not access the <code>CControl</code>, hence it can be called from any thread as long as <code>modes</code>
+	 * was created beforehand and <code>register</code> is not modified.
+	 * @param register used to translate the identifiers of the dockables
+	 * @param modes the empty settings to fill
+	 * @return <code>modes</code>
+	 */
+	public ModeSettings<Location, Location> writeModes( CControlRegister register, ModeSettings<Location, Location> modes ){
     	LocationModeManagerPerspective manager = perspective.getLocationManager();
     	
     	Iterator<PerspectiveElement> elements = perspective.elements();
@@ -229,13 +242,13 @@ public class LocationModeManagerPerspective {
 	    			String id = null;
 	    			
 	    			if( dockable instanceof SingleCDockablePerspective ){
-	    				id = control.getRegister().toSingleId( ((SingleCDockablePerspective)dockable).getUniqueId() );
+	    				id = register.toSingleId( ((SingleCDockablePerspective)dockable).getUniqueId() );
 	    			}
 	    			else if( dockable instanceof MultipleCDockablePerspective){
 	    				id = ((MultipleCDockablePerspective)dockable).getUniqueId();
 	    				if( id != null ){
 	    					// id == null should never happen
-	    					id = control.getRegister().toMultiId( id );
+	    					id = register.toMultiId( id );
 	    				}
 	    				else{
 	    					throw new IllegalStateException( "detected dockable with no identifier" );
@@ -273,6 +286,17 @@ public class LocationModeManagerPerspective {
 	 * @param control the control associated with <code>cperspective</code>
 	 */
 	public void readModes( ModeSettings<Location, ?> modes, CPerspective cperspective, CControlAccess control ){
+		readModes( modes, cperspective, control.getRegister() );
+	}
+	
+	/**
+	 * Reads the contents of <code>modes</code> and applies it to the dockables of <code>cperspective</code>. This
+	 * method does not access the <code>CControl</code> and can be called from any thread.
+	 * @param modes the settings to read
+	 * @param cperspective the perspective for which to read the setting
+	 * @param register used to translate the identifiers of the dockables
+	 */
+	public void readModes( ModeSettings<Location, ?> modes, CPerspective cperspective, CControlRegister register ){
 		Iterator<PerspectiveElement> elements = cperspective.elements();
     	while( elements.hasNext() ){
     		PerspectiveElement next = elements.next();
@@ -282,11 +306,11 @@ public class LocationModeManagerPerspective {
     				String id = null;
     				if( dockable instanceof SingleCDockablePerspective ){
     					id = ((SingleCDockablePerspective)dockable).getUniqueId();
-    					id = control.getRegister().toSingleId( id );
+    					id = register.toSingleId( id );
     				}
     				else if( dockable instanceof MultipleCDockablePerspective ){
     					id = ((MultipleCDockablePerspective)dockable).getUniqueId();
-    					id = control.getRegister().toMultiId( id );
+    					id = register.toMultiId( id );
     				}
     				if( id != null ){
     					int index = modes.indexOf( id );
@@ -45,7 +45,7 @@ import bibliothek.gui.dock.common.action.predefined.CMaximizeAction;
 import bibliothek.gui.dock.common.mode.CLocationModeManager;
 import bibliothek.gui.dock.common.mode.ExtendedMode;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
-import bibliothek.gui.dock.event.KeyboardListener;
+import bibliothek.gui.dock.event.FilteredKeyboardListener;
 import bibliothek.gui.dock.facile.mode.action.MaximizedModeAction;
 import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.gui.dock.support.mode.AffectedSet;
@@ -92,7 +92,9 @@ public class MaximizedMode<M extends MaximizedModeArea> extends AbstractLocation
 	private PropertyValue<KeyStroke> keyStrokeMaximizeChange = new PropertyValue<KeyStroke>( CControl.KEY_MAXIMIZE_CHANGE ){
 		@Override
 		protected void valueChanged( KeyStroke oldValue, KeyStroke newValue ) {
-			// ignore
+			for( KeyHook hook : hooks ){
+				hook.updateKeyStrokes();
+			}
 		}
 	};
 
@@ -615,7 +617,11 @@ public class MaximizedMode<M extends MaximizedModeArea> extends AbstractLocation
 
 
 	/**
-	 * Invoked whenever a key is pressed, released or typed.
+	 * Invoked whenever a key is pressed, released or typed and the {@link KeyStroke} of the event
+	 * matches the key stroke {@link CControl#KEY_MAXIMIZE_CHANGE}.<br>
+	 * Note: earlier versions called this method for any {@link KeyEvent}, subclasses overriding this
+	 * method to react on other keys must register their own {@link bibliothek.gui.dock.event.KeyboardListener}
+	 * at the {@link bibliothek.gui.dock.control.KeyboardController}.
 	 * @param dockable the element to which the event belongs
 	 * @param event the event
 	 * @return <code>true</code> if the event has been processed, <code>false</code>
@@ -666,12 +672,15 @@ public class MaximizedMode<M extends MaximizedModeArea> extends AbstractLocation
 	 * the controller.
 	 * @author Benjamin Sigg
 	 */
-	private class KeyHook extends DockRegisterAdapter implements KeyboardListener{
+	private class KeyHook extends DockRegisterAdapter implements FilteredKeyboardListener{
 		/** the Dockable which is observed by this hook */
 		private Dockable dockable;
 
 		/** the controller on which this hook has registered its listeners */
 		private DockController controller;
+		
+		/** the key strokes which were used to register this hook */
+		private KeyStroke[] strokes;
 
 		/**
 		 * Creates a new hook
@@ -681,6 +690,7 @@ public class MaximizedMode<M extends MaximizedModeArea> extends AbstractLocation
 		public KeyHook( Dockable dockable ){
 			this.dockable = dockable;
 			controller = getController();
+			strokes = currentKeyStrokes();
 			controller.getKeyboardController().addListener( this );
 			controller.getRegister().addDockRegisterListener( this );
 			hooks.add( this );
@@ -705,6 +715,32 @@ public class MaximizedMode<M extends MaximizedModeArea> extends AbstractLocation
 			}
 		}
 
+		/**
+		 * Registers this hook again at the {@link bibliothek.gui.dock.control.KeyboardController},
+		 * called when the key stroke {@link CControl#KEY_MAXIMIZE_CHANGE} changed.
+		 */
+		public void updateKeyStrokes(){
+			controller.getKeyboardController().removeListener( this );
+			strokes = currentKeyStrokes();
+			controller.getKeyboardController().addListener( this );
+		}
+		
+		/**
+		 * Gets the key strokes this hook currently has to listen to.
+		 * @return the key strokes
+		 */
+		private KeyStroke[] currentKeyStrokes(){
+			KeyStroke stroke = keyStrokeMaximizeChange.getValue();
+			if( stroke == null ){
+				return new KeyStroke[]{};
+			}
+			return new KeyStroke[]{ stroke };
+		}
+		
+		public KeyStroke[] getKeyStrokes(){
+			return strokes;
+		}
+		
 		public DockElement getTreeLocation() {
 			return dockable;
 		}
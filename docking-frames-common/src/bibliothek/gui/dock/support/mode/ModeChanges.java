@@ -0,0 +1,131 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.mode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bibliothek.gui.Dockable;
+
+/**
+ * A summary of all the {@link Mode}s that changed during one transaction of a {@link ModeManager}. Each
+ * {@link Dockable} is listed at most once, with the mode it had before the transaction started and the
+ * mode it has after the transaction finished.
+ * @author Benjamin Sigg
+ * @param <M> the kind of {@link Mode}s that are described
+ */
+public class ModeChanges<M> {
+	/** all the changed elements in the order in which they were found */
+	private List<Dockable> dockables = new ArrayList<Dockable>();
+	
+	/** the old modes of {@link #dockables} */
+	private Map<Dockable, M> oldModes = new HashMap<Dockable, M>();
+	
+	/** the new modes of {@link #dockables} */
+	private Map<Dockable, M> newModes = new HashMap<Dockable, M>();
+	
+	/**
+	 * Stores that the mode of <code>dockable</code> changed.
+	 * @param dockable the changed element
+	 * @param oldMode the old mode, can be <code>null</code>
+	 * @param newMode the new mode, can be <code>null</code>
+	 */
+	void add( Dockable dockable, M oldMode, M newMode ){
+		if( !oldModes.containsKey( dockable )){
+			dockables.add( dockable );
+			oldModes.put( dockable, oldMode );
+		}
+		newModes.put( dockable, newMode );
+	}
+	
+	/**
+	 * Gets the number of {@link Dockable}s whose mode changed.
+	 * @return the number of elements
+	 */
+	public int size(){
+		return dockables.size();
+	}
+	
+	/**
+	 * Tells whether no mode changed at all.
+	 * @return <code>true</code> if this summary is empty
+	 */
+	public boolean isEmpty(){
+		return dockables.isEmpty();
+	}
+	
+	/**
+	 * Gets the <code>index</code>'th {@link Dockable} whose mode changed.
+	 * @param index the index of the element
+	 * @return the element
+	 */
+	public Dockable getDockable( int index ){
+		return dockables.get( index );
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s whose mode changed.
+	 * @return all the changed elements
+	 */
+	public Dockable[] getDockables(){
+		return dockables.toArray( new Dockable[ dockables.size() ] );
+	}
+	
+	/**
+	 * Gets the mode <code>dockable</code> had before the transaction.
+	 * @param dockable one of the changed elements
+	 * @return the old mode, can be <code>null</code>
+	 */
+	public M getOldMode( Dockable dockable ){
+		return oldModes.get( dockable );
+	}
+	
+	/**
+	 * Gets the mode <code>dockable</code> has after the transaction.
+	 * @param dockable one of the changed elements
+	 * @return the new mode, can be <code>null</code>
+	 */
+	public M getNewMode( Dockable dockable ){
+		return newModes.get( dockable );
+	}
+	
+	@Override
+	public String toString(){
+		StringBuilder builder = new StringBuilder();
+		builder.append( getClass().getName() ).append( "[" );
+		for( int i = 0, n = dockables.size(); i<n; i++ ){
+			Dockable dockable = dockables.get( i );
+			if( i > 0 ){
+				builder.append( ", " );
+			}
+			builder.append( dockable.getTitleText() ).append( ": " ).append( oldModes.get( dockable ) ).append( " -> " ).append( newModes.get( dockable ) );
+		}
+		builder.append( "]" );
+		return builder.toString();
+	}
+}
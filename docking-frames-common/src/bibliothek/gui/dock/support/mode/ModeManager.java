@@ -29,8 +29,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +61,12 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	/** the ordered list of available modes */
 	private List<ModeHandle> modes = new ArrayList<ModeHandle>();
 	
+	/** the elements of {@link #modes} accessible through the unique identifier of their mode */
+	private Map<Path, ModeHandle> modeIds = new HashMap<Path, ModeHandle>();
+	
+	/** the elements of {@link #modes} accessible through their mode */
+	private Map<M, ModeHandle> modeHandles = new IdentityHashMap<M, ModeHandle>();
+	
 	/** factories for creating {@link ModeSetting}s */
 	private Map<Path, ModeSettingFactory<H>> factories = new HashMap<Path, ModeSettingFactory<H>>();
 	
@@ -73,6 +80,10 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	private List<ModeManagerListener<? super H, ? super M>> listeners =
 		new ArrayList<ModeManagerListener<? super H,? super M>>();
 	
+	/** all the listeners that are informed about finished transactions */
+	private List<ModeTransactionListener<? super H, ? super M>> transactionListeners =
+		new ArrayList<ModeTransactionListener<? super H,? super M>>();
+	
 	/** whether a mode is currently applying itself */
 	private int onTransaction = 0;
 	
@@ -169,6 +180,25 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		listeners.remove( listener );
 	}
 	
+	/**
+	 * Adds a listener to this manager, the listener will be informed once for each
+	 * transaction that changed the mode of at least one {@link Dockable}.
+	 * @param listener the new listener, not <code>null</code>
+	 */
+	public void addModeTransactionListener( ModeTransactionListener<? super H, ? super M> listener ){
+		if( listener == null )
+			throw new IllegalArgumentException( "listener must not be null" );
+		transactionListeners.add( listener );
+	}
+	
+	/**
+	 * Removes <code>listener</code> from this manager.
+	 * @param listener the listener to remove
+	 */
+	public void removeModeTransactionListener( ModeTransactionListener<? super H, ? super M> listener ){
+		transactionListeners.remove( listener );
+	}
+	
 	/**
 	 * Puts a new mode in this manager. If there is already a mode with the
 	 * same id registered, then the old mode gets replaced by the new one.
@@ -177,15 +207,19 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	public void putMode( M mode ){
 		if( mode == null )
 			throw new IllegalArgumentException( "mode must not be null" );
-		for( ModeHandle handle : modes ){
-			if( handle.mode.getUniqueIdentifier().equals( mode.getUniqueIdentifier() )){
-				fireRemoved( handle.mode );
-				handle.mode = mode;
-				fireAdded( mode );
-				return;
-			}
+		ModeHandle handle = modeIds.get( mode.getUniqueIdentifier() );
+		if( handle != null ){
+			fireRemoved( handle.mode );
+			modeHandles.remove( handle.mode );
+			handle.mode = mode;
+			modeHandles.put( mode, handle );
+			fireAdded( mode );
+			return;
 		}
-		modes.add( new ModeHandle( mode ) );
+		handle = new ModeHandle( mode );
+		modes.add( handle );
+		modeIds.put( mode.getUniqueIdentifier(), handle );
+		modeHandles.put( mode, handle );
 		fireAdded( mode );
 	}
 	
@@ -218,13 +252,12 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	public void removeMode( M mode ){
 		if( mode == null )
 			throw new IllegalArgumentException( "mode must not be null" );
-		for( ModeHandle handle : modes ){
-			if( handle.mode.getUniqueIdentifier().equals( mode.getUniqueIdentifier() )){
-				handle.mode = null;
-				fireRemoved( handle.mode );
-				modes.remove( handle );
-				return;
-			}
+		ModeHandle handle = modeIds.remove( mode.getUniqueIdentifier() );
+		if( handle != null ){
+			modeHandles.remove( handle.mode );
+			handle.mode = null;
+			fireRemoved( handle.mode );
+			modes.remove( handle );
 		}
 	}
 	
@@ -239,11 +272,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	}
 	
 	private ModeHandle getAccess( Path path ){
-		for( ModeHandle mode : modes ){
-			if( mode.mode.getUniqueIdentifier().equals( path ))
-				return mode;
-		}
-		return null;
+		return modeIds.get( path );
 	}
 	
 	/**
@@ -312,6 +341,19 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 			listener.modeChanged( this, dockable, oldMode, newMode );
 		}
 	}
+	
+	/**
+	 * Calls {@link ModeTransactionListener#transactionCommitted(ModeManager, ModeChanges)}
+	 * on all listeners that are currently registered.
+	 * @param changes all the changes of the last transaction
+	 */
+	@SuppressWarnings("unchecked")
+	protected void fireTransactionCommitted( ModeChanges<M> changes ){
+		ModeTransactionListener<? super H, ? super M>[] array = transactionListeners.toArray( new ModeTransactionListener[ transactionListeners.size() ] );
+		for( ModeTransactionListener<? super H, ? super M> listener : array ){
+			listener.transactionCommitted( this, changes );
+		}
+	}
 
 	/**
 	 * Calls {@link ModeManagerListener#modeAdded(ModeManager, Mode)} on
@@ -494,7 +536,15 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     /**
      * Runs <code>run</code> as transaction, the {@link DockRegister} is stalled
      * and {@link #isOnTransaction()} returns <code>true</code> while 
-     * <code>run</code> runs. 
+     * <code>run</code> runs. Events of stations and dockables are collected by the
+     * {@link DockController#getEventCoalescer() DockEventCoalescer} and fired once <code>run</code> finished,
+     * the layout of the stations is {@link DockController#getDeferredValidation() frozen} as well.<br>
+     * All the {@link Dockable}s that are {@link #addAffected(Iterable) affected} while <code>run</code> runs
+     * are collected. Their history is updated after each call to {@link #apply(Dockable, Mode, Object, AffectedSet) apply},
+     * hence {@link #getPreviousMode(Dockable)} and {@link #getHistory(Dockable, Path)} are up to date while
+     * the transaction runs. Once the outermost transaction finished their actions are rebuilt and the
+     * {@link ModeManagerListener}s and {@link ModeTransactionListener}s are informed, each of these steps
+     * happens only once per {@link Dockable}.
      * @param run the runnable to execute
      * @param continuous if set to <code>true</code> the transaction should run without changing
      * the internal cache storing the position of all {@link Dockable}s. This can be important
@@ -503,20 +553,43 @@ public abstract class ModeManager<H, M extends Mode<H>> {
      * afterwards. 
      */
     public void runTransaction( Runnable run, boolean continuous ){
+    	// the register is stalled innermost, hence it is unstalled before the layout melts and the events are fired
+    	openAffected();
     	try{
-    		controller.getRegister().setStalled( true );
-    		onTransaction++;
-    		if( continuous ){
-    			onContinuous++;
+    		controller.getEventCoalescer().begin();
+    		try{
+    			controller.getDeferredValidation().freeze();
+    			try{
+    				controller.getRegister().setStalled( true );
+    				try{
+    					onTransaction++;
+    					if( continuous ){
+    						onContinuous++;
+    					}
+    					run.run();
+    				}
+    				finally{
+    					try{
+    						controller.getRegister().setStalled( false );
+    					}
+    					finally{
+    						onTransaction--;
+    						if( continuous ){
+    							onContinuous--;
+    						}
+    					}
+    				}
+    			}
+    			finally{
+    				controller.getDeferredValidation().melt();
+    			}
+    		}
+    		finally{
+    			controller.getEventCoalescer().commit();
     		}
-    		run.run();
     	}
     	finally{
-    		controller.getRegister().setStalled( false );
-    		onTransaction--;
-    		if( continuous ){
-    			onContinuous--;
-    		}
+    		closeAffected();
     	}
     }
 
@@ -563,6 +636,31 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     	}
     }
     
+    /**
+     * Alters the modes of many {@link Dockable}s at once. All the changes are executed in
+     * one transaction and use the same {@link AffectedSet}, hence the history and the actions
+     * of each affected {@link Dockable} are updated only once, and the listeners receive
+     * only one event per {@link Dockable}.
+     * @param modes the new modes of the {@link Dockable}s, the entries are applied in the order
+     * of the iterator of <code>modes</code>
+     * @param force if <code>true</code> the {@link Dockable}s are relocated even if their 
+     * current mode already is the requested mode
+     * @throws IllegalArgumentException if <code>modes</code> is <code>null</code> or contains
+     * <code>null</code> values, or if one of the {@link Dockable}s is not registered. 
+     */
+    public void applyAll( final Map<Dockable, ? extends M> modes, final boolean force ){
+    	if( modes == null )
+    		throw new IllegalArgumentException( "modes is null" );
+    	
+    	runTransaction( new AffectingRunnable(){
+			public void run( AffectedSet set ){
+				for( Map.Entry<Dockable, ? extends M> entry : modes.entrySet() ){
+					apply( entry.getKey(), entry.getValue(), set, force );
+				}
+			}
+		});
+    }
+    
     /**
      * Alters the mode of <code>dockable</code> to <code>mode</code>. 
      * This method just calls {@link #apply(Dockable, Mode, AffectedSet, boolean)}.
@@ -696,6 +794,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 					rewritten = historyRewriter.rewrite( dockable, mode, history );
 				}
 				mode.apply( dockable, rewritten, set );
+				affected.flush();
 			}
 		});
     }
@@ -754,8 +853,14 @@ public abstract class ModeManager<H, M extends Mode<H>> {
      * are registered at this {@link ModeManager}.
      */
     public void refresh(){
-    	for( Dockable dockable : dockables.keySet() ){
-    		refresh( dockable, false );
+    	try{
+    		openAffected();
+    		for( Dockable dockable : dockables.keySet() ){
+    			affected.add( dockable );
+    		}
+    	}
+    	finally{
+    		closeAffected();
     	}
     }
     
@@ -763,12 +868,18 @@ public abstract class ModeManager<H, M extends Mode<H>> {
      * Updates the mode of <code>dockable</code> and updates the actions
      * associated with <code>dockable</code>. This method is intended to be
      * called by any code that changes the mode in a way that is not automatically
-     * registered by this {@link ModeManager}.
+     * registered by this {@link ModeManager}. If a transaction is currently running, then
+     * the update is delayed until the transaction finished.
      * @param dockable the element whose mode might have changed
      * @param recursive if set, then the children of <code>dockable</code>
      * are refreshed as well.
      */
     public void refresh( Dockable dockable, boolean recursive ){
+    	if( affected != null ){
+    		affected.add( dockable, recursive );
+    		return;
+    	}
+    	
     	DockableHandle handle = getHandle( dockable );
     	if( handle != null ){
     		handle.putMode( access( getCurrentMode( dockable ) ) );
@@ -1071,13 +1182,11 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		if( mode == null )
 			return null;
 		
-		for( ModeHandle access : modes ){
-			if( access.mode == mode ){
-				return access;
-			}
+		ModeHandle access = modeHandles.get( mode );
+		if( access == null ){
+			throw new IllegalArgumentException( "unknown mode: " + mode );
 		}
-		
-		throw new IllegalArgumentException( "unknown mode: " + mode );
+		return access;
 	}
 
 	/**
@@ -1412,18 +1521,38 @@ public abstract class ModeManager<H, M extends Mode<H>> {
          * @param mode the mode to store, <code>null</code> will be ignored
          */
         public void putMode( ModeHandle mode ){
-        	if( mode != null ){
-	        	ModeHandle oldMode = peekMode();
-	            if( oldMode != mode ){
-	            	Path id = mode.mode.getUniqueIdentifier();
-		            addToHistory( id, mode.mode.current( dockable ) );
-		            rebuild( dockable );
-		            fireModeChanged( dockable, oldMode == null ? null : oldMode.mode, mode.mode );
-	            }
-	            else{
-	            	rebuild( dockable );
-	            }
+        	ModeHandle oldMode = peekMode();
+        	if( commitMode( mode )){
+        		fireModeChanged( dockable, oldMode == null ? null : oldMode.mode, mode.mode );
+        	}
+        }
+        
+        /**
+         * Does the same as {@link #putMode(ModeHandle)}, but does not fire any events.
+         * @param mode the mode to store, <code>null</code> will be ignored
+         * @return <code>true</code> if <code>mode</code> was not the current mode
+         */
+        public boolean commitMode( ModeHandle mode ){
+        	if( mode == null ){
+        		return false;
         	}
+        	boolean changed = updateHistory( mode );
+        	rebuild( dockable );
+        	return changed;
+        }
+        
+        /**
+         * Adds <code>mode</code> to the history if it is not the current mode, neither rebuilds
+         * the actions nor fires any events.
+         * @param mode the mode to store, <code>null</code> will be ignored
+         * @return <code>true</code> if <code>mode</code> was not the current mode
+         */
+        public boolean updateHistory( ModeHandle mode ){
+        	if( mode == null || peekMode() == mode ){
+        		return false;
+        	}
+        	addToHistory( mode.mode.getUniqueIdentifier(), mode.mode.current( dockable ) );
+        	return true;
         }
         
         /**
@@ -1485,7 +1614,13 @@ public abstract class ModeManager<H, M extends Mode<H>> {
      */
     private class ChangeSet implements AffectedSet{
         /** the changed elements */
-        private Set<Dockable> set = new HashSet<Dockable>();
+        private Set<Dockable> set = new LinkedHashSet<Dockable>();
+        
+        /** the changed elements whose history was not yet updated */
+        private Set<Dockable> pending = new LinkedHashSet<Dockable>();
+        
+        /** the modes the changed elements had before their history was updated the first time */
+        private Map<Dockable, ModeHandle> oldModes = new HashMap<Dockable, ModeHandle>();
 
         /**
          * Creates a new set
@@ -1495,25 +1630,76 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         }
         
         public void add( Dockable dockable ){
+        	add( dockable, true );
+        }
+        
+        /**
+         * Adds <code>dockable</code> and, if <code>recursive</code> is set, all its children to this set.
+         * @param dockable the element to add, can be <code>null</code>
+         * @param recursive whether to add the children of <code>dockable</code> as well
+         */
+        public void add( Dockable dockable, boolean recursive ){
         	if( dockable != null ){
 	            set.add( dockable );
-	            DockStation station = dockable.asDockStation();
+	            pending.add( dockable );
+	            DockStation station = recursive ? dockable.asDockStation() : null;
 	            if( station != null ){
 	                for( int i = 0, n = station.getDockableCount(); i<n; i++ ){
-	                    add( station.getDockable( i ));
+	                    add( station.getDockable( i ), true );
 	                }
 	            }
         	}
         }
         
+        /**
+         * Updates the history of all the elements that were added since the last call of this
+         * method. Neither rebuilds any actions nor informs any listeners.
+         */
+        public void flush(){
+        	if( pending.isEmpty() ){
+        		return;
+        	}
+        	Dockable[] dockables = pending.toArray( new Dockable[ pending.size() ] );
+        	pending.clear();
+        	for( Dockable dockable : dockables ){
+        		DockableHandle handle = getHandle( dockable );
+        		if( handle != null ){
+        			if( !oldModes.containsKey( dockable )){
+        				oldModes.put( dockable, handle.peekMode() );
+        			}
+        			handle.updateHistory( access( getCurrentMode( dockable ) ) );
+        		}
+        	}
+        }
+        
         /**
          * Performs the clean up operations that are required after some
-         * <code>Dockable</code>s have changed their mode.<br>
-         * for each element known to this set.
+         * <code>Dockable</code>s have changed their mode. First the history of the elements
+         * that were not yet {@link #flush() flushed} and the actions of all elements are updated,
+         * then the listeners are informed.
          */
         public void finish(){
+        	flush();
+        	
+        	ModeChanges<M> changes = new ModeChanges<M>();
             for( Dockable dockable : set ){
-            	refresh( dockable, false );
+            	DockableHandle handle = getHandle( dockable );
+            	if( handle != null ){
+            		rebuild( dockable );
+            		ModeHandle oldMode = oldModes.get( dockable );
+            		ModeHandle newMode = handle.peekMode();
+            		if( newMode != null && newMode != oldMode ){
+            			changes.add( dockable, oldMode == null ? null : oldMode.mode, newMode.mode );
+            		}
+            	}
+            }
+            
+            for( int i = 0, n = changes.size(); i<n; i++ ){
+            	Dockable dockable = changes.getDockable( i );
+            	fireModeChanged( dockable, changes.getOldMode( dockable ), changes.getNewMode( dockable ) );
+            }
+            if( !changes.isEmpty() ){
+            	fireTransactionCommitted( changes );
             }
         }
     }
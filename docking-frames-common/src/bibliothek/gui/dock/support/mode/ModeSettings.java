@@ -55,6 +55,9 @@ public class ModeSettings<A,B> {
     /** the list of known {@link Dockable}s */
     private List<DockableEntry> dockables = new ArrayList<DockableEntry>();
     
+    /** the index of the first element of {@link #dockables} with a given identifier */
+    private Map<String, Integer> indices = new HashMap<String, Integer>();
+    
     /** the list of mode information to store */
     private Map<Path, ModeSetting<A>> modes = new HashMap<Path, ModeSetting<A>>();
     
@@ -116,7 +119,26 @@ public class ModeSettings<A,B> {
         for( Map.Entry<Path, A> next : properties.entrySet() ){
             entry.properties.put( next.getKey(), converter.convertToSetting( next.getValue() ) );
         }
-        dockables.add( entry );
+        add( entry );
+    }
+    
+    /**
+     * Appends <code>entry</code> to the list of known {@link Dockable}s.
+     * @param entry the new entry, its identifier must already be set
+     */
+    private void add( DockableEntry entry ){
+    	if( !indices.containsKey( entry.id )){
+    		indices.put( entry.id, dockables.size() );
+    	}
+    	dockables.add( entry );
+    }
+    
+    /**
+     * Removes all the entries of known {@link Dockable}s.
+     */
+    private void clearDockables(){
+    	dockables.clear();
+    	indices.clear();
     }
     
     /**
@@ -157,14 +179,11 @@ public class ModeSettings<A,B> {
      * @return the entry that represents that dockable, can be -1
      */
     public int indexOf( String id ){
-    	int index = 0;
-    	for( DockableEntry entry : dockables ){
-    		if( entry.id.equals( id )){
-    			return index;
-    		}
-    		index++;
+    	Integer index = indices.get( id );
+    	if( index == null ){
+    		return -1;
     	}
-    	return -1;
+    	return index.intValue();
     }
     
     /**
@@ -311,11 +330,11 @@ public class ModeSettings<A,B> {
         	Version.read( in );
         }
         
-        dockables.clear();
+        clearDockables();
         for( int i = 0, n = in.readInt(); i<n; i++ ){
             DockableEntry entry = new DockableEntry();
-            dockables.add( entry );
             entry.id = in.readUTF();
+            add( entry );
             if( in.readBoolean() ){
             	String key = in.readUTF();
                 entry.current = version7 ? resuceMode( key ) : new Path( key );
@@ -435,13 +454,13 @@ public class ModeSettings<A,B> {
      * @see #writeXML(XElement)
      */
     public void readXML( XElement element ){
-        dockables.clear();
+        clearDockables();
         XElement delement = element.getElement( "dockables" );
         if( delement != null ){
         	for( XElement xentry : delement.getElements( "entry" )){
         		DockableEntry entry = new DockableEntry();
-        		dockables.add( entry );
         		entry.id = xentry.getString( "id" );
+        		add( entry );
         		XAttribute current = xentry.getAttribute( "current" );
         		if( current != null )
         			entry.current = new Path( current.getString() );
@@ -0,0 +1,46 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.mode;
+
+/**
+ * This observer is added to a {@link ModeManager} and is informed once a transaction that changed the
+ * {@link Mode}s of some {@link bibliothek.gui.Dockable}s has been completed. While the
+ * {@link ModeManagerListener} receives one event per {@link bibliothek.gui.Dockable}, this listener
+ * receives one event per transaction.
+ * @author Benjamin Sigg
+ * @param <A> the kind of properties used by a {@link ModeManager}
+ * @param <M> the kind of {@link Mode}s used by a {@link ModeManager}
+ */
+public interface ModeTransactionListener<A, M extends Mode<A>> {
+	/**
+	 * Called after a transaction finished and the modes of some {@link bibliothek.gui.Dockable}s changed.
+	 * This method is called after {@link ModeManagerListener#modeChanged(ModeManager, bibliothek.gui.Dockable, Mode, Mode)}
+	 * was called for each element of <code>changes</code>.
+	 * @param manager the source of the event
+	 * @param changes all the changes of the transaction, not empty
+	 */
+	public void transactionCommitted( ModeManager<? extends A, ? extends M> manager, ModeChanges<? extends M> changes );
+}
@@ -30,6 +30,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.prefs.Preferences;
 
+import bibliothek.util.FileReplacement;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
 
@@ -162,6 +163,88 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Creates a snapshot of all the resources of this manager. The snapshot is created in one step, it
+     * can later be written by any thread. {@link SnapshotApplicationResource}s are asked for their own
+     * snapshot, all other resources are encoded immediately. Since encoding depends on the format,
+     * the snapshot supports only one format.
+     * @param xml whether the snapshot is going to be written in xml format or as stream of bytes
+     * @return the new snapshot, its {@link ApplicationResourceSnapshot#write(DataOutputStream) write} method
+     * throws an {@link IllegalStateException} if <code>xml</code> is <code>true</code>, its
+     * {@link ApplicationResourceSnapshot#writeXML(XElement) writeXML} method throws an exception if
+     * <code>xml</code> is <code>false</code>
+     * @throws IOException if some resource cannot be encoded
+     */
+    public ApplicationResourceSnapshot snapshot( final boolean xml ) throws IOException{
+    	final Map<String, ApplicationResourceSnapshot> snapshots = new HashMap<String, ApplicationResourceSnapshot>();
+    	for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
+    		ApplicationResource value = resource.getValue();
+    		if( value instanceof SnapshotApplicationResource ){
+    			snapshots.put( resource.getKey(), ((SnapshotApplicationResource)value).snapshot() );
+    		}
+    		else if( xml ){
+    			final XElement content = new XElement( "resource" );
+    			content.addString( "name", resource.getKey() );
+    			value.writeXML( content );
+    			snapshots.put( resource.getKey(), new ApplicationResourceSnapshot(){
+					public void write( DataOutputStream out ) throws IOException{
+						throw new IllegalStateException( "snapshot was created for xml" );
+					}
+					public void writeXML( XElement element ){
+						element.copy( content );
+					}
+				});
+    		}
+    		else{
+    			ByteArrayOutputStream array = new ByteArrayOutputStream();
+    			DataOutputStream data = new DataOutputStream( array );
+    			value.write( data );
+    			data.close();
+    			final byte[] content = array.toByteArray();
+    			snapshots.put( resource.getKey(), new ApplicationResourceSnapshot(){
+    				public void write( DataOutputStream out ) throws IOException{
+    					out.write( content );
+    				}
+    				public void writeXML( XElement element ){
+    					throw new IllegalStateException( "snapshot was not created for xml" );
+    				}
+    			});
+    		}
+    	}
+    	
+    	return new ApplicationResourceSnapshot(){
+    		public void write( DataOutputStream out ) throws IOException{
+    			if( xml ){
+    				throw new IllegalStateException( "snapshot was created for xml" );
+    			}
+    			Version.write( out, Version.VERSION_1_0_4 );
+    			out.writeInt( snapshots.size() );
+    			for( Map.Entry<String, ApplicationResourceSnapshot> snapshot : snapshots.entrySet() ){
+    				out.writeUTF( snapshot.getKey() );
+    				
+    				ByteArrayOutputStream array = new ByteArrayOutputStream();
+    				DataOutputStream data = new DataOutputStream( array );
+    				snapshot.getValue().write( data );
+    				data.close();
+    				
+    				out.writeInt( array.size() );
+    				array.writeTo( out );
+    			}
+    		}
+    		
+    		public void writeXML( XElement element ){
+    			if( !xml ){
+    				throw new IllegalStateException( "snapshot was not created for xml" );
+    			}
+    			for( Map.Entry<String, ApplicationResourceSnapshot> snapshot : snapshots.entrySet() ){
+    				XElement xresource = element.addElement( "resource" );
+    				xresource.addString( "name", snapshot.getKey() );
+    				snapshot.getValue().writeXML( xresource );
+    			}
+    		}
+    	};
+    }
+    
     /**
      * Reads the contents of this manager from a xml element.
      * @param element the element to read
@@ -194,11 +277,14 @@ public class ApplicationResourceManager {
     }
     
     /**
-     * Reads the contents of this manager from <code>file</code>.
+     * Reads the contents of this manager from <code>file</code>. If the last replacement of <code>file</code>
+     * was interrupted, e.g. by an {@link AsyncResourceWriter}, then the replacement is finished first.
      * @param file the file to read
      * @throws IOException if the operation can't be completed
+     * @see FileReplacement#recover(File)
      */
     public void readFile( File file ) throws IOException{
+    	FileReplacement.recover( file );
         DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file )));
         try{
             readStream( in );
@@ -0,0 +1,55 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import bibliothek.util.xml.XElement;
+
+/**
+ * A copy of the state of one or many {@link ApplicationResource}s. A snapshot is created on the
+ * EDT, but it can be written by any thread.
+ * @author Benjamin Sigg
+ * @see SnapshotApplicationResource
+ * @see ApplicationResourceManager#snapshot(boolean)
+ */
+public interface ApplicationResourceSnapshot {
+	/**
+	 * Writes the content of this snapshot into <code>out</code>, using the same format as
+	 * {@link ApplicationResource#write(DataOutputStream)}.
+	 * @param out the stream to write into
+	 * @throws IOException if the operation can't be completed
+	 */
+	public void write( DataOutputStream out ) throws IOException;
+	
+	/**
+	 * Writes the content of this snapshot in xml format, using the same format as
+	 * {@link ApplicationResource#writeXML(XElement)}.
+	 * @param element the element to write into
+	 */
+	public void writeXML( XElement element );
+}
@@ -0,0 +1,369 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.awt.EventQueue;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.Timer;
+
+import bibliothek.util.FileReplacement;
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XIO;
+
+/**
+ * Writes the content of an {@link ApplicationResourceManager} into files without blocking the EDT.
+ * When a file is requested to be written, the writer waits for a {@link #setDelay(int) short delay},
+ * then creates a {@link ApplicationResourceManager#snapshot(boolean) snapshot} of the resources on the
+ * EDT. The snapshot is encoded by a background thread into a temporary file, which then replaces the
+ * original file. Hence a crash while writing never leaves a corrupted file behind. On platforms that cannot
+ * rename a file onto an existing file, a crash may however leave the new content under another name, see
+ * {@link FileReplacement}. {@link ApplicationResourceManager#readFile(File)} recovers such a file, clients
+ * reading the file by other means have to call {@link FileReplacement#recover(File)} first.<br>
+ * Requests that arrive while the writer is waiting or writing are coalesced: a file that is requested
+ * many times is written only once with the newest content. The delay is not extended by later requests,
+ * hence a file is written at most one delay after the first request even if requests arrive continuously.<br>
+ * Except for the background thread, this class must only be accessed by the EDT.
+ * @author Benjamin Sigg
+ */
+public class AsyncResourceWriter {
+	/** the resources to write */
+	private ApplicationResourceManager resources;
+	
+	/** the files that have to be written, and whether they are xml files, only accessed by the EDT */
+	private Map<File, Boolean> requests = new LinkedHashMap<File, Boolean>();
+	
+	/** delays the snapshots to coalesce bursts of requests */
+	private Timer timer;
+	
+	/** the snapshots that wait to be written, guarded by {@link #lock} */
+	private Map<File, Job> queue = new LinkedHashMap<File, Job>();
+	
+	/** the thread writing the files, <code>null</code> if the queue is empty, guarded by {@link #lock} */
+	private Thread worker;
+	
+	/** synchronizes {@link #queue} and {@link #worker} */
+	private final Object lock = new Object();
+	
+	/** observers of this writer */
+	private List<AsyncResourceWriterListener> listeners = new ArrayList<AsyncResourceWriterListener>();
+	
+	/**
+	 * Creates a new writer.
+	 * @param resources the resources to write, not <code>null</code>
+	 */
+	public AsyncResourceWriter( ApplicationResourceManager resources ){
+		if( resources == null ){
+			throw new IllegalArgumentException( "resources must not be null" );
+		}
+		this.resources = resources;
+		
+		timer = new Timer( 500, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				snapshot();
+			}
+		});
+		timer.setRepeats( false );
+	}
+	
+	/**
+	 * Adds an observer to this writer.
+	 * @param listener the new observer, not <code>null</code>
+	 */
+	public void addListener( AsyncResourceWriterListener listener ){
+		if( listener == null ){
+			throw new IllegalArgumentException( "listener must not be null" );
+		}
+		listeners.add( listener );
+	}
+	
+	/**
+	 * Removes an observer from this writer.
+	 * @param listener the observer to remove
+	 */
+	public void removeListener( AsyncResourceWriterListener listener ){
+		listeners.remove( listener );
+	}
+	
+	/**
+	 * Sets the time this writer waits after the first pending request before it creates a snapshot.
+	 * Requests that arrive during this time are coalesced.
+	 * @param delay the delay in milliseconds, <code>0</code> to create snapshots immediately
+	 */
+	public void setDelay( int delay ){
+		if( delay < 0 ){
+			throw new IllegalArgumentException( "delay must not be negative: " + delay );
+		}
+		timer.setInitialDelay( delay );
+	}
+	
+	/**
+	 * Gets the time this writer waits after the first pending request before it creates a snapshot.
+	 * @return the delay in milliseconds
+	 */
+	public int getDelay(){
+		return timer.getInitialDelay();
+	}
+	
+	/**
+	 * Requests to write the resources into <code>file</code>, using the same format as
+	 * {@link ApplicationResourceManager#writeFile(File)}.
+	 * @param file the file to write
+	 */
+	public void write( File file ){
+		request( file, false );
+	}
+	
+	/**
+	 * Requests to write the resources into <code>file</code> in xml format.
+	 * @param file the file to write
+	 */
+	public void writeXML( File file ){
+		request( file, true );
+	}
+	
+	private void request( File file, boolean xml ){
+		if( file == null ){
+			throw new IllegalArgumentException( "file must not be null" );
+		}
+		requests.put( file, xml );
+		if( getDelay() == 0 ){
+			snapshot();
+		}
+		else if( !timer.isRunning() ){
+			timer.start();
+		}
+	}
+	
+	/**
+	 * Tells whether there are files which are not yet written.
+	 * @return <code>true</code> if there are pending requests
+	 */
+	public boolean isPending(){
+		if( !requests.isEmpty() ){
+			return true;
+		}
+		synchronized( lock ){
+			return worker != null;
+		}
+	}
+	
+	/**
+	 * Creates snapshots for all pending requests immediately and waits until all files
+	 * are written. This method should be called before the application shuts down.
+	 */
+	public void flush(){
+		timer.stop();
+		snapshot();
+		
+		boolean interrupted = false;
+		synchronized( lock ){
+			while( worker != null ){
+				try{
+					lock.wait();
+				}
+				catch( InterruptedException e ){
+					interrupted = true;
+				}
+			}
+		}
+		if( interrupted ){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Creates the snapshots of all pending requests and hands them over to the background thread.
+	 */
+	private void snapshot(){
+		ApplicationResourceSnapshot binary = null;
+		ApplicationResourceSnapshot xml = null;
+		
+		Iterator<Map.Entry<File, Boolean>> iterator = requests.entrySet().iterator();
+		while( iterator.hasNext() ){
+			Map.Entry<File, Boolean> request = iterator.next();
+			iterator.remove();
+			
+			File file = request.getKey();
+			boolean isXml = request.getValue().booleanValue();
+			try{
+				if( isXml ){
+					if( xml == null ){
+						xml = resources.snapshot( true );
+					}
+					enqueue( new Job( file, true, xml ) );
+				}
+				else{
+					if( binary == null ){
+						binary = resources.snapshot( false );
+					}
+					enqueue( new Job( file, false, binary ) );
+				}
+			}
+			catch( IOException e ){
+				fireFailed( file, e );
+			}
+		}
+	}
+	
+	private void enqueue( Job job ){
+		synchronized( lock ){
+			// an older snapshot of the same file does not need to be written anymore
+			queue.remove( job.file );
+			queue.put( job.file, job );
+			
+			if( worker == null ){
+				worker = new Thread( new Runnable(){
+					public void run(){
+						work();
+					}
+				}, "DockingFrames resource writer" );
+				worker.start();
+			}
+		}
+	}
+	
+	/**
+	 * Writes all the jobs of the {@link #queue}, executed by the background thread.
+	 */
+	private void work(){
+		while( true ){
+			Job job;
+			synchronized( lock ){
+				if( queue.isEmpty() ){
+					worker = null;
+					lock.notifyAll();
+					return;
+				}
+				Iterator<Job> iterator = queue.values().iterator();
+				job = iterator.next();
+				iterator.remove();
+			}
+			
+			try{
+				job.run();
+				fireWritten( job.file );
+			}
+			catch( IOException e ){
+				fireFailed( job.file, e );
+			}
+			catch( RuntimeException e ){
+				IOException io = new IOException( e.getMessage() );
+				io.initCause( e );
+				fireFailed( job.file, io );
+			}
+		}
+	}
+	
+	private void fireWritten( final File file ){
+		EventQueue.invokeLater( new Runnable(){
+			public void run(){
+				for( AsyncResourceWriterListener listener : listeners.toArray( new AsyncResourceWriterListener[ listeners.size() ] )){
+					listener.written( AsyncResourceWriter.this, file );
+				}
+			}
+		});
+	}
+	
+	private void fireFailed( final File file, final IOException exception ){
+		Runnable run = new Runnable(){
+			public void run(){
+				AsyncResourceWriterListener[] array = listeners.toArray( new AsyncResourceWriterListener[ listeners.size() ] );
+				if( array.length == 0 ){
+					exception.printStackTrace();
+				}
+				for( AsyncResourceWriterListener listener : array ){
+					listener.failed( AsyncResourceWriter.this, file, exception );
+				}
+			}
+		};
+		if( EventQueue.isDispatchThread() ){
+			run.run();
+		}
+		else{
+			EventQueue.invokeLater( run );
+		}
+	}
+	
+	/**
+	 * A snapshot that has to be written into a file.
+	 * @author Benjamin Sigg
+	 */
+	private static class Job{
+		/** the file to write */
+		private final File file;
+		/** whether to write xml */
+		private final boolean xml;
+		/** the content to write */
+		private final ApplicationResourceSnapshot snapshot;
+		
+		public Job( File file, boolean xml, ApplicationResourceSnapshot snapshot ){
+			this.file = file;
+			this.xml = xml;
+			this.snapshot = snapshot;
+		}
+		
+		/**
+		 * Writes {@link #snapshot} into a temporary file, forces the content onto the disk
+		 * and then replaces {@link #file} with the temporary file.
+		 * @throws IOException if the file cannot be written
+		 */
+		public void run() throws IOException{
+			FileReplacement.recover( file );
+			FileOutputStream stream = new FileOutputStream( FileReplacement.getTemporaryFile( file ) );
+			try{
+				BufferedOutputStream buffered = new BufferedOutputStream( stream );
+				if( xml ){
+					XElement root = new XElement( "root" );
+					snapshot.writeXML( root );
+					XIO.writeUTF( root, buffered );
+				}
+				else{
+					DataOutputStream out = new DataOutputStream( buffered );
+					snapshot.write( out );
+					out.flush();
+				}
+				buffered.flush();
+				stream.getFD().sync();
+			}
+			finally{
+				stream.close();
+			}
+			FileReplacement.replace( file );
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * An observer of an {@link AsyncResourceWriter}, is informed when files have been written. All
+ * methods are called by the EDT.
+ * @author Benjamin Sigg
+ */
+public interface AsyncResourceWriterListener {
+	/**
+	 * Called after <code>file</code> has been replaced by a new version.
+	 * @param writer the source of the event
+	 * @param file the file that was written
+	 */
+	public void written( AsyncResourceWriter writer, File file );
+	
+	/**
+	 * Called if <code>file</code> could not be written, the old version of <code>file</code>
+	 * is still intact.
+	 * @param writer the source of the event
+	 * @param file the file that should have been written
+	 * @param exception the cause of the failure
+	 */
+	public void failed( AsyncResourceWriter writer, File file, IOException exception );
+}
@@ -0,0 +1,40 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+/**
+ * An {@link ApplicationResource} that can copy its state in one fast step, while the expensive
+ * encoding of the state can happen later on another thread.
+ * @author Benjamin Sigg
+ */
+public interface SnapshotApplicationResource extends ApplicationResource {
+	/**
+	 * Creates a copy of the current state of this resource. This method is called by
+	 * the EDT, the snapshot itself may be written by any thread.
+	 * @return the snapshot, not <code>null</code>
+	 */
+	public ApplicationResourceSnapshot snapshot();
+}
@@ -43,6 +43,7 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.themes.color.TitleColor;
 import bibliothek.gui.dock.title.AbstractDockTitle;
 import bibliothek.gui.dock.title.DockTitleVersion;
+import bibliothek.gui.dock.util.AnimationEngine;
 import bibliothek.gui.dock.util.Transparency;
 import bibliothek.util.Path;
 
@@ -145,7 +146,7 @@ public abstract class AbstractBubbleDockTitle extends AbstractDockTitle{
     private void initAnimation(){
     	setTransparency( Transparency.DEFAULT );
     	
-        animation = new BubbleColorAnimation();
+        animation = new BubbleColorAnimation( getComponent() );
 
         updateAnimation();
 
@@ -221,7 +222,7 @@ public abstract class AbstractBubbleDockTitle extends AbstractDockTitle{
      */
     protected void pulse(){
         setForeground( animation.getColor( ANIMATION_KEY_TEXT ));
-        repaint();
+        AnimationEngine.getDefault().repaint( this );
     }
 
     @Override
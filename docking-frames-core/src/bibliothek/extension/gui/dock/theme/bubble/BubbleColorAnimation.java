@@ -27,14 +27,14 @@
 package bibliothek.extension.gui.dock.theme.bubble;
 
 import java.awt.Color;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.Component;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.swing.Timer;
+import bibliothek.gui.dock.util.Animation;
+import bibliothek.gui.dock.util.AnimationEngine;
 
 /**
  * A <code>BubbleColorAnimation</code> has the ability to convert one or many color-pairs smoothly from source
@@ -42,19 +42,22 @@ import javax.swing.Timer;
  * Clients have to call {@link #putColor(String, Color)} to start an animation. They
  * can call {@link #getColor(String)} any time to get the current intermediate color. Adding a {@link #addTask(Runnable) task}
  * will allow a client to be informed whenever the colors change.<br>
- * The animation itself takes {@link #setDuration(int) duration} milliseconds.  
+ * The animation itself takes {@link #setDuration(int) duration} milliseconds. It is driven by the
+ * {@link AnimationEngine}, and paused while its {@link #getComponent() component} is not showing.
  * @author Benjamin Sigg
  */
-public class BubbleColorAnimation {
+public class BubbleColorAnimation implements Animation {
 	/** How long a transformation takes */
     private int duration = 1000;
     
     /** The color pairs that can be animated */
     private Map<String, Entry> colors = new HashMap<String, Entry>();
-    /** The timer that triggers steps of the animation */
-    private Timer timer;
-    /** The current time in milliseconds*/
-    private long time = 0;
+    /** The component showing this animation, can be <code>null</code> */
+    private Component component;
+    /** The time that passed since the last step in milliseconds */
+    private int delta = 0;
+    /** Whether the last step did not complete the animation */
+    private boolean running = false;
     
     /** The tasks that are executed at every step of the animation */
     private List<Runnable> tasks = new ArrayList<Runnable>();
@@ -63,12 +66,29 @@ public class BubbleColorAnimation {
      * Creates a new animation.
      */
     public BubbleColorAnimation(){
-    	timer = new Timer( 25, new ActionListener(){
-            public void actionPerformed( ActionEvent e ) {
-                pulse();
-            }
-        });
-    	timer.setCoalesce( true );
+    	this( null );
+    }
+    
+    /**
+     * Creates a new animation.
+     * @param component the component which shows this animation, the animation is paused while
+     * <code>component</code> is not showing. Can be <code>null</code>.
+     */
+    public BubbleColorAnimation( Component component ){
+    	this.component = component;
+    }
+    
+    /**
+     * Sets the component which shows this animation. The animation is paused while
+     * <code>component</code> is not showing.
+     * @param component the component, can be <code>null</code>
+     */
+    public void setComponent( Component component ){
+		this.component = component;
+	}
+    
+    public Component getComponent(){
+	    return component;
     }
     
     /**
@@ -162,31 +182,46 @@ public class BubbleColorAnimation {
      *
      */
     public void stop(){
-        timer.stop();
+        AnimationEngine.getDefault().remove( this );
+    }
+    
+    /**
+     * Tells whether this animation is currently running or paused.
+     * @return <code>true</code> if the animation is not yet finished
+     */
+    public boolean isRunning(){
+    	return AnimationEngine.getDefault().isRunning( this );
     }
     
     /**
      * Immediately puts all colors to their final state and stops the animation.
      */
     public void kick(){
-        if( timer.isRunning() ){
+        if( isRunning() ){
             stop();
-            for( Entry entry : colors.values() )
-                entry.kick();
-            
-            for( Runnable task : tasks )
-                task.run();
+            finish();
         }
     }
     
+    public void finish(){
+    	for( Entry entry : colors.values() )
+            entry.kick();
+        
+        for( Runnable task : tasks )
+            task.run();
+    }
+    
     /**
      * Starts the animation if it is not yet running.
      */
     protected void start(){
-        if( !timer.isRunning() ){
-            time = System.currentTimeMillis();
-            timer.start();
-        }
+        AnimationEngine.getDefault().add( this );
+    }
+    
+    public boolean step( int delta ){
+    	this.delta = delta;
+    	pulse();
+    	return running;
     }
     
     /**
@@ -194,15 +229,13 @@ public class BubbleColorAnimation {
      */
     protected void pulse(){
         boolean run = false;
-        long current = System.currentTimeMillis();
-        int delta = (int)( current - time );
-        time = current;
         
         for( Entry entry : colors.values() )
             run = entry.step( delta ) | run;
         
+        running = run;
         if( !run )
-            timer.stop();
+            stop();
         
         for( Runnable task : tasks )
             task.run();
@@ -51,6 +51,7 @@ import bibliothek.gui.dock.themes.basic.BasicDockableDisplayerDecorator;
 import bibliothek.gui.dock.themes.basic.TabDecorator;
 import bibliothek.gui.dock.themes.color.DisplayerColor;
 import bibliothek.gui.dock.title.DockTitle;
+import bibliothek.gui.dock.util.AnimationEngine;
 import bibliothek.gui.dock.util.PropertyValue;
 import bibliothek.gui.dock.util.color.ColorCodes;
 
@@ -141,7 +142,7 @@ public class BubbleDisplayer extends BasicDockableDisplayer {
         
         this.dockable.setOpaque( false );
         openBorder = new DisplayerBorder( this.dockable, "bubble" );
-        animation = new BubbleColorAnimation();
+        animation = new BubbleColorAnimation( this );
         animation.addTask( new Runnable(){
             public void run() {
                 pulse();
@@ -214,7 +215,7 @@ public class BubbleDisplayer extends BasicDockableDisplayer {
      * be repainted.
      */
     protected void pulse(){
-        dockable.repaint();
+        AnimationEngine.getDefault().repaint( dockable );
     }
     
     @Override
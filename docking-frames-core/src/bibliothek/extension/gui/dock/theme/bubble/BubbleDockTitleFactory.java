@@ -25,14 +25,15 @@
  */
 package bibliothek.extension.gui.dock.theme.bubble;
 
-import bibliothek.gui.dock.title.DockTitleFactory;
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 
 /**
  * A factory creating ordinary instances of {@link BubbleDockTitle}.
  * @author Benjamin Sigg
  */
-public class BubbleDockTitleFactory implements DockTitleFactory {
+public class BubbleDockTitleFactory implements RecyclingDockTitleFactory {
 	public void install( DockTitleRequest request ){
 		// ignore
 	}
@@ -44,4 +45,8 @@ public class BubbleDockTitleFactory implements DockTitleFactory {
 	public void request( DockTitleRequest request ){
 		request.answer( new BubbleDockTitle( request.getTarget(), request.getVersion() ) );
 	}
+	
+	public boolean canReuse( DockTitleRequest request, DockTitle title ){
+		return true;
+	}
 }
@@ -69,6 +69,7 @@ import bibliothek.gui.dock.themes.ThemeManager;
 import bibliothek.gui.dock.themes.basic.action.buttons.ButtonPanel;
 import bibliothek.gui.dock.themes.color.TabColor;
 import bibliothek.gui.dock.themes.font.TabFont;
+import bibliothek.gui.dock.util.AnimationEngine;
 import bibliothek.gui.dock.util.BackgroundAlgorithm;
 import bibliothek.gui.dock.util.ConfiguredBackgroundPanel;
 import bibliothek.gui.dock.util.Transparency;
@@ -220,7 +221,7 @@ public class BubbleTab extends ConfiguredBackgroundPanel implements CombinedTab,
 		label.setBackground( background );
 		setBackground( background );
 
-		animation = new BubbleColorAnimation();
+		animation = new BubbleColorAnimation( this );
 		animation.addTask( this );
 
 		topMouse     = new BubbleTabColor( STATE_MOUSE, "stack.tab.background.top.mouse", "top", animation, dockable, Color.RED.brighter() );
@@ -441,7 +442,7 @@ public class BubbleTab extends ConfiguredBackgroundPanel implements CombinedTab,
 
 	public void run() {
 		label.setForeground( animation.getColor( "text" ));
-		repaint();
+		AnimationEngine.getDefault().repaint( this );
 	}
 
 	public Dimension getPreferredSize( Tab[] tabs ){
@@ -29,8 +29,8 @@ import java.awt.Point;
 
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.title.DockTitle;
-import bibliothek.gui.dock.title.DockTitleFactory;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 import bibliothek.gui.dock.title.DockTitleVersion;
 
 /**
@@ -39,7 +39,7 @@ import bibliothek.gui.dock.title.DockTitleVersion;
  * @author Benjamin Sigg
  *
  */
-public class ReducedBubbleTitleFactory implements DockTitleFactory {
+public class ReducedBubbleTitleFactory implements RecyclingDockTitleFactory {
 	public void install( DockTitleRequest request ){
 		// ignore
 	}
@@ -52,6 +52,10 @@ public class ReducedBubbleTitleFactory implements DockTitleFactory {
 		request.answer( new Title( request.getTarget(), request.getVersion() ) );	
 	}
 	
+	public boolean canReuse( DockTitleRequest request, DockTitle title ){
+		return true;
+	}
+	
 	/**
 	 * Creates a new title without origin.
 	 * @param dockable the owner of the title
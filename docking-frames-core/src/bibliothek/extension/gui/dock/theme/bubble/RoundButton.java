@@ -47,6 +47,7 @@ import bibliothek.gui.dock.themes.basic.action.BasicTrigger;
 import bibliothek.gui.dock.themes.basic.action.buttons.MiniButtonContent;
 import bibliothek.gui.dock.themes.color.ActionColor;
 import bibliothek.gui.dock.util.AbstractPaintableComponent;
+import bibliothek.gui.dock.util.AnimationEngine;
 import bibliothek.gui.dock.util.BackgroundComponent;
 import bibliothek.gui.dock.util.BackgroundPaint;
 import bibliothek.gui.dock.util.Transparency;
@@ -143,9 +144,10 @@ public class RoundButton extends JComponent implements RoundButtonConnectable{
         
 		updateColors();
 
+		animation.setComponent( this );
 		animation.addTask(new Runnable() {
 			public void run(){
-				repaint();	
+				AnimationEngine.getDefault().repaint( RoundButton.this );
 			}
 		});
 		
@@ -47,6 +47,7 @@ import bibliothek.gui.dock.themes.basic.action.BasicDropDownButtonModel;
 import bibliothek.gui.dock.themes.basic.action.buttons.MiniButtonContent;
 import bibliothek.gui.dock.themes.color.ActionColor;
 import bibliothek.gui.dock.util.AbstractPaintableComponent;
+import bibliothek.gui.dock.util.AnimationEngine;
 import bibliothek.gui.dock.util.BackgroundComponent;
 import bibliothek.gui.dock.util.BackgroundPaint;
 import bibliothek.gui.dock.util.Transparency;
@@ -170,9 +171,10 @@ public class RoundDropDownButton extends JComponent implements RoundButtonConnec
                 new RoundActionColor( "action.dropdown.text.pressed.selected.enabled", dockable, action, null ),
         };
         
+        animation.setComponent( this );
         animation.addTask( new Runnable(){
             public void run() {
-                repaint();
+                AnimationEngine.getDefault().repaint( RoundDropDownButton.this );
             }
         });
         
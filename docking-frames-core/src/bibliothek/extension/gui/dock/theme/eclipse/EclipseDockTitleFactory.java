@@ -3,8 +3,10 @@ package bibliothek.extension.gui.dock.theme.eclipse;
 import bibliothek.extension.gui.dock.theme.EclipseTheme;
 import bibliothek.extension.gui.dock.theme.eclipse.EclipseThemeConnector.TitleBar;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleFactory;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 
 /**
  * A {@link DockTitleFactory} that calls another factory but only
@@ -14,7 +16,7 @@ import bibliothek.gui.dock.title.DockTitleRequest;
  * @author Benjamin Sigg
  *
  */
-public class EclipseDockTitleFactory implements DockTitleFactory{
+public class EclipseDockTitleFactory implements RecyclingDockTitleFactory{
     /** the theme for which titles are created */
     private EclipseTheme theme;
     /** the factory that really does create the titles */
@@ -54,4 +56,14 @@ public class EclipseDockTitleFactory implements DockTitleFactory{
         	request.answer( null );
         }
     }
+    
+    public boolean canReuse( DockTitleRequest request, DockTitle title ){
+        TitleBar bar = theme.getThemeConnector( request.getVersion().getController() ).getTitleBarKind( request.getParent(), request.getTarget() );
+        if( bar == TitleBar.BASIC || bar == TitleBar.BASIC_BORDERED ){
+            if( factory instanceof RecyclingDockTitleFactory ){
+                return ((RecyclingDockTitleFactory)factory).canReuse( request, title );
+            }
+        }
+        return false;
+    }
 }
@@ -32,9 +32,10 @@ import javax.swing.JComponent;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.themes.ThemeManager;
 import bibliothek.gui.dock.themes.basic.BasicDockTitle;
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.AbstractDockTitle;
-import bibliothek.gui.dock.title.DockTitleFactory;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 
 /**
  * A factory that creates instances of {@link BasicDockTitle}, but
@@ -43,7 +44,7 @@ import bibliothek.gui.dock.title.DockTitleRequest;
  * updated as well.
  * @author Benjamin Sigg
  */
-public class FlatTitleFactory implements DockTitleFactory{
+public class FlatTitleFactory implements RecyclingDockTitleFactory{
 	public void install( DockTitleRequest request ){
 		// ignore	
 	}
@@ -63,4 +64,8 @@ public class FlatTitleFactory implements DockTitleFactory{
 	        request.answer( title );
 		}
 	}
+	
+	public boolean canReuse( DockTitleRequest request, DockTitle title ){
+		return true;
+	}
 }
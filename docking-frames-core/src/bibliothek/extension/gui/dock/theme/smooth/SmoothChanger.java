@@ -26,21 +26,24 @@
 
 package bibliothek.extension.gui.dock.theme.smooth;
 
+import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
-import javax.swing.Timer;
+import bibliothek.gui.dock.util.Animation;
+import bibliothek.gui.dock.util.AnimationEngine;
 
 /**
  * A class which counts milliseconds from 0 to {@link #setDuration(int) duration}
  * or in the other direction. This class contains an array of states: one state is
  * counted upwards (the {@link #destination()}), all the other states are counted
  * downwards. Clients can use this class to smoothly switch between different states.<br>
- * This class works on the EDT, no new threads are created.
+ * This class works on the EDT, no new threads are created. The changer is driven by the
+ * {@link AnimationEngine} and paused while its {@link #getComponent() component} is not showing.
  * @author Benjamin Sigg
  *
  */
-public abstract class SmoothChanger implements ActionListener{
+public abstract class SmoothChanger implements ActionListener, Animation{
     /** the time at the last pulse */
     private long last;
     
@@ -50,8 +53,8 @@ public abstract class SmoothChanger implements ActionListener{
     /** the duration of the change */
     private int duration;
     
-    /** a timer which pulses this changer */
-    private Timer timer;
+    /** the component showing the transitions, can be <code>null</code> */
+    private Component component;
     
     /**
      * Constructor, sets {@link #setDuration(int) duration} to 250 milliseconds.
@@ -69,10 +72,22 @@ public abstract class SmoothChanger implements ActionListener{
      */
     public SmoothChanger( int duration, int states ){
         this.duration = duration;
-        timer = new Timer( 15, this );
         current = new int[ states ];
     }
     
+    /**
+     * Sets the component which shows the transitions of this changer. The changer is paused
+     * while <code>component</code> is not showing.
+     * @param component the component, can be <code>null</code>
+     */
+    public void setComponent( Component component ){
+		this.component = component;
+	}
+    
+    public Component getComponent(){
+	    return component;
+    }
+    
     /**
      * The direction of the change. The counter of for the state
      * <code>destination()</code> will always rise, while the other
@@ -111,7 +126,7 @@ public abstract class SmoothChanger implements ActionListener{
      * @return <code>true</code> if active, <code>false</code> if not
      */
     public boolean isRunning(){
-    	return timer.isRunning();
+    	return AnimationEngine.getDefault().isRunning( this );
     }
     
     /**
@@ -127,15 +142,28 @@ public abstract class SmoothChanger implements ActionListener{
      * Starts a transition
      */
     public void trigger(){
-        timer.start();
         last = System.currentTimeMillis();
+        AnimationEngine.getDefault().add( this );
     }
     
+    /**
+     * Performs one step of the transition, using the time since the last step as delta. Usually
+     * this changer is driven by the {@link AnimationEngine}, clients may call this method to
+     * drive the changer manually.
+     */
     public void actionPerformed( ActionEvent e ){
         long time = System.currentTimeMillis();
         int delta = (int)( time - last );
         last = time;
         
+        if( !step( delta )){
+        	AnimationEngine.getDefault().remove( this );
+        }
+    }
+    
+    public boolean step( int delta ){
+    	last = System.currentTimeMillis();
+    	
         int destination = destination();
         boolean incomplete = false;
         
@@ -151,9 +179,18 @@ public abstract class SmoothChanger implements ActionListener{
         }
         
         if( !incomplete ){
-        	timer.stop();
+        	AnimationEngine.getDefault().remove( this );
         }
-                
+        
         repaint( current );
+        return incomplete;
+    }
+    
+    public void finish(){
+    	int destination = destination();
+    	for( int i = 0; i < current.length; i++ ){
+    		current[i] = i == destination ? duration : 0;
+    	}
+    	repaint( current );
     }
 }
\ No newline at end of file
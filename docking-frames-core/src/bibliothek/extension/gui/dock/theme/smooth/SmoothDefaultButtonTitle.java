@@ -33,6 +33,7 @@ import bibliothek.gui.dock.FlapDockStation;
 import bibliothek.gui.dock.themes.basic.BasicButtonDockTitle;
 import bibliothek.gui.dock.title.DockTitleEvent;
 import bibliothek.gui.dock.title.DockTitleVersion;
+import bibliothek.gui.dock.util.AnimationEngine;
 
 /**
  * A title intended for the {@link FlapDockStation}, this title changes its color
@@ -63,6 +64,7 @@ public class SmoothDefaultButtonTitle extends BasicButtonDockTitle {
         protected void repaint( int[] current ) {
             SmoothDefaultButtonTitle.this.current = current.clone();
             updateColors();
+            AnimationEngine.getDefault().repaint( SmoothDefaultButtonTitle.this );
         }
     };
     
@@ -73,6 +75,7 @@ public class SmoothDefaultButtonTitle extends BasicButtonDockTitle {
 	 */
 	public SmoothDefaultButtonTitle( Dockable dockable, DockTitleVersion origin ){
 		super( dockable, origin );
+		changer.setComponent( this );
 	}
 	
 
@@ -25,14 +25,15 @@
  */
 package bibliothek.extension.gui.dock.theme.smooth;
 
-import bibliothek.gui.dock.title.DockTitleFactory;
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 
 /**
  * A factory creating new {@link SmoothDefaultButtonTitle}s.
  * @author Benjamin Sigg
  */
-public class SmoothDefaultButtonTitleFactory implements DockTitleFactory{
+public class SmoothDefaultButtonTitleFactory implements RecyclingDockTitleFactory{
 	public void install( DockTitleRequest request ){
 		// ignore	
 	}
@@ -44,4 +45,8 @@ public class SmoothDefaultButtonTitleFactory implements DockTitleFactory{
 	public void request( DockTitleRequest request ){
 		request.answer( new SmoothDefaultButtonTitle( request.getTarget(), request.getVersion() ) );	
 	}
+	
+	public boolean canReuse( DockTitleRequest request, DockTitle title ){
+		return true;
+	}
 }
@@ -31,6 +31,7 @@ import java.awt.Color;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.themes.basic.BasicStationTitle;
 import bibliothek.gui.dock.title.DockTitleVersion;
+import bibliothek.gui.dock.util.AnimationEngine;
 import bibliothek.util.Colors;
 
 /**
@@ -92,6 +93,7 @@ public class SmoothDefaultStationTitle extends BasicStationTitle{
      */
     public SmoothDefaultStationTitle( Dockable dockable, DockTitleVersion origin ) {
         super(dockable, origin);
+        changer.setComponent( this );
     }
     
     /**
@@ -117,7 +119,7 @@ public class SmoothDefaultStationTitle extends BasicStationTitle{
         	setForeground( get( getActiveTextColor(), getInactiveTextColor(), getInactiveTextColor() ));
             setBackground( get( getActiveColor(), getInactiveColor(), getDisabledColor() ));
             
-            repaint();
+            AnimationEngine.getDefault().repaint( this );
         }
         else{
         	super.updateColors();
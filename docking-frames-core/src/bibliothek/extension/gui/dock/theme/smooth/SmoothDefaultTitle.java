@@ -36,6 +36,7 @@ import javax.swing.JComponent;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.themes.basic.BasicDockTitle;
 import bibliothek.gui.dock.title.DockTitleVersion;
+import bibliothek.gui.dock.util.AnimationEngine;
 import bibliothek.util.Colors;
 
 /**
@@ -69,7 +70,7 @@ public class SmoothDefaultTitle extends BasicDockTitle{
         protected void repaint( int[] current ) {
             SmoothDefaultTitle.this.current = current;
             updateForegroundColor();
-            SmoothDefaultTitle.this.repaint();
+            AnimationEngine.getDefault().repaint( SmoothDefaultTitle.this );
         }
     };
     
@@ -80,6 +81,7 @@ public class SmoothDefaultTitle extends BasicDockTitle{
      */
     public SmoothDefaultTitle( Dockable dockable, DockTitleVersion origin ) {
         super(dockable, origin);
+        changer.setComponent( this );
     }
     
     /**
@@ -27,8 +27,9 @@
 package bibliothek.extension.gui.dock.theme.smooth;
 
 import bibliothek.gui.Dockable;
-import bibliothek.gui.dock.title.DockTitleFactory;
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 
 /**
  * A {@link DockTitleFactory} which creates instances of {@link SmoothDefaultTitle}
@@ -36,7 +37,7 @@ import bibliothek.gui.dock.title.DockTitleRequest;
  * @author Benjamin Sigg
  *
  */
-public class SmoothDefaultTitleFactory implements DockTitleFactory {
+public class SmoothDefaultTitleFactory implements RecyclingDockTitleFactory {
     /** An instance of this factory which can be used at any place */
     public static final SmoothDefaultTitleFactory FACTORY = new SmoothDefaultTitleFactory();
     
@@ -57,4 +58,8 @@ public class SmoothDefaultTitleFactory implements DockTitleFactory {
 	    	request.answer( new SmoothDefaultStationTitle( dockable, request.getVersion() ) );
 	    }
     }
+    
+    public boolean canReuse( DockTitleRequest request, DockTitle title ){
+        return true;
+    }
 }
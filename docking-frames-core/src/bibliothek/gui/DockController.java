@@ -36,6 +36,7 @@ import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -63,7 +64,9 @@ import bibliothek.gui.dock.action.view.ActionViewConverter;
 import bibliothek.gui.dock.control.ComponentHierarchyObserver;
 import bibliothek.gui.dock.control.ControllerSetupCollection;
 import bibliothek.gui.dock.control.DefaultDockControllerFactory;
+import bibliothek.gui.dock.control.DeferredValidation;
 import bibliothek.gui.dock.control.DockControllerFactory;
+import bibliothek.gui.dock.control.DockEventCoalescer;
 import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.control.DockRelocator;
 import bibliothek.gui.dock.control.DockRelocatorMode;
@@ -71,6 +74,7 @@ import bibliothek.gui.dock.control.DockableSelector;
 import bibliothek.gui.dock.control.DoubleClickController;
 import bibliothek.gui.dock.control.GlobalMouseDispatcher;
 import bibliothek.gui.dock.control.KeyboardController;
+import bibliothek.gui.dock.control.PaintProfiler;
 import bibliothek.gui.dock.control.PopupController;
 import bibliothek.gui.dock.control.SingleParentRemover;
 import bibliothek.gui.dock.control.focus.DefaultFocusRequest;
@@ -177,6 +181,12 @@ public class DockController {
     /** central collection of {@link MouseEvent}s */
     private GlobalMouseDispatcher mouseDispatcher;
     
+    /** measures how long painting and layouting of components takes */
+    private PaintProfiler paintProfiler;
+    
+    /** how much time each step of {@link #initiate(DockControllerFactory, ControllerSetupCollection)} took */
+    private Map<String, Long> startupTimes = new LinkedHashMap<String, Long>();
+    
     /** class managing focus transfer between {@link Dockable}s */
     private FocusController focusController;
     
@@ -241,6 +251,12 @@ public class DockController {
     
     /** ensurance against concurrent modifications */
     private DockHierarchyLock lock = new DockHierarchyLock();
+    
+    /** collects and merges events of stations and dockables during bulk operations */
+    private DockEventCoalescer eventCoalescer = new DockEventCoalescer( this );
+    
+    /** delays revalidation of the stations during bulk operations */
+    private DeferredValidation deferredValidation = new DeferredValidation( this );
     
     /**
      * Creates a new controller. 
@@ -283,19 +299,26 @@ public class DockController {
         if( factory == null )
             throw new IllegalArgumentException( "Factory must not be null" );
         
+        long time = System.nanoTime();
         extensions = factory.createExtensionManager( this, setup );
+        time = startupStep( "extensions", time );
         
         properties = new DockProperties( this );
         theme = new ThemeManager( this );
+        time = startupStep( "theme", time );
         icons = new IconManager( this );
         icons.setScheme( Priority.DEFAULT, createDefaultIconScheme() );
+        time = startupStep( "icons", time );
         colors = new ColorManager( this );
         fonts = new FontManager( this );
         dockTitles = new DockTitleManager( this );
+        time = startupStep( "colors, fonts, titles", time );
         texts = new TextManager( this );
         texts.setScheme( Priority.DEFAULT, createDefaultTextScheme() );
+        time = startupStep( "texts", time );
         
         theme.init();
+        time = startupStep( "theme init", time );
         
     	rootWindowProvider = new WindowProviderWrapper();
         rootWindowProvider.addWindowProviderListener( new WindowProviderListener(){
@@ -327,8 +350,10 @@ public class DockController {
     	DockRegisterListener focus = factory.createVisibilityFocusObserver( this, setup );
     	if( focus != null )
     		register.addDockRegisterListener( focus );
+    	time = startupStep( "register", time );
     	
     	popupController = factory.createPopupController( this, setup );
+    	time = startupStep( "popup controller", time );
     	
     	DockRegisterListener binder = factory.createActionBinder( this, setup );
     	if( binder != null )
@@ -337,22 +362,31 @@ public class DockController {
 		register.addDockRegisterListener( dockTitleObserver );
 		addDockTitleBindingListener( dockTitleObserver );
 		register.addDockRegisterListener( new DockableSelectionObserver() );
+		time = startupStep( "action binder", time );
 		
         relocator = factory.createRelocator( this, setup );
+        time = startupStep( "relocator", time );
         
         defaultActionOffer = factory.createDefaultActionOffer( this, setup );
         focusObserver = factory.createMouseFocusObserver( this, setup );
         focusController = factory.createFocusController( this, setup );
         focusHistory = factory.createFocusHistory( this, setup );
+        time = startupStep( "focus", time );
         actionViewConverter = factory.createActionViewConverter( this, setup );
         doubleClickController = factory.createDoubleClickController( this, setup );
+        time = startupStep( "action views, double click controller", time );
         keyboardController = factory.createKeyboardController( this, setup );
         dockableSelector = factory.createDockableSelector( this, setup );
+        time = startupStep( "keyboard controller", time );
         mouseDispatcher = factory.createGlobalMouseDispatcher( this, setup );
+        time = startupStep( "mouse dispatcher", time );
+        paintProfiler = new PaintProfiler( this );
         
         extensions.init();
+        time = startupStep( "extensions init", time );
         
         setTheme( DockUI.getDefaultDockUI().getDefaultTheme().create( this ) );
+        time = startupStep( "default theme", time );
         
         relocator.addMode( DockRelocatorMode.SCREEN_ONLY );
         relocator.addMode( DockRelocatorMode.NO_COMBINATION );
@@ -371,9 +405,11 @@ public class DockController {
         
         setSingleParentRemover( factory.createSingleParentRemover( this, setup ) );
         focusController.addDockableFocusListener( new FocusControllerObserver() );
+        time = startupStep( "single parent remover", time );
         
         for( ControllerSetupListener listener : setupListeners )
             listener.done( this );
+        startupStep( "setup listeners", time );
     }
     
     /**
@@ -415,6 +451,7 @@ public class DockController {
 	    theme.kill();
 	    extensions.kill();
 	    mouseDispatcher.kill();
+	    paintProfiler.kill();
 	    setRootWindowProvider( null );
     }
     
@@ -471,6 +508,37 @@ public class DockController {
 		return mouseDispatcher;
 	}
     
+    /**
+     * Gets the {@link PaintProfiler} which measures how much time the components in the realm of
+     * this controller need for painting and layouting. The profiler is disabled by default.
+     * @return the profiler, not <code>null</code>
+     */
+    public PaintProfiler getPaintProfiler(){
+    	return paintProfiler;
+    }
+    
+    /**
+     * Tells how much time the creation of the various sub-controls of this controller took. The keys of
+     * the map are the names of the sub-controls in the order in which they were created, the values are the 
+     * times in nanoseconds.
+     * @return a copy of the times measured during the initialization of this controller
+     */
+    public Map<String, Long> getStartupTimes(){
+    	return new LinkedHashMap<String, Long>( startupTimes );
+    }
+    
+    /**
+     * Stores the time that passed since <code>start</code> as startup time of the step <code>name</code>.
+     * @param name the name of the step that just finished
+     * @param start the time when the step started
+     * @return the current time, the start of the next step
+     */
+    private long startupStep( String name, long start ){
+    	long now = System.nanoTime();
+    	startupTimes.put( name, now - start );
+    	return now;
+    }
+    
     /**
      * Gets the set of {@link Dockable Dockables} and {@link DockStation DockStations}
      * known to this controller.
@@ -565,6 +633,24 @@ public class DockController {
 		return lock;
 	}
     
+    /**
+     * Gets the {@link DockEventCoalescer} which can delay and merge the events of {@link DockStation}s
+     * and {@link Dockable}s during bulk operations.
+     * @return the coalescer, not <code>null</code>
+     */
+    public DockEventCoalescer getEventCoalescer(){
+		return eventCoalescer;
+	}
+    
+    /**
+     * Gets the {@link DeferredValidation} which can freeze the Swing layout of all {@link DockStation}s
+     * during bulk operations, such that each affected window is validated only once.
+     * @return the freeze, not <code>null</code>
+     */
+    public DeferredValidation getDeferredValidation(){
+		return deferredValidation;
+	}
+    
     /**
      * Freezes the layout. Normally if a client makes a change in the layout
      * (e.g. remove a {@link Dockable} from its parent) additional actions
@@ -27,6 +27,8 @@
 package bibliothek.gui;
 
 import java.awt.Window;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -63,14 +65,19 @@ import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.event.VetoableDockFrontendListener;
 import bibliothek.gui.dock.frontend.DefaultFrontendPerspectiveCache;
 import bibliothek.gui.dock.frontend.DefaultLayoutChangeStrategy;
+import bibliothek.gui.dock.frontend.DefaultSettingsStore;
 import bibliothek.gui.dock.frontend.DockFrontendExtension;
 import bibliothek.gui.dock.frontend.DockFrontendInternals;
+import bibliothek.gui.dock.frontend.DockFrontendSnapshot;
 import bibliothek.gui.dock.frontend.DockFrontendPerspective;
 import bibliothek.gui.dock.frontend.FrontendEntry;
 import bibliothek.gui.dock.frontend.FrontendPerspectiveCache;
+import bibliothek.gui.dock.frontend.LayoutChangeTracker;
 import bibliothek.gui.dock.frontend.LayoutChangeStrategy;
+import bibliothek.gui.dock.frontend.LayoutChunkFile;
 import bibliothek.gui.dock.frontend.MissingDockableStrategy;
 import bibliothek.gui.dock.frontend.Setting;
+import bibliothek.gui.dock.frontend.SettingsStore;
 import bibliothek.gui.dock.frontend.SettingsBlop;
 import bibliothek.gui.dock.frontend.VetoManager;
 import bibliothek.gui.dock.layout.AdjacentDockFactory;
@@ -80,6 +87,7 @@ import bibliothek.gui.dock.layout.DockSituation;
 import bibliothek.gui.dock.layout.DockSituationIgnore;
 import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.gui.dock.layout.DockablePropertyFactory;
+import bibliothek.gui.dock.layout.LayoutProfiler;
 import bibliothek.gui.dock.layout.PredefinedDockSituation;
 import bibliothek.gui.dock.layout.PropertyTransformer;
 import bibliothek.gui.dock.layout.location.AsideAnswer;
@@ -191,8 +199,14 @@ public class DockFrontend {
     
     /** The name of the setting which is currently loaded */
     private String currentSetting;
-    /** A map of all known settings */
-    private Map<String, Setting> settings = new HashMap<String, Setting>();
+    /** All known settings */
+    private SettingsStore settings = new DefaultSettingsStore();
+    
+    /** Counts how often a setting was stored or deleted */
+    private long settingsModifications = 0;
+    
+    /** Tells for each known setting at which value of {@link #settingsModifications} it was stored */
+    private Map<String, Long> settingsStamps = new HashMap<String, Long>();
     
     /** A list of observers */
     private List<DockFrontendListener> listeners = new ArrayList<DockFrontendListener>();
@@ -214,6 +228,9 @@ public class DockFrontend {
     /** algorithm for changing the layout of this frontend */
     private LayoutChangeStrategy layoutChangeStrategy = new DefaultLayoutChangeStrategy();
     
+    /** measures the time needed to read, write and apply layouts, can be <code>null</code> */
+    private LayoutProfiler layoutProfiler;
+    
     /**
      * Tells whether to show the hide-action on hideable dockables or not
      */
@@ -457,6 +474,14 @@ public class DockFrontend {
     	return null;
     }
     
+    /**
+     * Gets all the {@link DockFactory}s that were added by {@link #registerFactory(DockFactory)}.
+     * @return all the factories, a new array
+     */
+    public DockFactory<?, ?, ?>[] getDockFactories(){
+    	return dockFactories.toArray( new DockFactory<?, ?, ?>[ dockFactories.size() ] );
+    }
+    
     /**
      * Registers a factory to write and read {@link Dockable}s and {@link DockStation}s.
      * @param factory the new factory
@@ -638,6 +663,24 @@ public class DockFrontend {
 		return layoutChangeStrategy;
 	}
     
+    /**
+     * Sets a profiler which measures how much time the {@link DockFactory}s need to read, write
+     * and apply layouts. The profiler is forwarded to each {@link DockSituation} that is created
+     * by the {@link #getLayoutChangeStrategy() LayoutChangeStrategy}.
+     * @param layoutProfiler the profiler, can be <code>null</code>
+     */
+    public void setLayoutProfiler( LayoutProfiler layoutProfiler ){
+		this.layoutProfiler = layoutProfiler;
+	}
+    
+    /**
+     * Gets the profiler which measures how much time the {@link DockFactory}s need.
+     * @return the profiler, can be <code>null</code>
+     */
+    public LayoutProfiler getLayoutProfiler(){
+		return layoutProfiler;
+	}
+    
     /**
      * Creates a new {@link PropertyTransformer} that can be used to read and write
      * {@link DockableProperty}s that are associated with this {@link DockFrontend}.
@@ -1032,12 +1075,40 @@ public class DockFrontend {
      * @return the set of names
      */
     public Set<String> getSettings(){
-        Set<String> keys = settings.keySet();
+        Set<String> keys = settings.getNames();
         return Collections.unmodifiableSet( keys );
     }
+    
+    /**
+     * Sets the {@link SettingsStore} which keeps the named {@link Setting}s of this frontend. The settings
+     * of the current store are not transfered into <code>store</code>, hence this method should be called
+     * before any setting is created.
+     * @param store the new store, not <code>null</code>
+     */
+    public void setSettingsStore( SettingsStore store ){
+    	if( store == null ){
+    		throw new IllegalArgumentException( "store must not be null" );
+    	}
+    	settings.setFrontend( null );
+    	settings = store;
+    	settings.setFrontend( new Internals() );
+    	settingsStamps.clear();
+    	for( String name : settings.getNames() ){
+    		settingsStamps.put( name, ++settingsModifications );
+    	}
+    }
+    
+    /**
+     * Gets the {@link SettingsStore} which keeps the named {@link Setting}s of this frontend.
+     * @return the store, not <code>null</code>
+     */
+    public SettingsStore getSettingsStore(){
+    	return settings;
+    }
     
     /**
      * Gets the {@link Setting} which stores locations and other information under the key <code>name</code>.
+     * Depending on the {@link #getSettingsStore() store}, this method may decode the setting.
      * @param name a key that was used for calling {@link #save(String)}
      * @return the setting or <code>null</code> if not found
      */
@@ -1063,7 +1134,7 @@ public class DockFrontend {
     	if( setting == null )
     		throw new IllegalArgumentException( "the name of a setting must not be null" );
     	
-    	if( settings.containsKey( setting ))
+    	if( settings.contains( setting ))
     		load( setting );
     	else
     		save( setting );
@@ -1089,6 +1160,7 @@ public class DockFrontend {
     		throw new IllegalArgumentException( "setting is null" );
     	}
     	settings.put( name, setting );
+    	settingsStamps.put( name, ++settingsModifications );
     }
     
     /**
@@ -1523,15 +1595,33 @@ public class DockFrontend {
      * @see #createSetting()
      */
     public Setting getSetting( boolean entry ){
+    	return getSetting( entry, null );
+    }
+    
+    /**
+     * Creates a new {@link Setting} which describes the current set of
+     * properties of this frontend, but which contains only the layout of some
+     * of the root stations.
+     * @param entry <code>true</code> if only the information for an ordinary
+     * entry should be stored, <code>false</code> if the setting should contain
+     * as much information as possible.
+     * @param rootNames the names of the roots whose layout should be stored, 
+     * <code>null</code> to store all roots
+     * @return the setting
+     * @see #getSetting(boolean)
+     */
+    public Setting getSetting( boolean entry, Collection<String> rootNames ){
         Setting setting = createSetting();
         
         DockSituation situation = layoutChangeStrategy.createSituation( new Internals(), entry );
         
         for( RootInfo info : roots.values() ){
-        	DockStation station = info.getStation();
-        	if( station.asDockable() == null || station.asDockable().getDockParent() == null ){
-	            DockLayoutComposition layout = situation.convert( station );
-	            setting.putRoot( info.getName(), layout );
+        	if( rootNames == null || rootNames.contains( info.getName() )){
+	        	DockStation station = info.getStation();
+	        	if( station.asDockable() == null || station.asDockable().getDockParent() == null ){
+		            DockLayoutComposition layout = situation.convert( station );
+		            setting.putRoot( info.getName(), layout );
+	        	}
         	}
         }
         
@@ -1568,29 +1658,41 @@ public class DockFrontend {
      * be the same as was used when {@link #getSetting(boolean)} was called.
      */
     public void setSetting( Setting setting, boolean entry ){
+    	// the layout melts before the coalesced events are fired, listeners already see the validated layout
+        controller.getEventCoalescer().begin();
         try{
-            onAutoFire++;
-            controller.getRegister().setStalled( true );
-            
-            if( layoutChangeStrategy.setLayout( new Internals(), setting, entry ) ){
-                if( entry ){
-                    lastAppliedEntrySetting = setting;
+            controller.getDeferredValidation().freeze();
+            try{
+                onAutoFire++;
+                controller.getRegister().setStalled( true );
+                try{
+                    if( layoutChangeStrategy.setLayout( new Internals(), setting, entry ) ){
+                        if( entry ){
+                            lastAppliedEntrySetting = setting;
+                        }
+                        else{
+                            lastAppliedEntrySetting = null;
+                            lastAppliedFullSetting = setting;
+                        }
+                    }
+                }
+                catch( IOException e ){
+                    throw new IllegalArgumentException( "Cannot set Setting", e );
                 }
-                else{
-                    lastAppliedEntrySetting = null;
-                    lastAppliedFullSetting = setting;
+                catch( XException e ){
+                    throw new IllegalArgumentException( "Cannot set Setting", e );
+                }
+                finally{
+                    onAutoFire--;
+                    controller.getRegister().setStalled( false );
                 }
             }
-        }
-        catch( IOException e ){
-            throw new IllegalArgumentException( "Cannot set Setting", e );
-        }
-        catch( XException e ){
-            throw new IllegalArgumentException( "Cannot set Setting", e );
+            finally{
+                controller.getDeferredValidation().melt();
+            }
         }
         finally{
-            onAutoFire--;
-            controller.getRegister().setStalled( false );
+            controller.getEventCoalescer().commit();
         }
         
         for( DockInfo info : dockables.values() ){
@@ -1644,15 +1746,16 @@ public class DockFrontend {
         DockSituation situation = layoutChangeStrategy.createSituation( new Internals(), false );
         
         // fill gaps
-        for( Setting setting : settings.values() ){
+        Collection<Setting> decoded = settings.getDecodedSettings();
+        for( Setting setting : decoded ){
             setting.fillMissing( situation );
         }
         
-        if( lastAppliedFullSetting != null && !settings.containsValue( lastAppliedFullSetting )){
+        if( lastAppliedFullSetting != null && !decoded.contains( lastAppliedFullSetting )){
             lastAppliedFullSetting.fillMissing( situation );
         }
         
-        if( lastAppliedEntrySetting != null && lastAppliedEntrySetting != lastAppliedFullSetting && !settings.containsValue( lastAppliedEntrySetting )){
+        if( lastAppliedEntrySetting != null && lastAppliedEntrySetting != lastAppliedFullSetting && !decoded.contains( lastAppliedEntrySetting )){
             lastAppliedEntrySetting.fillMissing( situation );
         }
         
@@ -1857,13 +1960,19 @@ public class DockFrontend {
      */
     public int deleteAll(){
     	int count = 0;
-    	Set<String> settings = getSettings();
-    	String[] array = settings.toArray( new String[ settings.size() ] );
-    	for( String name : array ){
-    		if( delete( name ) ){
-    			count++;
+    	Set<String> names = getSettings();
+    	String[] array = names.toArray( new String[ names.size() ] );
+    	settings.begin();
+    	try{
+    		for( String name : array ){
+    			if( delete( name ) ){
+    				count++;
+    			}
     		}
     	}
+    	finally{
+    		settings.commit();
+    	}
     	return count;
     }
     
@@ -1878,8 +1987,9 @@ public class DockFrontend {
     	if( name == null )
     		throw new IllegalArgumentException( "name must not be null" );
     	
-        boolean deleted = settings.remove( name ) != null;
+        boolean deleted = settings.remove( name );
         if( deleted ){
+        	settingsStamps.remove( name );
         	if( name.equals( currentSetting ))
         		currentSetting = null;
         	
@@ -1890,13 +2000,26 @@ public class DockFrontend {
     
     /**
      * Writes all settings of this frontend, including the current layout,
-     * into <code>out</code>.
+     * into <code>out</code>. Settings which the {@link #getSettingsStore() store} keeps encoded are
+     * copied without decoding them.
      * @param out the stream to write into
      * @throws IOException if there are any problems
      */
-    public void write( DataOutputStream out ) throws IOException{
-        writeBlop( writeBlop(), out );
-    }
+    public void write( DataOutputStream out ) throws IOException{
+    	SettingsBlop blop = new SettingsBlop();
+    	Map<String, byte[]> encoded = new HashMap<String, byte[]>();
+    	for( String name : settings.getNames() ){
+    		byte[] data = settings.getEncoded( name );
+    		if( data == null ){
+    			blop.put( name, settings.get( name ) );
+    		}
+    		else{
+    			encoded.put( name, data );
+    		}
+    	}
+    	blop.setCurrent( currentSetting, getSetting( false ) );
+        writeBlop( blop, encoded, out );
+    }
     
     /**
      * Writes the contents of <code>blop</code> into <code>out</code>.
@@ -1905,6 +2028,18 @@ public class DockFrontend {
      * @throws IOException if there are any problems
      */
     public void writeBlop( SettingsBlop blop, DataOutputStream out ) throws IOException{
+    	writeBlop( blop, Collections.<String, byte[]>emptyMap(), out );
+    }
+    
+    /**
+     * Writes the contents of <code>blop</code> and the already encoded settings <code>encoded</code>
+     * into <code>out</code>.
+     * @param blop the {@link Setting}s to write
+     * @param encoded settings that were encoded by {@link #write(Setting, boolean, DataOutputStream)}
+     * @param out the stream to write into
+     * @throws IOException if there are any problems
+     */
+    private void writeBlop( SettingsBlop blop, Map<String, byte[]> encoded, DataOutputStream out ) throws IOException{
     	Version.write( out, Version.VERSION_1_1_1a );
     	
     	String currentSetting = blop.getCurrentName();
@@ -1917,15 +2052,175 @@ public class DockFrontend {
         }
         
         String[] names = blop.getNames();
-        out.writeInt( names.length );
+        out.writeInt( names.length + encoded.size() );
         for( String name : names ){
             out.writeUTF( name );
             write( blop.getSetting( name ), true, out );
         }
+        for( Map.Entry<String, byte[]> entry : encoded.entrySet() ){
+        	out.writeUTF( entry.getKey() );
+        	out.write( entry.getValue() );
+        }
         
         write( blop.getCurrentSetting(), false, out );
     }
     
+    /**
+     * Writes those parts of the layout that changed since the last call to this method into
+     * <code>file</code>. Which parts changed is decided by <code>tracker</code>. Each root station,
+     * the remaining parts of the current {@link Setting}, and each named {@link Setting} is stored
+     * as a separate chunk, only the chunks that changed are appended to <code>file</code>.
+     * @param file the file to write into
+     * @param tracker the tracker observing this frontend, remembers which parts of the layout changed
+     * @throws IOException if <code>file</code> cannot be written
+     * @see #readIncremental(LayoutChunkFile, boolean)
+     */
+    public void writeIncremental( LayoutChunkFile file, LayoutChangeTracker tracker ) throws IOException{
+    	if( file == null ){
+    		throw new IllegalArgumentException( "file must not be null" );
+    	}
+    	if( tracker == null ){
+    		throw new IllegalArgumentException( "tracker must not be null" );
+    	}
+    	if( tracker.getFrontend() != this ){
+    		throw new IllegalArgumentException( "tracker does not observe this frontend" );
+    	}
+    	
+    	boolean all = tracker.isAllDirty();
+    	Map<String, byte[]> chunks = new HashMap<String, byte[]>();
+    	
+    	Set<String> dirtyRoots = tracker.getDirtyRoots();
+    	Setting current = getSetting( false, dirtyRoots );
+    	Set<String> storedRoots = new HashSet<String>();
+    	
+    	for( String root : current.getRootKeys() ){
+    		Setting part = createSetting();
+    		part.putRoot( root, current.getRoot( root ) );
+    		chunks.put( LayoutChangeTracker.ROOT_PREFIX + root, encode( part, false ) );
+    	}
+    	for( RootInfo info : roots.values() ){
+    		DockStation station = info.getStation();
+    		if( station.asDockable() == null || station.asDockable().getDockParent() == null ){
+    			storedRoots.add( info.getName() );
+    		}
+    	}
+    	for( String root : tracker.getWrittenRoots() ){
+    		if( !storedRoots.contains( root )){
+    			chunks.put( LayoutChangeTracker.ROOT_PREFIX + root, null );
+    		}
+    	}
+    	
+    	if( all || tracker.isCurrentDirty() ){
+    		// the roots are already stored in their own chunks
+    		for( String root : current.getRootKeys() ){
+    			current.removeRoot( root );
+    		}
+    		chunks.put( LayoutChangeTracker.CURRENT, encode( current, false ) );
+    	}
+    	
+    	for( Map.Entry<String, Long> entry : settingsStamps.entrySet() ){
+    		if( tracker.isSettingDirty( entry.getKey(), entry.getValue() )){
+    			byte[] data = settings.getEncoded( entry.getKey() );
+    			if( data == null ){
+    				data = encode( settings.get( entry.getKey() ), true );
+    			}
+    			chunks.put( LayoutChangeTracker.SETTING_PREFIX + entry.getKey(), data );
+    		}
+    	}
+    	for( String name : tracker.getWrittenSettings() ){
+    		if( !settings.contains( name )){
+    			chunks.put( LayoutChangeTracker.SETTING_PREFIX + name, null );
+    		}
+    	}
+    	
+    	if( tracker.isCurrentNameDirty( currentSetting )){
+    		if( currentSetting == null ){
+    			chunks.put( LayoutChangeTracker.CURRENT_NAME, null );
+    		}
+    		else{
+    			chunks.put( LayoutChangeTracker.CURRENT_NAME, currentSetting.getBytes( "UTF-8" ) );
+    		}
+    	}
+    	
+    	if( all ){
+    		Map<String, byte[]> content = new HashMap<String, byte[]>();
+    		for( Map.Entry<String, byte[]> chunk : chunks.entrySet() ){
+    			if( chunk.getValue() != null ){
+    				content.put( chunk.getKey(), chunk.getValue() );
+    			}
+    		}
+    		file.rewrite( content );
+    	}
+    	else if( !chunks.isEmpty() ){
+    		file.write( chunks );
+    	}
+    	
+    	tracker.written( storedRoots, settingsStamps, currentSetting );
+    }
+    
+    /**
+     * Reads a layout that was written by {@link #writeIncremental(LayoutChunkFile, LayoutChangeTracker)} and
+     * applies it.
+     * @param file the file to read from
+     * @param keepExistingSettings whether to keep or to delete (see {@link #deleteAll()}) the
+     * existing settings.
+     * @throws IOException if <code>file</code> cannot be read or does not contain a layout
+     */
+    public void readIncremental( LayoutChunkFile file, boolean keepExistingSettings ) throws IOException{
+    	readBlop( readIncremental( file ), keepExistingSettings );
+    }
+    
+    /**
+     * Reads a layout that was written by {@link #writeIncremental(LayoutChunkFile, LayoutChangeTracker)}, this
+     * method does not change any properties of this frontend.
+     * @param file the file to read from
+     * @return the {@link Setting}s that were read
+     * @throws IOException if <code>file</code> cannot be read or does not contain a layout
+     */
+    public SettingsBlop readIncremental( LayoutChunkFile file ) throws IOException{
+    	Map<String, byte[]> chunks = file.read();
+    	byte[] rest = chunks.get( LayoutChangeTracker.CURRENT );
+    	if( rest == null ){
+    		throw new IOException( "file does not contain a layout: " + file.getFile() );
+    	}
+    	
+    	Setting current = decode( rest, false );
+    	String currentName = null;
+    	SettingsBlop blop = new SettingsBlop();
+    	
+    	for( Map.Entry<String, byte[]> chunk : chunks.entrySet() ){
+    		String key = chunk.getKey();
+    		if( key.startsWith( LayoutChangeTracker.ROOT_PREFIX )){
+    			String root = key.substring( LayoutChangeTracker.ROOT_PREFIX.length() );
+    			Setting part = decode( chunk.getValue(), false );
+    			current.putRoot( root, part.getRoot( root ) );
+    		}
+    		else if( key.startsWith( LayoutChangeTracker.SETTING_PREFIX )){
+    			String name = key.substring( LayoutChangeTracker.SETTING_PREFIX.length() );
+    			blop.put( name, decode( chunk.getValue(), true ) );
+    		}
+    		else if( key.equals( LayoutChangeTracker.CURRENT_NAME )){
+    			currentName = new String( chunk.getValue(), "UTF-8" );
+    		}
+    	}
+    	
+    	blop.setCurrent( currentName, current );
+    	return blop;
+    }
+    
+    private byte[] encode( Setting setting, boolean entry ) throws IOException{
+    	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    	DataOutputStream out = new DataOutputStream( bytes );
+    	write( setting, entry, out );
+    	out.flush();
+    	return bytes.toByteArray();
+    }
+    
+    private Setting decode( byte[] data, boolean entry ) throws IOException{
+    	DataInputStream in = new DataInputStream( new ByteArrayInputStream( data ) );
+    	return read( entry, in );
+    }
+    
     /**
      * Calls {@link Setting#write(DockSituation, PropertyTransformer, boolean, DataOutputStream)}
      * @param setting the setting which will be written
@@ -2138,13 +2433,49 @@ public class DockFrontend {
      */
     public SettingsBlop writeBlop(){
     	SettingsBlop blop = new SettingsBlop();
-    	for( Map.Entry<String, Setting> entry : settings.entrySet() ){
-    		blop.put( entry.getKey(), entry.getValue() );
+    	for( String name : settings.getNames() ){
+    		blop.put( name, settings.get( name ) );
     	}
     	blop.setCurrent( currentSetting, getSetting( false ) );
     	return blop;
     }
     
+    /**
+     * Creates a snapshot of the current layout and of all the named {@link Setting}s. The snapshot
+     * is created on the EDT, but it contains everything needed to encode the settings and can be written
+     * by any thread. The snapshot does not share any {@link Setting} with this frontend: the named settings
+     * are copied in their encoded form, settings that the {@link #getSettingsStore() store} does not keep
+     * encoded are encoded by this method. Overridden versions of {@link #write(Setting, boolean, DataOutputStream)} 
+     * and {@link #writeXML(Setting, boolean, XElement)} are not used to write the current setting, nor
+     * to write the settings in xml format.
+     * @return the new snapshot
+     * @throws IllegalStateException if a named setting cannot be encoded
+     */
+    public DockFrontendSnapshot createSnapshot(){
+    	SettingsBlop blop = new SettingsBlop();
+    	Map<String, byte[]> encoded = new HashMap<String, byte[]>();
+    	for( String name : settings.getNames() ){
+    		byte[] data = settings.getEncoded( name );
+    		if( data == null ){
+    			try{
+    				data = encode( settings.get( name ), true );
+    			}
+    			catch( IOException e ){
+    				throw new IllegalStateException( "cannot encode setting '" + name + "'", e );
+    			}
+    		}
+    		encoded.put( name, data );
+    		blop.put( name, createSetting() );
+    	}
+    	blop.setCurrent( currentSetting, getSetting( false ) );
+    	
+    	Internals internals = new Internals();
+    	DockSituation entrySituation = layoutChangeStrategy.createSituation( internals, true );
+    	DockSituation finalSituation = layoutChangeStrategy.createSituation( internals, false );
+    	PropertyTransformer transformer = layoutChangeStrategy.createTransformer( internals );
+    	return new DockFrontendSnapshot( blop, encoded, entrySituation, finalSituation, transformer );
+    }
+    
     /**
      * Reads and applies the {@link Setting}s stored in <code>blop</code>.
      * @param blop the settings to read
@@ -2153,12 +2484,19 @@ public class DockFrontend {
      * call {@link #deleteAll()}
      */
     public void readBlop( SettingsBlop blop, boolean keepExistingSettings ){
-    	if( !keepExistingSettings ){
-    		deleteAll();
+    	// the store writes all the removed and added settings at once
+    	settings.begin();
+    	try{
+    		if( !keepExistingSettings ){
+    			deleteAll();
+    		}
+    		for( String name : blop.getNames() ){
+    			setSetting( name, blop.getSetting( name ) );
+    			fireRead( name );
+    		}
     	}
-    	for( String name : blop.getNames() ){
-    		settings.put( name, blop.getSetting( name ) );
-    		fireRead( name );
+    	finally{
+    		settings.commit();
     	}
     	currentSetting = blop.getCurrentName();
     	setSetting( blop.getCurrentSetting(), false );
@@ -2411,6 +2749,10 @@ public class DockFrontend {
 		public void clean( DockSituationIgnore ignore ){
 			DockFrontend.this.clean( ignore );
 		}
+		
+		public void clean( DockStation station, DockSituationIgnore ignore ){
+			DockFrontend.this.clean( station, ignore );
+		}
 
 		public AdjacentDockFactory<?>[] getAdjacentDockFactories(){
 			return adjacentDockFactories.toArray( new AdjacentDockFactory[ adjacentDockFactories.size() ] );
@@ -2455,6 +2797,14 @@ public class DockFrontend {
 		public VetoManager getVetos(){
 			return veto;
 		}
+		
+		public byte[] writeSetting( Setting setting, boolean entry ) throws IOException{
+			return encode( setting, entry );
+		}
+		
+		public Setting readSetting( byte[] data, boolean entry ) throws IOException{
+			return decode( data, entry );
+		}
     }
     
     /**
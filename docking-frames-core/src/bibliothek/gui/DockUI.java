@@ -58,6 +58,7 @@ import bibliothek.gui.dock.themes.BasicTheme;
 import bibliothek.gui.dock.themes.NoStackTheme;
 import bibliothek.gui.dock.themes.ThemeFactory;
 import bibliothek.gui.dock.themes.ThemeProperties;
+import bibliothek.gui.dock.themes.ThemeManager;
 import bibliothek.gui.dock.themes.ThemePropertyFactory;
 import bibliothek.gui.dock.util.IconManager;
 import bibliothek.gui.dock.util.laf.DefaultLookAndFeelColors;
@@ -325,7 +326,8 @@ public class DockUI {
     /**
      * Removes all children of <code>station</code> and then adds
      * the children again. Reading the children ensures that all components are
-     * build up again with the current theme of the station
+     * build up again with the current theme of the station. Nothing happens if the
+     * {@link ThemeManager} reports that the {@link ThemeManager#isRebuildRequired(DockStation) rebuild is not required}.
      * @param <D> the type of the station
      * @param <L> the type of the layout needed to describe the contents
      * of the station
@@ -334,6 +336,11 @@ public class DockUI {
      * @throws IOException if the factory throws an exception
      */
     public static <D extends DockStation, L> void updateTheme( D station, DockFactory<D,?,L> factory ) throws IOException{
+    	DockController controller = station.getController();
+    	if( controller != null && !controller.getThemeManager().isRebuildRequired( station )){
+    		return;
+    	}
+    	
         Map<Integer, Dockable> children = new HashMap<Integer, Dockable>();
     	Map<Dockable, Integer> ids = new HashMap<Dockable, Integer>();
     	
@@ -344,7 +351,6 @@ public class DockUI {
     	}
     	
     	L layout = factory.getLayout( station, ids );
-    	DockController controller = station.getController();
     	if( controller != null ){
     		controller.getRegister().setStalled( true );
     		controller.getHierarchyLock().setConcurrent( true );
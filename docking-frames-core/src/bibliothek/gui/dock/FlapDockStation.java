@@ -56,6 +56,7 @@ import bibliothek.gui.dock.accept.DockAcceptance;
 import bibliothek.gui.dock.action.DockAction;
 import bibliothek.gui.dock.action.DockActionSource;
 import bibliothek.gui.dock.action.ListeningDockAction;
+import bibliothek.gui.dock.control.DeferredValidation;
 import bibliothek.gui.dock.control.focus.DefaultFocusRequest;
 import bibliothek.gui.dock.control.focus.FocusController;
 import bibliothek.gui.dock.control.focus.MouseFocusObserver;
@@ -259,7 +260,7 @@ public class FlapDockStation extends AbstractDockableStation {
     /** the minimum size this station has */
     private PropertyValue<Dimension> minimumSize = new PropertyValue<Dimension>( MINIMUM_SIZE ) {
     	protected void valueChanged( Dimension oldValue, Dimension newValue ){
-    		buttonPane.revalidate();
+    		DeferredValidation.revalidate( getController(), buttonPane );
     	}
 	};
 	
@@ -625,7 +626,7 @@ public class FlapDockStation extends AbstractDockableStation {
         
         buttonPane.resetTitles();
         updateWindowBounds();
-        buttonPane.revalidate();
+        DeferredValidation.revalidate( getController(), buttonPane );
     }
     
     /**
@@ -654,8 +655,18 @@ public class FlapDockStation extends AbstractDockableStation {
      * there is a window.
      */
     protected void updateWindowBounds(){
-        if( window != null )
-            window.updateBounds();
+        if( window != null ){
+        	DockController controller = getController();
+        	if( controller == null || !controller.getDeferredValidation().update( window, new Runnable(){
+        		public void run(){
+        			if( window != null ){
+        				window.updateBounds();
+        			}
+        		}
+        	})){
+        		window.updateBounds();
+        	}
+        }
     }
     
     /**
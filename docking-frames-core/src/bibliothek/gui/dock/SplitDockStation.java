@@ -62,6 +62,7 @@ import bibliothek.gui.dock.action.DockActionSource;
 import bibliothek.gui.dock.action.HierarchyDockActionSource;
 import bibliothek.gui.dock.action.ListeningDockAction;
 import bibliothek.gui.dock.action.LocationHint;
+import bibliothek.gui.dock.control.DeferredValidation;
 import bibliothek.gui.dock.control.relocator.Merger;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.disable.DisablingStrategyListener;
@@ -757,6 +758,18 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	public DockController getController(){
 		return controller;
 	}
+	
+	/**
+	 * Revalidates this station, unless the {@link DeferredValidation} of the current {@link DockController}
+	 * is frozen in which case the revalidation is delayed.
+	 */
+	@Override
+	public void revalidate(){
+		DockController controller = getController();
+		if( controller == null || !controller.getDeferredValidation().revalidate( this )){
+			super.revalidate();
+		}
+	}
 
 	public void addDockableListener( DockableListener listener ){
 		dockableListeners.add(listener);
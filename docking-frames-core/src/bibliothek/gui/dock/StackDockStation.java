@@ -51,6 +51,7 @@ import bibliothek.gui.DockStation;
 import bibliothek.gui.DockTheme;
 import bibliothek.gui.DockUI;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.DeferredValidation;
 import bibliothek.gui.dock.control.focus.DefaultFocusRequest;
 import bibliothek.gui.dock.control.focus.FocusController;
 import bibliothek.gui.dock.displayer.DisplayerCombinerTarget;
@@ -1384,7 +1385,7 @@ public class StackDockStation extends AbstractDockableStation implements StackDo
             	stackComponent.setSelectedIndex( selectionIndex );
             }
         }
-        panel.revalidate();
+        DeferredValidation.revalidate( getController(), panel );
         panel.repaint();
     }
     
@@ -1497,7 +1498,7 @@ public class StackDockStation extends AbstractDockableStation implements StackDo
 	        visibleListener.ignoreSelectionChanges = false;
 	        focusAfterRemoving( removingSelection );
 	        
-	        panel.revalidate();
+	        DeferredValidation.revalidate( getController(), panel );
 	        
 	       	listeners.fireDockableRemoved( dockable );
         }
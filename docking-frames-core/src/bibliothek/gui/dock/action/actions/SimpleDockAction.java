@@ -42,7 +42,7 @@ import bibliothek.gui.dock.action.DockAction;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.event.DockHierarchyEvent;
 import bibliothek.gui.dock.event.DockHierarchyListener;
-import bibliothek.gui.dock.event.KeyboardListener;
+import bibliothek.gui.dock.event.FilteredKeyboardListener;
 import bibliothek.gui.dock.station.LayoutLocked;
 
 /**
@@ -216,6 +216,9 @@ public abstract class SimpleDockAction extends AbstractStandardDockAction implem
     
     public void setAccelerator( KeyStroke accelerator ){
 		this.accelerator = accelerator;
+		for( DockableKeyForwarder forwarder : forwarders.values() ){
+			forwarder.updateKeyStrokes();
+		}
 		fireActionTooltipTextChanged( getBoundDockables() );
 	}
     
@@ -233,11 +236,12 @@ public abstract class SimpleDockAction extends AbstractStandardDockAction implem
     }
     
     /**
-     * Listens to all {@link KeyEvent}s concerning one {@link Dockable}.
+     * Listens to all {@link KeyEvent}s concerning one {@link Dockable} that match the
+     * {@link SimpleDockAction#getAccelerator() accelerator}.
      * @author Benjamin Sigg
      */
     @LayoutLocked( locked=false )
-    private class DockableKeyForwarder implements KeyboardListener, DockHierarchyListener{
+    private class DockableKeyForwarder implements FilteredKeyboardListener, DockHierarchyListener{
     	/** the element which is observed by this listener */
     	private Dockable dockable;
 
@@ -247,6 +251,9 @@ public abstract class SimpleDockAction extends AbstractStandardDockAction implem
     	/** whether this forwarder has been destroyed */
     	private boolean destroyed = false;
     	
+    	/** the key strokes that were used to register this forwarder at {@link #controller} */
+    	private KeyStroke[] strokes = new KeyStroke[]{};
+    	
     	/**
     	 * Creates a new forwarder.
     	 * @param dockable the element for which the calls will be forwarded
@@ -276,11 +283,30 @@ public abstract class SimpleDockAction extends AbstractStandardDockAction implem
     			this.controller = controller;
     		}
     		
+    		if( accelerator == null ){
+    			strokes = new KeyStroke[]{};
+    		}
+    		else{
+    			strokes = new KeyStroke[]{ accelerator };
+    		}
+    		
     		if( this.controller != null ){
     			this.controller.getKeyboardController().addListener( this );
     		}
     	}
     	
+    	/**
+    	 * Registers this forwarder again at the {@link bibliothek.gui.dock.control.KeyboardController}, called
+    	 * when the accelerator changed.
+    	 */
+    	public void updateKeyStrokes(){
+    		setController( controller );
+    	}
+    	
+    	public KeyStroke[] getKeyStrokes(){
+    		return strokes;
+    	}
+    	
     	/**
     	 * Removes all listeners added by this forwarder.
     	 */
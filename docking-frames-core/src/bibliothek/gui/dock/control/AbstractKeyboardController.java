@@ -28,17 +28,24 @@ package bibliothek.gui.dock.control;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.swing.KeyStroke;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.dock.DockElement;
 import bibliothek.gui.dock.DockElementRepresentative;
+import bibliothek.gui.dock.event.FilteredKeyboardListener;
 import bibliothek.gui.dock.event.KeyboardListener;
 import bibliothek.gui.dock.event.LocatedListenerList;
 
 /**
  * Abstract implementation of {@link KeyboardController} offering methods to store and call
- * {@link KeyboardListener}s.
+ * {@link KeyboardListener}s. {@link FilteredKeyboardListener}s are stored in an index using their
+ * {@link KeyStroke}s as key, events whose {@link KeyStroke} is not in the index and for which no other
+ * {@link KeyboardListener} is registered are not forwarded at all.
  * @author Benjamin Sigg
  */
 public abstract class AbstractKeyboardController implements KeyboardController{
@@ -46,6 +53,10 @@ public abstract class AbstractKeyboardController implements KeyboardController{
 	private LocatedListenerList<KeyboardListener> keyListeners = 
 		new LocatedListenerList<KeyboardListener>();
 	
+	/** the {@link FilteredKeyboardListener}s, ordered by the {@link KeyStroke}s they are interested in */
+	private Map<KeyStroke, LocatedListenerList<KeyboardListener>> strokeListeners =
+		new HashMap<KeyStroke, LocatedListenerList<KeyboardListener>>();
+	
 	/** the listeners which will be informed about any events */
 	private List<KeyListener> globalListeners = new ArrayList<KeyListener>();
 	
@@ -75,17 +86,66 @@ public abstract class AbstractKeyboardController implements KeyboardController{
 		if( listener == null )
 	        throw new IllegalArgumentException( "listener must not be null" );
 	    
-		keyListeners.addListener( listener );
+		if( listener instanceof FilteredKeyboardListener ){
+			for( KeyStroke stroke : ((FilteredKeyboardListener)listener).getKeyStrokes() ){
+				LocatedListenerList<KeyboardListener> list = strokeListeners.get( stroke );
+				if( list == null ){
+					list = new LocatedListenerList<KeyboardListener>();
+					strokeListeners.put( stroke, list );
+				}
+				list.addListener( listener );
+			}
+		}
+		else{
+			keyListeners.addListener( listener );
+		}
 	}
 
 	public void removeListener( KeyboardListener listener ){
-		keyListeners.removeListener( listener );
+		if( listener instanceof FilteredKeyboardListener ){
+			for( KeyStroke stroke : ((FilteredKeyboardListener)listener).getKeyStrokes() ){
+				LocatedListenerList<KeyboardListener> list = strokeListeners.get( stroke );
+				if( list != null ){
+					list.removeListener( listener );
+					if( list.size() == 0 ){
+						strokeListeners.remove( stroke );
+					}
+				}
+			}
+		}
+		else{
+			keyListeners.removeListener( listener );
+		}
 	}
 
 	public DockController getController() {
         return controller;
     }
 	
+	/**
+	 * Searches the {@link DockElementRepresentative} on which <code>event</code> occurred. This method
+	 * returns <code>null</code> without searching if there is no listener that could be interested in
+	 * <code>event</code>.
+	 * @param event the event whose source is searched
+	 * @return the source of the event or <code>null</code>
+	 */
+	private DockElementRepresentative searchElement( KeyEvent event ){
+		if( keyListeners.size() == 0 && !strokeListeners.containsKey( KeyStroke.getKeyStrokeForEvent( event ) )){
+			return null;
+		}
+		return controller.searchElement( event.getComponent() );
+	}
+	
+	/**
+	 * Creates a list of all the {@link KeyboardListener}s which are affected by <code>event</code>.
+	 * @param element the element on which the event occurred
+	 * @param event the event to forward
+	 * @return the ordered list of listeners
+	 */
+	private List<KeyboardListener> affected( DockElement element, KeyEvent event ){
+		return keyListeners.affected( element, strokeListeners.get( KeyStroke.getKeyStrokeForEvent( event ) ) );
+	}
+	
 	/**
 	 * Forwards <code>event</code> to all listeners whose 
 	 * {@link bibliothek.gui.dock.DockElement} is above the component
@@ -94,11 +154,11 @@ public abstract class AbstractKeyboardController implements KeyboardController{
 	 */
 	protected void fireKeyPressed( KeyEvent event ){
 		if( !event.isConsumed() ){
-    		DockElementRepresentative representative = controller.searchElement( event.getComponent() );
+    		DockElementRepresentative representative = searchElement( event );
     		if( representative != null ){
     		    DockElement element = representative.getElement();
     		    
-        		List<KeyboardListener> list = keyListeners.affected( element );
+        		List<KeyboardListener> list = affected( element, event );
         		loop:for( KeyboardListener listener : list ){
         			if( listener.keyPressed( element, event )){
         				event.consume();
@@ -121,11 +181,11 @@ public abstract class AbstractKeyboardController implements KeyboardController{
 	 */
 	protected void fireKeyReleased( KeyEvent event ){
 		if( !event.isConsumed() ){
-			DockElementRepresentative representative = controller.searchElement( event.getComponent() );
+			DockElementRepresentative representative = searchElement( event );
     		if( representative != null ){
     		    DockElement element = representative.getElement();
     		    
-        		List<KeyboardListener> list = keyListeners.affected( element );
+        		List<KeyboardListener> list = affected( element, event );
         		loop:for( KeyboardListener listener : list ){
         			if( listener.keyReleased( element, event )){
         				event.consume();
@@ -148,10 +208,10 @@ public abstract class AbstractKeyboardController implements KeyboardController{
 	 */
 	protected void fireKeyTyped( KeyEvent event ){
 		if( !event.isConsumed() ){
-			DockElementRepresentative representative = controller.searchElement( event.getComponent() );
+			DockElementRepresentative representative = searchElement( event );
     		if( representative != null ){
     		    DockElement element = representative.getElement();
-        		List<KeyboardListener> list = keyListeners.affected( element );
+        		List<KeyboardListener> list = affected( element, event );
         		loop:for( KeyboardListener listener : list ){
         			if( listener.keyTyped( element, event )){
         				event.consume();
@@ -42,10 +42,41 @@ import bibliothek.gui.dock.util.extension.ExtensionManager;
 
 /**
  * A very simple implementation of {@link DockControllerFactory}, creating
- * only the default-versions of every element.
+ * only the default-versions of every element.<br>
+ * In <i>lazy</i> mode the elements that need global AWT listeners add these listeners only once they
+ * are actually needed. This is useful for applications creating many short lived {@link DockController}s. 
+ * Use {@link DockController#getStartupTimes()} to find out how much time the creation of each element took.
  * @author Benjamin Sigg
  */
 public class DefaultDockControllerFactory implements DockControllerFactory {
+	/** whether AWT listeners are only added when needed */
+	private boolean lazy;
+	
+	/**
+	 * Creates a new factory that is not lazy.
+	 */
+	public DefaultDockControllerFactory(){
+		this( false );
+	}
+	
+	/**
+	 * Creates a new factory.
+	 * @param lazy whether the elements created by this factory should add their global AWT listeners
+	 * only once these listeners are needed
+	 */
+	public DefaultDockControllerFactory( boolean lazy ){
+		this.lazy = lazy;
+	}
+	
+	/**
+	 * Tells whether the elements created by this factory add their global AWT listeners only
+	 * once these listeners are needed.
+	 * @return whether this factory is lazy
+	 */
+	public boolean isLazy(){
+		return lazy;
+	}
+	
     public DockRegisterListener createActionBinder( DockController controller, ControllerSetupCollection setup ) {
         return new ActionBinder( controller );
     }
@@ -109,7 +140,7 @@ public class DefaultDockControllerFactory implements DockControllerFactory {
     public KeyboardController createKeyboardController(
             DockController controller, ControllerSetupCollection setup ) {
         
-        return new DefaultKeyboardController( controller, setup );
+        return new DefaultKeyboardController( controller, setup, lazy );
     }
 
     public MouseFocusObserver createMouseFocusObserver(
@@ -135,7 +166,7 @@ public class DefaultDockControllerFactory implements DockControllerFactory {
     }
     
     public GlobalMouseDispatcher createGlobalMouseDispatcher( DockController controller, ControllerSetupCollection setup ){
-    	return new DefaultGlobalMouseDispatcher( controller, setup );
+    	return new DefaultGlobalMouseDispatcher( controller, setup, lazy );
     }
     
     public ExtensionManager createExtensionManager( DockController controller, ControllerSetupCollection setup ){
@@ -26,38 +26,100 @@
 package bibliothek.gui.dock.control;
 
 import java.awt.AWTEvent;
+import java.awt.Component;
 import java.awt.Toolkit;
+import java.awt.Window;
 import java.awt.event.AWTEventListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
+import javax.swing.SwingUtilities;
 
 import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.event.ControllerSetupListener;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.util.PropertyValue;
 
 /**
  * This default implementation of a {@link GlobalMouseDispatcher} uses an {@link AWTEventListener} is possible, or
- * just forwards events that are delivered to the {@link #dispatch(MouseEvent)} method.
+ * just forwards events that are delivered to the {@link #dispatch(MouseEvent)} method.<br>
+ * The listeners are stored in arrays that are replaced whenever a listener is added or removed, hence
+ * dispatching an event does not require any locking. The {@link AWTEventListener} is only registered
+ * for the kind of events that are actually observed by some listener, and events that occur on a
+ * {@link Window} which does not show any {@link Dockable} are not forwarded at all.
  * @author Benjamin Sigg
  */
 public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 	/** The listener to all AWT events*/
 	private AWTEventListener listener;
+	
+	/** the mask which was used to register {@link #listener} */
+	private long listenerMask = 0;
 
-	private List<MouseListener> mouseListeners = new ArrayList<MouseListener>();
-	private MouseListener[] mouseListenersCache = null;
+	private volatile MouseListener[] mouseListeners = new MouseListener[]{};
 
-	private List<MouseMotionListener> mouseMotionListeners = new ArrayList<MouseMotionListener>();
-	private MouseMotionListener[] mouseMotionListenersCache = null;
+	private volatile MouseMotionListener[] mouseMotionListeners = new MouseMotionListener[]{};
 
-	private List<MouseWheelListener> mouseWheelListeners = new ArrayList<MouseWheelListener>();
-	private MouseWheelListener[] mouseWheelListenersCache = null;
+	private volatile MouseWheelListener[] mouseWheelListeners = new MouseWheelListener[]{};
 
+	/** the controller in whose realm this dispatcher works */
+	private DockController controller;
+	
+	/** all the {@link Window}s which show at least one {@link Dockable} */
+	private Set<Window> windows = new HashSet<Window>();
+	
+	/** whether {@link #windows} has to be updated */
+	private boolean windowsInvalid = true;
+	
+	/** the components which are observed by {@link #hierarchyListener} */
+	private Set<Component> observedComponents = new HashSet<Component>();
+	
+	/** whether the {@link AWTEventListener} is only added while at least one {@link Dockable} is registered */
+	private boolean lazy;
+	
+	/** invalidates {@link #windows} whenever a {@link Dockable} is moved */
+	private HierarchyListener hierarchyListener = new HierarchyListener(){
+		public void hierarchyChanged( HierarchyEvent e ){
+			if( (e.getChangeFlags() & (HierarchyEvent.PARENT_CHANGED | HierarchyEvent.DISPLAYABILITY_CHANGED)) != 0 ){
+				windowsInvalid = true;
+			}
+		}
+	};
+	
+	/** keeps track of all the {@link Dockable}s that are registered at {@link #controller} */
+	private DockRegisterAdapter registerListener = new DockRegisterAdapter(){
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			observe( dockable );
+		}
+		
+		@Override
+		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			unobserve( dockable );
+		}
+		
+		@Override
+		public void dockStationRegistered( DockController controller, DockStation station ){
+			observe( station.asDockable() );
+		}
+		
+		@Override
+		public void dockStationUnregistered( DockController controller, DockStation station ){
+			unobserve( station.asDockable() );
+		}
+	};
+	
 	/** whether the application is in restricted mode or not */
 	private PropertyValue<Boolean> restricted = new PropertyValue<Boolean>( DockController.RESTRICTED_ENVIRONMENT ){
 		protected void valueChanged( Boolean oldValue, Boolean newValue ){
@@ -71,8 +133,30 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 	 * @param setup tells when the setup phase of <code>controller</code> is finished
 	 */
 	public DefaultGlobalMouseDispatcher( DockController controller, ControllerSetupCollection setup ){
+		this( controller, setup, false );
+	}
+	
+	/**
+	 * Creates a new dispatcher.
+	 * @param controller the controller in whose realm this dispatcher works
+	 * @param setup tells when the setup phase of <code>controller</code> is finished
+	 * @param lazy if <code>true</code>, then the {@link AWTEventListener} is only added while at least
+	 * one {@link Dockable} is registered at <code>controller</code>
+	 */
+	public DefaultGlobalMouseDispatcher( DockController controller, ControllerSetupCollection setup, boolean lazy ){
+		this.controller = controller;
+		this.lazy = lazy;
 		setup.add( new ControllerSetupListener(){
 			public void done( DockController controller ){
+				DockRegister register = controller.getRegister();
+				register.addDockRegisterListener( registerListener );
+				for( Dockable dockable : register.listDockables() ){
+					observe( dockable );
+				}
+				for( DockStation station : register.listDockStations() ){
+					observe( station.asDockable() );
+				}
+				
 				restricted.setProperties( controller );
 				updateRestricted();
 			}
@@ -127,98 +211,233 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 	}
 
 	public synchronized void addMouseListener( MouseListener listener ){
-		mouseListeners.add( listener );
-		mouseListenersCache = null;
+		List<MouseListener> list = new ArrayList<MouseListener>( mouseListeners.length+1 );
+		for( MouseListener item : mouseListeners ){
+			list.add( item );
+		}
+		list.add( listener );
+		mouseListeners = list.toArray( new MouseListener[ list.size() ] );
+		updateListener();
 	}
 
 	public synchronized void removeMouseListener( MouseListener listener ){
-		mouseListeners.remove( listener );
-		mouseListenersCache = null;
+		List<MouseListener> list = new ArrayList<MouseListener>( mouseListeners.length );
+		for( MouseListener item : mouseListeners ){
+			list.add( item );
+		}
+		if( list.remove( listener )){
+			mouseListeners = list.toArray( new MouseListener[ list.size() ] );
+			updateListener();
+		}
 	}
 
 	/**
-	 * Gets all the {@link MouseListener}s that are currently registered.
+	 * Gets all the {@link MouseListener}s that are currently registered. The array must not be modified.
 	 * @return all the listeners
 	 */
-	protected synchronized MouseListener[] getMouseListeners(){
-		if( mouseListenersCache == null ) {
-			mouseListenersCache = mouseListeners.toArray( new MouseListener[mouseListeners.size()] );
-		}
-		return mouseListenersCache;
+	protected MouseListener[] getMouseListeners(){
+		return mouseListeners;
 	}
 
 	public synchronized void addMouseMotionListener( MouseMotionListener listener ){
-		mouseMotionListeners.add( listener );
-		mouseMotionListenersCache = null;
+		List<MouseMotionListener> list = new ArrayList<MouseMotionListener>( mouseMotionListeners.length+1 );
+		for( MouseMotionListener item : mouseMotionListeners ){
+			list.add( item );
+		}
+		list.add( listener );
+		mouseMotionListeners = list.toArray( new MouseMotionListener[ list.size() ] );
+		updateListener();
 	}
 
 	public synchronized void removeMouseMotionListener( MouseMotionListener listener ){
-		mouseMotionListeners.remove( listener );
-		mouseMotionListenersCache = null;
+		List<MouseMotionListener> list = new ArrayList<MouseMotionListener>( mouseMotionListeners.length );
+		for( MouseMotionListener item : mouseMotionListeners ){
+			list.add( item );
+		}
+		if( list.remove( listener )){
+			mouseMotionListeners = list.toArray( new MouseMotionListener[ list.size() ] );
+			updateListener();
+		}
 	}
 
 	/**
-	 * Gets all the {@link MouseMotionListener}s that are currently registered.
+	 * Gets all the {@link MouseMotionListener}s that are currently registered. The array must not be modified.
 	 * @return all the listeners
 	 */
-	protected synchronized MouseMotionListener[] getMouseMotionListeners(){
-		if( mouseMotionListenersCache == null ) {
-			mouseMotionListenersCache = mouseMotionListeners.toArray( new MouseMotionListener[mouseMotionListeners.size()] );
-		}
-		return mouseMotionListenersCache;
+	protected MouseMotionListener[] getMouseMotionListeners(){
+		return mouseMotionListeners;
 	}
 	
 	public synchronized void addMouseWheelListener( MouseWheelListener listener ){
-		mouseWheelListeners.add( listener );
-		mouseWheelListenersCache = null;
+		List<MouseWheelListener> list = new ArrayList<MouseWheelListener>( mouseWheelListeners.length+1 );
+		for( MouseWheelListener item : mouseWheelListeners ){
+			list.add( item );
+		}
+		list.add( listener );
+		mouseWheelListeners = list.toArray( new MouseWheelListener[ list.size() ] );
+		updateListener();
 	}
 
 	public synchronized void removeMouseWheelListener( MouseWheelListener listener ){
-		mouseWheelListeners.remove( listener );
-		mouseWheelListenersCache = null;
+		List<MouseWheelListener> list = new ArrayList<MouseWheelListener>( mouseWheelListeners.length );
+		for( MouseWheelListener item : mouseWheelListeners ){
+			list.add( item );
+		}
+		if( list.remove( listener )){
+			mouseWheelListeners = list.toArray( new MouseWheelListener[ list.size() ] );
+			updateListener();
+		}
 	}
 
 	/**
-	 * Gets all the {@link MouseWheelListener}s that are currently registered.
+	 * Gets all the {@link MouseWheelListener}s that are currently registered. The array must not be modified.
 	 * @return all the listeners
 	 */
-	protected synchronized MouseWheelListener[] getMouseWheelListeners(){
-		if( mouseWheelListenersCache == null ) {
-			mouseWheelListenersCache = mouseWheelListeners.toArray( new MouseWheelListener[mouseWheelListeners.size()] );
+	protected MouseWheelListener[] getMouseWheelListeners(){
+		return mouseWheelListeners;
+	}
+	
+	/**
+	 * Tells for which kind of {@link AWTEvent}s the {@link AWTEventListener} has to be registered. The
+	 * mask depends on the listeners that are currently registered.
+	 * @return the mask, <code>0</code> if no events need to be observed
+	 */
+	protected long getEventMask(){
+		long mask = 0;
+		if( lazy && observedComponents.isEmpty() ){
+			return mask;
 		}
-		return mouseWheelListenersCache;
+		if( mouseListeners.length > 0 ){
+			mask |= AWTEvent.MOUSE_EVENT_MASK;
+		}
+		if( mouseWheelListeners.length > 0 ){
+			mask |= AWTEvent.MOUSE_WHEEL_EVENT_MASK;
+		}
+		return mask;
 	}
 
 	private void updateRestricted(){
 		if( restricted.getProperties() != null ) {
-			if( !restricted.getValue() ) {
-				if( listener == null ) {
-					listener = createListener();
-
-					try {
-						Toolkit.getDefaultToolkit().addAWTEventListener( listener, AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_WHEEL_EVENT_MASK );
-					}
-					catch( SecurityException ex ) {
-						System.err.println( "Can't register AWTEventListener, support for global MouseEvents disabled" );
-						ex.printStackTrace();
-					}
-				}
+			updateListener();
+		}
+	}
+	
+	/**
+	 * Adds, removes or updates the {@link AWTEventListener} depending on whether the application runs in
+	 * a restricted environment and on which listeners are currently registered. 
+	 */
+	private synchronized void updateListener(){
+		long mask = 0;
+		if( restricted.getProperties() != null && !restricted.getValue() ){
+			mask = getEventMask();
+		}
+		
+		if( mask != listenerMask ){
+			if( listener != null ) {
+				Toolkit.getDefaultToolkit().removeAWTEventListener( listener );
+				listener = null;
 			}
-			else {
-				if( listener != null ) {
-					Toolkit.getDefaultToolkit().removeAWTEventListener( listener );
-					listener = null;
+			listenerMask = mask;
+			
+			if( mask != 0 ){
+				listener = createListener();
+	
+				try {
+					Toolkit.getDefaultToolkit().addAWTEventListener( listener, mask );
+				}
+				catch( SecurityException ex ) {
+					System.err.println( "Can't register AWTEventListener, support for global MouseEvents disabled" );
+					ex.printStackTrace();
 				}
 			}
 		}
 	}
 
-	public void kill(){
+	public synchronized void kill(){
 		if( listener != null ) {
 			Toolkit.getDefaultToolkit().removeAWTEventListener( listener );
 			listener = null;
 		}
+		listenerMask = 0;
 		restricted.setProperties( (DockController) null );
+		
+		controller.getRegister().removeDockRegisterListener( registerListener );
+		for( Component component : observedComponents ){
+			component.removeHierarchyListener( hierarchyListener );
+		}
+		observedComponents.clear();
+		windows.clear();
+		windowsInvalid = true;
+	}
+	
+	/**
+	 * Starts observing the location of <code>dockable</code>.
+	 * @param dockable the element to observe, can be <code>null</code>
+	 */
+	private void observe( Dockable dockable ){
+		if( dockable != null ){
+			Component component = dockable.getComponent();
+			if( component != null && observedComponents.add( component )){
+				component.addHierarchyListener( hierarchyListener );
+				if( lazy && observedComponents.size() == 1 ){
+					updateRestricted();
+				}
+			}
+			windowsInvalid = true;
+		}
+	}
+	
+	/**
+	 * Stops observing the location of <code>dockable</code>.
+	 * @param dockable the element to ignore, can be <code>null</code>
+	 */
+	private void unobserve( Dockable dockable ){
+		if( dockable != null ){
+			Component component = dockable.getComponent();
+			if( component != null && observedComponents.remove( component )){
+				component.removeHierarchyListener( hierarchyListener );
+				if( lazy && observedComponents.isEmpty() ){
+					updateRestricted();
+				}
+			}
+			windowsInvalid = true;
+		}
+	}
+	
+	/**
+	 * Tells whether <code>event</code> should be forwarded to the listeners of this dispatcher. This method is
+	 * called for events that were caught by the {@link AWTEventListener}, the default implementation
+	 * only accepts events whose {@link Window} shows at least one {@link Dockable}.
+	 * @param event the event to check
+	 * @return whether to forward the event
+	 */
+	protected boolean accept( MouseEvent event ){
+		Component component = event.getComponent();
+		if( component == null ){
+			return true;
+		}
+		Window window;
+		if( component instanceof Window ){
+			window = (Window)component;
+		}
+		else{
+			window = SwingUtilities.getWindowAncestor( component );
+		}
+		if( window == null ){
+			return true;
+		}
+		
+		if( windowsInvalid ){
+			windowsInvalid = false;
+			windows.clear();
+			for( Component observed : observedComponents ){
+				Window ancestor = SwingUtilities.getWindowAncestor( observed );
+				if( ancestor != null ){
+					windows.add( ancestor );
+				}
+			}
+		}
+		return windows.contains( window );
 	}
 
 	/**
@@ -229,7 +448,10 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 		return new AWTEventListener(){
 			public void eventDispatched( AWTEvent event ){
 				if( event instanceof MouseEvent ) {
-					dispatch( (MouseEvent) event );
+					MouseEvent mouseEvent = (MouseEvent)event;
+					if( accept( mouseEvent )){
+						dispatch( mouseEvent );
+					}
 				}
 			}
 		};
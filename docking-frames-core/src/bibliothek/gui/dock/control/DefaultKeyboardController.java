@@ -34,9 +34,11 @@ import java.awt.event.KeyListener;
 import java.util.List;
 
 import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.event.ComponentHierarchyObserverEvent;
 import bibliothek.gui.dock.event.ComponentHierarchyObserverListener;
 import bibliothek.gui.dock.event.ControllerSetupListener;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.util.PropertyValue;
 
 /**
@@ -49,6 +51,22 @@ public class DefaultKeyboardController extends AbstractKeyboardController {
 	private KeyListener keyListener;
 	private ComponentHierarchyObserverListener hierarchyListener;
 	
+	/** whether listeners are only added while there is at least one {@link Dockable} */
+	private boolean lazy;
+	
+	/** observes the {@link DockRegister} if this controller is {@link #lazy} */
+	private DockRegisterAdapter registerListener = new DockRegisterAdapter(){
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			updateRestricted();
+		}
+		
+		@Override
+		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			updateRestricted();
+		}
+	};
+	
     /** whether the application is in restricted mode or not */
     private PropertyValue<Boolean> restricted = new PropertyValue<Boolean>( DockController.RESTRICTED_ENVIRONMENT ){
 		protected void valueChanged( Boolean oldValue, Boolean newValue ){
@@ -62,21 +80,45 @@ public class DefaultKeyboardController extends AbstractKeyboardController {
 	 * @param setup an observer that informs this object when <code>controller</code> is set up.
 	 */
 	public DefaultKeyboardController( DockController controller, ControllerSetupCollection setup ){
+		this( controller, setup, false );
+	}
+	
+	/**
+	 * Creates a new controller
+	 * @param controller the realm in which this controller operates
+	 * @param setup an observer that informs this object when <code>controller</code> is set up.
+	 * @param lazy if <code>true</code>, then this controller adds its {@link AWTEventListener} or
+	 * {@link KeyListener}s only while at least one {@link Dockable} is registered at <code>controller</code>
+	 */
+	public DefaultKeyboardController( DockController controller, ControllerSetupCollection setup, boolean lazy ){
 		super( controller );
+		this.lazy = lazy;
 		
 		setup.add( new ControllerSetupListener(){
 			public void done( DockController controller ){
+				if( DefaultKeyboardController.this.lazy ){
+					controller.getRegister().addDockRegisterListener( registerListener );
+				}
 				restricted.setProperties( controller );
 				updateRestricted();
 			}
 		});
 	}
 	
+	/**
+	 * Tells whether this controller adds its listeners only while at least one {@link Dockable} is registered.
+	 * @return whether this controller is lazy
+	 */
+	public boolean isLazy(){
+		return lazy;
+	}
+	
 	private void updateRestricted(){
 		if( restricted.getProperties() != null ){
+			boolean active = !lazy || getController().getRegister().getDockableCount() > 0;
 			boolean restricted = this.restricted.getValue();
-			setListeningAWT( !restricted );
-			setListeningKey( restricted );
+			setListeningAWT( active && !restricted );
+			setListeningKey( active && restricted );
 		}
 	}
 	
@@ -133,6 +175,9 @@ public class DefaultKeyboardController extends AbstractKeyboardController {
 	}
 
 	public void kill(){
+		if( lazy ){
+			getController().getRegister().removeDockRegisterListener( registerListener );
+		}
 		setListeningAWT( false );
 		setListeningKey( false );
 		restricted.setProperties( (DockController)null );
@@ -0,0 +1,203 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.control;
+
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+
+/**
+ * The {@link DeferredValidation} allows to freeze the Swing layout of all the {@link DockStation}s
+ * in the realm of a {@link DockController}. While frozen, calls to {@link #revalidate(Component)} only
+ * mark components as invalid, and updates registered with {@link #update(Object, Runnable)} are
+ * delayed. Once the outermost freeze is {@link #melt() melted}, all the delayed updates are executed
+ * and each affected top-level window is validated exactly once.<br>
+ * Freezes can be nested, clients must call {@link #melt()} exactly as often as {@link #freeze()}.<br>
+ * Note that only the Swing layout is frozen: stations still update the bounds they store themselves (e.g.
+ * the bounds of the nodes of a {@link bibliothek.gui.dock.SplitDockStation}) immediately, because code that runs
+ * while the layout is frozen may depend on them. Only updates that are expensive, or that are only relevant for
+ * the screen, should be registered with {@link #update(Object, Runnable)}.
+ * @author Benjamin Sigg
+ */
+public class DeferredValidation {
+	/**
+	 * Revalidates <code>component</code> unless the layout of <code>controller</code> is frozen,
+	 * in which case the revalidation is delayed until the layout melts.
+	 * @param controller the controller in whose realm <code>component</code> is, can be <code>null</code>
+	 * @param component the component to revalidate
+	 */
+	public static void revalidate( DockController controller, JComponent component ){
+		if( controller == null || !controller.getDeferredValidation().revalidate( component )){
+			component.revalidate();
+		}
+	}
+	
+	/** the controller in whose realm this freeze works */
+	private DockController controller;
+	
+	/** how often {@link #freeze()} was called */
+	private int frozen = 0;
+	
+	/** the components that have to be validated once the layout melts */
+	private Set<Component> invalid = new LinkedHashSet<Component>();
+	
+	/** the updates that have to be executed once the layout melts */
+	private Map<Object, Runnable> updates = new LinkedHashMap<Object, Runnable>();
+	
+	/**
+	 * Creates a new freeze.
+	 * @param controller the controller in whose realm this freeze works
+	 */
+	public DeferredValidation( DockController controller ){
+		if( controller == null ){
+			throw new IllegalArgumentException( "controller must not be null" );
+		}
+		this.controller = controller;
+	}
+	
+	/**
+	 * Gets the controller in whose realm this freeze works.
+	 * @return the controller, not <code>null</code>
+	 */
+	public DockController getController(){
+		return controller;
+	}
+	
+	/**
+	 * Freezes the layout. Every call to this method must be followed by exactly one call to {@link #melt()}.
+	 */
+	public void freeze(){
+		frozen++;
+	}
+	
+	/**
+	 * Melts the layout. If this was the outermost freeze, then all the delayed updates are executed
+	 * and the affected windows are validated.
+	 */
+	public void melt(){
+		frozen--;
+		
+		// recover from too many melt calls
+		if( frozen < 0 ){
+			frozen = 0;
+		}
+		
+		if( frozen == 0 ){
+			flush();
+		}
+	}
+	
+	/**
+	 * Tells whether the layout is currently frozen.
+	 * @return <code>true</code> if layout passes are delayed
+	 */
+	public boolean isFrozen(){
+		return frozen > 0;
+	}
+	
+	/**
+	 * Marks <code>component</code> as invalid. If the layout is frozen, then the component will be validated
+	 * once the layout melts, otherwise this method does nothing.
+	 * @param component the component which should be revalidated
+	 * @return <code>true</code> if the revalidation was delayed, <code>false</code> if the caller has to
+	 * revalidate <code>component</code> itself
+	 */
+	public boolean revalidate( Component component ){
+		if( !isFrozen() ){
+			return false;
+		}
+		component.invalidate();
+		invalid.add( component );
+		return true;
+	}
+	
+	/**
+	 * Delays <code>update</code> until the layout melts. If another update with the same <code>key</code> is
+	 * already delayed, then only the newer update is executed.
+	 * @param key identifies the update, e.g. the object whose bounds need to be recalculated
+	 * @param update the update to execute
+	 * @return <code>true</code> if the update was delayed, <code>false</code> if the caller has to
+	 * execute <code>update</code> immediately
+	 */
+	public boolean update( Object key, Runnable update ){
+		if( !isFrozen() ){
+			return false;
+		}
+		updates.remove( key );
+		updates.put( key, update );
+		return true;
+	}
+	
+	/**
+	 * Executes all delayed updates and validates the windows of all invalid components.
+	 */
+	private void flush(){
+		while( !updates.isEmpty() ){
+			List<Runnable> pending = new ArrayList<Runnable>( updates.values() );
+			updates.clear();
+			for( Runnable update : pending ){
+				update.run();
+			}
+		}
+		
+		if( invalid.isEmpty() ){
+			return;
+		}
+		
+		List<Component> components = new ArrayList<Component>( invalid );
+		invalid.clear();
+		
+		Set<Component> roots = new LinkedHashSet<Component>();
+		for( Component component : components ){
+			Component root = SwingUtilities.getRoot( component );
+			if( root == null ){
+				root = component;
+				while( root.getParent() != null ){
+					root = root.getParent();
+				}
+			}
+			roots.add( root );
+		}
+		
+		for( Component root : roots ){
+			root.validate();
+		}
+		for( Component component : components ){
+			component.repaint();
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.control;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.event.CoalescedEvent;
+import bibliothek.gui.dock.event.DockStationListener;
+import bibliothek.gui.dock.event.DockableListener;
+
+/**
+ * The {@link DockEventCoalescer} allows to collect notifications of {@link DockStationListener}s and
+ * {@link DockableListener}s during bulk operations. While a transaction is open (see {@link #begin()}),
+ * events that describe a state change, like a new selection or a new icon, are not fired but stored. Events
+ * concerning the same element are merged, and once the transaction is {@link #commit() committed} only the final
+ * delta is fired. Events that describe a structural change, like a {@link Dockable} that was added, are never
+ * delayed.<br>
+ * Transactions can be nested, the events are fired when the outermost transaction is committed.
+ * @author Benjamin Sigg
+ */
+public class DockEventCoalescer {
+	/** the controller in whose realm this coalescer works */
+	private DockController controller;
+	
+	/** how many transactions are currently open */
+	private int depth = 0;
+	
+	/** all the events that have to be fired once the current transaction is committed */
+	private Map<CoalescedEvent, CoalescedEvent> pending = new LinkedHashMap<CoalescedEvent, CoalescedEvent>();
+	
+	/**
+	 * Creates a new coalescer.
+	 * @param controller the controller in whose realm this coalescer works
+	 */
+	public DockEventCoalescer( DockController controller ){
+		if( controller == null ){
+			throw new IllegalArgumentException( "controller must not be null" );
+		}
+		this.controller = controller;
+	}
+	
+	/**
+	 * Gets the controller in whose realm this coalescer works.
+	 * @return the controller, not <code>null</code>
+	 */
+	public DockController getController(){
+		return controller;
+	}
+	
+	/**
+	 * Opens a new transaction. Every call to this method must be followed by exactly one call to {@link #commit()}.
+	 */
+	public void begin(){
+		depth++;
+	}
+	
+	/**
+	 * Closes the current transaction. If this was the outermost transaction, then all pending
+	 * events are fired.
+	 */
+	public void commit(){
+		depth--;
+		
+		// recover from too many commit calls
+		if( depth < 0 ){
+			depth = 0;
+		}
+		
+		if( depth == 0 ){
+			while( !pending.isEmpty() ){
+				List<CoalescedEvent> events = new ArrayList<CoalescedEvent>( pending.values() );
+				pending.clear();
+				for( CoalescedEvent event : events ){
+					event.fire();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Executes <code>run</code> within a transaction.
+	 * @param run the code to execute
+	 */
+	public void run( Runnable run ){
+		try{
+			begin();
+			run.run();
+		}
+		finally{
+			commit();
+		}
+	}
+	
+	/**
+	 * Tells whether a transaction is currently open.
+	 * @return <code>true</code> if events are collected
+	 */
+	public boolean isCoalescing(){
+		return depth > 0;
+	}
+	
+	/**
+	 * Posts a new event. If a transaction is open, then <code>event</code> is either stored or
+	 * merged with an equal pending event. Otherwise <code>event</code> is fired immediately.
+	 * @param event the new event, not <code>null</code>
+	 */
+	public void post( CoalescedEvent event ){
+		if( event == null ){
+			throw new IllegalArgumentException( "event must not be null" );
+		}
+		if( depth == 0 ){
+			event.fire();
+		}
+		else{
+			CoalescedEvent existing = pending.get( event );
+			if( existing == null ){
+				pending.put( event, event );
+			}
+			else{
+				existing.merge( event );
+			}
+		}
+	}
+}
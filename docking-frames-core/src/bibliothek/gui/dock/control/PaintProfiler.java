@@ -0,0 +1,369 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.control;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.NestedTimer;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
+import bibliothek.util.Path;
+
+/**
+ * The {@link PaintProfiler} measures how much time the components in the realm of a {@link DockController}
+ * need for painting and layouting. Components report their work by calling {@link #begin()} and
+ * {@link #end(Path, Operation)}, the measurements are collected in one {@link PaintStatistics} for
+ * each kind of element and {@link Operation}. The default components report their work through
+ * {@link bibliothek.gui.dock.util.BackgroundPanel} and {@link bibliothek.gui.dock.themes.DefaultStationPaintValue},
+ * which covers {@link bibliothek.gui.dock.station.DockableDisplayer}s, {@link bibliothek.gui.dock.title.DockTitle}s,
+ * tabs and {@link bibliothek.gui.dock.station.StationPaint}s.<br>
+ * The profiler is disabled by default, it can be enabled with the property {@link #PROFILING}. The collected
+ * data can be read with {@link #getPaintStatistics()}, or through JMX if the profiler is 
+ * {@link #registerMBean(ObjectName) registered}.<br>
+ * Painting and layouting happens on the EDT, the methods of this class reading the statistics can be called
+ * from any thread. The methods of {@link PaintProfilerMBean} changing the profiler, like {@link #setEnabled(boolean)},
+ * can be called from any thread too, they execute their work on the EDT and wait until it is done.
+ * @author Benjamin Sigg
+ */
+public class PaintProfiler implements PaintProfilerMBean {
+	/** Whether the {@link PaintProfiler} of a {@link DockController} measures painting and layouting */
+	public static final PropertyKey<Boolean> PROFILING = 
+		new PropertyKey<Boolean>( "dock.paint.profiling", new ConstantPropertyFactory<Boolean>( false ), true );
+	
+	/** Whether the duration of the last paint operation is painted on top of each measured component, requires {@link #PROFILING} */
+	public static final PropertyKey<Boolean> OVERLAY = 
+		new PropertyKey<Boolean>( "dock.paint.profiling_overlay", new ConstantPropertyFactory<Boolean>( false ), true );
+	
+	/**
+	 * The kind of work that is measured.
+	 * @author Benjamin Sigg
+	 */
+	public static enum Operation{
+		/** painting a component */
+		PAINT,
+		/** laying out a component and its children */
+		LAYOUT
+	}
+	
+	/** the controller in whose realm this profiler works */
+	private DockController controller;
+	
+	/** whether measurements are made */
+	private PropertyValue<Boolean> enabled = new PropertyValue<Boolean>( PROFILING ){
+		@Override
+		protected void valueChanged( Boolean oldValue, Boolean newValue ){
+			// ignore, running measurements are finished even if the profiler is disabled
+		}
+	};
+	
+	/** whether the overlay is painted */
+	private PropertyValue<Boolean> overlay = new PropertyValue<Boolean>( OVERLAY ){
+		@Override
+		protected void valueChanged( Boolean oldValue, Boolean newValue ){
+			// ignore
+		}
+	};
+	
+	/** all the statistics collected so far */
+	private Map<Path, PaintStatistics[]> statistics = new HashMap<Path, PaintStatistics[]>();
+	
+	/** measures the currently running, nested measurements */
+	private NestedTimer timer = new NestedTimer();
+	
+	/** the name under which this profiler is registered at the platform {@link MBeanServer} */
+	private ObjectName mbeanName;
+	
+	/**
+	 * Creates a new profiler.
+	 * @param controller the controller in whose realm this profiler works, not <code>null</code>
+	 */
+	public PaintProfiler( DockController controller ){
+		if( controller == null ){
+			throw new IllegalArgumentException( "controller must not be null" );
+		}
+		this.controller = controller;
+		enabled.setProperties( controller );
+		overlay.setProperties( controller );
+	}
+	
+	/**
+	 * Gets the controller in whose realm this profiler works.
+	 * @return the controller, not <code>null</code>
+	 */
+	public DockController getController(){
+		return controller;
+	}
+	
+	public boolean isEnabled(){
+		return enabled.getValue();
+	}
+	
+	public void setEnabled( final boolean enabled ){
+		onEventDispatchThread( new Runnable(){
+			public void run(){
+				PaintProfiler.this.enabled.setValue( enabled );
+			}
+		});
+	}
+	
+	/**
+	 * Executes <code>run</code> on the EDT and waits until it has finished. Used by the methods
+	 * of {@link PaintProfilerMBean} which may be called by the JMX thread, but which must not
+	 * change this profiler while the EDT is measuring.
+	 * @param run the work to execute
+	 */
+	private void onEventDispatchThread( Runnable run ){
+		if( EventQueue.isDispatchThread() ){
+			run.run();
+		}
+		else{
+			try{
+				EventQueue.invokeAndWait( run );
+			}
+			catch( InterruptedException ex ){
+				Thread.currentThread().interrupt();
+			}
+			catch( InvocationTargetException ex ){
+				Throwable cause = ex.getCause();
+				if( cause instanceof RuntimeException ){
+					throw (RuntimeException)cause;
+				}
+				if( cause instanceof Error ){
+					throw (Error)cause;
+				}
+				throw new IllegalStateException( cause );
+			}
+		}
+	}
+	
+	/**
+	 * Tells whether components should paint the duration of their last paint operation.
+	 * @return whether to paint an overlay
+	 * @see #paintOverlay(Component, Graphics, long)
+	 */
+	public boolean isOverlay(){
+		return isEnabled() && overlay.getValue();
+	}
+	
+	/**
+	 * Starts a new measurement. If this method returns <code>true</code>, then {@link #end(Path, Operation)} must
+	 * be called once the work is done, even if the work was aborted by an exception.
+	 * @return <code>true</code> if the measurement started, <code>false</code> if the profiler is disabled
+	 */
+	public boolean begin(){
+		if( !isEnabled() ){
+			return false;
+		}
+		timer.begin();
+		return true;
+	}
+	
+	/**
+	 * Finishes the measurement that was started by the last call to {@link #begin()}.
+	 * @param kind the kind of element that was measured, not <code>null</code>
+	 * @param operation the kind of work that was measured, not <code>null</code>
+	 * @return the duration of the measurement in nanoseconds
+	 */
+	public long end( Path kind, Operation operation ){
+		if( timer.getDepth() == 0 ){
+			return 0;
+		}
+		long total = timer.end();
+		long self = timer.getSelfTime();
+		
+		synchronized( statistics ){
+			PaintStatistics[] entry = statistics.get( kind );
+			if( entry == null ){
+				entry = new PaintStatistics[ Operation.values().length ];
+				statistics.put( kind, entry );
+			}
+			int index = operation.ordinal();
+			if( entry[ index ] == null ){
+				entry[ index ] = new PaintStatistics( kind, operation );
+			}
+			entry[ index ].add( total, self );
+		}
+		return total;
+	}
+	
+	/**
+	 * Paints the duration of the last paint operation of <code>component</code> in its top left corner.
+	 * @param component the component that was painted
+	 * @param g the graphics context that was used to paint <code>component</code>
+	 * @param duration the duration of the paint operation in nanoseconds
+	 */
+	public void paintOverlay( Component component, Graphics g, long duration ){
+		String text = (duration / 1000) / 1000.0 + " ms";
+		FontMetrics metrics = g.getFontMetrics();
+		int width = metrics.stringWidth( text ) + 4;
+		int height = metrics.getHeight();
+		
+		Color color = g.getColor();
+		g.setColor( duration > 16000000L ? Color.RED : Color.YELLOW );
+		g.fillRect( 0, 0, width, height );
+		g.setColor( Color.BLACK );
+		g.drawString( text, 2, metrics.getAscent() );
+		g.setColor( color );
+	}
+	
+	/**
+	 * Gets a copy of all the statistics that were collected so far.
+	 * @return the statistics, one entry for each kind of element and operation
+	 */
+	public PaintStatistics[] getPaintStatistics(){
+		synchronized( statistics ){
+			int count = 0;
+			for( PaintStatistics[] entry : statistics.values() ){
+				for( PaintStatistics item : entry ){
+					if( item != null ){
+						count++;
+					}
+				}
+			}
+			PaintStatistics[] result = new PaintStatistics[ count ];
+			int index = 0;
+			for( PaintStatistics[] entry : statistics.values() ){
+				for( PaintStatistics item : entry ){
+					if( item != null ){
+						result[ index++ ] = new PaintStatistics( item );
+					}
+				}
+			}
+			return result;
+		}
+	}
+	
+	public long getPaintCount(){
+		return sum( Operation.PAINT, false );
+	}
+	
+	public long getPaintTime(){
+		return sum( Operation.PAINT, true );
+	}
+	
+	public long getLayoutCount(){
+		return sum( Operation.LAYOUT, false );
+	}
+	
+	public long getLayoutTime(){
+		return sum( Operation.LAYOUT, true );
+	}
+	
+	/**
+	 * Sums up either the count or the self time of all statistics of the operation <code>operation</code>.
+	 * @param operation the operation whose statistics are read
+	 * @param time whether to sum up the self time or the count
+	 * @return the sum
+	 */
+	private long sum( Operation operation, boolean time ){
+		long sum = 0;
+		synchronized( statistics ){
+			for( PaintStatistics[] entry : statistics.values() ){
+				PaintStatistics item = entry[ operation.ordinal() ];
+				if( item != null ){
+					sum += time ? item.getSelfTime() : item.getCount();
+				}
+			}
+		}
+		return sum;
+	}
+	
+	public String[] getStatistics(){
+		PaintStatistics[] statistics = getPaintStatistics();
+		String[] result = new String[ statistics.length ];
+		for( int i = 0; i < result.length; i++ ){
+			result[i] = statistics[i].toString();
+		}
+		return result;
+	}
+	
+	public void reset(){
+		onEventDispatchThread( new Runnable(){
+			public void run(){
+				synchronized( statistics ){
+					statistics.clear();
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Registers this profiler at the platform {@link MBeanServer}, allowing to read its data through JMX. 
+	 * Any previous registration of this profiler is removed.
+	 * @param name the name of this profiler, not <code>null</code>
+	 * @throws JMException if the registration failed
+	 */
+	public void registerMBean( ObjectName name ) throws JMException{
+		if( name == null ){
+			throw new IllegalArgumentException( "name must not be null" );
+		}
+		unregisterMBean();
+		ManagementFactory.getPlatformMBeanServer().registerMBean( this, name );
+		mbeanName = name;
+	}
+	
+	/**
+	 * Removes this profiler from the platform {@link MBeanServer}, does nothing if this
+	 * profiler is not registered.
+	 * @throws JMException if the registration could not be removed
+	 */
+	public void unregisterMBean() throws JMException{
+		if( mbeanName != null ){
+			ObjectName name = mbeanName;
+			mbeanName = null;
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean( name );
+		}
+	}
+	
+	/**
+	 * Releases the resources of this profiler, called by {@link DockController#kill()}.
+	 */
+	public void kill(){
+		enabled.setProperties( (DockController)null );
+		overlay.setProperties( (DockController)null );
+		try{
+			unregisterMBean();
+		}
+		catch( JMException ex ){
+			// ignore, the server no longer knows this profiler
+		}
+	}
+}
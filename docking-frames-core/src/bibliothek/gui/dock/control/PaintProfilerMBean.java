@@ -0,0 +1,81 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.control;
+
+/**
+ * The management interface of a {@link PaintProfiler}, allows to read the counters of the
+ * profiler through JMX.
+ * @author Benjamin Sigg
+ */
+public interface PaintProfilerMBean {
+	/**
+	 * Tells whether the profiler is currently measuring.
+	 * @return whether measurements are made
+	 */
+	public boolean isEnabled();
+	
+	/**
+	 * Starts or stops measuring.
+	 * @param enabled whether measurements should be made
+	 */
+	public void setEnabled( boolean enabled );
+	
+	/**
+	 * Gets the number of times some element was painted.
+	 * @return the number of paint operations
+	 */
+	public long getPaintCount();
+	
+	/**
+	 * Gets the time spent painting, nested paint operations are counted only once.
+	 * @return the time in nanoseconds
+	 */
+	public long getPaintTime();
+	
+	/**
+	 * Gets the number of times some element was layed out.
+	 * @return the number of layout operations
+	 */
+	public long getLayoutCount();
+	
+	/**
+	 * Gets the time spent layouting, nested layout operations are counted only once.
+	 * @return the time in nanoseconds
+	 */
+	public long getLayoutTime();
+	
+	/**
+	 * Gets a human readable description of the statistics of each kind of element.
+	 * @return one line for each kind of element and operation
+	 */
+	public String[] getStatistics();
+	
+	/**
+	 * Deletes all measurements.
+	 */
+	public void reset();
+}
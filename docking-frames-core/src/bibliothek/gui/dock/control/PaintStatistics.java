@@ -0,0 +1,148 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.control;
+
+import bibliothek.gui.dock.util.DurationStatistics;
+import bibliothek.util.Path;
+
+/**
+ * The durations a {@link PaintProfiler} measured for one kind of element and one
+ * {@link PaintProfiler.Operation}. All times are in nanoseconds. The <i>self time</i> of a measurement
+ * is its duration minus the duration of all the measurements that were nested inside it, e.g. the
+ * time needed to paint a {@link bibliothek.gui.dock.title.DockTitle} is not part of the self time of
+ * the {@link bibliothek.gui.dock.station.DockableDisplayer} showing the title.
+ * @author Benjamin Sigg
+ */
+public class PaintStatistics extends DurationStatistics {
+	/** the upper bounds of the buckets of the histogram, in nanoseconds */
+	private static final long[] HISTOGRAM_BOUNDS = {
+		100000L, 250000L, 500000L, 1000000L, 2000000L, 4000000L, 8000000L, 16000000L, 32000000L
+	};
+	
+	/** the kind of element that was measured */
+	private Path kind;
+	/** what was measured */
+	private PaintProfiler.Operation operation;
+	
+	/** how many self times fell into each bucket */
+	private long[] histogram = new long[ HISTOGRAM_BOUNDS.length+1 ];
+	
+	/**
+	 * Creates new, empty statistics.
+	 * @param kind the kind of element that is measured, not <code>null</code>
+	 * @param operation what is measured, not <code>null</code>
+	 */
+	public PaintStatistics( Path kind, PaintProfiler.Operation operation ){
+		if( kind == null ){
+			throw new IllegalArgumentException( "kind must not be null" );
+		}
+		if( operation == null ){
+			throw new IllegalArgumentException( "operation must not be null" );
+		}
+		this.kind = kind;
+		this.operation = operation;
+	}
+	
+	/**
+	 * Creates a copy of <code>original</code>.
+	 * @param original the statistics to copy
+	 */
+	public PaintStatistics( PaintStatistics original ){
+		super( original );
+		kind = original.kind;
+		operation = original.operation;
+		System.arraycopy( original.histogram, 0, histogram, 0, histogram.length );
+	}
+	
+	/**
+	 * Gets the upper bounds of the buckets of the {@link #getHistogram() histogram}. The last bucket
+	 * of the histogram has no upper bound.
+	 * @return the bounds in nanoseconds, a new array
+	 */
+	public static long[] getHistogramBounds(){
+		return HISTOGRAM_BOUNDS.clone();
+	}
+	
+	@Override
+	public void add( long total, long self ){
+		super.add( total, self );
+		
+		int bucket = 0;
+		while( bucket < HISTOGRAM_BOUNDS.length && self > HISTOGRAM_BOUNDS[ bucket ] ){
+			bucket++;
+		}
+		histogram[ bucket ]++;
+	}
+	
+	/**
+	 * Gets the kind of element that was measured, this is usually the kind of 
+	 * {@link bibliothek.gui.dock.util.BackgroundAlgorithm} of the element.
+	 * @return the kind, not <code>null</code>
+	 */
+	public Path getKind(){
+		return kind;
+	}
+	
+	/**
+	 * Tells what was measured.
+	 * @return the operation, not <code>null</code>
+	 */
+	public PaintProfiler.Operation getOperation(){
+		return operation;
+	}
+	
+	/**
+	 * Gets the histogram of the self times. The entry <code>i</code> tells how many measurements were
+	 * not longer than <code>getHistogramBounds()[i]</code>, and longer than the previous bound.
+	 * @return the histogram, a new array
+	 */
+	public long[] getHistogram(){
+		return histogram.clone();
+	}
+	
+	@Override
+	public String toString(){
+		StringBuilder builder = new StringBuilder();
+		builder.append( kind ).append( " " ).append( operation );
+		appendTimes( builder );
+		builder.append( ", histogram=[" );
+		for( int i = 0; i < histogram.length; i++ ){
+			if( i > 0 ){
+				builder.append( ", " );
+			}
+			if( i < HISTOGRAM_BOUNDS.length ){
+				builder.append( "<=" ).append( HISTOGRAM_BOUNDS[i] / 1000 ).append( "us:" );
+			}
+			else{
+				builder.append( ">" ).append( HISTOGRAM_BOUNDS[i-1] / 1000 ).append( "us:" );
+			}
+			builder.append( histogram[i] );
+		}
+		builder.append( "]" );
+		return builder.toString();
+	}
+}
@@ -26,6 +26,15 @@
 
 package bibliothek.gui.dock.control;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
@@ -33,11 +42,15 @@ import bibliothek.gui.dock.accept.DockAcceptance;
 import bibliothek.gui.dock.control.relocator.DockRelocatorEvent;
 import bibliothek.gui.dock.control.relocator.VetoableDockRelocatorAdapter;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockStationAdapter;
 
 /**
  * An observer of a {@link DockController}. The remover
  * ensures that there is no dockable {@link DockStation} with only one
- * or none child.
+ * or none child.<br>
+ * The remover keeps track of the stations whose children changed, and only tests
+ * these stations. The stations are tested bottom up, a station whose parent changed
+ * because of the test is then tested as well.
  * @author Benjamin Sigg
  */
 public class SingleParentRemover{
@@ -49,8 +62,17 @@ public class SingleParentRemover{
     /** observers a {@link DockRegister} and searches for changes */
     private DockRegisterObserver dockRegisterObserver = new DockRegisterObserver();
    
+    /** observes all {@link DockStation}s and marks them as dirty if their children change */
+    private DockStationObserver dockStationObserver = new DockStationObserver();
+   
     /** state, ensures that no station is tested more than once in a run */
     private boolean onTest = false;
+    
+    /** the stations whose children changed and which need to be tested */
+    private Set<DockStation> dirty = new LinkedHashSet<DockStation>();
+    
+    /** how many stations were removed or replaced during the last run */
+    private int collapsed = 0;
     
     /**
      * Commands this remover to observe <code>controller</code>.
@@ -64,6 +86,9 @@ public class SingleParentRemover{
     	
         controller.getRelocator().addVetoableDockRelocatorListener( dockRelocatorObserver );
         controller.getRegister().addDockRegisterListener( dockRegisterObserver );
+        for( DockStation station : controller.getRegister().listDockStations() ){
+        	station.addDockStationListener( dockStationObserver );
+        }
         testAll( controller );
     }
     
@@ -78,6 +103,10 @@ public class SingleParentRemover{
     	}
         controller.getRelocator().removeVetoableDockRelocatorListener( dockRelocatorObserver );
         controller.getRegister().removeDockRegisterListener( dockRegisterObserver );
+        for( DockStation station : controller.getRegister().listDockStations() ){
+        	station.removeDockStationListener( dockStationObserver );
+        }
+        dirty.clear();
         this.controller = null;
     }
     
@@ -87,20 +116,36 @@ public class SingleParentRemover{
      * @param controller the controller to test
      */
     public void testAll( DockController controller ){
+    	for( DockStation station : controller.getRegister().listDockStations() ){
+    		dirty.add( station );
+    	}
+    	testDirty( controller );
+    }
+    
+    /**
+     * Tests all the stations of <code>controller</code> whose children changed since the last
+     * test, and removes as many of them as possible.
+     * @param controller the controller to test
+     */
+    public void testDirty( DockController controller ){
         if( onTest )
             return;
         
         try{
             onTest = true;
+            collapsed = 0;
             controller.getRegister().setStalled( true );
             
-            int index = 0;
-            while( index < controller.getRegister().getStationCount() ){
-                if( test( controller.getRegister().getStation( index ))){
-                    index = 0;
-                }
-                else
-                    index++;
+            while( !dirty.isEmpty() ){
+            	List<DockStation> stations = new ArrayList<DockStation>( dirty );
+            	dirty.clear();
+            	sortBottomUp( stations );
+            	
+            	for( DockStation station : stations ){
+            		if( test( station )){
+            			collapsed++;
+            		}
+            	}
             }
         }
         finally{
@@ -109,6 +154,69 @@ public class SingleParentRemover{
         }
     }
     
+    /**
+     * Marks <code>dockable</code>, if it is a station, and its parent as dirty. Both will
+     * be tested by the next call to {@link #testDirty(DockController)}.
+     * @param dockable the element whose location changed
+     */
+    protected void markDirty( Dockable dockable ){
+    	DockStation station = dockable.asDockStation();
+    	if( station != null ){
+    		dirty.add( station );
+    	}
+    	DockStation parent = dockable.getDockParent();
+    	if( parent != null ){
+    		dirty.add( parent );
+    	}
+    }
+    
+    /**
+     * Tells how many stations were removed or replaced during the last call to {@link #testDirty(DockController)}
+     * or {@link #testAll(DockController)}.
+     * @return the number of stations that were collapsed
+     */
+    public int getCollapsedCount(){
+		return collapsed;
+	}
+    
+    /**
+     * Sorts <code>stations</code> such that children are in front of their parents.
+     * @param stations the list to sort
+     */
+    private void sortBottomUp( List<DockStation> stations ){
+    	if( stations.size() < 2 ){
+    		return;
+    	}
+    	final Map<DockStation, Integer> depths = new HashMap<DockStation, Integer>();
+    	for( DockStation station : stations ){
+    		depths.put( station, depth( station ) );
+    	}
+    	Collections.sort( stations, new Comparator<DockStation>(){
+    		public int compare( DockStation a, DockStation b ){
+    			return depths.get( b ) - depths.get( a );
+    		}
+		});
+    }
+    
+    /**
+     * Tells how many parents <code>station</code> has.
+     * @param station some station
+     * @return the number of parents
+     */
+    private int depth( DockStation station ){
+    	int depth = 0;
+    	Dockable dockable = station.asDockable();
+    	while( dockable != null ){
+    		DockStation parent = dockable.getDockParent();
+    		if( parent == null ){
+    			break;
+    		}
+    		depth++;
+    		dockable = parent.asDockable();
+    	}
+    	return depth;
+    }
+    
     /**
      * Tells whether <code>station</code> should be automatically
      * removed or just be ignored.
@@ -195,49 +303,91 @@ public class SingleParentRemover{
     }
     
     /**
-     * Calls {@link SingleParentRemover#testAll(DockController)}
+     * Calls {@link SingleParentRemover#testDirty(DockController)}
      * if the structure of the dock-tree changes.
      * @author Benjamin Sigg
      */
     private class DockRegisterObserver extends DockRegisterAdapter{
         @Override
         public void dockableCycledRegister( DockController controller, Dockable dockable ) {
-            testAll( controller );
+        	markDirty( dockable );
+            testDirty( controller );
         }
         
         @Override
         public void dockableRegistered( DockController controller, Dockable dockable ){
         	if( !controller.getRelocator().isOnPut() ){
-                testAll( controller );
+                testDirty( controller );
             }
         }
         
         @Override
         public void dockableUnregistered( DockController controller, Dockable dockable ) {
             if( !controller.getRelocator().isOnPut() ){
-                testAll( controller );
+                testDirty( controller );
             }
         }
         
         @Override
         public void dockStationRegistered( final DockController controller, DockStation station ){
+        	station.addDockStationListener( dockStationObserver );
+        	dirty.add( station );
         	controller.getHierarchyLock().onRelease( new Runnable(){
 				public void run(){
-					testAll( controller );	
+					testDirty( controller );	
 				}
 			});
+        }
+        
+        @Override
+        public void dockStationUnregistered( DockController controller, DockStation station ){
+        	station.removeDockStationListener( dockStationObserver );
+        	dirty.remove( station );
         }
     }
     
     /**
-     * Calls {@link SingleParentRemover#testAll(DockController)}
+     * Marks a {@link DockStation} as dirty whenever its children change. The stations are
+     * already marked when the change starts, because the {@link DockRegister} may trigger
+     * a test before the change is completed.
+     * @author Benjamin Sigg
+     */
+    private class DockStationObserver extends DockStationAdapter{
+    	@Override
+    	public void dockableAdding( DockStation station, Dockable dockable ){
+    		dirty.add( station );
+    		DockStation child = dockable.asDockStation();
+    		if( child != null ){
+    			dirty.add( child );
+    		}
+    	}
+    	
+    	@Override
+    	public void dockableAdded( DockStation station, Dockable dockable ){
+    		dockableAdding( station, dockable );
+    	}
+    	
+    	@Override
+    	public void dockableRemoving( DockStation station, Dockable dockable ){
+    		dirty.add( station );
+    	}
+    	
+    	@Override
+    	public void dockableRemoved( DockStation station, Dockable dockable ){
+    		dirty.add( station );
+    	}
+    }
+    
+    /**
+     * Calls {@link SingleParentRemover#testDirty(DockController)}
      * if the structure of the dock-tree changes.
      * @author Benjamin Sigg
      */
     private class DockRelocatorObserver extends VetoableDockRelocatorAdapter{
     	@Override
     	public void dropped( DockRelocatorEvent event ){
-    	    testAll( controller );
+    		markDirty( event.getDockable() );
+    	    testDirty( controller );
         }
     }
 }
@@ -25,8 +25,8 @@
  */
 package bibliothek.gui.dock.control.focus;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -40,15 +40,31 @@ import bibliothek.util.Filter;
 /**
  * The default implementation of {@link FocusHistory} adds listeners to a 
  * {@link DockController} to keep the history up to date. Only {@link Dockable}s that
- * are actually registered at the controller are reported in the history
+ * are actually registered at the controller are reported in the history.<br>
+ * The history is a linked list whose entries can be found through a hash map, hence updating the
+ * history does not depend on its size. In addition the history remembers for each {@link DockStation} which
+ * of its children had the focus lately, this cache is updated when the focus or the tree of {@link Dockable}s 
+ * changes.
  * @author Benjamin Sigg
  */
 public class DefaultFocusHistory implements FocusHistory{
 	/** the controller which is observed */
 	private DockController controller;
 	
-	/** the actual history */
-	private List<Dockable> history = new LinkedList<Dockable>();
+	/** all the entries of the history */
+	private Map<Dockable, Entry> entries = new HashMap<Dockable, Entry>();
+	
+	/** the element that had the focus lately */
+	private Entry newest;
+	
+	/** the element that did not have the focus for the longest time */
+	private Entry oldest;
+	
+	/** tells for some {@link DockStation}s which of their children had the focus lately */
+	private Map<DockStation, Entry> newestOn = new HashMap<DockStation, Entry>();
+	
+	/** counter used to tell the order of the entries */
+	private long stamp = 0;
 	
 	/** the listeners that are added to {@link #controller} */
 	private Listener listener = new Listener();
@@ -58,7 +74,10 @@ public class DefaultFocusHistory implements FocusHistory{
 			this.controller.getRegister().removeDockRegisterListener( listener );
 			this.controller.getFocusController().removeDockableFocusListener( listener );
 		}
-		history.clear();
+		entries.clear();
+		newestOn.clear();
+		newest = null;
+		oldest = null;
 		this.controller = controller;
 		if( this.controller != null ){
 			this.controller.getRegister().addDockRegisterListener( listener );
@@ -67,34 +86,167 @@ public class DefaultFocusHistory implements FocusHistory{
 	}
 	
 	public Dockable[] getHistory(){
-		Dockable[] result = new Dockable[ history.size() ];
-		int index = result.length-1;
-		for( Dockable item : history ){
-			result[ index-- ] = item;
+		Dockable[] result = new Dockable[ entries.size() ];
+		int index = 0;
+		for( Entry entry = oldest; entry != null; entry = entry.newer ){
+			result[ index++ ] = entry.dockable;
 		}
 		return result;
 	}
 	
 	public Dockable getNewestOn( DockStation... parents ){
-		for( Dockable item : history ){
-			for( DockStation station : parents ){
-				if( item != station && DockUtilities.isAncestor( station, item )){
-					return item;
-				}
+		Entry result = null;
+		for( DockStation station : parents ){
+			Entry entry = getNewestEntryOn( station );
+			if( entry != null && (result == null || entry.stamp > result.stamp )){
+				result = entry;
+			}
+		}
+		return result == null ? null : result.dockable;
+	}
+	
+	/**
+	 * Searches the child of <code>station</code> which had the focus lately. This method first checks
+	 * the cache, and searches the entire history only if the cache is out of date.
+	 * @param station the station whose child is searched
+	 * @return the child or <code>null</code>
+	 */
+	private Entry getNewestEntryOn( DockStation station ){
+		Entry entry = newestOn.get( station );
+		if( entry != null ){
+			if( entries.get( entry.dockable ) == entry && isChild( station, entry.dockable )){
+				return entry;
+			}
+			newestOn.remove( station );
+		}
+		
+		for( entry = newest; entry != null; entry = entry.older ){
+			if( isChild( station, entry.dockable )){
+				newestOn.put( station, entry );
+				return entry;
 			}
 		}
 		return null;
 	}
 	
+	/**
+	 * Tells whether <code>dockable</code> is a child of <code>station</code>.
+	 * @param station the parent
+	 * @param dockable the child
+	 * @return <code>true</code> if <code>dockable</code> is a direct or indirect child of <code>station</code>
+	 */
+	private boolean isChild( DockStation station, Dockable dockable ){
+		return dockable != station && DockUtilities.isAncestor( station, dockable );
+	}
+	
 	public Dockable getFirst( Filter<Dockable> filter ){
-		for( Dockable dockable : history ){
-			if( filter.includes( dockable )){
-				return dockable;
+		for( Entry entry = newest; entry != null; entry = entry.older ){
+			if( filter.includes( entry.dockable )){
+				return entry.dockable;
 			}
 		}
 		return null;
 	}
 	
+	/**
+	 * Moves <code>dockable</code> to the front of the history.
+	 * @param dockable the element that gained the focus
+	 */
+	private void focused( Dockable dockable ){
+		Entry entry = entries.get( dockable );
+		if( entry == null ){
+			entry = new Entry( dockable );
+			entries.put( dockable, entry );
+		}
+		else{
+			unlink( entry );
+		}
+		
+		entry.stamp = ++stamp;
+		entry.older = newest;
+		if( newest != null ){
+			newest.newer = entry;
+		}
+		newest = entry;
+		if( oldest == null ){
+			oldest = entry;
+		}
+		
+		updateNewestOn( entry );
+	}
+	
+	/**
+	 * Stores <code>entry</code> in the cache of all the parents of its {@link Dockable}, if it is
+	 * newer than the entries that are already stored.
+	 * @param entry the entry to store
+	 */
+	private void updateNewestOn( Entry entry ){
+		DockStation parent = entry.dockable.getDockParent();
+		while( parent != null ){
+			Entry current = newestOn.get( parent );
+			if( current == null || current.stamp <= entry.stamp ){
+				newestOn.put( parent, entry );
+			}
+			Dockable dockable = parent.asDockable();
+			parent = dockable == null ? null : dockable.getDockParent();
+		}
+	}
+	
+	/**
+	 * Removes <code>dockable</code> from the history.
+	 * @param dockable the element to remove
+	 */
+	private void remove( Dockable dockable ){
+		Entry entry = entries.remove( dockable );
+		if( entry != null ){
+			unlink( entry );
+		}
+		DockStation station = dockable.asDockStation();
+		if( station != null ){
+			newestOn.remove( station );
+		}
+	}
+	
+	/**
+	 * Removes <code>entry</code> from the linked list of entries.
+	 * @param entry the entry to remove
+	 */
+	private void unlink( Entry entry ){
+		if( entry.newer == null ){
+			newest = entry.older;
+		}
+		else{
+			entry.newer.older = entry.older;
+		}
+		if( entry.older == null ){
+			oldest = entry.newer;
+		}
+		else{
+			entry.older.newer = entry.newer;
+		}
+		entry.newer = null;
+		entry.older = null;
+	}
+	
+	/**
+	 * One item of the history.
+	 * @author Benjamin Sigg
+	 */
+	private static class Entry{
+		/** the element that had the focus */
+		private final Dockable dockable;
+		/** tells when {@link #dockable} got the focus, bigger values are newer */
+		private long stamp;
+		/** the next newer entry */
+		private Entry newer;
+		/** the next older entry */
+		private Entry older;
+		
+		public Entry( Dockable dockable ){
+			this.dockable = dockable;
+		}
+	}
+	
 	/**
 	 * A set of listeners that are needed to find out which {@link Dockable} currently has the
 	 * focus, and which {@link Dockable}s are to be removed.
@@ -102,14 +254,26 @@ public class DefaultFocusHistory implements FocusHistory{
 	 */
 	private class Listener extends DockRegisterAdapter implements DockableFocusListener{
 		public void dockableUnregistered( DockController controller, Dockable dockable ){
-			history.remove( dockable );
+			remove( dockable );
+		}
+		
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			Entry entry = entries.get( dockable );
+			if( entry != null ){
+				updateNewestOn( entry );
+			}
+		}
+		
+		@Override
+		public void dockableCycledRegister( DockController controller, Dockable dockable ){
+			dockableRegistered( controller, dockable );
 		}
 		
 		public void dockableFocused( DockableFocusEvent event ){
 			Dockable owner = event.getNewFocusOwner();
 			if( owner != null ){
-				history.remove( owner );
-				history.add( 0, owner );
+				focused( owner );
 			}
 		}
 	}
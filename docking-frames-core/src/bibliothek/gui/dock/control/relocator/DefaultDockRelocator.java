@@ -36,6 +36,7 @@ import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +55,7 @@ import bibliothek.gui.dock.control.ControllerSetupCollection;
 import bibliothek.gui.dock.control.DirectRemoteRelocator;
 import bibliothek.gui.dock.control.RemoteRelocator;
 import bibliothek.gui.dock.control.RemoteRelocator.Reaction;
+import bibliothek.gui.dock.control.relocator.RelocatorStatistics.Phase;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.dockable.DockableMovingImageFactory;
 import bibliothek.gui.dock.dockable.MovingImage;
@@ -65,8 +67,10 @@ import bibliothek.gui.dock.station.StationDropOperation;
 import bibliothek.gui.dock.station.layer.OrderedLayerCollection;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.gui.dock.util.NestedTimer;
 import bibliothek.gui.dock.util.extension.ExtensionName;
 import bibliothek.util.ClientOnly;
+import bibliothek.util.FrameworkOnly;
 import bibliothek.util.Path;
 import bibliothek.util.Workarounds;
 
@@ -108,6 +112,15 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     /** information about the last dragged dockable */
     private StationDropItem lastItem;
     
+    /** listeners that are informed about the time spent in each drag and drop operation */
+    private List<RelocatorStatisticsListener> statisticsListeners = new ArrayList<RelocatorStatisticsListener>();
+    
+    /** the times measured during the current operation, <code>null</code> if nobody is interested in them */
+    private RelocatorStatistics statistics;
+    
+    /** measures the steps of the current operation, some steps are nested into other steps */
+    private NestedTimer timer = new NestedTimer();
+    
 	/**
 	 * Creates a new manager.
 	 * @param controller the controller whose dockables are moved
@@ -155,6 +168,141 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     	return operation != null;
     }
     
+    /**
+     * Adds a listener to this relocator which will be informed about the time spent in the various steps
+     * of each drag and drop operation. Times are only measured while at least one listener is registered.
+     * @param listener the new listener, not <code>null</code>
+     */
+    public void addStatisticsListener( RelocatorStatisticsListener listener ){
+    	if( listener == null ){
+    		throw new IllegalArgumentException( "listener must not be null" );
+    	}
+    	statisticsListeners.add( listener );
+    }
+    
+    /**
+     * Removes a listener from this relocator.
+     * @param listener the listener to remove
+     */
+    public void removeStatisticsListener( RelocatorStatisticsListener listener ){
+    	statisticsListeners.remove( listener );
+    }
+    
+    /**
+     * Starts measuring a new drag and drop operation, if there are any {@link RelocatorStatisticsListener}s.
+     * @param dockable the element that is moved
+     */
+    private void startStatistics( Dockable dockable ){
+    	if( statisticsListeners.isEmpty() ){
+    		statistics = null;
+    	}
+    	else{
+    		statistics = new RelocatorStatistics( dockable );
+    		timer = new NestedTimer();
+    	}
+    }
+    
+    /**
+     * Stops measuring the current drag and drop operation and informs all {@link RelocatorStatisticsListener}s.
+     * @param dropped whether the operation ended with a drop
+     */
+    private void finishStatistics( boolean dropped ){
+    	RelocatorStatistics statistics = this.statistics;
+    	if( statistics != null ){
+    		this.statistics = null;
+    		statistics.finish( dropped );
+    		for( RelocatorStatisticsListener listener : statisticsListeners.toArray( new RelocatorStatisticsListener[ statisticsListeners.size() ] )){
+    			listener.dragFinished( statistics );
+    		}
+    	}
+    }
+    
+    /**
+     * Tells whether the current drag and drop operation is measured, meaning there is at least
+     * one {@link RelocatorStatisticsListener} and a {@link Dockable} is currently dragged.
+     * @return whether the current operation is measured
+     */
+    public boolean isMeasuring(){
+    	return statistics != null;
+    }
+    
+    /**
+     * Informs this relocator that the markings of the current target were painted by a
+     * {@link bibliothek.gui.dock.station.StationPaint}. This method is called by 
+     * {@link bibliothek.gui.dock.themes.DefaultStationPaintValue} while {@link #isMeasuring()} returns <code>true</code>.
+     * @param duration how long painting took, in nanoseconds
+     */
+    @FrameworkOnly
+    public void measureDraw( long duration ){
+    	if( statistics != null ){
+    		statistics.add( Phase.DRAW, duration );
+    	}
+    }
+    
+    /**
+     * Wraps <code>merger</code> such that the time it spends in 
+     * {@link Merger#merge(StationDropOperation, DockStation, DockStation) merging} is measured, if the current
+     * operation is measured.
+     * @param merger the merger to wrap, can be <code>null</code>
+     * @return either <code>merger</code> or a wrapper around it
+     */
+    private Merger measuredMerger( final Merger merger ){
+    	if( statistics == null || merger == null ){
+    		return merger;
+    	}
+    	return new Merger(){
+    		public boolean canMerge( StationDropOperation operation, DockStation parent, DockStation child ){
+    			return merger.canMerge( operation, parent, child );
+    		}
+    		
+    		public void merge( StationDropOperation operation, DockStation parent, DockStation child ){
+    			boolean measuring = startMeasure();
+    			try{
+    				merger.merge( operation, parent, child );
+    			}
+    			finally{
+    				endMeasure( Phase.MERGE, measuring );
+    			}
+    		}
+    	};
+    }
+    
+    /**
+     * Starts measuring a step, if the current operation is measured.
+     * @return whether a measurement started, the result has to be forwarded to {@link #endMeasure(boolean)}
+     */
+    private boolean startMeasure(){
+    	if( statistics == null ){
+    		return false;
+    	}
+    	timer.begin();
+    	return true;
+    }
+    
+    /**
+     * Finishes the measurement of a step that was started by {@link #startMeasure()}.
+     * @param measuring the result of {@link #startMeasure()}
+     * @return the duration of the step in nanoseconds, 0 if nothing was measured
+     */
+    private long endMeasure( boolean measuring ){
+    	if( !measuring ){
+    		return 0;
+    	}
+    	return timer.end();
+    }
+    
+    /**
+     * Finishes the measurement of a step and stores its duration as sample of <code>phase</code>.
+     * @param phase the step that was measured
+     * @param measuring the result of {@link #startMeasure()}
+     */
+    private void endMeasure( Phase phase, boolean measuring ){
+    	long time = endMeasure( measuring );
+    	if( measuring && statistics != null ){
+    		statistics.add( phase, time );
+    	}
+    }
+    
     public DirectRemoteRelocator createDirectRemote( Dockable dockable ){
     	return createDirectRemote( dockable, false );
     }
@@ -261,7 +409,40 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
      * @return the new parent of <code>dockable</code> or <code>null</code>
      */
     protected RelocateOperation preparePut( int mouseX, int mouseY, int titleX, int titleY, Dockable dockable ){
+    	if( statistics == null ){
+    		return measuredPreparePut( mouseX, mouseY, titleX, titleY, dockable, null );
+    	}
+    	
+    	boolean measuring = startMeasure();
+    	long[] times = new long[ 3 ];
+    	try{
+    		return measuredPreparePut( mouseX, mouseY, titleX, titleY, dockable, times );
+    	}
+    	finally{
+    		if( statistics != null ){
+    			statistics.add( Phase.PREPARE_DROP, times[0] );
+    			statistics.add( Phase.INSERTER, times[1] );
+    			statistics.add( Phase.MERGER, times[2] );
+    		}
+    		endMeasure( Phase.PREPARE_PUT, measuring );
+    	}
+    }
+    
+    /**
+     * Implementation of {@link #preparePut(int, int, int, int, Dockable)}.
+     * @param mouseX x-coordinate of the mouse on the screen
+     * @param mouseY y-coordinate of the mouse on the screen
+     * @param titleX x-coordinate of the dragged title or mouseX
+     * @param titleY y-coordinate of the dragged title or mouseY
+     * @param dockable a Dockable which is dragged
+     * @param times if not <code>null</code>, then the time spent in preparing the drop, the {@link Inserter} and
+     * the {@link Merger} is added to this array
+     * @return the new parent of <code>dockable</code> or <code>null</code>
+     */
+    private RelocateOperation measuredPreparePut( int mouseX, int mouseY, int titleX, int titleY, Dockable dockable, long[] times ){
+    	boolean measuring = startMeasure();
         List<DockStation> list = listStationsOrdered( mouseX, mouseY, dockable );
+        endMeasure( Phase.LIST_STATIONS, measuring );
 
         Inserter inserter = getInserter();
         StationDropItem item = createStationDropItem( mouseX, mouseY, titleX, titleY, dockable );
@@ -271,26 +452,49 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
         	DefaultInserterSource inserterSource = new DefaultInserterSource( station, item );
         	
         	if( inserter != null ){
+        		measuring = startMeasure();
         		operation = inserter.before( inserterSource );
+        		long time = endMeasure( measuring );
+        		if( times != null ){
+        			times[1] += time;
+        		}
         	}
         	if( operation == null ){
+        		measuring = startMeasure();
         		operation = station.prepareDrop( item );
+        		long time = endMeasure( measuring );
+        		if( times != null ){
+        			times[0] += time;
+        			if( statistics != null ){
+        				statistics.addPrepareDrop( station, time );
+        			}
+        		}
         		if( inserter != null ){
+        			measuring = startMeasure();
         			inserterSource.setOperation( operation );
         			operation = inserter.after( inserterSource );
         			if( operation == null ){
         				operation = inserterSource.getOperation();
         			}
+        			time = endMeasure( measuring );
+        			if( times != null ){
+            			times[1] += time;
+            		}
         		}
         	}
         	
         	RelocateOperation result = null;
         	
+        	measuring = startMeasure();
         	boolean merge = canMerge( operation, station, dockable );
+        	long time = endMeasure( measuring );
+        	if( times != null ){
+        		times[2] += time;
+        	}
 
         	if( operation != null ){
         		if( merge ){
-        			result = new MergeOperation( getController(), getMerger(), station, operation, item );
+        			result = new MergeOperation( getController(), measuredMerger( getMerger() ), station, operation, item );
         		}
         		else{
         			result = new DropOperation( getController(), station, operation, item );
@@ -392,7 +596,10 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 		        }
 	        }
     	}
-	    return collection.sort( x, y );
+    	boolean measuring = startMeasure();
+    	List<DockStation> result = collection.sort( x, y );
+    	endMeasure( Phase.SORT_LAYERS, measuring );
+	    return result;
     }
     
     /**
@@ -633,6 +840,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     		}
             
             onMove = true;
+            startStatistics( dockable );
             
             DockStation parent = dockable.getDockParent();
             if( dragOperation != null ){
@@ -873,6 +1081,8 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 
             movingImageWindow = null;
             pressPointScreen = null;
+            
+            finishStatistics( dropped != null );
             pressPointLocal = null;
         }
         
@@ -942,6 +1152,8 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 	        movingImageWindow = null;
 	        pressPointScreen = null;
 	        pressPointLocal = null;
+	        
+	        finishStatistics( false );
     	}
     }
     
@@ -0,0 +1,290 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.relocator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+
+/**
+ * A {@link RelocatorStatistics} collects the time a {@link DefaultDockRelocator} spent in the
+ * various steps of one drag and drop operation. The statistics are only collected if at least one
+ * {@link RelocatorStatisticsListener} is registered, and are handed over to these listeners once the
+ * operation finished. All times are measured in nanoseconds.<br>
+ * Each step is measured once per mouse event, hence percentiles like {@link #getPercentile(Phase, double)}
+ * tell how smooth the operation felt for the user.
+ * @author Benjamin Sigg
+ */
+public class RelocatorStatistics {
+	/**
+	 * The steps of a drag and drop operation that are measured.
+	 * @author Benjamin Sigg
+	 */
+	public static enum Phase{
+		/** {@link DefaultDockRelocator#preparePut(int, int, int, int, Dockable)}, includes all the other phases but {@link #MERGE} and {@link #DRAW} */
+		PREPARE_PUT,
+		/** {@link DefaultDockRelocator#listStationsOrdered(int, int, Dockable)}, includes {@link #SORT_LAYERS} */
+		LIST_STATIONS,
+		/** sorting the stations by their drop layers */
+		SORT_LAYERS,
+		/** {@link DockStation#prepareDrop(bibliothek.gui.dock.station.StationDropItem)}, summed up over all stations of one event */
+		PREPARE_DROP,
+		/** the {@link Inserter}, summed up over all stations of one event */
+		INSERTER,
+		/** asking the {@link Merger} whether it can merge two stations, summed up over all stations of one event */
+		MERGER,
+		/** the {@link Merger} merging two stations when the {@link Dockable} is dropped */
+		MERGE,
+		/** 
+		 * painting the markings of the new target with a {@link bibliothek.gui.dock.station.StationPaint}, one sample 
+		 * for each time a {@link bibliothek.gui.dock.themes.DefaultStationPaintValue} paints 
+		 */
+		DRAW
+	}
+	
+	/** the element that is moved */
+	private Dockable dockable;
+	
+	/** when the operation started */
+	private long start;
+	
+	/** when the operation ended, or -1 */
+	private long end = -1;
+	
+	/** whether the operation ended with a drop */
+	private boolean dropped = false;
+	
+	/** samples for each phase */
+	private Samples[] phases = new Samples[ Phase.values().length ];
+	
+	/** samples of {@link Phase#PREPARE_DROP} for each type of station */
+	private Map<Class<?>, Samples> stations = new HashMap<Class<?>, Samples>();
+	
+	/**
+	 * Creates new statistics.
+	 * @param dockable the element that is moved around
+	 */
+	public RelocatorStatistics( Dockable dockable ){
+		this.dockable = dockable;
+		start = System.nanoTime();
+		for( int i = 0; i < phases.length; i++ ){
+			phases[i] = new Samples();
+		}
+	}
+	
+	/**
+	 * Adds a new sample to <code>phase</code>.
+	 * @param phase the step that was measured
+	 * @param time the duration of the step in nanoseconds
+	 */
+	void add( Phase phase, long time ){
+		phases[ phase.ordinal() ].add( time );
+	}
+	
+	/**
+	 * Adds the time <code>station</code> spent preparing a drop.
+	 * @param station the station that was asked
+	 * @param time the duration in nanoseconds
+	 */
+	void addPrepareDrop( DockStation station, long time ){
+		Class<?> type = station.getClass();
+		Samples samples = stations.get( type );
+		if( samples == null ){
+			samples = new Samples();
+			stations.put( type, samples );
+		}
+		samples.add( time );
+	}
+	
+	/**
+	 * Marks the end of the operation.
+	 * @param dropped whether the {@link Dockable} was dropped
+	 */
+	void finish( boolean dropped ){
+		end = System.nanoTime();
+		this.dropped = dropped;
+	}
+	
+	/**
+	 * Gets the element that was moved around.
+	 * @return the element, not <code>null</code>
+	 */
+	public Dockable getDockable(){
+		return dockable;
+	}
+	
+	/**
+	 * Tells whether the operation ended with the {@link Dockable} being dropped, or whether
+	 * the operation was canceled.
+	 * @return <code>true</code> if there was a drop
+	 */
+	public boolean isDropped(){
+		return dropped;
+	}
+	
+	/**
+	 * Gets the time between grabbing and releasing the {@link Dockable}.
+	 * @return the duration of the whole operation in nanoseconds
+	 */
+	public long getDuration(){
+		if( end == -1 ){
+			return System.nanoTime() - start;
+		}
+		return end - start;
+	}
+	
+	/**
+	 * Tells how many times <code>phase</code> was measured.
+	 * @param phase the step to check
+	 * @return the number of samples
+	 */
+	public int getCount( Phase phase ){
+		return phases[ phase.ordinal() ].size;
+	}
+	
+	/**
+	 * Gets the time spent in <code>phase</code> during the whole operation.
+	 * @param phase the step to check
+	 * @return the total time in nanoseconds
+	 */
+	public long getTotalTime( Phase phase ){
+		return phases[ phase.ordinal() ].total;
+	}
+	
+	/**
+	 * Gets the longest time a single execution of <code>phase</code> took.
+	 * @param phase the step to check
+	 * @return the longest time in nanoseconds
+	 */
+	public long getMaxTime( Phase phase ){
+		return phases[ phase.ordinal() ].max;
+	}
+	
+	/**
+	 * Gets the time that <code>percentile</code> of all executions of <code>phase</code> did not exceed.
+	 * @param phase the step to check
+	 * @param percentile a value between 0 and 1, e.g. 0.95
+	 * @return the time in nanoseconds, 0 if there are no samples
+	 */
+	public long getPercentile( Phase phase, double percentile ){
+		return phases[ phase.ordinal() ].percentile( percentile );
+	}
+	
+	/**
+	 * Gets all the types of {@link DockStation}s that were asked to prepare a drop.
+	 * @return the types of the stations
+	 */
+	public Class<?>[] getStationTypes(){
+		return stations.keySet().toArray( new Class<?>[ stations.size() ] );
+	}
+	
+	/**
+	 * Tells how many times stations of type <code>type</code> were asked to prepare a drop.
+	 * @param type the exact type of the stations
+	 * @return the number of calls
+	 */
+	public int getStationCount( Class<?> type ){
+		Samples samples = stations.get( type );
+		return samples == null ? 0 : samples.size;
+	}
+	
+	/**
+	 * Gets the total time stations of type <code>type</code> spent preparing a drop.
+	 * @param type the exact type of the stations
+	 * @return the total time in nanoseconds
+	 */
+	public long getStationTotalTime( Class<?> type ){
+		Samples samples = stations.get( type );
+		return samples == null ? 0 : samples.total;
+	}
+	
+	/**
+	 * Gets the time that <code>percentile</code> of all calls to {@link DockStation#prepareDrop(bibliothek.gui.dock.station.StationDropItem)}
+	 * of stations of type <code>type</code> did not exceed.
+	 * @param type the exact type of the stations
+	 * @param percentile a value between 0 and 1
+	 * @return the time in nanoseconds
+	 */
+	public long getStationPercentile( Class<?> type, double percentile ){
+		Samples samples = stations.get( type );
+		return samples == null ? 0 : samples.percentile( percentile );
+	}
+	
+	@Override
+	public String toString(){
+		StringBuilder builder = new StringBuilder();
+		builder.append( getClass().getSimpleName() ).append( "[dropped=" ).append( dropped );
+		builder.append( ", duration=" ).append( getDuration() / 1000 ).append( "us" );
+		for( Phase phase : Phase.values() ){
+			builder.append( ", " ).append( phase ).append( "[n=" ).append( getCount( phase ) );
+			builder.append( ", p50=" ).append( getPercentile( phase, 0.5 ) / 1000 ).append( "us" );
+			builder.append( ", p95=" ).append( getPercentile( phase, 0.95 ) / 1000 ).append( "us" );
+			builder.append( ", max=" ).append( getMaxTime( phase ) / 1000 ).append( "us]" );
+		}
+		for( Map.Entry<Class<?>, Samples> entry : stations.entrySet() ){
+			builder.append( ", " ).append( entry.getKey().getSimpleName() ).append( "[n=" ).append( entry.getValue().size );
+			builder.append( ", p95=" ).append( entry.getValue().percentile( 0.95 ) / 1000 ).append( "us]" );
+		}
+		builder.append( "]" );
+		return builder.toString();
+	}
+	
+	/**
+	 * A list of measured times.
+	 * @author Benjamin Sigg
+	 */
+	private static class Samples{
+		private long[] values = new long[ 16 ];
+		private int size;
+		private long total;
+		private long max;
+		
+		public void add( long time ){
+			if( size == values.length ){
+				long[] temp = new long[ size * 2 ];
+				System.arraycopy( values, 0, temp, 0, size );
+				values = temp;
+			}
+			values[ size++ ] = time;
+			total += time;
+			max = Math.max( max, time );
+		}
+		
+		public long percentile( double percentile ){
+			if( size == 0 ){
+				return 0;
+			}
+			long[] sorted = new long[ size ];
+			System.arraycopy( values, 0, sorted, 0, size );
+			Arrays.sort( sorted );
+			int index = (int)Math.ceil( percentile * size ) - 1;
+			return sorted[ Math.max( 0, Math.min( size-1, index )) ];
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.relocator;
+
+/**
+ * A listener that can be added to a {@link DefaultDockRelocator}, it is informed about the
+ * time spent in the various steps of each drag and drop operation. As long as no such listener is
+ * registered, the relocator does not measure anything.
+ * @author Benjamin Sigg
+ */
+public interface RelocatorStatisticsListener {
+	/**
+	 * Called once a drag and drop operation was completed or canceled.
+	 * @param statistics the times measured during the operation, the object will not be modified anymore
+	 */
+	public void dragFinished( RelocatorStatistics statistics );
+}
@@ -44,8 +44,10 @@ import bibliothek.gui.dock.DockElement;
 import bibliothek.gui.dock.action.DockAction;
 import bibliothek.gui.dock.action.DockActionSource;
 import bibliothek.gui.dock.action.HierarchyDockActionSource;
+import bibliothek.gui.dock.control.DockEventCoalescer;
 import bibliothek.gui.dock.displayer.DisplayerRequest;
 import bibliothek.gui.dock.displayer.DockableDisplayerHints;
+import bibliothek.gui.dock.event.CoalescedEvent;
 import bibliothek.gui.dock.event.DockHierarchyListener;
 import bibliothek.gui.dock.event.DockableListener;
 import bibliothek.gui.dock.event.KeyboardListener;
@@ -518,6 +520,12 @@ public abstract class AbstractDockable implements Dockable {
      * @param newTitle the new title
      */
     protected void fireTitleTextChanged( String oldTitle, String newTitle ){
+    	DockEventCoalescer coalescer = getEventCoalescer();
+    	if( coalescer != null ){
+    		coalescer.post( new TitleEvent( "text", oldTitle, newTitle ));
+    		return;
+    	}
+    	
         for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
             listener.titleTextChanged( this, oldTitle, newTitle );
     }
@@ -529,6 +537,12 @@ public abstract class AbstractDockable implements Dockable {
      * @param newTooltip the new value
      */
     protected void fireTitleTooltipChanged( String oldTooltip, String newTooltip ){
+    	DockEventCoalescer coalescer = getEventCoalescer();
+    	if( coalescer != null ){
+    		coalescer.post( new TitleEvent( "tooltip", oldTooltip, newTooltip ));
+    		return;
+    	}
+    	
         for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
             listener.titleToolTipChanged( this, oldTooltip, newTooltip );
     }
@@ -541,6 +555,12 @@ public abstract class AbstractDockable implements Dockable {
      */
     protected void fireTitleIconChanged( Icon oldIcon, Icon newIcon ){
     	currentTitleIcon = newIcon;
+    	DockEventCoalescer coalescer = getEventCoalescer();
+    	if( coalescer != null ){
+    		coalescer.post( new TitleEvent( "icon", oldIcon, newIcon ));
+    		return;
+    	}
+    	
         for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
             listener.titleIconChanged( this, oldIcon, newIcon );
     }
@@ -595,7 +615,69 @@ public abstract class AbstractDockable implements Dockable {
      * {@link #configureDisplayerHints(DockableDisplayerHints)}.
      * @return the current configurable hints, can be <code>null</code>
      */
-    protected DockableDisplayerHints getConfigurableDisplayerHints() {
-        return hints;
+    protected DockableDisplayerHints getConfigurableDisplayerHints() {
+        return hints;
+    }
+    
+    /**
+     * Gets the {@link DockEventCoalescer} which is currently collecting events.
+     * @return the coalescer or <code>null</code> if events have to be fired immediately
+     */
+    protected DockEventCoalescer getEventCoalescer(){
+    	DockController controller = getController();
+    	if( controller == null ){
+    		return null;
+    	}
+    	DockEventCoalescer coalescer = controller.getEventCoalescer();
+    	if( coalescer == null || !coalescer.isCoalescing() ){
+    		return null;
+    	}
+    	return coalescer;
+    }
+    
+    /**
+     * A delayed change of the text, tooltip or icon of this dockable.
+     * @author Benjamin Sigg
+     */
+    private class TitleEvent extends CoalescedEvent{
+    	/** the value before the first change */
+    	private Object oldValue;
+    	/** the value after the last change */
+    	private Object newValue;
+    	
+    	/**
+    	 * Creates a new event.
+    	 * @param type which property changed, one of "text", "tooltip" or "icon"
+    	 * @param oldValue the old value of the property
+    	 * @param newValue the new value of the property
+    	 */
+    	public TitleEvent( String type, Object oldValue, Object newValue ){
+    		super( AbstractDockable.this, type, null );
+    		this.oldValue = oldValue;
+    		this.newValue = newValue;
+    	}
+    	
+    	@Override
+    	public void merge( CoalescedEvent newer ){
+    		newValue = ((TitleEvent)newer).newValue;
+    	}
+    	
+    	@Override
+    	public void fire(){
+    		if( oldValue == null ? newValue == null : oldValue.equals( newValue )){
+    			return;
+    		}
+    		
+    		String type = getType();
+    		if( "text".equals( type )){
+    			fireTitleTextChanged( (String)oldValue, (String)newValue );
+    		}
+    		else if( "tooltip".equals( type )){
+    			fireTitleTooltipChanged( (String)oldValue, (String)newValue );
+    		}
+    		else{
+    			fireTitleIconChanged( (Icon)oldValue, (Icon)newValue );
+    		}
+    	}
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.event;
+
+import bibliothek.gui.dock.control.DockEventCoalescer;
+
+/**
+ * An event that was collected by a {@link DockEventCoalescer} and will be fired once the
+ * current transaction is committed. Two {@link CoalescedEvent}s are considered to be equal if
+ * they have the same source, the same type and the same detail. If an event is posted while an
+ * equal event is already pending, the two events are {@link #merge(CoalescedEvent) merged} and only
+ * one event is fired.
+ * @author Benjamin Sigg
+ */
+public abstract class CoalescedEvent {
+	/** the object that fires this event */
+	private final Object source;
+	/** the kind of event */
+	private final String type;
+	/** additional information distinguishing events of the same type, can be <code>null</code> */
+	private final Object detail;
+	
+	/**
+	 * Creates a new event.
+	 * @param source the object that fires this event, not <code>null</code>
+	 * @param type the kind of event, not <code>null</code>
+	 * @param detail additional information distinguishing events of the same type and source,
+	 * can be <code>null</code>
+	 */
+	public CoalescedEvent( Object source, String type, Object detail ){
+		if( source == null ){
+			throw new IllegalArgumentException( "source must not be null" );
+		}
+		if( type == null ){
+			throw new IllegalArgumentException( "type must not be null" );
+		}
+		this.source = source;
+		this.type = type;
+		this.detail = detail;
+	}
+	
+	/**
+	 * Gets the object that fires this event.
+	 * @return the source, not <code>null</code>
+	 */
+	public Object getSource(){
+		return source;
+	}
+	
+	/**
+	 * Gets the kind of this event.
+	 * @return the type, not <code>null</code>
+	 */
+	public String getType(){
+		return type;
+	}
+	
+	/**
+	 * Gets additional information distinguishing events of the same type.
+	 * @return the detail, can be <code>null</code>
+	 */
+	public Object getDetail(){
+		return detail;
+	}
+	
+	/**
+	 * Called if <code>newer</code>, which is equal to this event, was posted while this
+	 * event was still pending. This event has to update its state such that it represents both events.
+	 * @param newer the event that happened after this event
+	 */
+	public abstract void merge( CoalescedEvent newer );
+	
+	/**
+	 * Informs the listeners about this event. This method may decide not to call any
+	 * listener at all, e.g. if the merged events cancel each other out.
+	 */
+	public abstract void fire();
+	
+	@Override
+	public int hashCode(){
+		int result = source.hashCode();
+		result = 31 * result + type.hashCode();
+		result = 31 * result + (detail == null ? 0 : detail.hashCode());
+		return result;
+	}
+	
+	@Override
+	public boolean equals( Object obj ){
+		if( obj == this ){
+			return true;
+		}
+		if( obj == null || obj.getClass() != getClass() ){
+			return false;
+		}
+		CoalescedEvent other = (CoalescedEvent)obj;
+		if( other.source != source || !other.type.equals( type )){
+			return false;
+		}
+		if( detail == null ){
+			return other.detail == null;
+		}
+		return detail.equals( other.detail );
+	}
+}
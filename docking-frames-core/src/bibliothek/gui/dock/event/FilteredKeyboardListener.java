@@ -0,0 +1,47 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.event;
+
+import javax.swing.KeyStroke;
+
+import bibliothek.gui.dock.control.KeyboardController;
+
+/**
+ * A {@link KeyboardListener} that is only interested in a fixed set of {@link KeyStroke}s, e.g. the
+ * accelerator of an action. The {@link KeyboardController} keeps an index of these listeners and
+ * only forwards events that match one of the {@link #getKeyStrokes() key strokes}. If the key strokes
+ * change, then the listener has to be removed from and added again to the {@link KeyboardController}.
+ * @author Benjamin Sigg
+ */
+public interface FilteredKeyboardListener extends KeyboardListener {
+	/**
+	 * Gets the key strokes this listener is interested in. The result of this method is read when this listener
+	 * is added to or removed from the {@link KeyboardController}, it must not change while this listener is added.
+	 * @return the key strokes, can be empty but not <code>null</code>
+	 */
+	public KeyStroke[] getKeyStrokes();
+}
@@ -77,13 +77,22 @@ public class LocatedListenerList<L extends LocatedListener> {
      * @return the ordered list of observers
      */
     public List<L> affected( DockElement element ){
+    	return affected( element, null );
+    }
+    
+    /**
+     * Creates a list of all {@link LocatedListener}s of this list and of <code>other</code> which
+     * are affected by an event which occurs on <code>element</code>. The list is ordered
+     * by the distance of the listeners to <code>element</code>.
+     * @param element the element which is the source of an event
+     * @param other an additional list of listeners, can be <code>null</code>
+     * @return the ordered list of observers
+     */
+    public List<L> affected( DockElement element, LocatedListenerList<? extends L> other ){
         List<L> list = new LinkedList<L>();
-        for( L listener : listeners ){
-            DockElement location = listener.getTreeLocation();
-            if( location == null )
-                list.add( listener );
-            else if( element != null && DockUtilities.isAncestor( location, element ))
-                list.add( listener );
+        collect( element, list );
+        if( other != null ){
+        	other.collect( element, list );
         }
         
         Collections.sort( list, new Comparator<L>(){
@@ -109,4 +118,19 @@ public class LocatedListenerList<L extends LocatedListener> {
         
         return list;
     }
+    
+    /**
+     * Adds all listeners of this list which are affected by an event on <code>element</code> to <code>list</code>.
+     * @param element the element which is the source of an event
+     * @param list the list to fill
+     */
+    private void collect( DockElement element, List<? super L> list ){
+    	for( L listener : listeners ){
+            DockElement location = listener.getTreeLocation();
+            if( location == null )
+                list.add( listener );
+            else if( element != null && DockUtilities.isAncestor( location, element ))
+                list.add( listener );
+        }
+    }
 }
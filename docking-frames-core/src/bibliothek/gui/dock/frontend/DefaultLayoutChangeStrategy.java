@@ -25,9 +25,13 @@
  */
 package bibliothek.gui.dock.frontend;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -54,14 +58,39 @@ import bibliothek.gui.dock.perspective.PerspectiveStation;
 import bibliothek.gui.dock.perspective.PredefinedMap;
 import bibliothek.gui.dock.perspective.PredefinedPerspective;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+import bibliothek.gui.dock.util.DockUtilities;
 import bibliothek.util.xml.XException;
 
 /**
  * This default implementation of a {@link LayoutChangeStrategy} heavily depends on the methods of {@link PredefinedDockSituation}. It
- * also offers a set of methods that may be interesting for subclasses which do not use a {@link PredefinedDockSituation}.
+ * also offers a set of methods that may be interesting for subclasses which do not use a {@link PredefinedDockSituation}.<br>
+ * If {@link #isIncremental() incremental} updates are enabled, then the current layout of each root station is compared
+ * with the new layout. Root stations whose layout does not change are neither cleaned nor rebuilt.
  * @author Benjamin Sigg
  */
 public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
+	/** whether root stations whose layout does not change should be left untouched */
+	private boolean incremental = true;
+	
+	/**
+	 * Sets whether this strategy should compare the current layout of each root station with the new layout, and
+	 * only rebuild those roots whose layout actually changes. If set to <code>false</code>, then all roots are
+	 * always rebuilt. 
+	 * @param incremental whether to apply layouts incrementally, the default value is <code>true</code>
+	 */
+	public void setIncremental( boolean incremental ){
+		this.incremental = incremental;
+	}
+	
+	/**
+	 * Tells whether layouts are applied incrementally.
+	 * @return whether only roots with a changed layout are rebuilt
+	 * @see #setIncremental(boolean)
+	 */
+	public boolean isIncremental(){
+		return incremental;
+	}
+	
 	public boolean setLayout( DockFrontendInternals frontend, Setting setting, boolean entry ) throws IOException, XException{
 		DockSituation situation = createSituation( frontend, entry, true );
         
@@ -90,8 +119,22 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
         	return false;
         }
         
+        // find out which roots do not change
+        if( incremental ){
+        	markUnchangedRoots( frontend, situation, access );
+        }
+        
         // split up all child parent relations
-        frontend.clean( ignore );
+        if( access.getUnchangedRoots().isEmpty() ){
+        	frontend.clean( ignore );
+        }
+        else{
+        	for( RootInfo info : frontend.getRoots() ){
+        		if( !access.isUnchanged( info.getName() ) && !ignore.ignoreElement( info.getStation() )){
+        			frontend.clean( info.getStation(), ignore );
+        		}
+        	}
+        }
         
         // apply the new layout
         applyLayout( frontend, situation, access, entry );
@@ -100,6 +143,74 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
         return true;
 	}
 	
+	/**
+	 * Searches all the root stations whose current layout is equal to the layout stored in <code>setting</code>, and
+	 * marks them as {@link SettingAccess#setUnchanged(String, boolean) unchanged}. The layouts are compared
+	 * by writing them with <code>situation</code> and comparing the bytes. A root is never marked as unchanged if one of
+	 * its parents is going to be rebuilt.
+	 * @param frontend the caller of this method
+	 * @param situation the situation used to convert the layouts
+	 * @param setting the new layout
+	 */
+	protected void markUnchangedRoots( DockFrontendInternals frontend, DockSituation situation, SettingAccess setting ){
+		RootInfo[] roots = frontend.getRoots();
+		for( RootInfo info : roots ){
+			DockLayoutComposition layout = setting.getRoot( info.getName() );
+			if( layout != null ){
+				try{
+					DockLayoutComposition current = situation.convert( info.getStation() );
+					if( current != null ){
+						byte[] expected = toBytes( situation, situation.fillMissing( layout ));
+						if( Arrays.equals( expected, toBytes( situation, current ))){
+							setting.setUnchanged( info.getName(), true );
+						}
+					}
+				}
+				catch( IOException ex ){
+					// fall back to rebuilding this root
+				}
+				catch( XException ex ){
+					// fall back to rebuilding this root
+				}
+				catch( IllegalArgumentException ex ){
+					// fall back to rebuilding this root
+				}
+			}
+		}
+		
+		// roots that are children of changing roots are going to be cleaned as well
+		boolean repeat = true;
+		while( repeat ){
+			repeat = false;
+			for( RootInfo info : roots ){
+				if( setting.isUnchanged( info.getName() )){
+					for( RootInfo parent : roots ){
+						if( parent != info && !setting.isUnchanged( parent.getName() ) && DockUtilities.isAncestor( parent.getStation(), info.getStation() )){
+							setting.setUnchanged( info.getName(), false );
+							repeat = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Writes <code>layout</code> into an array of bytes.
+	 * @param situation the situation used to write the layout
+	 * @param layout the layout to write
+	 * @return the written layout
+	 * @throws IOException if the layout cannot be written
+	 */
+	private byte[] toBytes( DockSituation situation, DockLayoutComposition layout ) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bytes );
+		situation.writeComposition( layout, out );
+		out.close();
+		return bytes.toByteArray();
+	}
+	
 	/**
 	 * Creates a wrapper around <code>setting</code> that allows the algorithm of this 
 	 * {@link LayoutChangeStrategy} to access the setting.
@@ -190,6 +301,8 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
         else
         	situation.setIgnore( frontend.getFrontend().getIgnoreForFinal() );
         
+        situation.setProfiler( frontend.getFrontend().getLayoutProfiler() );
+        
         return situation;
     }
     
@@ -262,7 +375,8 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
     /**
      * Applies the layout described in <code>setting</code> to the visible elements. 
      * This implementation tries to estimate the location of missing dockables using
-     * {@link #listEstimateLocations(DockSituation, DockLayoutComposition)}. 
+     * {@link #listEstimateLocations(DockSituation, DockLayoutComposition)}. Roots that are
+     * {@link SettingAccess#isUnchanged(String) unchanged} are not converted.
      * @param frontend the caller of this method
      * @param situation used to convert the layout
      * @param setting the new layout
@@ -319,7 +433,9 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
                     
                 }
                 
-                situation.convert( layout );
+                if( !setting.isUnchanged( info.getName() )){
+                	situation.convert( layout );
+                }
             }
         }
     }
@@ -521,6 +637,9 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
     protected class SettingAccess{
     	private Setting setting;
     	
+    	/** the roots whose layout does not change */
+    	private Set<String> unchangedRoots = new HashSet<String>();
+    	
     	/**
     	 * Creates a new wrapper.
     	 * @param setting the source for all data, not <code>null</code>
@@ -537,6 +656,38 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
 			return setting;
 		}
     	
+    	/**
+    	 * Marks the root <code>root</code> as unchanged. The layout of unchanged roots is
+    	 * neither cleaned nor rebuilt.
+    	 * @param root the name of the root
+    	 * @param unchanged whether the layout of <code>root</code> does not change
+    	 */
+    	public void setUnchanged( String root, boolean unchanged ){
+    		if( unchanged ){
+    			unchangedRoots.add( root );
+    		}
+    		else{
+    			unchangedRoots.remove( root );
+    		}
+    	}
+    	
+    	/**
+    	 * Tells whether the layout of <code>root</code> is not going to change.
+    	 * @param root the name of a root
+    	 * @return <code>true</code> if the root does not need to be rebuilt
+    	 */
+    	public boolean isUnchanged( String root ){
+    		return unchangedRoots.contains( root );
+    	}
+    	
+    	/**
+    	 * Gets the names of all the roots which are {@link #isUnchanged(String) unchanged}.
+    	 * @return the unmodifiable set of names
+    	 */
+    	public Set<String> getUnchangedRoots(){
+    		return Collections.unmodifiableSet( unchangedRoots );
+    	}
+    	
         /**
          * Gets the layout of a root.
          * @param root the root
@@ -0,0 +1,81 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The default {@link SettingsStore} keeps all {@link Setting}s decoded in memory.
+ * @author Benjamin Sigg
+ */
+public class DefaultSettingsStore implements SettingsStore {
+	/** all the settings of this store */
+	private Map<String, Setting> settings = new HashMap<String, Setting>();
+	
+	public void setFrontend( DockFrontendInternals frontend ){
+		// ignore
+	}
+	
+	public Set<String> getNames(){
+		return Collections.unmodifiableSet( settings.keySet() );
+	}
+	
+	public boolean contains( String name ){
+		return settings.containsKey( name );
+	}
+	
+	public Setting get( String name ){
+		return settings.get( name );
+	}
+	
+	public byte[] getEncoded( String name ){
+		return null;
+	}
+	
+	public void put( String name, Setting setting ){
+		settings.put( name, setting );
+	}
+	
+	public boolean remove( String name ){
+		return settings.remove( name ) != null;
+	}
+	
+	public Collection<Setting> getDecodedSettings(){
+		return Collections.unmodifiableCollection( settings.values() );
+	}
+	
+	public void begin(){
+		// ignore, changes are stored immediately
+	}
+	
+	public void commit(){
+		// ignore
+	}
+}
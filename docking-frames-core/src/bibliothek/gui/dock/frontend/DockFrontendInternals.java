@@ -25,7 +25,10 @@
  */
 package bibliothek.gui.dock.frontend;
 
+import java.io.IOException;
+
 import bibliothek.gui.DockFrontend;
+import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.DockFrontend.DockInfo;
 import bibliothek.gui.DockFrontend.RootInfo;
@@ -54,6 +57,14 @@ public interface DockFrontendInternals {
      */
     public void clean( DockSituationIgnore ignore );
     
+    /**
+     * Removes all child-parent relations of <code>station</code> and its children expect the
+     * ones filtered out by <code>ignore</code>.
+     * @param station the station to clean
+     * @param ignore a filter, never <code>null</code>
+     */
+    public void clean( DockStation station, DockSituationIgnore ignore );
+    
     /**
      * Gets information about all the roots that are registered.
      * @return all the roots
@@ -115,4 +126,24 @@ public interface DockFrontendInternals {
      * @return all the listeners that could have a veto
      */
     public VetoManager getVetos();
+    
+    /**
+     * Encodes <code>setting</code> using the factories of the frontend.
+     * @param setting the setting to encode
+     * @param entry whether <code>setting</code> is an ordinary entry, or the final setting
+     * that contains more data
+     * @return the encoded setting
+     * @throws IOException if the setting cannot be encoded
+     */
+    public byte[] writeSetting( Setting setting, boolean entry ) throws IOException;
+    
+    /**
+     * Decodes a setting that was encoded by {@link #writeSetting(Setting, boolean)}.
+     * @param data the encoded setting
+     * @param entry whether the setting is an ordinary entry, or the final setting
+     * that contains more data
+     * @return the new setting
+     * @throws IOException if the setting cannot be decoded
+     */
+    public Setting readSetting( byte[] data, boolean entry ) throws IOException;
 }
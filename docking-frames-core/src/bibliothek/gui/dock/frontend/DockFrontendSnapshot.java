@@ -0,0 +1,187 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.dock.layout.DockSituation;
+import bibliothek.gui.dock.layout.PropertyTransformer;
+import bibliothek.util.Version;
+import bibliothek.util.xml.XElement;
+
+/**
+ * A {@link DockFrontendSnapshot} is a copy of all the {@link Setting}s of a {@link DockFrontend}, together
+ * with the {@link DockSituation}s and the {@link PropertyTransformer} needed to encode them. A snapshot is
+ * created by {@link DockFrontend#createSnapshot()} on the EDT, but it can be written by any thread. The
+ * snapshot produces the same format as {@link DockFrontend#writeBlop(SettingsBlop, DataOutputStream)} and
+ * {@link DockFrontend#writeBlopXML(SettingsBlop, XElement)}.<br>
+ * The snapshot owns all its settings: the current setting is created for the snapshot, and the named settings
+ * are copied in their encoded form. The named settings are only decoded if they are written in xml format,
+ * or if {@link #getBlop()} is called. The snapshot is not synchronized, only one thread at a time must use it.
+ * @author Benjamin Sigg
+ */
+public class DockFrontendSnapshot {
+	/** the current setting, and an empty setting for each encoded setting */
+	private SettingsBlop blop;
+	
+	/** the named settings that are not yet decoded into {@link #blop} */
+	private Map<String, byte[]> encoded;
+	
+	/** the situation used to write entry settings */
+	private DockSituation entrySituation;
+	
+	/** the situation used to write the final setting */
+	private DockSituation finalSituation;
+	
+	/** the transformer used to write {@link bibliothek.gui.dock.layout.DockableProperty}s */
+	private PropertyTransformer transformer;
+	
+	/**
+	 * Creates a new snapshot.
+	 * @param blop the current setting, and for each entry of <code>encoded</code> an empty setting into which 
+	 * the encoded setting can be decoded. The snapshot takes ownership of <code>blop</code> and its settings.
+	 * @param encoded the named settings, encoded with <code>entrySituation</code>. The snapshot takes
+	 * ownership of the arrays.
+	 * @param entrySituation the situation used to write the named settings
+	 * @param finalSituation the situation used to write the current setting
+	 * @param transformer the transformer used to write locations
+	 */
+	public DockFrontendSnapshot( SettingsBlop blop, Map<String, byte[]> encoded, DockSituation entrySituation, DockSituation finalSituation, PropertyTransformer transformer ){
+		if( blop == null ){
+			throw new IllegalArgumentException( "blop must not be null" );
+		}
+		if( encoded == null ){
+			throw new IllegalArgumentException( "encoded must not be null" );
+		}
+		for( String name : encoded.keySet() ){
+			if( blop.getSetting( name ) == null ){
+				throw new IllegalArgumentException( "blop has no empty setting for '" + name + "'" );
+			}
+		}
+		this.blop = blop;
+		this.encoded = new HashMap<String, byte[]>( encoded );
+		this.entrySituation = entrySituation;
+		this.finalSituation = finalSituation;
+		this.transformer = transformer;
+		
+		// profilers are not designed to be used by other threads
+		entrySituation.setProfiler( null );
+		finalSituation.setProfiler( null );
+	}
+	
+	/**
+	 * Gets the settings that are written by this snapshot. This method decodes all the named settings
+	 * that are not yet decoded.
+	 * @return the settings
+	 * @throws IllegalStateException if a setting cannot be decoded
+	 */
+	public SettingsBlop getBlop(){
+		try{
+			decode();
+		}
+		catch( IOException e ){
+			throw new IllegalStateException( "cannot decode settings", e );
+		}
+		return blop;
+	}
+	
+	/**
+	 * Decodes all the named settings that are not yet decoded.
+	 * @throws IOException if a setting cannot be decoded
+	 */
+	private void decode() throws IOException{
+		for( Map.Entry<String, byte[]> entry : encoded.entrySet() ){
+			DataInputStream in = new DataInputStream( new ByteArrayInputStream( entry.getValue() ) );
+			blop.getSetting( entry.getKey() ).read( entrySituation, transformer, true, in );
+		}
+		encoded.clear();
+	}
+	
+	/**
+	 * Writes the contents of this snapshot into <code>out</code>.
+	 * @param out the stream to write into
+	 * @throws IOException if there are any problems
+	 */
+	public void write( DataOutputStream out ) throws IOException{
+		Version.write( out, Version.VERSION_1_1_1a );
+		
+		String currentSetting = blop.getCurrentName();
+		
+		if( currentSetting == null )
+			out.writeBoolean( false );
+		else{
+			out.writeBoolean( true );
+			out.writeUTF( currentSetting );
+		}
+		
+		String[] names = blop.getNames();
+		out.writeInt( names.length );
+		for( String name : names ){
+			out.writeUTF( name );
+			byte[] data = encoded.get( name );
+			if( data == null ){
+				blop.getSetting( name ).write( entrySituation, transformer, true, out );
+			}
+			else{
+				out.write( data );
+			}
+		}
+		
+		blop.getCurrentSetting().write( finalSituation, transformer, false, out );
+	}
+	
+	/**
+	 * Writes the contents of this snapshot in xml format. The named settings are decoded first.
+	 * @param element the element to write into, the attributes of <code>element</code>
+	 * are not changed
+	 * @throws IllegalStateException if a setting cannot be decoded
+	 */
+	public void writeXML( XElement element ){
+		String[] names = getBlop().getNames();
+		
+		if( names.length > 0 ){
+			XElement xsettings = element.addElement( "settings" );
+			for( String name : names ){
+				XElement xsetting = xsettings.addElement( "setting" );
+				xsetting.addString( "name", name );
+				blop.getSetting( name ).writeXML( entrySituation, transformer, true, xsetting );
+			}
+		}
+		
+		XElement xcurrent = element.addElement( "current" );
+		String current = blop.getCurrentName();
+		if( current != null )
+			xcurrent.addString( "name", current );
+		
+		blop.getCurrentSetting().writeXML( finalSituation, transformer, false, xcurrent );
+	}
+}
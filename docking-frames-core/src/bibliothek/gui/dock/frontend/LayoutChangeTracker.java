@@ -0,0 +1,374 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.event.DockFrontendAdapter;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockStationListener;
+
+/**
+ * A {@link LayoutChangeTracker} observes a {@link DockFrontend} and remembers which parts of the
+ * layout changed since the layout was last written by
+ * {@link DockFrontend#writeIncremental(LayoutChunkFile, LayoutChangeTracker)}. The layout is
+ * split into the following parts:
+ * <ul>
+ * 	<li>One part for each root station, all the children of the root station belong to that part.</li>
+ *  <li>One part for the current setting without the root stations, this includes invisible {@link Dockable}s
+ *  and any additional information subclasses of {@link Setting} store.</li>
+ *  <li>One part for each named {@link Setting} and one for the name of the current setting.</li>
+ * </ul>
+ * The tracker only knows about changes that are reported by a {@link DockStationListener} or by the
+ * {@link DockFrontend} itself. Some changes, like moving the divider of a split station, are not reported
+ * by any event. Clients should call {@link #markRootDirty(DockStation)} for such changes, or
+ * {@link #markAllDirty()} if they do not know what changed.
+ * @author Benjamin Sigg
+ */
+public class LayoutChangeTracker {
+	/** prefix of the keys of the chunks describing root stations */
+	public static final String ROOT_PREFIX = "root:";
+	
+	/** prefix of the keys of the chunks describing named settings */
+	public static final String SETTING_PREFIX = "setting:";
+	
+	/** key of the chunk describing the current setting without its root stations */
+	public static final String CURRENT = "current";
+	
+	/** key of the chunk containing the name of the current setting */
+	public static final String CURRENT_NAME = "current-name";
+	
+	/** the frontend that is observed */
+	private DockFrontend frontend;
+	
+	/** whether everything has to be written again */
+	private boolean allDirty = true;
+	
+	/** whether the current setting without its roots has to be written again */
+	private boolean currentDirty = true;
+	
+	/** the roots that have to be written again */
+	private Set<String> dirtyRoots = new HashSet<String>();
+	
+	/** the roots that were written the last time */
+	private Set<String> writtenRoots = new HashSet<String>();
+	
+	/** the named settings that were written the last time, and their modification stamps */
+	private Map<String, Long> writtenSettings = new HashMap<String, Long>();
+	
+	/** the name of the current setting that was written the last time */
+	private String writtenCurrentName;
+	
+	/** all the stations this tracker currently observes */
+	private Set<DockStation> stations = new HashSet<DockStation>();
+	
+	/** the listener added to each {@link DockStation} */
+	private DockStationListener stationListener = new DockStationListener(){
+		public void dockableAdding( DockStation station, Dockable dockable ){
+			// ignore
+		}
+		
+		public void dockableRemoving( DockStation station, Dockable dockable ){
+			// ignore
+		}
+		
+		public void dockableAdded( DockStation station, Dockable dockable ){
+			markRootDirty( station );
+		}
+		
+		public void dockableRemoved( DockStation station, Dockable dockable ){
+			markRootDirty( station );
+		}
+		
+		public void dockableShowingChanged( DockStation station, Dockable dockable, boolean showing ){
+			// ignore
+		}
+		
+		public void dockableSelected( DockStation station, Dockable oldSelection, Dockable newSelection ){
+			markRootDirty( station );
+		}
+		
+		public void dockablesRepositioned( DockStation station, Dockable[] dockables ){
+			markRootDirty( station );
+		}
+	};
+	
+	/** the listener observing the {@link DockController} */
+	private DockRegisterAdapter registerListener = new DockRegisterAdapter(){
+		@Override
+		public void dockStationRegistered( DockController controller, DockStation station ){
+			add( station );
+			markRootDirty( station );
+		}
+		
+		@Override
+		public void dockStationUnregistered( DockController controller, DockStation station ){
+			remove( station );
+			markCurrentDirty();
+		}
+		
+		@Override
+		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			markCurrentDirty();
+		}
+	};
+	
+	/** the listener observing {@link #frontend} */
+	private DockFrontendAdapter frontendListener = new DockFrontendAdapter(){
+		@Override
+		public void hidden( DockFrontend frontend, Dockable dockable ){
+			markCurrentDirty();
+		}
+		
+		@Override
+		public void shown( DockFrontend frontend, Dockable dockable ){
+			markCurrentDirty();
+		}
+		
+		@Override
+		public void added( DockFrontend frontend, Dockable dockable ){
+			markCurrentDirty();
+		}
+		
+		@Override
+		public void removed( DockFrontend frontend, Dockable dockable ){
+			markCurrentDirty();
+		}
+		
+		@Override
+		public void loaded( DockFrontend frontend, String name ){
+			markCurrentDirty();
+		}
+	};
+	
+	/**
+	 * Creates a new tracker and starts observing <code>frontend</code>. Initially the whole
+	 * layout is marked as dirty.
+	 * @param frontend the frontend to observe, not <code>null</code>
+	 */
+	public LayoutChangeTracker( DockFrontend frontend ){
+		if( frontend == null ){
+			throw new IllegalArgumentException( "frontend must not be null" );
+		}
+		this.frontend = frontend;
+		
+		DockController controller = frontend.getController();
+		controller.getRegister().addDockRegisterListener( registerListener );
+		for( DockStation station : controller.getRegister().listDockStations() ){
+			add( station );
+		}
+		frontend.addFrontendListener( frontendListener );
+	}
+	
+	/**
+	 * Gets the frontend which is observed by this tracker.
+	 * @return the frontend, not <code>null</code>
+	 */
+	public DockFrontend getFrontend(){
+		return frontend;
+	}
+	
+	/**
+	 * Stops observing the frontend. This tracker must not be used afterwards.
+	 */
+	public void destroy(){
+		frontend.getController().getRegister().removeDockRegisterListener( registerListener );
+		frontend.removeFrontendListener( frontendListener );
+		for( DockStation station : stations ){
+			station.removeDockStationListener( stationListener );
+		}
+		stations.clear();
+	}
+	
+	private void add( DockStation station ){
+		if( stations.add( station ) ){
+			station.addDockStationListener( stationListener );
+		}
+	}
+	
+	private void remove( DockStation station ){
+		if( stations.remove( station ) ){
+			station.removeDockStationListener( stationListener );
+		}
+	}
+	
+	/**
+	 * Marks the root station which is a parent of <code>station</code>, or <code>station</code> itself,
+	 * as dirty. Nothing happens if <code>station</code> is not part of a tree whose root is
+	 * known to the frontend.
+	 * @param station some station whose layout changed
+	 */
+	public void markRootDirty( DockStation station ){
+		while( true ){
+			Dockable dockable = station.asDockable();
+			if( dockable == null || dockable.getDockParent() == null ){
+				break;
+			}
+			station = dockable.getDockParent();
+		}
+		
+		for( String name : frontend.getRootNames() ){
+			if( frontend.getRoot( name ) == station ){
+				markRootDirty( name );
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Marks the root station with name <code>root</code> as dirty. The current setting is marked
+	 * dirty as well, because it stores the locations of the invisible {@link Dockable}s, which may
+	 * depend on the content of <code>root</code>.
+	 * @param root the name of a root station
+	 */
+	public void markRootDirty( String root ){
+		dirtyRoots.add( root );
+		currentDirty = true;
+	}
+	
+	/**
+	 * Marks the current setting without its roots as dirty, this includes the invisible
+	 * {@link Dockable}s and any additional information a subclass of {@link Setting} stores.
+	 */
+	public void markCurrentDirty(){
+		currentDirty = true;
+	}
+	
+	/**
+	 * Marks the entire layout as dirty, the next time the layout is written all chunks
+	 * will be written.
+	 */
+	public void markAllDirty(){
+		allDirty = true;
+		currentDirty = true;
+	}
+	
+	/**
+	 * Tells whether the entire layout has to be written.
+	 * @return whether everything is dirty
+	 */
+	public boolean isAllDirty(){
+		return allDirty;
+	}
+	
+	/**
+	 * Tells whether the current setting without its roots has to be written. This is the case
+	 * whenever one of the roots is dirty.
+	 * @return whether the current setting is dirty
+	 */
+	public boolean isCurrentDirty(){
+		return currentDirty || !getDirtyRoots().isEmpty();
+	}
+	
+	/**
+	 * Gets the names of all the roots that have to be written, this includes roots which
+	 * were not written the last time. The result does not include roots that
+	 * were removed, nor roots that are children of another station, as their layout is
+	 * stored by their parent.
+	 * @return the names of the dirty roots
+	 */
+	public Set<String> getDirtyRoots(){
+		Set<String> result = new HashSet<String>();
+		for( String name : frontend.getRootNames() ){
+			Dockable dockable = frontend.getRoot( name ).asDockable();
+			if( dockable != null && dockable.getDockParent() != null ){
+				continue;
+			}
+			if( allDirty || dirtyRoots.contains( name ) || !writtenRoots.contains( name ) ){
+				result.add( name );
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the names of the roots that were written the last time.
+	 * @return an unmodifiable set of names
+	 */
+	public Set<String> getWrittenRoots(){
+		return Collections.unmodifiableSet( writtenRoots );
+	}
+	
+	/**
+	 * Tells whether the named setting <code>name</code> has to be written.
+	 * @param name the name of the setting
+	 * @param stamp a number that changes whenever the setting is replaced
+	 * @return <code>true</code> if the setting was not yet written
+	 */
+	public boolean isSettingDirty( String name, long stamp ){
+		if( allDirty ){
+			return true;
+		}
+		Long written = writtenSettings.get( name );
+		return written == null || written.longValue() != stamp;
+	}
+	
+	/**
+	 * Gets the names of all the named settings that were written the last time.
+	 * @return an unmodifiable set of names
+	 */
+	public Set<String> getWrittenSettings(){
+		return Collections.unmodifiableSet( writtenSettings.keySet() );
+	}
+	
+	/**
+	 * Tells whether the name of the current setting has to be written.
+	 * @param name the name of the current setting, can be <code>null</code>
+	 * @return <code>true</code> if <code>name</code> was not yet written
+	 */
+	public boolean isCurrentNameDirty( String name ){
+		if( allDirty ){
+			return true;
+		}
+		if( name == null ){
+			return writtenCurrentName != null;
+		}
+		return !name.equals( writtenCurrentName );
+	}
+	
+	/**
+	 * Informs this tracker that the layout was written, resets the dirty state.
+	 * @param roots the names of all the roots that are now stored
+	 * @param settings the names and modification stamps of all the named settings that are now stored
+	 * @param currentName the name of the current setting that is now stored
+	 */
+	public void written( Set<String> roots, Map<String, Long> settings, String currentName ){
+		writtenRoots = new HashSet<String>( roots );
+		writtenSettings = new HashMap<String, Long>( settings );
+		writtenCurrentName = currentName;
+		dirtyRoots.clear();
+		allDirty = false;
+		currentDirty = false;
+	}
+}
@@ -0,0 +1,416 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import bibliothek.util.FileReplacement;
+
+/**
+ * A {@link LayoutChunkFile} stores a set of named chunks of bytes in one file. New versions of
+ * chunks are appended to the end of the file, hence storing a small change does not require to
+ * rewrite the whole file. Chunks are always written in transactions: a transaction is only
+ * visible once its closing record has been written completely, an incomplete transaction at the
+ * end of the file (e.g. because the application crashed while writing) is ignored when reading.<br>
+ * If the file contains too many outdated chunks, then it is compacted: the current chunks are
+ * written into a new file which then replaces the old file, see {@link FileReplacement}.<br>
+ * This class is not thread safe.
+ * @author Benjamin Sigg
+ */
+public class LayoutChunkFile {
+	/** marker at the beginning of each file */
+	private static final int MAGIC = 0x44464C43;
+	
+	/** the version of the file format */
+	private static final int VERSION = 1;
+	
+	/** marks a record that contains a chunk */
+	private static final byte RECORD_CHUNK = 1;
+	
+	/** marks a record that removes a chunk */
+	private static final byte RECORD_REMOVE = 2;
+	
+	/** marks a record that closes a transaction */
+	private static final byte RECORD_COMMIT = 3;
+	
+	/** the file in which the chunks are stored */
+	private File file;
+	
+	/** the currently valid chunks, <code>null</code> if the file was not yet read */
+	private Map<String, byte[]> chunks;
+	
+	/** the number of bytes of {@link #file} that contain valid data */
+	private long length;
+	
+	/** the number of bytes of {@link #file} that are used by the current chunks */
+	private long liveLength;
+	
+	/** the minimal size of the file before it gets compacted */
+	private long compactThreshold = 64 * 1024;
+	
+	/**
+	 * Creates a new chunk file.
+	 * @param file the file in which the chunks are stored, the file does not need to exist
+	 */
+	public LayoutChunkFile( File file ){
+		if( file == null ){
+			throw new IllegalArgumentException( "file must not be null" );
+		}
+		this.file = file;
+	}
+	
+	/**
+	 * Gets the file in which the chunks are stored.
+	 * @return the file, not <code>null</code>
+	 */
+	public File getFile(){
+		return file;
+	}
+	
+	/**
+	 * Sets the minimal size the file must have before it gets compacted. Files are only compacted
+	 * if they are at least this big and if more than half of their content is outdated.
+	 * @param compactThreshold the minimal size in bytes
+	 */
+	public void setCompactThreshold( long compactThreshold ){
+		this.compactThreshold = compactThreshold;
+	}
+	
+	/**
+	 * Gets the minimal size the file must have before it gets compacted.
+	 * @return the minimal size in bytes
+	 * @see #setCompactThreshold(long)
+	 */
+	public long getCompactThreshold(){
+		return compactThreshold;
+	}
+	
+	/**
+	 * Reads the file and returns all the chunks that are currently valid. If the file does not exist,
+	 * then an empty map is returned.
+	 * @return an unmodifiable map with all the chunks
+	 * @throws IOException if the file cannot be read or is not a chunk file
+	 */
+	public Map<String, byte[]> read() throws IOException{
+		chunks = new HashMap<String, byte[]>();
+		length = 0;
+		liveLength = 0;
+		
+		FileReplacement.recover( file );
+		if( file.exists() ){
+			DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+			try{
+				readRecords( in, file.length() );
+			}
+			finally{
+				in.close();
+			}
+		}
+		return Collections.unmodifiableMap( chunks );
+	}
+	
+	/**
+	 * Reads all the records of the file. Reading stops at the first record that is incomplete or invalid.
+	 * @param in the stream to read from
+	 * @param fileLength the size of the file, used to detect corrupted length fields
+	 * @throws IOException if the file cannot be read or is not a chunk file
+	 */
+	private void readRecords( DataInputStream in, long fileLength ) throws IOException{
+		try{
+			if( in.readInt() != MAGIC ){
+				throw new IOException( "not a layout chunk file: " + file );
+			}
+			int version = in.readInt();
+			if( version != VERSION ){
+				throw new IOException( "unknown version of layout chunk file: " + version );
+			}
+		}
+		catch( EOFException e ){
+			// the file was never written completely
+			return;
+		}
+		long position = 8;
+		length = position;
+		
+		Map<String, byte[]> pending = new HashMap<String, byte[]>();
+		Map<String, Long> pendingSizes = new HashMap<String, Long>();
+		Map<String, Long> sizes = new HashMap<String, Long>();
+		CRC32 crc = new CRC32();
+		
+		try{
+			while( true ){
+				byte type = in.readByte();
+				position += 1;
+				if( type == RECORD_COMMIT ){
+					long checksum = in.readLong();
+					position += 8;
+					if( checksum != crc.getValue() ){
+						// corrupted transaction, all later data is unreliable
+						return;
+					}
+					for( Map.Entry<String, byte[]> entry : pending.entrySet() ){
+						String key = entry.getKey();
+						Long old = sizes.remove( key );
+						if( old != null ){
+							liveLength -= old;
+						}
+						if( entry.getValue() == null ){
+							chunks.remove( key );
+						}
+						else{
+							chunks.put( key, entry.getValue() );
+							long size = pendingSizes.get( key );
+							sizes.put( key, size );
+							liveLength += size;
+						}
+					}
+					pending.clear();
+					pendingSizes.clear();
+					crc.reset();
+					length = position;
+				}
+				else if( type == RECORD_CHUNK || type == RECORD_REMOVE ){
+					String key = in.readUTF();
+					byte[] data = null;
+					long size = 1 + 2 + utfLength( key );
+					updateChecksum( crc, type, key );
+					if( type == RECORD_CHUNK ){
+						int count = in.readInt();
+						// position points after the type, size includes the type but not the length of the chunk
+						if( count < 0 || count > fileLength - (position - 1 + size + 4) ){
+							// corrupted length, the chunk cannot be part of the file
+							return;
+						}
+						data = new byte[ count ];
+						in.readFully( data );
+						crc.update( data );
+						size += 4 + count;
+					}
+					pending.put( key, data );
+					pendingSizes.put( key, size );
+					position += size - 1;
+				}
+				else{
+					// unknown data, possibly garbage from an interrupted write
+					return;
+				}
+			}
+		}
+		catch( EOFException e ){
+			// end of file or incomplete transaction, either way the transaction is ignored
+		}
+	}
+	
+	/**
+	 * Gets the chunks that are currently valid. Reads the file if necessary.
+	 * @return an unmodifiable map with all the chunks
+	 * @throws IOException if the file cannot be read
+	 */
+	public Map<String, byte[]> getChunks() throws IOException{
+		if( chunks == null ){
+			return read();
+		}
+		return Collections.unmodifiableMap( chunks );
+	}
+	
+	/**
+	 * Appends a new transaction to the file. Each entry of <code>changes</code> either replaces
+	 * a chunk, or removes a chunk if its value is <code>null</code>. Afterwards the file may
+	 * be compacted.
+	 * @param changes the chunks that changed
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write( Map<String, byte[]> changes ) throws IOException{
+		if( changes == null ){
+			throw new IllegalArgumentException( "changes must not be null" );
+		}
+		if( chunks == null ){
+			read();
+		}
+		
+		Map<String, byte[]> next = new HashMap<String, byte[]>( chunks );
+		for( Map.Entry<String, byte[]> entry : changes.entrySet() ){
+			if( entry.getValue() == null ){
+				next.remove( entry.getKey() );
+			}
+			else{
+				next.put( entry.getKey(), entry.getValue() );
+			}
+		}
+		
+		if( length == 0 ){
+			rewrite( next );
+			return;
+		}
+		
+		byte[] transaction = encode( changes );
+		long nextLive = size( next );
+		if( length + transaction.length > compactThreshold && length + transaction.length > 2 * nextLive ){
+			rewrite( next );
+			return;
+		}
+		
+		truncateGarbage();
+		FileOutputStream out = new FileOutputStream( file, true );
+		try{
+			out.write( transaction );
+			out.flush();
+			out.getFD().sync();
+		}
+		finally{
+			out.close();
+		}
+		length += transaction.length;
+		liveLength = nextLive;
+		chunks = next;
+	}
+	
+	/**
+	 * Replaces the whole content of the file by <code>content</code>. The new content is first
+	 * written into a temporary file, which then replaces the original file using {@link FileReplacement}.
+	 * @param content all the chunks that should be stored
+	 * @throws IOException if the file cannot be written
+	 */
+	public void rewrite( Map<String, byte[]> content ) throws IOException{
+		if( content == null ){
+			throw new IllegalArgumentException( "content must not be null" );
+		}
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream( bytes );
+		header.writeInt( MAGIC );
+		header.writeInt( VERSION );
+		header.flush();
+		bytes.write( encode( content ) );
+		
+		FileReplacement.write( file, bytes.toByteArray() );
+		
+		chunks = new HashMap<String, byte[]>( content );
+		length = bytes.size();
+		liveLength = size( chunks );
+	}
+	
+	/**
+	 * Removes any bytes after {@link #length}, e.g. the remains of a transaction that was
+	 * interrupted.
+	 * @throws IOException if the file cannot be truncated
+	 */
+	private void truncateGarbage() throws IOException{
+		if( file.length() > length ){
+			RandomAccessFile access = new RandomAccessFile( file, "rw" );
+			try{
+				access.setLength( length );
+			}
+			finally{
+				access.close();
+			}
+		}
+	}
+	
+	private long size( Map<String, byte[]> content ){
+		long size = 0;
+		for( Map.Entry<String, byte[]> entry : content.entrySet() ){
+			size += 1 + 2 + utfLength( entry.getKey() ) + 4 + entry.getValue().length;
+		}
+		return size;
+	}
+	
+	/**
+	 * Gets the number of bytes {@link DataOutputStream#writeUTF(String)} uses to store
+	 * <code>key</code>, not including the length prefix.
+	 * @param key some string
+	 * @return the number of bytes needed to store <code>key</code>
+	 */
+	private int utfLength( String key ){
+		int length = 0;
+		for( int i = 0, n = key.length(); i < n; i++ ){
+			char c = key.charAt( i );
+			if( c >= 0x0001 && c <= 0x007F ){
+				length += 1;
+			}
+			else if( c > 0x07FF ){
+				length += 3;
+			}
+			else{
+				length += 2;
+			}
+		}
+		return length;
+	}
+	
+	private void updateChecksum( CRC32 crc, byte type, String key ) throws IOException{
+		crc.update( type );
+		crc.update( key.getBytes( "UTF-8" ) );
+	}
+	
+	/**
+	 * Encodes one transaction, including its closing record.
+	 * @param changes the content of the transaction
+	 * @return the encoded transaction
+	 * @throws IOException if the data cannot be encoded
+	 */
+	private byte[] encode( Map<String, byte[]> changes ) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( new BufferedOutputStream( bytes ) );
+		CRC32 crc = new CRC32();
+		
+		List<String> keys = new ArrayList<String>( changes.keySet() );
+		Collections.sort( keys );
+		
+		for( String key : keys ){
+			byte[] data = changes.get( key );
+			byte type = data == null ? RECORD_REMOVE : RECORD_CHUNK;
+			out.writeByte( type );
+			out.writeUTF( key );
+			updateChecksum( crc, type, key );
+			if( data != null ){
+				out.writeInt( data.length );
+				out.write( data );
+				crc.update( data );
+			}
+		}
+		out.writeByte( RECORD_COMMIT );
+		out.writeLong( crc.getValue() );
+		out.flush();
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,592 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.util.FileReplacement;
+
+/**
+ * A {@link SettingsStore} that keeps the {@link Setting}s serialized in a file. The file is mapped
+ * into memory and only an index of the settings is kept on the heap. A {@link Setting} is decoded
+ * the first time it is requested, decoded settings are only softly referenced and may be
+ * decoded again later.<br>
+ * Changes are appended to the file as soon as they happen, hence the file always contains
+ * the current set of settings. Only while a batch is open, see {@link #begin()}, the changes are collected and
+ * appended with one access to the disk once the batch is committed. A setting that is stored with the same
+ * content it already has is not appended at all. When the store is created and the file contains more outdated
+ * than valid data, then the file is compacted, see {@link FileReplacement}.<br>
+ * Since the settings are written with the factories of the {@link DockFrontend} they belong to, the
+ * store must be {@link DockFrontend#setSettingsStore(SettingsStore) installed} before settings can be
+ * read or written.
+ * @author Benjamin Sigg
+ */
+public class MappedSettingsStore implements SettingsStore {
+	/** marker at the beginning of each file */
+	private static final int MAGIC = 0x44465353;
+	
+	/** the version of the file format */
+	private static final int VERSION = 1;
+	
+	/** the size of the header of the file */
+	private static final int HEADER_SIZE = 8;
+	
+	/** marks a record that stores a setting */
+	private static final byte RECORD_PUT = 1;
+	
+	/** marks a record that removes a setting */
+	private static final byte RECORD_REMOVE = 2;
+	
+	/** the minimal size of a file before it gets compacted */
+	private static final long COMPACT_THRESHOLD = 64 * 1024;
+	
+	/** the file in which the settings are stored */
+	private File file;
+	
+	/** the location of all the settings in {@link #file} */
+	private Map<String, Entry> index = new HashMap<String, Entry>();
+	
+	/** the number of bytes of {@link #file} that contain valid records */
+	private long length;
+	
+	/** the content of {@link #file}, may be <code>null</code> or outdated */
+	private MappedByteBuffer buffer;
+	
+	/** the frontend using this store */
+	private DockFrontendInternals frontend;
+	
+	/** the number of calls to {@link #begin()} that were not yet {@link #commit() committed} */
+	private int batches = 0;
+	
+	/** records that are not yet written to {@link #file} because a batch is open, {@link #length} already includes them */
+	private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+	
+	/**
+	 * Creates a new store and reads the index of <code>file</code>. If <code>file</code> does
+	 * not exist, then an empty file is created.
+	 * @param file the file in which to store the settings
+	 * @throws IOException if the file cannot be read or is not a settings file
+	 */
+	public MappedSettingsStore( File file ) throws IOException{
+		if( file == null ){
+			throw new IllegalArgumentException( "file must not be null" );
+		}
+		this.file = file;
+		open();
+	}
+	
+	/**
+	 * Gets the file in which the settings are stored.
+	 * @return the file, not <code>null</code>
+	 */
+	public File getFile(){
+		return file;
+	}
+	
+	public void setFrontend( DockFrontendInternals frontend ){
+		this.frontend = frontend;
+	}
+	
+	public Set<String> getNames(){
+		return Collections.unmodifiableSet( index.keySet() );
+	}
+	
+	public boolean contains( String name ){
+		return index.containsKey( name );
+	}
+	
+	public Setting get( String name ){
+		Entry entry = index.get( name );
+		if( entry == null ){
+			return null;
+		}
+		Setting setting = entry.setting == null ? null : entry.setting.get();
+		if( setting == null ){
+			DockFrontendInternals frontend = getFrontend();
+			try{
+				setting = frontend.readSetting( read( entry ), true );
+			}
+			catch( IOException e ){
+				throw new IllegalStateException( "cannot read setting '" + name + "'", e );
+			}
+			entry.setting = new SoftReference<Setting>( setting );
+		}
+		return setting;
+	}
+	
+	public byte[] getEncoded( String name ){
+		Entry entry = index.get( name );
+		if( entry == null ){
+			return null;
+		}
+		try{
+			return read( entry );
+		}
+		catch( IOException e ){
+			throw new IllegalStateException( "cannot read setting '" + name + "'", e );
+		}
+	}
+	
+	public void put( String name, Setting setting ){
+		if( setting == null ){
+			throw new IllegalArgumentException( "setting must not be null" );
+		}
+		DockFrontendInternals frontend = getFrontend();
+		try{
+			byte[] data = frontend.writeSetting( setting, true );
+			CRC32 crc = new CRC32();
+			crc.update( data );
+			
+			Entry existing = index.get( name );
+			if( existing != null && isStored( existing, crc.getValue(), data )){
+				existing.setting = new SoftReference<Setting>( setting );
+				return;
+			}
+			
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream( bytes );
+			out.writeByte( RECORD_PUT );
+			out.writeUTF( name );
+			out.writeInt( data.length );
+			out.writeLong( crc.getValue() );
+			out.flush();
+			
+			Entry entry = new Entry();
+			entry.offset = length + bytes.size();
+			entry.length = data.length;
+			entry.checksum = crc.getValue();
+			entry.setting = new SoftReference<Setting>( setting );
+			
+			bytes.write( data );
+			append( bytes.toByteArray() );
+			index.put( name, entry );
+		}
+		catch( IOException e ){
+			throw new IllegalStateException( "cannot write setting '" + name + "'", e );
+		}
+	}
+	
+	public boolean remove( String name ){
+		if( !index.containsKey( name )){
+			return false;
+		}
+		try{
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream( bytes );
+			out.writeByte( RECORD_REMOVE );
+			out.writeUTF( name );
+			out.flush();
+			append( bytes.toByteArray() );
+		}
+		catch( IOException e ){
+			throw new IllegalStateException( "cannot remove setting '" + name + "'", e );
+		}
+		index.remove( name );
+		return true;
+	}
+	
+	public Collection<Setting> getDecodedSettings(){
+		List<Setting> result = new ArrayList<Setting>();
+		for( Entry entry : index.values() ){
+			Setting setting = entry.setting == null ? null : entry.setting.get();
+			if( setting != null ){
+				result.add( setting );
+			}
+		}
+		return result;
+	}
+	
+	public void begin(){
+		batches++;
+	}
+	
+	public void commit(){
+		batches--;
+		
+		// recover from too many commit calls
+		if( batches < 0 ){
+			batches = 0;
+		}
+		
+		if( batches == 0 ){
+			try{
+				flush();
+			}
+			catch( IOException e ){
+				throw new IllegalStateException( "cannot write settings", e );
+			}
+		}
+	}
+	
+	private DockFrontendInternals getFrontend(){
+		if( frontend == null ){
+			throw new IllegalStateException( "this store is not installed on a DockFrontend" );
+		}
+		return frontend;
+	}
+	
+	/**
+	 * Reads the index of {@link #file}, compacts the file if necessary.
+	 * @throws IOException if the file cannot be read
+	 */
+	private void open() throws IOException{
+		FileReplacement.recover( file );
+		if( !file.exists() || file.length() < HEADER_SIZE ){
+			rewrite( new HashMap<String, byte[]>() );
+			return;
+		}
+		
+		long live = scan();
+		if( length > COMPACT_THRESHOLD && length > 2 * live ){
+			// the file is not mapped, a mapped file could not be replaced on some platforms
+			Map<String, byte[]> content = new HashMap<String, byte[]>();
+			RandomAccessFile access = new RandomAccessFile( file, "r" );
+			try{
+				for( Map.Entry<String, Entry> entry : index.entrySet() ){
+					Entry item = entry.getValue();
+					byte[] data = new byte[ item.length ];
+					access.seek( item.offset );
+					access.readFully( data );
+					check( item, data );
+					content.put( entry.getKey(), data );
+				}
+			}
+			finally{
+				access.close();
+			}
+			rewrite( content );
+		}
+		else if( file.length() > length ){
+			// remains of an interrupted write
+			RandomAccessFile access = new RandomAccessFile( file, "rw" );
+			try{
+				access.setLength( length );
+			}
+			finally{
+				access.close();
+			}
+		}
+	}
+	
+	/**
+	 * Reads the headers of all records of {@link #file} and builds the {@link #index}. The content
+	 * of the settings is skipped.
+	 * @return the number of bytes used by valid records
+	 * @throws IOException if the file cannot be read
+	 */
+	private long scan() throws IOException{
+		index.clear();
+		Map<String, Long> sizes = new HashMap<String, Long>();
+		long live = 0;
+		
+		DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+		try{
+			if( in.readInt() != MAGIC ){
+				throw new IOException( "not a settings file: " + file );
+			}
+			int version = in.readInt();
+			if( version != VERSION ){
+				throw new IOException( "unknown version of settings file: " + version );
+			}
+			
+			long position = HEADER_SIZE;
+			long size = file.length();
+			length = position;
+			
+			try{
+				while( position < size ){
+					byte type = in.readByte();
+					int nameLength = in.readUnsignedShort();
+					byte[] nameBytes = new byte[ nameLength + 2 ];
+					nameBytes[0] = (byte)(nameLength >>> 8);
+					nameBytes[1] = (byte)nameLength;
+					in.readFully( nameBytes, 2, nameLength );
+					String name = new DataInputStream( new ByteArrayInputStream( nameBytes ) ).readUTF();
+					long recordSize = 1 + 2 + nameLength;
+					
+					Entry entry = null;
+					if( type == RECORD_PUT ){
+						entry = new Entry();
+						entry.length = in.readInt();
+						entry.checksum = in.readLong();
+						recordSize += 4 + 8;
+						entry.offset = position + recordSize;
+						recordSize += entry.length;
+						if( entry.length < 0 || position + recordSize > size ){
+							break;
+						}
+						skip( in, entry.length );
+					}
+					else if( type != RECORD_REMOVE ){
+						break;
+					}
+					
+					Long old = sizes.remove( name );
+					if( old != null ){
+						live -= old;
+					}
+					if( entry == null ){
+						index.remove( name );
+					}
+					else{
+						index.put( name, entry );
+						sizes.put( name, recordSize );
+						live += recordSize;
+					}
+					
+					position += recordSize;
+					length = position;
+				}
+			}
+			catch( EOFException e ){
+				// incomplete record at the end of the file, ignore it
+			}
+		}
+		finally{
+			in.close();
+		}
+		return live;
+	}
+	
+	private void skip( DataInputStream in, int count ) throws IOException{
+		while( count > 0 ){
+			int skipped = in.skipBytes( count );
+			if( skipped <= 0 ){
+				throw new EOFException();
+			}
+			count -= skipped;
+		}
+	}
+	
+	/**
+	 * Replaces {@link #file} by a new file that contains only <code>content</code>. The new
+	 * file is written into a temporary file first, which then replaces {@link #file}.
+	 * @param content the encoded settings
+	 * @throws IOException if the file cannot be written
+	 */
+	private void rewrite( Map<String, byte[]> content ) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bytes );
+		out.writeInt( MAGIC );
+		out.writeInt( VERSION );
+		
+		Map<String, Entry> next = new HashMap<String, Entry>();
+		for( Map.Entry<String, byte[]> item : content.entrySet() ){
+			byte[] data = item.getValue();
+			CRC32 crc = new CRC32();
+			crc.update( data );
+			
+			out.writeByte( RECORD_PUT );
+			out.writeUTF( item.getKey() );
+			out.writeInt( data.length );
+			out.writeLong( crc.getValue() );
+			out.flush();
+			
+			Entry entry = new Entry();
+			entry.offset = bytes.size();
+			entry.length = data.length;
+			entry.checksum = crc.getValue();
+			next.put( item.getKey(), entry );
+			
+			out.write( data );
+		}
+		out.flush();
+		
+		FileReplacement.write( file, bytes.toByteArray() );
+		
+		index = next;
+		length = bytes.size();
+		buffer = null;
+	}
+	
+	/**
+	 * Appends <code>record</code> at the end of {@link #file}. If a batch is open, then <code>record</code>
+	 * is only written once the batch is committed.
+	 * @param record the new record
+	 * @throws IOException if the file cannot be written
+	 */
+	private void append( byte[] record ) throws IOException{
+		if( batches > 0 ){
+			pending.write( record );
+		}
+		else{
+			write( record );
+		}
+		length += record.length;
+	}
+	
+	/**
+	 * Writes the {@link #pending} records into {@link #file}. If writing fails, then the pending
+	 * changes are lost and the {@link #index} is read again from the file.
+	 * @throws IOException if the file cannot be written
+	 */
+	private void flush() throws IOException{
+		if( pending.size() == 0 ){
+			return;
+		}
+		byte[] records = pending.toByteArray();
+		pending.reset();
+		try{
+			write( records );
+		}
+		catch( IOException e ){
+			try{
+				open();
+			}
+			catch( IOException ex ){
+				// the original exception is more important
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Writes <code>records</code> at the end of {@link #file} and waits until they are on the disk.
+	 * @param records the records to write
+	 * @throws IOException if the file cannot be written
+	 */
+	private void write( byte[] records ) throws IOException{
+		FileOutputStream out = new FileOutputStream( file, true );
+		try{
+			out.write( records );
+			out.flush();
+			out.getFD().sync();
+		}
+		finally{
+			out.close();
+		}
+	}
+	
+	/**
+	 * Reads the content of <code>entry</code> from the mapped file.
+	 * @param entry the setting to read
+	 * @return the encoded setting
+	 * @throws IOException if the file cannot be read or the content is corrupted
+	 */
+	private byte[] read( Entry entry ) throws IOException{
+		long end = entry.offset + entry.length;
+		long written = length - pending.size();
+		if( end > written ){
+			// the entry is part of a record that is not yet written
+			flush();
+			written = length;
+		}
+		
+		if( buffer == null || buffer.capacity() < end ){
+			if( written > Integer.MAX_VALUE ){
+				throw new IOException( "file is too big to be mapped: " + file );
+			}
+			RandomAccessFile access = new RandomAccessFile( file, "r" );
+			try{
+				buffer = access.getChannel().map( FileChannel.MapMode.READ_ONLY, 0, written );
+			}
+			finally{
+				access.close();
+			}
+		}
+		
+		byte[] data = new byte[ entry.length ];
+		ByteBuffer view = buffer.duplicate();
+		view.position( (int)entry.offset );
+		view.get( data );
+		
+		check( entry, data );
+		return data;
+	}
+	
+	/**
+	 * Tells whether <code>entry</code> already stores <code>data</code>.
+	 * @param entry the stored setting
+	 * @param checksum the checksum of <code>data</code>
+	 * @param data an encoded setting
+	 * @return <code>true</code> if <code>entry</code> has the same content as <code>data</code>,
+	 * <code>false</code> if the content differs or cannot be read
+	 */
+	private boolean isStored( Entry entry, long checksum, byte[] data ){
+		if( entry.checksum != checksum || entry.length != data.length ){
+			return false;
+		}
+		try{
+			return Arrays.equals( read( entry ), data );
+		}
+		catch( IOException e ){
+			return false;
+		}
+	}
+	
+	/**
+	 * Ensures that <code>data</code> matches the checksum of <code>entry</code>.
+	 * @param entry the setting that was read
+	 * @param data the content of <code>entry</code>
+	 * @throws IOException if the content is corrupted
+	 */
+	private void check( Entry entry, byte[] data ) throws IOException{
+		CRC32 crc = new CRC32();
+		crc.update( data );
+		if( crc.getValue() != entry.checksum ){
+			throw new IOException( "setting is corrupted" );
+		}
+	}
+	
+	/**
+	 * Describes the location of one setting in the file.
+	 * @author Benjamin Sigg
+	 */
+	private static class Entry{
+		/** the location of the encoded setting */
+		public long offset;
+		/** the number of bytes of the encoded setting */
+		public int length;
+		/** checksum of the encoded setting */
+		public long checksum;
+		/** the decoded setting, can be <code>null</code> */
+		public SoftReference<Setting> setting;
+	}
+}
@@ -58,6 +58,15 @@ public class Setting{
         roots.put( root, layout );
     }
     
+    /**
+     * Removes the layout of a root.
+     * @param root the name of the root
+     * @return the layout that was removed or <code>null</code>
+     */
+    public DockLayoutComposition removeRoot( String root ){
+    	return roots.remove( root );
+    }
+    
     /**
      * Gets the layout of a root.
      * @param root the root
@@ -0,0 +1,122 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.util.Collection;
+import java.util.Set;
+
+import bibliothek.gui.DockFrontend;
+
+/**
+ * A {@link SettingsStore} stores the named {@link Setting}s of a {@link DockFrontend}, that are the
+ * settings created by {@link DockFrontend#save(String)}. A store may keep its settings in a serialized
+ * form and decode them only when they are actually needed.<br>
+ * A store is used by only one {@link DockFrontend} at a time, it is always accessed by the
+ * EDT.
+ * @author Benjamin Sigg
+ * @see DockFrontend#setSettingsStore(SettingsStore)
+ */
+public interface SettingsStore {
+	/**
+	 * Informs this store about the frontend that uses it. The frontend offers methods to
+	 * encode and decode {@link Setting}s.
+	 * @param frontend the frontend using this store, <code>null</code> if this store
+	 * is no longer used
+	 */
+	public void setFrontend( DockFrontendInternals frontend );
+	
+	/**
+	 * Gets the names of all the settings of this store.
+	 * @return the names, clients must not modify this set
+	 */
+	public Set<String> getNames();
+	
+	/**
+	 * Tells whether there is a setting called <code>name</code>. This method does
+	 * not decode the setting.
+	 * @param name the name of the setting
+	 * @return <code>true</code> if there is such a setting
+	 */
+	public boolean contains( String name );
+	
+	/**
+	 * Gets the setting called <code>name</code>, decoding it if necessary. Changes of the
+	 * returned setting are not guaranteed to be stored, clients have to call
+	 * {@link #put(String, Setting)} to store a modified setting.
+	 * @param name the name of the setting
+	 * @return the setting or <code>null</code> if not found
+	 * @throws IllegalStateException if the setting cannot be decoded
+	 */
+	public Setting get( String name );
+	
+	/**
+	 * Gets the setting called <code>name</code> in the format of {@link DockFrontendInternals#writeSetting(Setting, boolean)},
+	 * without decoding it. Stores that do not keep their settings encoded return <code>null</code>, in which
+	 * case the setting has to be encoded by the caller.
+	 * @param name the name of the setting
+	 * @return the encoded setting, a new array owned by the caller, or <code>null</code>
+	 * @throws IllegalStateException if the setting cannot be read
+	 */
+	public byte[] getEncoded( String name );
+	
+	/**
+	 * Stores <code>setting</code> under the key <code>name</code>, replaces any
+	 * existing setting with the same name.
+	 * @param name the name of the setting
+	 * @param setting the setting, not <code>null</code>
+	 * @throws IllegalStateException if the setting cannot be stored
+	 */
+	public void put( String name, Setting setting );
+	
+	/**
+	 * Removes the setting called <code>name</code>.
+	 * @param name the name of the setting
+	 * @return <code>true</code> if the setting existed
+	 * @throws IllegalStateException if the setting cannot be removed
+	 */
+	public boolean remove( String name );
+	
+	/**
+	 * Gets all the settings which are currently decoded and kept in memory. These are the settings
+	 * that may need an update if new factories are added to the frontend.
+	 * @return the decoded settings
+	 */
+	public Collection<Setting> getDecodedSettings();
+	
+	/**
+	 * Opens a new batch of changes. A store may delay storing changes until the outermost batch
+	 * is {@link #commit() committed}, e.g. to write many changes with one access to the disk. Every call
+	 * to this method must be followed by exactly one call to {@link #commit()}.
+	 */
+	public void begin();
+	
+	/**
+	 * Closes the current batch of changes. If this was the outermost batch, then all delayed changes
+	 * are stored.
+	 * @throws IllegalStateException if the changes cannot be stored
+	 */
+	public void commit();
+}
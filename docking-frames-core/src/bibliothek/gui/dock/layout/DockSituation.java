@@ -48,6 +48,7 @@ import bibliothek.gui.dock.FlapDockStation;
 import bibliothek.gui.dock.SplitDockStation;
 import bibliothek.gui.dock.StackDockStation;
 import bibliothek.gui.dock.dockable.DefaultDockableFactory;
+import bibliothek.gui.dock.layout.LayoutProfiler.Operation;
 import bibliothek.gui.dock.perspective.Perspective;
 import bibliothek.gui.dock.perspective.PerspectiveElement;
 import bibliothek.gui.dock.station.flap.FlapDockStationFactory;
@@ -103,6 +104,9 @@ public class DockSituation {
     
     /** strategy used to filter placeholders when converting the intermediate format to real {@link DockElement}s */
     private PlaceholderStrategy placeholders;
+    
+    /** measures the time the factories need, can be <code>null</code> */
+    private LayoutProfiler profiler;
 
     /**
      * Constructs a new DockSituation and sets some factories which are
@@ -226,7 +230,62 @@ public class DockSituation {
     	if( dockable == null ){
     		return null;
     	}
-    	return placeholders.getPlaceholderFor( dockable );
+    	if( profiler == null || !profiler.begin() ){
+    		return placeholders.getPlaceholderFor( dockable );
+    	}
+    	try{
+    		return placeholders.getPlaceholderFor( dockable );
+    	}
+    	finally{
+    		profiler.end( getID( element ), Operation.PLACEHOLDER );
+    	}
+    }
+    
+    /**
+     * Sets a profiler which measures how much time the {@link DockFactory}s and the {@link PlaceholderStrategy}
+     * need to read, write, convert and create elements.
+     * @param profiler the profiler, can be <code>null</code>
+     */
+    public void setProfiler( LayoutProfiler profiler ){
+		this.profiler = profiler;
+	}
+    
+    /**
+     * Gets the profiler which measures the time the factories need.
+     * @return the profiler, can be <code>null</code>
+     */
+    public LayoutProfiler getProfiler(){
+		return profiler;
+	}
+    
+    /**
+     * Wraps <code>factory</code> such that the time it needs is reported to the current {@link #getProfiler() profiler}.
+     * Subclasses should call this method whenever they use one of their factories.
+     * @param factory the factory to wrap, can be <code>null</code>
+     * @param id the identifier under which the measurements are reported, usually the identifier
+     * that was used to find <code>factory</code>
+     * @return a wrapper around <code>factory</code>, or <code>factory</code> itself if there is no profiler
+     */
+    protected <D extends DockElement, P extends PerspectiveElement, L> DockFactory<D, P, L> profiled( DockFactory<D, P, L> factory, String id ){
+    	LayoutProfiler profiler = this.profiler;
+    	if( factory == null || profiler == null ){
+    		return factory;
+    	}
+    	return new ProfiledDockFactory<D, P, L>( factory, profiler, id );
+    }
+    
+    /**
+     * Wraps <code>factory</code> such that the time it needs is reported to the current {@link #getProfiler() profiler}.
+     * @param factory the factory to wrap, can be <code>null</code>
+     * @param id the identifier under which the measurements are reported
+     * @return a wrapper around <code>factory</code>, or <code>factory</code> itself if there is no profiler
+     */
+    protected <L> AdjacentDockFactory<L> profiled( AdjacentDockFactory<L> factory, String id ){
+    	LayoutProfiler profiler = this.profiler;
+    	if( factory == null || profiler == null ){
+    		return factory;
+    	}
+    	return new ProfiledAdjacentDockFactory<L>( factory, profiler, id );
     }
 
     /**
@@ -307,7 +366,7 @@ public class DockSituation {
             return null;
 
         String id = getID( element );
-        DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( id );
+        DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( id ), id );
         if( factory == null )
             throw new IllegalArgumentException( "Unknown factory-id: " + element.getFactoryID() );
 
@@ -338,7 +397,7 @@ public class DockSituation {
         List<DockLayout<?>> adjacent = null;
         for( AdjacentDockFactory<?> adjacentFactory : this.adjacent.values() ){
             if( adjacentFactory.interested( element )){
-                Object adjacentData = adjacentFactory.getLayout( element, ids );
+                Object adjacentData = profiled( adjacentFactory, getAdjacentID( adjacentFactory ) ).getLayout( element, ids );
                 if( adjacent == null ){
                     adjacent = new ArrayList<DockLayout<?>>();
                 }
@@ -368,7 +427,7 @@ public class DockSituation {
         if( layout == null )
             return null;
 
-        DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() );
+        DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() ), layout.getFactoryID() );
         if( factory == null )
             return null;
 
@@ -408,7 +467,7 @@ public class DockSituation {
             List<DockLayout<?>> adjacent = composition.getAdjacent();
             if( adjacent != null ){
                 for( DockLayout<?> adjacentLayout : adjacent ){
-                    AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() );
+                    AdjacentDockFactory<Object> adjacentFactory = profiled( (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() ), adjacentLayout.getFactoryID() );
                     if( adjacentFactory != null ){
                         if( children == null ){
                             adjacentFactory.setLayout( result, adjacentLayout.getData(), placeholders );
@@ -464,7 +523,7 @@ public class DockSituation {
         }
         else if( info.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
             DockLayout<?> layout = info.getDataLayout();
-            DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() );
+            DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() ), layout.getFactoryID() );
             if( factory == null )
                 throw new IOException( "Missing factory: " + layout.getFactoryID() );
             
@@ -493,7 +552,7 @@ public class DockSituation {
         else{
             out.writeInt( adjacentLayouts.size() );
             for( DockLayout<?> adjacentLayout : adjacentLayouts ){
-                AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() );
+                AdjacentDockFactory<Object> adjacentFactory = profiled( (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() ), adjacentLayout.getFactoryID() );
                 if( adjacentFactory == null )
                     throw new IOException( "Missing adjacent factory: " + adjacentLayout.getFactoryID() );
 
@@ -563,7 +622,7 @@ public class DockSituation {
                 for( int i = 0; i < layoutCount; i++ ){
                     String adjacentFactoryId = in.readUTF();
                     int adjacentCount = in.readInt();
-                    AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentFactoryId );
+                    AdjacentDockFactory<Object> adjacentFactory = profiled( (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentFactoryId ), adjacentFactoryId );
                     if( adjacentFactory == null ){
                         if( missingAdjacent == null ){
                             // skip
@@ -626,7 +685,7 @@ public class DockSituation {
         
         String factoryId = entryIn.readUTF();
         
-        DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+        DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
 
         // contents
         DockLayoutInfo info;
@@ -848,7 +907,7 @@ public class DockSituation {
         else if( info.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
             DockLayout<?> layout = info.getDataLayout();
 
-            DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() );
+            DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() ), layout.getFactoryID() );
             if( factory == null )
                 throw new IllegalArgumentException( "Missing factory: " + layout.getFactoryID() );
 
@@ -870,7 +929,7 @@ public class DockSituation {
             XElement xadjacent = element.addElement( "adjacent" );
 
             for( DockLayout<?> adjacentLayout : adjacentLayouts ){
-                AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() );
+                AdjacentDockFactory<Object> adjacentFactory = profiled( (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() ), adjacentLayout.getFactoryID() );
                 if( adjacentFactory == null )
                     throw new IllegalArgumentException( "Missing adjacent factory: " + adjacentLayout.getFactoryID() );
 
@@ -907,7 +966,7 @@ public class DockSituation {
 
             for( XElement xlayout : xadjacent.getElements( "layout" )){
                 String factoryId = xlayout.getString( "factory" );
-                AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( factoryId );
+                AdjacentDockFactory<Object> adjacentFactory = profiled( (AdjacentDockFactory<Object>)getAdjacentFactory( factoryId ), factoryId );
                 if( adjacentFactory != null ){
                     Object data = adjacentFactory.read( xlayout, intermediatePlaceholders );
                     if( data != null ){
@@ -953,7 +1012,7 @@ public class DockSituation {
             if( xplaceholder != null ){
             	placeholder = new Path( xplaceholder.getString() );
             }
-            DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+            DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
             if( factory != null ){
                 Object data = factory.read( element, intermediatePlaceholders );
                 if( data != null ){
@@ -1197,7 +1256,7 @@ public class DockSituation {
     		return;
     	}
 
-    	DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() );
+    	DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() ), layout.getFactoryID() );
     	if( factory == null ){
     		return;
     	}
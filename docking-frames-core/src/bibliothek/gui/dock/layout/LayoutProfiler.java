@@ -0,0 +1,218 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import bibliothek.gui.dock.DockFactory;
+import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+import bibliothek.gui.dock.util.NestedTimer;
+
+/**
+ * A {@link LayoutProfiler} measures how much time the {@link DockFactory}s of a {@link DockSituation} need
+ * to read, write, convert and create elements. A profiler can be set to a {@link DockSituation} with
+ * {@link DockSituation#setProfiler(LayoutProfiler)}, to a {@link bibliothek.gui.DockFrontend} with
+ * {@link bibliothek.gui.DockFrontend#setLayoutProfiler(LayoutProfiler)}, or to a 
+ * <code>CControl</code>. The measurements are collected in one {@link LayoutStatistics} for each factory
+ * and {@link Operation}, and can be read with {@link #getLayoutStatistics()} or {@link #getReport()}.<br>
+ * Measurements are expected to be made by one thread at a time, the methods reading the statistics can 
+ * be called from any thread.
+ * @author Benjamin Sigg
+ */
+public class LayoutProfiler {
+	/**
+	 * The kind of work that is measured.
+	 * @author Benjamin Sigg
+	 */
+	public static enum Operation{
+		/** decoding the layout of an element from a stream or from xml */
+		READ,
+		/** encoding the layout of an element into a stream or into xml */
+		WRITE,
+		/** converting an existing element into its layout */
+		CONVERT,
+		/** creating or updating an element by applying its layout */
+		CONSTRUCT,
+		/** guessing the location of the children of an element */
+		ESTIMATE_LOCATIONS,
+		/** asking the {@link PlaceholderStrategy} for the placeholder of an element */
+		PLACEHOLDER
+	}
+	
+	/** whether measurements are made */
+	private volatile boolean enabled = true;
+	
+	/** all the statistics collected so far */
+	private Map<String, LayoutStatistics[]> statistics = new HashMap<String, LayoutStatistics[]>();
+	
+	/** measures the currently running, nested measurements */
+	private NestedTimer timer = new NestedTimer();
+	
+	/**
+	 * Tells whether this profiler currently makes measurements.
+	 * @return whether measurements are made
+	 */
+	public boolean isEnabled(){
+		return enabled;
+	}
+	
+	/**
+	 * Enables or disables this profiler, a new profiler is enabled.
+	 * @param enabled whether to make measurements
+	 */
+	public void setEnabled( boolean enabled ){
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * Starts a new measurement. If this method returns <code>true</code>, then {@link #end(String, Operation)} must
+	 * be called once the work is done, even if the work was aborted by an exception.
+	 * @return <code>true</code> if the measurement started, <code>false</code> if the profiler is disabled
+	 */
+	public boolean begin(){
+		if( !enabled ){
+			return false;
+		}
+		timer.begin();
+		return true;
+	}
+	
+	/**
+	 * Finishes the measurement that was started by the last call to {@link #begin()}.
+	 * @param factory the identifier of the factory that did the work, not <code>null</code>
+	 * @param operation the kind of work that was measured, not <code>null</code>
+	 * @return the duration of the measurement in nanoseconds
+	 */
+	public long end( String factory, Operation operation ){
+		if( timer.getDepth() == 0 ){
+			return 0;
+		}
+		long total = timer.end();
+		long self = timer.getSelfTime();
+		
+		synchronized( statistics ){
+			LayoutStatistics[] entry = statistics.get( factory );
+			if( entry == null ){
+				entry = new LayoutStatistics[ Operation.values().length ];
+				statistics.put( factory, entry );
+			}
+			int index = operation.ordinal();
+			if( entry[ index ] == null ){
+				entry[ index ] = new LayoutStatistics( factory, operation );
+			}
+			entry[ index ].add( total, self );
+		}
+		return total;
+	}
+	
+	/**
+	 * Gets a copy of all the statistics that were collected so far.
+	 * @return the statistics, one entry for each factory and operation
+	 */
+	public LayoutStatistics[] getLayoutStatistics(){
+		synchronized( statistics ){
+			int count = 0;
+			for( LayoutStatistics[] entry : statistics.values() ){
+				for( LayoutStatistics item : entry ){
+					if( item != null ){
+						count++;
+					}
+				}
+			}
+			LayoutStatistics[] result = new LayoutStatistics[ count ];
+			int index = 0;
+			for( LayoutStatistics[] entry : statistics.values() ){
+				for( LayoutStatistics item : entry ){
+					if( item != null ){
+						result[ index++ ] = new LayoutStatistics( item );
+					}
+				}
+			}
+			return result;
+		}
+	}
+	
+	/**
+	 * Gets the sum of the self times of all measurements of <code>operation</code>.
+	 * @param operation the kind of work
+	 * @return the time in nanoseconds
+	 */
+	public long getSelfTime( Operation operation ){
+		long sum = 0;
+		synchronized( statistics ){
+			for( LayoutStatistics[] entry : statistics.values() ){
+				LayoutStatistics item = entry[ operation.ordinal() ];
+				if( item != null ){
+					sum += item.getSelfTime();
+				}
+			}
+		}
+		return sum;
+	}
+	
+	/**
+	 * Creates a human readable report of all the statistics, the factories that needed the most
+	 * time are listed first.
+	 * @return the report
+	 */
+	public String getReport(){
+		LayoutStatistics[] statistics = getLayoutStatistics();
+		Arrays.sort( statistics, new Comparator<LayoutStatistics>(){
+			public int compare( LayoutStatistics a, LayoutStatistics b ){
+				long selfA = a.getSelfTime();
+				long selfB = b.getSelfTime();
+				if( selfA > selfB ){
+					return -1;
+				}
+				if( selfA < selfB ){
+					return 1;
+				}
+				return 0;
+			}
+		});
+		
+		StringBuilder builder = new StringBuilder();
+		for( Operation operation : Operation.values() ){
+			builder.append( operation ).append( ": " ).append( getSelfTime( operation ) / 1000 ).append( "us\n" );
+		}
+		for( LayoutStatistics item : statistics ){
+			builder.append( item ).append( "\n" );
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * Deletes all the statistics that were collected so far.
+	 */
+	public void reset(){
+		synchronized( statistics ){
+			statistics.clear();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import bibliothek.gui.dock.util.DurationStatistics;
+
+/**
+ * The durations a {@link LayoutProfiler} measured for one {@link bibliothek.gui.dock.DockFactory} and
+ * one {@link LayoutProfiler.Operation}. All times are in nanoseconds. The <i>self time</i> of a measurement
+ * is its duration minus the duration of all the measurements that were nested inside it, e.g. the
+ * time a factory wrapped by a {@link PredefinedDockSituation} needs is not part of the self time
+ * of the wrapping factory.
+ * @author Benjamin Sigg
+ */
+public class LayoutStatistics extends DurationStatistics {
+	/** the identifier of the factory that was measured */
+	private String factory;
+	/** what was measured */
+	private LayoutProfiler.Operation operation;
+	
+	/**
+	 * Creates new, empty statistics.
+	 * @param factory the identifier of the factory that is measured, not <code>null</code>
+	 * @param operation what is measured, not <code>null</code>
+	 */
+	public LayoutStatistics( String factory, LayoutProfiler.Operation operation ){
+		if( factory == null ){
+			throw new IllegalArgumentException( "factory must not be null" );
+		}
+		if( operation == null ){
+			throw new IllegalArgumentException( "operation must not be null" );
+		}
+		this.factory = factory;
+		this.operation = operation;
+	}
+	
+	/**
+	 * Creates a copy of <code>original</code>.
+	 * @param original the statistics to copy
+	 */
+	public LayoutStatistics( LayoutStatistics original ){
+		super( original );
+		factory = original.factory;
+		operation = original.operation;
+	}
+	
+	/**
+	 * Gets the identifier of the {@link bibliothek.gui.dock.DockFactory} that was measured.
+	 * @return the identifier, not <code>null</code>
+	 */
+	public String getFactory(){
+		return factory;
+	}
+	
+	/**
+	 * Tells what was measured.
+	 * @return the operation, not <code>null</code>
+	 */
+	public LayoutProfiler.Operation getOperation(){
+		return operation;
+	}
+	
+	@Override
+	public String toString(){
+		StringBuilder builder = new StringBuilder();
+		builder.append( factory ).append( " " ).append( operation );
+		appendTimes( builder );
+		return builder.toString();
+	}
+}
@@ -419,7 +419,7 @@ public class PredefinedDockSituation extends DockSituation {
             DataInputStream in = new DataInputStream( new ByteArrayInputStream( bytes ));
             String factoryId = in.readUTF();
 
-            DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+            DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
             DockLayoutInfo info = null;
             
             if( factory == null ){
@@ -460,7 +460,7 @@ public class PredefinedDockSituation extends DockSituation {
 
         Object delegate = null;
 
-        DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+        DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
         if( factory == null ){
             DockFactory<?,?,BackupFactoryData<?>> backup = getBackup( factoryId );
             if( backup != null ){
@@ -589,7 +589,7 @@ public class PredefinedDockSituation extends DockSituation {
             DockLayoutInfo delegate = layout.getDelegate();
             if( delegate.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
                 String factoryId = delegate.getDataLayout().getFactoryID();
-                DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+                DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
                 if( factory != null ){
                     factory.estimateLocations( delegate.getDataLayout().getData(), children );
                 }
@@ -600,7 +600,7 @@ public class PredefinedDockSituation extends DockSituation {
         public PredefinedLayout getLayout( DockElement element, Map<Dockable, Integer> children ) {
             if( shouldLayout( element )){
                 String factoryId = UNKNOWN + PredefinedDockSituation.super.getID( element );
-                DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+                DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
                 if( factory == null )
                     throw new IllegalStateException( "Missing factory: " + factoryId );
 
@@ -618,7 +618,7 @@ public class PredefinedDockSituation extends DockSituation {
             DockLayoutInfo delegate = layout.getDelegate();
             if( delegate.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT && shouldLayout( element )){
                 String factoryId = delegate.getDataLayout().getFactoryID();
-                DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+                DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
                 if( factory != null ){
                 	DockController controller = element.getController();
                 	try{
@@ -640,7 +640,7 @@ public class PredefinedDockSituation extends DockSituation {
             DockLayoutInfo delegate = layout.getDelegate();
             if( delegate.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT && shouldLayout( element )){
             	String factoryId = delegate.getDataLayout().getFactoryID();
-                DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+                DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
                 if( factory != null ){
                 	DockController controller = element.getController();
                 	try{
@@ -670,7 +670,7 @@ public class PredefinedDockSituation extends DockSituation {
             DockElement element = stringToElement.get( layout.getPredefined() );
             if( element == null && isLayout ){
                 String factoryId = delegate.getDataLayout().getFactoryID();
-                DockFactory factory = getBackup( factoryId );
+                DockFactory factory = profiled( getBackup( factoryId ), factoryId );
                 if( factory != null ){
                     return factory.layout( new BackupFactoryData<Object>(
                             layout.getPredefined(), 
@@ -701,7 +701,7 @@ public class PredefinedDockSituation extends DockSituation {
                     return null;
 
                 String factoryId = delegate.getDataLayout().getFactoryID();
-                DockFactory factory = getBackup( factoryId );
+                DockFactory factory = profiled( getBackup( factoryId ), factoryId );
                 if( factory != null ){
                     return factory.layout( new BackupFactoryData<Object>( 
                             layout.getPredefined(),
@@ -733,7 +733,7 @@ public class PredefinedDockSituation extends DockSituation {
             PerspectiveElement element = perspective.get( layout.getPredefined() );
             if( element == null && isLayout ){
                 String factoryId = delegate.getDataLayout().getFactoryID();
-                DockFactory factory = getBackup( factoryId );
+                DockFactory factory = profiled( getBackup( factoryId ), factoryId );
                 if( factory != null ){
                 	return factory.layoutPerspective(new BackupFactoryData<Object>( layout.getPredefined(), delegate.getDataLayout().getData()), children );
                 }
@@ -749,7 +749,7 @@ public class PredefinedDockSituation extends DockSituation {
         	DockLayoutInfo delegate = layout.getDelegate();
         	if( delegate.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT && shouldLayout( element, perspective )){
         		String factoryId = delegate.getDataLayout().getFactoryID();
-        		DockFactory factory = getFactory( factoryId );
+        		DockFactory factory = profiled( getFactory( factoryId ), factoryId );
         		if( factory != null ){
         			factory.layoutPerspective( element, delegate.getDataLayout().getData(), children );
         		}
@@ -766,7 +766,7 @@ public class PredefinedDockSituation extends DockSituation {
         	
         	if( shouldLayout( element, perspective )){
                 String factoryId = UNKNOWN + PredefinedDockSituation.super.getID( element );
-                DockFactory factory = getFactory( factoryId );
+                DockFactory factory = profiled( getFactory( factoryId ), factoryId );
                 if( factory == null )
                     throw new IllegalStateException( "Missing factory: " + factoryId );
 
@@ -801,7 +801,7 @@ public class PredefinedDockSituation extends DockSituation {
                 out.writeBoolean( true );
                 DockLayout delegate = info.getDataLayout();
                 String factoryId = delegate.getFactoryID();
-                DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+                DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
                 if( factory == null )
                     throw new IOException( "Missing factory: " + factoryId );
 
@@ -837,7 +837,7 @@ public class PredefinedDockSituation extends DockSituation {
             else{
                 String factoryId = in.readUTF();
 
-                DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+                DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
                 if( factory == null ){
                     DockFactory backup = getBackup( factoryId );
                     if( backup != null ){
@@ -886,7 +886,7 @@ public class PredefinedDockSituation extends DockSituation {
             else if( info.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
                 DockLayout<?> delegate = layout.getDelegate().getDataLayout();
                 String factoryId = delegate.getFactoryID();
-                DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+                DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
                 if( factory == null )
                     throw new XException( "Missing factory: " + factoryId );
 
@@ -915,7 +915,7 @@ public class PredefinedDockSituation extends DockSituation {
 
             Object delegate = null;
 
-            DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+            DockFactory<DockElement,?,Object> factory = profiled( (DockFactory<DockElement,?,Object>)getFactory( factoryId ), factoryId );
             if( factory == null ){
                 DockFactory backup = getBackup( factoryId );
                 if( backup != null ){
@@ -0,0 +1,59 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import bibliothek.gui.dock.DockElement;
+import bibliothek.gui.dock.perspective.PerspectiveElement;
+
+/**
+ * An {@link AdjacentDockFactory} that forwards all calls to another factory and reports the time
+ * the other factory needs to a {@link LayoutProfiler}.
+ * @author Benjamin Sigg
+ * @param <L> the type of object that is used to store the layout
+ */
+class ProfiledAdjacentDockFactory<L> extends ProfiledDockConverter<DockElement, PerspectiveElement, L> implements AdjacentDockFactory<L>{
+	/** the factory doing the actual work */
+	private AdjacentDockFactory<L> factory;
+	
+	/**
+	 * Creates a new factory.
+	 * @param factory the factory doing the actual work, not <code>null</code>
+	 * @param profiler the profiler collecting the measurements, not <code>null</code>
+	 * @param id the identifier under which the measurements are reported, not <code>null</code>
+	 */
+	public ProfiledAdjacentDockFactory( AdjacentDockFactory<L> factory, LayoutProfiler profiler, String id ){
+		super( factory, profiler, id );
+		this.factory = factory;
+	}
+	
+	public boolean interested( DockElement element ){
+		return factory.interested( element );
+	}
+	
+	public boolean interested( PerspectiveElement element ){
+		return factory.interested( element );
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DockElement;
+import bibliothek.gui.dock.layout.LayoutProfiler.Operation;
+import bibliothek.gui.dock.perspective.PerspectiveDockable;
+import bibliothek.gui.dock.perspective.PerspectiveElement;
+import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+import bibliothek.util.xml.XElement;
+
+/**
+ * A {@link DockConverter} that forwards all calls to another converter and reports the time
+ * the other converter needs to a {@link LayoutProfiler}. Used by {@link DockSituation#profiled(bibliothek.gui.dock.DockFactory, String)}
+ * and {@link DockSituation#profiled(AdjacentDockFactory, String)}.
+ * @author Benjamin Sigg
+ * @param <D> the type of element which represents the layout
+ * @param <P> the type of perspective element which represents the layout
+ * @param <L> the type of object that is used to store the layout
+ */
+abstract class ProfiledDockConverter<D extends DockElement, P extends PerspectiveElement, L> implements DockConverter<D, P, L>{
+	/** the converter doing the actual work */
+	private DockConverter<D, P, L> converter;
+	
+	/** the profiler collecting the measurements */
+	protected final LayoutProfiler profiler;
+	
+	/** the identifier under which the measurements are reported */
+	protected final String id;
+	
+	/**
+	 * Creates a new converter.
+	 * @param converter the converter doing the actual work, not <code>null</code>
+	 * @param profiler the profiler collecting the measurements, not <code>null</code>
+	 * @param id the identifier under which the measurements are reported, not <code>null</code>
+	 */
+	public ProfiledDockConverter( DockConverter<D, P, L> converter, LayoutProfiler profiler, String id ){
+		this.converter = converter;
+		this.profiler = profiler;
+		this.id = id;
+	}
+	
+	public String getID(){
+		return converter.getID();
+	}
+	
+	public L getLayout( D element, Map<Dockable, Integer> children ){
+		boolean profiling = profiler.begin();
+		try{
+			return converter.getLayout( element, children );
+		}
+		finally{
+			end( profiling, Operation.CONVERT );
+		}
+	}
+	
+	public L getPerspectiveLayout( P element, Map<PerspectiveDockable, Integer> children ){
+		boolean profiling = profiler.begin();
+		try{
+			return converter.getPerspectiveLayout( element, children );
+		}
+		finally{
+			end( profiling, Operation.CONVERT );
+		}
+	}
+	
+	public void setLayout( D element, L layout, Map<Integer, Dockable> children, PlaceholderStrategy placeholders ){
+		boolean profiling = profiler.begin();
+		try{
+			converter.setLayout( element, layout, children, placeholders );
+		}
+		finally{
+			end( profiling, Operation.CONSTRUCT );
+		}
+	}
+	
+	public void setLayout( D element, L layout, PlaceholderStrategy placeholders ){
+		boolean profiling = profiler.begin();
+		try{
+			converter.setLayout( element, layout, placeholders );
+		}
+		finally{
+			end( profiling, Operation.CONSTRUCT );
+		}
+	}
+	
+	public void write( L layout, DataOutputStream out ) throws IOException{
+		boolean profiling = profiler.begin();
+		try{
+			converter.write( layout, out );
+		}
+		finally{
+			end( profiling, Operation.WRITE );
+		}
+	}
+	
+	public void write( L layout, XElement element ){
+		boolean profiling = profiler.begin();
+		try{
+			converter.write( layout, element );
+		}
+		finally{
+			end( profiling, Operation.WRITE );
+		}
+	}
+	
+	public L read( DataInputStream in, PlaceholderStrategy placeholders ) throws IOException{
+		boolean profiling = profiler.begin();
+		try{
+			return converter.read( in, placeholders );
+		}
+		finally{
+			end( profiling, Operation.READ );
+		}
+	}
+	
+	public L read( XElement element, PlaceholderStrategy placeholders ){
+		boolean profiling = profiler.begin();
+		try{
+			return converter.read( element, placeholders );
+		}
+		finally{
+			end( profiling, Operation.READ );
+		}
+	}
+	
+	/**
+	 * Finishes a measurement that was started with {@link LayoutProfiler#begin()}.
+	 * @param profiling the result of {@link LayoutProfiler#begin()}
+	 * @param operation the kind of work that was measured
+	 */
+	protected void end( boolean profiling, Operation operation ){
+		if( profiling ){
+			profiler.end( id, operation );
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import java.util.Map;
+
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DockElement;
+import bibliothek.gui.dock.DockFactory;
+import bibliothek.gui.dock.layout.LayoutProfiler.Operation;
+import bibliothek.gui.dock.perspective.PerspectiveDockable;
+import bibliothek.gui.dock.perspective.PerspectiveElement;
+import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+
+/**
+ * A {@link DockFactory} that forwards all calls to another factory and reports the time
+ * the other factory needs to a {@link LayoutProfiler}.
+ * @author Benjamin Sigg
+ * @param <D> the type of element which represents the layout
+ * @param <P> the type of perspective element which represents the layout
+ * @param <L> the type of object that is used to store the layout
+ */
+class ProfiledDockFactory<D extends DockElement, P extends PerspectiveElement, L> extends ProfiledDockConverter<D, P, L> implements DockFactory<D, P, L>{
+	/** the factory doing the actual work */
+	private DockFactory<D, P, L> factory;
+	
+	/**
+	 * Creates a new factory.
+	 * @param factory the factory doing the actual work, not <code>null</code>
+	 * @param profiler the profiler collecting the measurements, not <code>null</code>
+	 * @param id the identifier under which the measurements are reported, not <code>null</code>
+	 */
+	public ProfiledDockFactory( DockFactory<D, P, L> factory, LayoutProfiler profiler, String id ){
+		super( factory, profiler, id );
+		this.factory = factory;
+	}
+	
+	public void estimateLocations( L layout, LocationEstimationMap children ){
+		boolean profiling = profiler.begin();
+		try{
+			factory.estimateLocations( layout, children );
+		}
+		finally{
+			end( profiling, Operation.ESTIMATE_LOCATIONS );
+		}
+	}
+	
+	public D layout( L layout, Map<Integer, Dockable> children, PlaceholderStrategy placeholders ){
+		boolean profiling = profiler.begin();
+		try{
+			return factory.layout( layout, children, placeholders );
+		}
+		finally{
+			end( profiling, Operation.CONSTRUCT );
+		}
+	}
+	
+	public D layout( L layout, PlaceholderStrategy placeholders ){
+		boolean profiling = profiler.begin();
+		try{
+			return factory.layout( layout, placeholders );
+		}
+		finally{
+			end( profiling, Operation.CONSTRUCT );
+		}
+	}
+	
+	public P layoutPerspective( L layout, Map<Integer, PerspectiveDockable> children ){
+		boolean profiling = profiler.begin();
+		try{
+			return factory.layoutPerspective( layout, children );
+		}
+		finally{
+			end( profiling, Operation.CONSTRUCT );
+		}
+	}
+	
+	public void layoutPerspective( P perspective, L layout, Map<Integer, PerspectiveDockable> children ){
+		boolean profiling = profiler.begin();
+		try{
+			factory.layoutPerspective( perspective, layout, children );
+		}
+		finally{
+			end( profiling, Operation.CONSTRUCT );
+		}
+	}
+}
@@ -28,6 +28,7 @@ package bibliothek.gui.dock.station.stack.tab;
 import java.awt.Dimension;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -62,6 +63,17 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 		};
 	
 		
+	/** whether invisible tabs are discarded */
+	private PropertyValue<Boolean> virtualTabs = new PropertyValue<Boolean>( TabPane.VIRTUAL_TABS ){
+		@Override
+		protected void valueChanged( Boolean oldValue, Boolean newValue ){
+			if( newValue ){
+				discardInvisibleTabs();
+			}
+			revalidate();
+		}
+	};
+	
 	/** the controller in whose realm this pane works */
 	private DockController controller;
 	
@@ -74,6 +86,15 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	/** all the tabs, visible and invisible */
 	private Map<Dockable, T> tabs = new HashMap<Dockable, T>();
 	
+	/** 
+	 * If {@link #isVirtualTabs() virtual tabs} are used, the {@link Dockable}s whose invisible {@link Tab}s 
+	 * are not yet destroyed, the least recently used element is at the front 
+	 */
+	private LinkedList<Dockable> retiredTabs = new LinkedList<Dockable>();
+	
+	/** how many invisible {@link Tab}s are kept alive if {@link #isVirtualTabs() virtual tabs} are used */
+	private int retiredTabsLimit = 4;
+	
 	/** all the menus, visible and invisible */
 	private List<M> menus = new ArrayList<M>();
 	
@@ -96,6 +117,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	public void setController( DockController controller ){
 		this.controller = controller;
 		layoutManager.setProperties( controller );
+		virtualTabs.setProperties( controller );
 		fireControllerChanged();
 	}
 	
@@ -118,6 +140,72 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 		return tabPlacement;
 	}
 	
+	public boolean isVirtualTabs(){
+		return virtualTabs.getValue();
+	}
+	
+	/**
+	 * Destroys all the {@link Tab}s whose {@link Dockable} is shown in a menu.
+	 */
+	private void discardInvisibleTabs(){
+		retiredTabs.clear();
+		for( Dockable dockable : new ArrayList<Dockable>( menuPosition.keySet() )){
+			T tab = tabs.get( dockable );
+			if( tab != null && !tab.isPaneVisible() ){
+				removeTab( dockable );
+				tabRemoved( tab );
+			}
+		}
+	}
+	
+	/**
+	 * Sets how many invisible {@link Tab}s are kept alive if {@link #isVirtualTabs() virtual tabs}
+	 * are used. Keeping some {@link Tab}s alive prevents a layout from creating and destroying the
+	 * same {@link Tab} again and again while it searches how many {@link Tab}s fit onto this pane.
+	 * @param limit the number of tabs to keep, at least 0
+	 */
+	public void setRetiredTabsLimit( int limit ){
+		if( limit < 0 )
+			throw new IllegalArgumentException( "limit must be at least 0" );
+		retiredTabsLimit = limit;
+		trimRetiredTabs();
+	}
+	
+	/**
+	 * Tells how many invisible {@link Tab}s are kept alive if {@link #isVirtualTabs() virtual tabs}
+	 * are used.
+	 * @return the number of tabs to keep
+	 * @see #setRetiredTabsLimit(int)
+	 */
+	public int getRetiredTabsLimit(){
+		return retiredTabsLimit;
+	}
+	
+	/**
+	 * Marks the invisible {@link Tab} of <code>dockable</code> as the most recently used
+	 * invisible {@link Tab} and destroys the {@link Tab}s that exceed the {@link #getRetiredTabsLimit() limit}.
+	 * @param dockable an element which is shown in a menu
+	 */
+	private void retireTab( Dockable dockable ){
+		retiredTabs.remove( dockable );
+		retiredTabs.addLast( dockable );
+		trimRetiredTabs();
+	}
+	
+	/**
+	 * Destroys the least recently used invisible {@link Tab}s until no more than 
+	 * {@link #getRetiredTabsLimit()} invisible {@link Tab}s are alive.
+	 */
+	private void trimRetiredTabs(){
+		while( retiredTabs.size() > retiredTabsLimit ){
+			Dockable dockable = retiredTabs.removeFirst();
+			T tab = removeTab( dockable );
+			if( tab != null ){
+				tabRemoved( tab );
+			}
+		}
+	}
+	
 	/**
 	 * Updates the layout of this pane, assuming a {@link TabLayoutManager}
 	 * is installed.
@@ -317,6 +405,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	 * Removes all elements from this pane.
 	 */
 	public void removeAll(){
+		retiredTabs.clear();
 		for( T tab : tabs.values() ){
 			tab.setPaneVisible( false );
 			tabRemoved( tab );
@@ -344,6 +433,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	 * and rebuilds them.
 	 */
 	public void discardComponentsAndRebuild(){
+		retiredTabs.clear();
 		for( T tab : tabs.values() ){
 			tab.setPaneVisible( false );
 			tabRemoved( tab );
@@ -504,6 +594,9 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 			tab.setOrientation( getDockTabPlacement() );
 			putTab( dockable, tab );
 		}
+		else{
+			retiredTabs.remove( dockable );
+		}
 		tab.setPaneVisible( true );
 		
 		M menu = menuPosition.remove( dockable );
@@ -596,8 +689,13 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 		
 		// check current menu
 		M currentMenu = menuPosition.get( dockable );
-		if( currentMenu == menu )
+		if( currentMenu == menu ){
+			if( isVirtualTabs() && tabs.containsKey( dockable )){
+				// a layout may have created the tab just to measure its size
+				retireTab( dockable );
+			}
 			return;
+		}
 		
 		if( currentMenu != null ){
 			removeFromMenu( currentMenu, dockable );
@@ -609,6 +707,9 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 		T tab = tabs.get( dockable );
 		if( tab != null ){
 			tab.setPaneVisible( false );
+			if( isVirtualTabs() ){
+				retireTab( dockable );
+			}
 		}
 	}
 	
@@ -656,6 +757,7 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	 */
 	private void cleanOut( Dockable dockable ){
 		// tab
+		retiredTabs.remove( dockable );
 		T tab = removeTab( dockable );
 		if( tab != null ){
 			tab.setPaneVisible( false );
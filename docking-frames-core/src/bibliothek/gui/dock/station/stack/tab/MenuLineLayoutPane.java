@@ -48,6 +48,24 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 	private TabsLayoutBlock tabs;
 	private MenuLineLayout layout;
 	
+	/** the result of the last call to {@link #listLayouts()} */
+	private List<MenuLineLayoutPossibility> cachedLayouts;
+	/** the sizes of the tabs that were used to create {@link #cachedLayouts} */
+	private Size[] cachedTabSizes;
+	/** the sizes of the menu that were used to create {@link #cachedLayouts} */
+	private Size[] cachedMenuSizes;
+	/** the sizes of the info component that were used to create {@link #cachedLayouts} */
+	private Size[] cachedInfoSizes;
+	/** the info component that was used to create {@link #cachedLayouts} */
+	private LayoutBlock cachedInfo;
+	
+	/** the layout that was chosen by the last call to {@link #layout()} */
+	private MenuLineLayoutPossibility cachedChoice;
+	/** the possibilities from which {@link #cachedChoice} was chosen */
+	private List<MenuLineLayoutPossibility> cachedChoiceLayouts;
+	/** the available space when {@link #cachedChoice} was chosen */
+	private int cachedChoiceSpace;
+	
 	/**
 	 * Creates new layout information for <code>pane</code>.
 	 * @param layout the layout using this pane
@@ -199,6 +217,11 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 		
 		int space = available.width;
 		
+		if( cachedChoice != null && cachedChoiceLayouts == layouts && cachedChoiceSpace == space ){
+			cachedChoice.apply();
+			return;
+		}
+		
 		MenuLineLayoutPossibility best = null;
 		int bestSize = -1;
 		double bestScore = 0.0;
@@ -223,20 +246,25 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 			}
 		}
 		
+		if( best == null ){
+			best = smallest;
+		}
+		
+		cachedChoice = best;
+		cachedChoiceLayouts = layouts;
+		cachedChoiceSpace = space;
+		
 		if( best != null ){
 			best.apply();
 		}
-		else if( smallest != null ){
-			smallest.apply();
-		}
 	}
 	
 	/**
-	 * Creates a list of all available layouts.
-	 * @return the list of all available layouts
+	 * Creates a list of all available layouts. The list is cached and only created anew
+	 * if the {@link Size}s of the tabs, of the menu or of the info component change.
+	 * @return the list of all available layouts, must not be modified
 	 */
 	private List<MenuLineLayoutPossibility> listLayouts(){
-		List<MenuLineLayoutPossibility> results = new ArrayList<MenuLineLayoutPossibility>();
 		TabPlacement orientation = getPane().getDockTabPlacement();
 		
 		tabs.setOrientation( orientation );
@@ -245,19 +273,59 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 		menu.setOrientation( orientation );
 		Size[] sizesMenu = menu.getSizes();
 		
+		Size[] sizesInfo = null;
 		if( info != null ){
 			info.setOrientation( orientation );
-			Size[] sizesInfo = info.getSizes();
+			sizesInfo = info.getSizes();
+		}
+		
+		if( cachedLayouts != null && cachedInfo == info && equals( cachedTabSizes, sizesTabs ) &&
+				equals( cachedMenuSizes, sizesMenu ) && equals( cachedInfoSizes, sizesInfo )){
+			return cachedLayouts;
+		}
+		
+		List<MenuLineLayoutPossibility> results = new ArrayList<MenuLineLayoutPossibility>();
+		if( info != null ){
 			for( Size size : sizesInfo ){
 				listLayouts( results, size, sizesMenu, sizesTabs );
 			}
 		}
 		else{
 			listLayouts( results, null, sizesMenu, sizesTabs );
-		}	
+		}
+		
+		cachedLayouts = results;
+		cachedTabSizes = sizesTabs;
+		cachedMenuSizes = sizesMenu;
+		cachedInfoSizes = sizesInfo;
+		cachedInfo = info;
 		return results;
 	}
 	
+	/**
+	 * Tells whether <code>a</code> and <code>b</code> describe the same {@link Size}s.
+	 * @param a some sizes, may be <code>null</code>
+	 * @param b some sizes, may be <code>null</code>
+	 * @return whether the arrays contain sizes of the same type and with the same values
+	 */
+	private boolean equals( Size[] a, Size[] b ){
+		if( a == b ){
+			return true;
+		}
+		if( a == null || b == null || a.length != b.length ){
+			return false;
+		}
+		for( int i = 0; i < a.length; i++ ){
+			Size sa = a[i];
+			Size sb = b[i];
+			if( sa.getClass() != sb.getClass() || sa.getType() != sb.getType() || sa.getWidth() != sb.getWidth() ||
+					sa.getHeight() != sb.getHeight() || sa.getScore() != sb.getScore() ){
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	private void listLayouts( List<MenuLineLayoutPossibility> list, Size infoSize, Size[] menuSizes, Size[] tabSizes ){
 		for( Size tab : tabSizes ){
 			if( tabs.isAllTabs( tab ) ){
@@ -306,5 +374,7 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 			info = null;
 		else
 			info = newInfo.toLayoutBlock();
+		cachedLayouts = null;
+		cachedChoice = null;
 	}
 }
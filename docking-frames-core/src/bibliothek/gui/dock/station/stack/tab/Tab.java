@@ -46,6 +46,7 @@ public interface Tab extends TabPaneComponent{
 	 * @param tabs the displayed tabs, exactly one entry is <code>this</code>
 	 * and no entry is <code>null</code>
 	 * @return the minimum size of this tab
+	 * @see #getPreferredSize(Tab[])
 	 */
 	public Dimension getMinimumSize( Tab[] tabs );
 	
@@ -54,7 +55,10 @@ public interface Tab extends TabPaneComponent{
 	 * this tab is displayed together with <code>tabs</code>.
 	 * @param tabs the displayed tabs, exactly one entry is <code>this</code>
 	 * and no entry is <code>null</code>
-	 * @return the preferred size of this tab
+	 * @return the preferred size of this tab<br>
+	 * Layout managers may assume that the result of this method and of {@link #getMinimumSize(Tab[])} only
+	 * depends on the direct neighbors of <code>this</code> in <code>tabs</code>, they may reuse old results
+	 * as long as the neighbors do not change.
 	 */	
 	public Dimension getPreferredSize( Tab[] tabs );
 }
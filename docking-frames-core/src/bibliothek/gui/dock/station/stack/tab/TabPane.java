@@ -34,6 +34,7 @@ import bibliothek.gui.dock.station.stack.StackDockComponent;
 import bibliothek.gui.dock.station.stack.tab.layouting.TabPlacement;
 import bibliothek.gui.dock.util.DockProperties;
 import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.gui.dock.util.property.DynamicPropertyFactory;
 
 /**
@@ -58,6 +59,14 @@ public interface TabPane {
 			}
 		}, true );
 	
+	/**
+	 * If set to <code>true</code>, then a {@link TabPane} only keeps {@link Tab}s for those {@link Dockable}s
+	 * which are actually shown on a tab. {@link Dockable}s that are shown in a {@link TabMenu} do not have a
+	 * {@link Tab}, saving the resources a {@link Tab} requires when there are many {@link Dockable}s.
+	 */
+	public static final PropertyKey<Boolean> VIRTUAL_TABS = 
+		new PropertyKey<Boolean>( "dock.tabpane.virtual_tabs", new ConstantPropertyFactory<Boolean>( false ), true );
+	
 	/**
 	 * Adds a listener to this pane, the listener has to be informed when
 	 * elements are added or removed, and when the selection changes.
@@ -152,6 +161,14 @@ public interface TabPane {
 	 */
 	public Tab getOnTab( Dockable dockable );
 	
+	/**
+	 * Tells whether this pane discards {@link Tab}s which are not visible, see {@link #VIRTUAL_TABS}. If
+	 * this method returns <code>true</code>, then a {@link TabLayoutManager} should avoid calling
+	 * {@link #getOnTab(Dockable)} for {@link Dockable}s that will not be visible.
+	 * @return whether invisible tabs are discarded
+	 */
+	public boolean isVirtualTabs();
+	
 	/**
 	 * Creates a new menu for this pane.
 	 * @return the new menu
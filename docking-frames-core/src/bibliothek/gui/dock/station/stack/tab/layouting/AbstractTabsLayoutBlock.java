@@ -233,50 +233,64 @@ public abstract class AbstractTabsLayoutBlock implements TabsLayoutBlock{
 	 * owning {@link TabPane} are ignored.
 	 * @return all tabs, ordered by importance
 	 * @throws IllegalStateException if {@link #getPane()} returns <code>null</code>
+	 * @see #getDockablesOrderedByImportance()
 	 */
 	public Tab[] getTabsOrderedByImportance(){
+		Dockable[] dockables = getDockablesOrderedByImportance();
+		Tab[] result = new Tab[ dockables.length ];
+		for( int i = 0; i < dockables.length; i++ ){
+			result[i] = pane.getOnTab( dockables[i] );
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s of the {@link TabPane} ordered by the importance of their tabs, see
+	 * {@link #getTabsOrderedByImportance()}. Other than {@link #getTabsOrderedByImportance()} this method
+	 * does not create any {@link Tab}s.
+	 * @return all dockables, ordered by importance
+	 * @throws IllegalStateException if {@link #getPane()} returns <code>null</code>
+	 */
+	public Dockable[] getDockablesOrderedByImportance(){
 		if( pane == null )
 			throw new IllegalStateException( "no TabPane available" );
 		
 		Dockable[] dockables = pane.getDockables();
-		Tab[] allTabs = new Tab[ dockables.length ];
+		Dockable[] allDockables = new Dockable[ dockables.length ];
+		System.arraycopy( dockables, 0, allDockables, 0, dockables.length );
 		int[] visibleToInvisible = getOriginalTabLocations();
-		    
-		for( int i = 0; i < allTabs.length; i++ ){
-			allTabs[i] = pane.getOnTab( dockables[i] );
-		}
 		
-		Tab[] result = new Tab[ allTabs.length ];
+		Dockable[] result = new Dockable[ allDockables.length ];
 		int resultIndex = 0;
 		
 		// search selected tab
 		Dockable selectedDockable = pane.getSelectedDockable();
-		Tab selected = null;
-		for( Tab tab : allTabs ){
-			if( tab.getDockable() == selectedDockable ){
-				selected = tab;
+		Dockable selected = null;
+		for( Dockable check : allDockables ){
+			if( check == selectedDockable ){
+				selected = check;
 				break;
 			}
 		}
 		
-		for( int i = 0; i < allTabs.length; i++ ){
-			if( selected == allTabs[i] ){
-				allTabs[i] = null;
+		for( int i = 0; i < allDockables.length; i++ ){
+			if( selected == allDockables[i] ){
+				allDockables[i] = null;
 				result[ resultIndex++ ] = selected;
 				break;
 			}
 		}
 		
 		// search visible tabs
-		int selectedIndex = selected == null ? -1 : indexOfTab( selected );
+		int selectedIndex = selected == null ? -1 : indexOfDockable( selected );
 		
 		if( selectedIndex == -1 ){
 			for( int i = 0; i < visibleToInvisible.length; i++ ){
 				if( visibleToInvisible[i] != -1 ){
-					Tab tab = allTabs[ visibleToInvisible[ i ]];
-					if( tab != null ){
-						result[ resultIndex++ ] = tab; 
-						allTabs[ visibleToInvisible[i] ] = null;
+					Dockable dockable = allDockables[ visibleToInvisible[ i ]];
+					if( dockable != null ){
+						result[ resultIndex++ ] = dockable; 
+						allDockables[ visibleToInvisible[i] ] = null;
 					}
 				}
 			}
@@ -284,19 +298,19 @@ public abstract class AbstractTabsLayoutBlock implements TabsLayoutBlock{
 		else{
 			for( int i = selectedIndex-1; i >= 0; i-- ){
 				if( visibleToInvisible[i] != -1 ){
-					Tab tab = allTabs[ visibleToInvisible[ i ]];
-					if( tab != null ){
-						result[ resultIndex++ ] = tab; 
-						allTabs[ visibleToInvisible[i] ] = null;
+					Dockable dockable = allDockables[ visibleToInvisible[ i ]];
+					if( dockable != null ){
+						result[ resultIndex++ ] = dockable; 
+						allDockables[ visibleToInvisible[i] ] = null;
 					}
 				}
 			}
 			for( int i = selectedIndex+1; i < visibleToInvisible.length; i++ ){
 				if( visibleToInvisible[i] != -1 ){
-					Tab tab = allTabs[ visibleToInvisible[ i ]];
-					if( tab != null ){
-						result[ resultIndex++ ] = tab;
-						allTabs[ visibleToInvisible[i] ] = null;
+					Dockable dockable = allDockables[ visibleToInvisible[ i ]];
+					if( dockable != null ){
+						result[ resultIndex++ ] = dockable;
+						allDockables[ visibleToInvisible[i] ] = null;
 					}
 				}
 			}
@@ -308,45 +322,59 @@ public abstract class AbstractTabsLayoutBlock implements TabsLayoutBlock{
 		int leftMostVisible = -1;
 		int rightMostVisible = -1;
 		
-		for( int i = 0; i < allTabs.length; i++ ){
-			if( allTabs[i] == null ){
+		for( int i = 0; i < allDockables.length; i++ ){
+			if( allDockables[i] == null ){
 				leftMostVisible = i;
 				break;
 			}
 		}
-		for( int i = allTabs.length-1; i >= 0; i-- ){
-			if( allTabs[i] == null ){
+		for( int i = allDockables.length-1; i >= 0; i-- ){
+			if( allDockables[i] == null ){
 				rightMostVisible = i;
 				break;
 			}
 		}
 		
 		for( int i = leftMostVisible+1; i < rightMostVisible; i++ ){
-			if( allTabs[i] != null ){
-				result[ resultIndex++ ] = allTabs[i];
-				allTabs[i] = null;
+			if( allDockables[i] != null ){
+				result[ resultIndex++ ] = allDockables[i];
+				allDockables[i] = null;
 			}
 		}
 		
 		// now fill up tabs to the left of the visible tabs
 		for( int i = leftMostVisible-1; i >= 0; i-- ){
-			if( allTabs[i] != null ){
-				result[ resultIndex++ ] = allTabs[i];
-				allTabs[i] = null;
+			if( allDockables[i] != null ){
+				result[ resultIndex++ ] = allDockables[i];
+				allDockables[i] = null;
 			}
 		}
 		
 		// now fill up tabs to the right of the visible tabs
-		for( int i = Math.max( 0, rightMostVisible ); i < allTabs.length; i++ ){
-			if( allTabs[i] != null ){
-				result[ resultIndex++ ] = allTabs[i];
-				allTabs[i] = null;
+		for( int i = Math.max( 0, rightMostVisible ); i < allDockables.length; i++ ){
+			if( allDockables[i] != null ){
+				result[ resultIndex++ ] = allDockables[i];
+				allDockables[i] = null;
 			}
 		}
 		
 		return result;
 	}
 	
+	/**
+	 * Searches the tab of this block that shows <code>dockable</code>.
+	 * @param dockable the element to search
+	 * @return the index of the tab or -1 if not found
+	 */
+	private int indexOfDockable( Dockable dockable ){
+		for( int i = 0, n = tabs.size(); i < n; i++ ){
+			if( tabs.get( i ).getDockable() == dockable ){
+				return i;
+			}
+		}
+		return -1;
+	}
+	
 	/**
 	 * This method maps each {@link Tab} of this {@link LayoutBlock} to the
 	 * location its {@link Dockable} has in the owning {@link TabPane}.
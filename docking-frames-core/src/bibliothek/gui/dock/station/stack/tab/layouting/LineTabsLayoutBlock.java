@@ -29,6 +29,7 @@ import java.awt.Dimension;
 import java.awt.Insets;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import bibliothek.gui.Dockable;
@@ -49,6 +50,21 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	 */
 	private boolean sameSize = true;
 	
+	/** the result of the last call to {@link #getSizes()} */
+	private LineSize[] cachedSizes;
+	
+	/** the {@link Dockable}s that were used to calculate {@link #cachedSizes} */
+	private Dockable[] cachedDockables;
+	
+	/** the tabs that were used to calculate {@link #cachedSizes} */
+	private Tab[] cachedTabs;
+	
+	/** the minimum and preferred sizes of {@link #cachedTabs} */
+	private Dimension[] cachedTabSizes;
+	
+	/** the orientation that was used to calculate {@link #cachedSizes} */
+	private TabPlacement cachedOrientation;
+	
 	/**
 	 * If set, then all tabs have the same height (width) if laid out
 	 * horizontal (vertical).
@@ -100,9 +116,93 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		insertTab( pane.putOnTab( selection ));
 	}
 
+	/**
+	 * Gets all the sizes this block can have. The result of this method is cached, it is only
+	 * calculated again if the set of tabs, the orientation, or the size of a tab changes.<br>
+	 * If the {@link TabPane} uses {@link TabPane#isVirtualTabs() virtual tabs}, then only the sizes
+	 * of those tabs which fit into the available space of the {@link TabPane} are calculated. If the
+	 * {@link TabPane} has no space at all, e.g. because it was not yet layouted, then only the size
+	 * of the most important tab is calculated.
+	 * @return all the available sizes, the result must not be modified
+	 */
 	public LineSize[] getSizes(){
+		if( getPane().isVirtualTabs() ){
+			cachedSizes = null;
+			return calculateVirtualSizes();
+		}
+		
 		Tab[] tabs = getTabsOrderedByImportance();
-		SizeCollector collector = new SizeCollector( getPane().getDockables() );
+		Dockable[] dockables = getPane().getDockables();
+		
+		Dimension[] tabSizes = new Dimension[ tabs.length * 2 ];
+		for( int i = 0; i < tabs.length; i++ ){
+			tabSizes[ 2*i ] = tabs[i].getMinimumSize();
+			tabSizes[ 2*i+1 ] = tabs[i].getPreferredSize();
+		}
+		
+		if( cachedSizes != null && cachedOrientation == getOrientation() && Arrays.equals( cachedTabs, tabs ) && 
+				Arrays.equals( cachedDockables, dockables ) && Arrays.equals( cachedTabSizes, tabSizes )){
+			return cachedSizes;
+		}
+		
+		cachedSizes = calculateSizes( tabs, dockables );
+		cachedTabs = tabs;
+		cachedDockables = dockables;
+		cachedTabSizes = tabSizes;
+		cachedOrientation = getOrientation();
+		return cachedSizes;
+	}
+	
+	/**
+	 * Calculates the sizes this block can have, but creates only as many tabs as necessary to
+	 * fill the available space of the {@link TabPane}.
+	 * @return the sizes
+	 */
+	private LineSize[] calculateVirtualSizes(){
+		TabPane pane = getPane();
+		Dockable[] ordered = getDockablesOrderedByImportance();
+		SizeCollector collector = new SizeCollector( pane.getDockables() );
+		
+		Rectangle available = pane.getAvailableArea();
+		boolean horizontal = getOrientation().isHorizontal();
+		int space = horizontal ? available.width : available.height;
+		
+		List<LineSize> result = new ArrayList<LineSize>();
+		Tab[] tabs = new Tab[ ordered.length ];
+		int count = 0;
+		
+		while( count < ordered.length ){
+			tabs[ count ] = pane.getOnTab( ordered[ count ] );
+			collector.insert( tabs[ count ] );
+			
+			Dimension size = collector.getMinimumSize();
+			Tab[] selection = new Tab[ count+1 ];
+			System.arraycopy( tabs, 0, selection, 0, count+1 );
+			
+			result.add( new LineSize( Size.Type.MINIMUM, size, selection, count+1 == ordered.length, count / (double)ordered.length ) );
+			count++;
+			
+			if( space <= 0 || (horizontal ? size.width : size.height) > space ){
+				break;
+			}
+		}
+		
+		if( count == ordered.length ){
+			Dimension preferred = collector.getPreferredSize();
+			result.add( new LineSize( Size.Type.PREFERRED, preferred, tabs, true, 1.0 ) );
+		}
+		
+		return result.toArray( new LineSize[ result.size() ] );
+	}
+	
+	/**
+	 * Calculates all the sizes this block can have.
+	 * @param tabs the tabs ordered by their importance
+	 * @param dockables the {@link Dockable}s of the {@link TabPane}
+	 * @return the sizes
+	 */
+	private LineSize[] calculateSizes( Tab[] tabs, Dockable[] dockables ){
+		SizeCollector collector = new SizeCollector( dockables );
 		
 		LineSize[] result = new LineSize[ tabs.length+1 ];
 		for( int i = 0; i < tabs.length; i++ ){
@@ -501,12 +601,8 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			tabs[ index ] = tab;
 			Tab[] visibleTabs = getVisibleTabs();
 			
-			for( int i = 0; i < tabs.length; i++ ){
-				if( tabs[i] != null ){
-					minimum[ i ] = tabs[i].getMinimumSize( visibleTabs );
-					preferred[ i ] = tabs[i].getPreferredSize( visibleTabs );
-				}
-			}
+			// only the new tab and its direct neighbors get new neighbors
+			updateSize( index, visibleTabs );
 			
 			boolean horizontal = getOrientation().isHorizontal();
 			
@@ -521,6 +617,7 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 						overlapNext[i] = tabs[i].getOverlap( tab ).bottom;
 						overlapPrevious[ index ] = tab.getOverlap( tabs[i] ).top;
 					}
+					updateSize( i, visibleTabs );
 					break;
 				}
 			}
@@ -536,11 +633,22 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 						overlapNext[ index ] = tab.getOverlap( tabs[i] ).bottom;
 						overlapPrevious[i] = tabs[i].getOverlap( tab ).top;
 					}
+					updateSize( i, visibleTabs );
 					break;
 				}
 			}
 		}
 		
+		/**
+		 * Calculates the minimum and preferred size of the tab at <code>index</code>.
+		 * @param index the index of the tab
+		 * @param visibleTabs all the tabs that are currently visible
+		 */
+		private void updateSize( int index, Tab[] visibleTabs ){
+			minimum[ index ] = tabs[ index ].getMinimumSize( visibleTabs );
+			preferred[ index ] = tabs[ index ].getPreferredSize( visibleTabs );
+		}
+		
 		/**
 		 * Gets the current minimum size.
 		 * @return minimum size
@@ -27,15 +27,22 @@
 package bibliothek.gui.dock.station.support;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.DockEventCoalescer;
+import bibliothek.gui.dock.event.CoalescedEvent;
 import bibliothek.gui.dock.event.DockStationListener;
 
 /**
  * This manager stores {@link DockStationListener DockStationListeners}
- * and provides methods to invoke the listeners.
+ * and provides methods to invoke the listeners. Events describing a change of the selection, of the
+ * visibility or of the position of children are delayed and merged while the {@link DockEventCoalescer}
+ * of the station's {@link DockController} is collecting events.
  * @author Benjamin Sigg
  *
  */
@@ -77,6 +84,22 @@ public class DockStationListenerManager {
     public void removeListener( DockStationListener listener ){
     	listeners.remove( listener );
     }
+    
+    /**
+     * Gets the {@link DockEventCoalescer} which is currently collecting events.
+     * @return the coalescer or <code>null</code> if events have to be fired immediately
+     */
+    protected DockEventCoalescer getCoalescer(){
+    	DockController controller = station.getController();
+    	if( controller == null ){
+    		return null;
+    	}
+    	DockEventCoalescer coalescer = controller.getEventCoalescer();
+    	if( coalescer == null || !coalescer.isCoalescing() ){
+    		return null;
+    	}
+    	return coalescer;
+    }
 	
 	/**
      * Invokes the method {@link DockStationListener#dockableShowingChanged(DockStation, Dockable, boolean)}
@@ -85,6 +108,12 @@ public class DockStationListenerManager {
      * @param value the new state
      */
     public void fireDockableVisibilitySet( Dockable dockable, boolean value ){
+    	DockEventCoalescer coalescer = getCoalescer();
+    	if( coalescer != null ){
+    		coalescer.post( new VisibilityEvent( dockable, value ) );
+    		return;
+    	}
+    	
     	for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
             listener.dockableShowingChanged( station, dockable, value );
     }
@@ -136,6 +165,12 @@ public class DockStationListenerManager {
      * @param newSelected the selected {@link Dockable}
      */
     public void fireDockableSelected( Dockable oldSelected, Dockable newSelected ){
+    	DockEventCoalescer coalescer = getCoalescer();
+    	if( coalescer != null ){
+    		coalescer.post( new SelectionEvent( oldSelected, newSelected ) );
+    		return;
+    	}
+    	
         for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
             listener.dockableSelected( station, oldSelected, newSelected );
     }
@@ -146,7 +181,135 @@ public class DockStationListenerManager {
      * @param dockables the elements that have a new position
      */
     public void fireDockablesRepositioned( Dockable... dockables ){
+    	DockEventCoalescer coalescer = getCoalescer();
+    	if( coalescer != null ){
+    		coalescer.post( new RepositionedEvent( dockables ) );
+    		return;
+    	}
+    	
     	for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
             listener.dockablesRepositioned( station, dockables );
     }
+    
+    /**
+     * A delayed call to {@link DockStationListenerManager#fireDockableVisibilitySet(Dockable, boolean)}.
+     * @author Benjamin Sigg
+     */
+    private class VisibilityEvent extends CoalescedEvent{
+    	/** the visibility before the first event */
+    	private boolean original;
+    	/** the visibility after the last event */
+    	private boolean value;
+    	
+    	/**
+    	 * Creates a new event.
+    	 * @param dockable the element whose visibility changed
+    	 * @param value the new visibility
+    	 */
+    	public VisibilityEvent( Dockable dockable, boolean value ){
+    		super( DockStationListenerManager.this, "visibility", dockable );
+    		this.original = !value;
+    		this.value = value;
+    	}
+    	
+    	@Override
+    	public void merge( CoalescedEvent newer ){
+    		value = ((VisibilityEvent)newer).value;
+    	}
+    	
+    	@Override
+    	public void fire(){
+    		Dockable dockable = (Dockable)getDetail();
+    		if( original != value && dockable.getDockParent() == station ){
+    			fireDockableVisibilitySet( dockable, value );
+    		}
+    	}
+    }
+    
+    /**
+     * A delayed call to {@link DockStationListenerManager#fireDockableSelected(Dockable, Dockable)}.
+     * @author Benjamin Sigg
+     */
+    private class SelectionEvent extends CoalescedEvent{
+    	/** the selection before the first event */
+    	private Dockable oldSelected;
+    	/** the selection after the last event */
+    	private Dockable newSelected;
+    	
+    	/**
+    	 * Creates a new event.
+    	 * @param oldSelected the element that was selected
+    	 * @param newSelected the element that is selected
+    	 */
+    	public SelectionEvent( Dockable oldSelected, Dockable newSelected ){
+    		super( DockStationListenerManager.this, "selection", null );
+    		this.oldSelected = oldSelected;
+    		this.newSelected = newSelected;
+    	}
+    	
+    	@Override
+    	public void merge( CoalescedEvent newer ){
+    		newSelected = ((SelectionEvent)newer).newSelected;
+    	}
+    	
+    	@Override
+    	public void fire(){
+    		// elements that were removed while the events were coalesced are no longer selected
+    		Dockable oldSelected = childOrNull( this.oldSelected );
+    		Dockable newSelected = childOrNull( this.newSelected );
+    		if( oldSelected != newSelected ){
+    			fireDockableSelected( oldSelected, newSelected );
+    		}
+    	}
+    	
+    	/**
+    	 * Checks whether <code>dockable</code> is still a child of the station.
+    	 * @param dockable some element, can be <code>null</code>
+    	 * @return <code>dockable</code> or <code>null</code> if <code>dockable</code> is no child of the station
+    	 */
+    	private Dockable childOrNull( Dockable dockable ){
+    		if( dockable != null && dockable.getDockParent() != station ){
+    			return null;
+    		}
+    		return dockable;
+    	}
+    }
+    
+    /**
+     * A delayed call to {@link DockStationListenerManager#fireDockablesRepositioned(Dockable...)}.
+     * @author Benjamin Sigg
+     */
+    private class RepositionedEvent extends CoalescedEvent{
+    	/** all the elements that were moved */
+    	private Set<Dockable> dockables = new LinkedHashSet<Dockable>();
+    	
+    	/**
+    	 * Creates a new event.
+    	 * @param dockables the elements that were moved
+    	 */
+    	public RepositionedEvent( Dockable[] dockables ){
+    		super( DockStationListenerManager.this, "repositioned", null );
+    		for( Dockable dockable : dockables ){
+    			this.dockables.add( dockable );
+    		}
+    	}
+    	
+    	@Override
+    	public void merge( CoalescedEvent newer ){
+    		dockables.addAll( ((RepositionedEvent)newer).dockables );
+    	}
+    	
+    	@Override
+    	public void fire(){
+    		List<Dockable> children = new ArrayList<Dockable>( dockables.size() );
+    		for( Dockable dockable : dockables ){
+    			if( dockable.getDockParent() == station ){
+    				children.add( dockable );
+    			}
+    		}
+    		if( !children.isEmpty() ){
+    			fireDockablesRepositioned( children.toArray( new Dockable[ children.size() ] ) );
+    		}
+    	}
+    }
 }
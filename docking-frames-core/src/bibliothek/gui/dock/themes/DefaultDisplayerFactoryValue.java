@@ -26,6 +26,7 @@
 
 package bibliothek.gui.dock.themes;
 
+import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.DockTheme;
 import bibliothek.gui.dock.displayer.DisplayerRequest;
@@ -39,6 +40,9 @@ import bibliothek.gui.dock.themes.basic.BasicDisplayerFactory;
  * @author Benjamin Sigg
  */
 public class DefaultDisplayerFactoryValue extends StationThemeItemValue<DisplayerFactory> implements DisplayerFactoryValue {
+	/** the controller whose {@link ThemeManager} is informed about changes of the factory */
+	private DockController controller;
+	
 	/**
 	 * Creates a new object.
 	 * @param id the identifier used for retrieving a resource of {@link ThemeManager}
@@ -48,6 +52,27 @@ public class DefaultDisplayerFactoryValue extends StationThemeItemValue<Displaye
 		super( id, KIND_DISPLAYER_FACTORY, ThemeManager.DISPLAYER_FACTORY_TYPE, station );
 	}
 	
+	@Override
+	public void setController( DockController controller ){
+		if( this.controller != null ){
+			this.controller.getThemeManager().removeDisplayerFactoryValue( this );
+		}
+		this.controller = controller;
+		if( controller != null ){
+			controller.getThemeManager().addDisplayerFactoryValue( this );
+		}
+		super.setController( controller );
+	}
+	
+	@Override
+	public void set( DisplayerFactory value ){
+		DisplayerFactory oldFactory = get();
+		super.set( value );
+		if( controller != null && oldFactory != get() ){
+			controller.getThemeManager().displayerFactoryChanged( this );
+		}
+	}
+	
 	/**
 	 * Creates a new {@link DockableDisplayer} and answers to <code>request</code>. This method does always create
 	 * a new {@link DockableDisplayer}.
@@ -29,8 +29,12 @@ package bibliothek.gui.dock.themes;
 import java.awt.Graphics;
 import java.awt.Rectangle;
 
-import bibliothek.gui.DockStation;
-import bibliothek.gui.Dockable;
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.DockRelocator;
+import bibliothek.gui.dock.control.PaintProfiler;
+import bibliothek.gui.dock.control.relocator.DefaultDockRelocator;
 import bibliothek.gui.dock.station.StationPaint;
 import bibliothek.gui.dock.util.UIValue;
 
@@ -58,7 +62,16 @@ public class DefaultStationPaintValue extends StationThemeItemValue<StationPaint
     public void drawDivider( Graphics g, Rectangle bounds ) {
     	StationPaint paint = get();
     	if( paint != null ){
-    		paint.drawDivider( g, getStation(), bounds );
+    		PaintProfiler profiler = getProfiler();
+    		boolean profiling = profiler != null && profiler.begin();
+    		try{
+    			paint.drawDivider( g, getStation(), bounds );
+    		}
+    		finally{
+    			if( profiling ){
+    				profiler.end( KIND_STATION_PAINT, PaintProfiler.Operation.PAINT );
+    			}
+    		}
     	}
     }
 
@@ -71,7 +84,21 @@ public class DefaultStationPaintValue extends StationThemeItemValue<StationPaint
     public void drawInsertion( Graphics g, Rectangle stationBounds, Rectangle dockableBounds ) {
     	StationPaint paint = get();
     	if( paint != null ){
-    		paint.drawInsertion( g, getStation(), stationBounds, dockableBounds );
+    		PaintProfiler profiler = getProfiler();
+    		boolean profiling = profiler != null && profiler.begin();
+    		DefaultDockRelocator relocator = getMeasuringRelocator();
+    		long start = relocator == null ? 0 : System.nanoTime();
+    		try{
+    			paint.drawInsertion( g, getStation(), stationBounds, dockableBounds );
+    		}
+    		finally{
+    			if( profiling ){
+    				profiler.end( KIND_STATION_PAINT, PaintProfiler.Operation.PAINT );
+    			}
+    			if( relocator != null ){
+    				relocator.measureDraw( System.nanoTime() - start );
+    			}
+    		}
     	}
     }
     
@@ -86,7 +113,21 @@ public class DefaultStationPaintValue extends StationThemeItemValue<StationPaint
     public void drawInsertionLine( Graphics g, int x1, int y1, int x2, int y2 ) {
     	StationPaint paint = get();
     	if( paint != null ){
-    		paint.drawInsertionLine( g, getStation(), x1, y1, x2, y2 );
+    		PaintProfiler profiler = getProfiler();
+    		boolean profiling = profiler != null && profiler.begin();
+    		DefaultDockRelocator relocator = getMeasuringRelocator();
+    		long start = relocator == null ? 0 : System.nanoTime();
+    		try{
+    			paint.drawInsertionLine( g, getStation(), x1, y1, x2, y2 );
+    		}
+    		finally{
+    			if( profiling ){
+    				profiler.end( KIND_STATION_PAINT, PaintProfiler.Operation.PAINT );
+    			}
+    			if( relocator != null ){
+    				relocator.measureDraw( System.nanoTime() - start );
+    			}
+    		}
     	}
     }
     
@@ -99,7 +140,49 @@ public class DefaultStationPaintValue extends StationThemeItemValue<StationPaint
     public void drawRemoval( Graphics g, Rectangle stationBounds, Rectangle dockableBounds ){
     	StationPaint paint = get();
     	if( paint != null ){
-    		paint.drawRemoval( g, getStation(), stationBounds, dockableBounds );
+    		PaintProfiler profiler = getProfiler();
+    		boolean profiling = profiler != null && profiler.begin();
+    		DefaultDockRelocator relocator = getMeasuringRelocator();
+    		long start = relocator == null ? 0 : System.nanoTime();
+    		try{
+    			paint.drawRemoval( g, getStation(), stationBounds, dockableBounds );
+    		}
+    		finally{
+    			if( profiling ){
+    				profiler.end( KIND_STATION_PAINT, PaintProfiler.Operation.PAINT );
+    			}
+    			if( relocator != null ){
+    				relocator.measureDraw( System.nanoTime() - start );
+    			}
+    		}
     	}
     }
+    
+    /**
+     * Gets the {@link PaintProfiler} that measures the painting of the station.
+     * @return the profiler or <code>null</code> if the station has no controller
+     */
+    private PaintProfiler getProfiler(){
+    	DockController controller = getStation().getController();
+    	if( controller == null ){
+    		return null;
+    	}
+    	return controller.getPaintProfiler();
+    }
+    
+    /**
+     * Gets the {@link DefaultDockRelocator} that currently measures a drag and drop operation.
+     * @return the relocator or <code>null</code> if no operation is measured
+     */
+    private DefaultDockRelocator getMeasuringRelocator(){
+    	DockController controller = getStation().getController();
+    	if( controller == null ){
+    		return null;
+    	}
+    	DockRelocator relocator = controller.getRelocator();
+    	if( relocator instanceof DefaultDockRelocator && ((DefaultDockRelocator)relocator).isMeasuring() ){
+    		return (DefaultDockRelocator)relocator;
+    	}
+    	return null;
+    }
 }
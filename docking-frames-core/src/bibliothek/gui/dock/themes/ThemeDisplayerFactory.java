@@ -26,6 +26,7 @@
 package bibliothek.gui.dock.themes;
 
 import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
 import bibliothek.gui.DockTheme;
 import bibliothek.gui.dock.displayer.DisplayerRequest;
 import bibliothek.gui.dock.station.DisplayerFactory;
@@ -46,8 +47,21 @@ public class ThemeDisplayerFactory implements DisplayerFactory{
 		this.controller = controller;
 	}
 	
+	/**
+	 * Gets the factory to which this factory forwards requests for <code>station</code>.
+	 * @param station the station for which a {@link bibliothek.gui.dock.station.DockableDisplayer} would be created
+	 * @return the factory of the current theme or <code>null</code> if there is no theme
+	 */
+	public DisplayerFactory getDelegate( DockStation station ){
+		DockTheme theme = controller.getTheme();
+		if( theme == null ){
+			return null;
+		}
+		return theme.getDisplayFactory( station );
+	}
+	
 	public void request( DisplayerRequest request ){
-		controller.getTheme().getDisplayFactory( request.getParent() ).request( request );
+		getDelegate( request.getParent() ).request( request );
 	}
 
 }
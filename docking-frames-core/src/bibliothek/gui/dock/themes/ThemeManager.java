@@ -28,7 +28,11 @@ package bibliothek.gui.dock.themes;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.swing.LookAndFeel;
 import javax.swing.UIManager;
@@ -36,16 +40,19 @@ import javax.swing.UIManager;
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.DockTheme;
+import bibliothek.gui.DockUI;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.control.focus.DefaultFocusRequest;
 import bibliothek.gui.dock.event.UIListener;
 import bibliothek.gui.dock.station.Combiner;
 import bibliothek.gui.dock.station.DisplayerFactory;
+import bibliothek.gui.dock.station.DockableDisplayer;
 import bibliothek.gui.dock.station.StationPaint;
 import bibliothek.gui.dock.station.span.SpanFactory;
 import bibliothek.gui.dock.themes.basic.action.buttons.MiniButton;
 import bibliothek.gui.dock.themes.border.BorderModifier;
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleManager;
 import bibliothek.gui.dock.util.BackgroundPaint;
 import bibliothek.gui.dock.util.DockProperties;
@@ -124,6 +131,18 @@ public class ThemeManager extends TypedUIProperties{
     /** items to transfer directly from {@link DockProperties} to <code>this</code> */
     private TypedPropertyUIScheme transfers;
     
+    /** whether {@link #setTheme(DockTheme)} rebuilds only stations whose {@link DisplayerFactory} changed */
+    private boolean incremental = true;
+    
+    /** tells for each station which {@link DisplayerFactoryValue}s report changes to this manager */
+    private Map<DockStation, List<DefaultDisplayerFactoryValue>> displayerFactoryValues = new HashMap<DockStation, List<DefaultDisplayerFactoryValue>>();
+    
+    /** the stations whose {@link DisplayerFactory} changed during the current theme change, <code>null</code> if the theme is not changing */
+    private Set<DockStation> changedDisplayerFactories;
+    
+    /** the {@link DisplayerFactory}s which were used before the current theme change, <code>null</code> if the theme is not changing */
+    private Map<DefaultDisplayerFactoryValue, DisplayerFactory> oldDisplayerFactories;
+    
     /**
      * Creates a new object
      * @param controller the owner of this manager, not <code>null</code>
@@ -246,10 +265,131 @@ public class ThemeManager extends TypedUIProperties{
 		return theme;
 	}
     
+    /**
+     * Sets whether {@link #setTheme(DockTheme)} should only rebuild the content of those {@link DockStation}s whose
+     * {@link DisplayerFactory} actually changed. Other stations keep their {@link DockableDisplayer}s, {@link DockTitle}s
+     * and other components, which still receive new colors, fonts and factories through their {@link UIValue}s.
+     * Stations that do not report their {@link DisplayerFactory} to this manager are always rebuilt. A {@link ThemeDisplayerFactory}
+     * counts as changed if the {@link DisplayerFactory} of the new theme is not the same as the factory of the old theme.
+     * @param incremental whether to skip stations which do not need to be rebuilt, the default value is <code>true</code>
+     */
+    public void setIncremental( boolean incremental ){
+		this.incremental = incremental;
+	}
+    
+    /**
+     * Tells whether {@link #setTheme(DockTheme)} skips stations that do not need to be rebuilt.
+     * @return whether the theme change is incremental
+     * @see #setIncremental(boolean)
+     */
+    public boolean isIncremental(){
+		return incremental;
+	}
+    
+    /**
+     * Informs this manager that <code>value</code> now tracks the {@link DisplayerFactory} of its station, and
+     * that it will call {@link #displayerFactoryChanged(DisplayerFactoryValue)} whenever that factory changes.
+     * @param value the new value, not <code>null</code>
+     */
+    @FrameworkOnly
+    public void addDisplayerFactoryValue( DefaultDisplayerFactoryValue value ){
+    	DockStation station = value.getStation();
+    	List<DefaultDisplayerFactoryValue> values = displayerFactoryValues.get( station );
+    	if( values == null ){
+    		values = new ArrayList<DefaultDisplayerFactoryValue>( 1 );
+    		displayerFactoryValues.put( station, values );
+    	}
+    	values.add( value );
+    }
+    
+    /**
+     * Informs this manager that <code>value</code> no longer tracks the {@link DisplayerFactory} of its station.
+     * @param value the value to remove
+     */
+    @FrameworkOnly
+    public void removeDisplayerFactoryValue( DefaultDisplayerFactoryValue value ){
+    	DockStation station = value.getStation();
+    	List<DefaultDisplayerFactoryValue> values = displayerFactoryValues.get( station );
+    	if( values != null ){
+    		values.remove( value );
+    		if( values.isEmpty() ){
+    			displayerFactoryValues.remove( station );
+    		}
+    	}
+    }
+    
+    /**
+     * Called by a {@link DisplayerFactoryValue} if the {@link DisplayerFactory} it offers changed.
+     * @param value the value whose factory changed
+     */
+    @FrameworkOnly
+    public void displayerFactoryChanged( DefaultDisplayerFactoryValue value ){
+    	if( changedDisplayerFactories != null ){
+    		changedDisplayerFactories.add( value.getStation() );
+    	}
+    }
+    
+    /**
+     * Tells whether <code>station</code> has to replace its children in order to show the current theme. This
+     * method always returns <code>true</code> unless the theme is currently changing in {@link #isIncremental() incremental}
+     * mode and <code>station</code> is known to still use the same {@link DisplayerFactory}s.
+     * @param station the station whose theme changes
+     * @return whether the {@link DockableDisplayer}s of <code>station</code> have to be replaced
+     * @see DockUI#updateTheme(DockStation, bibliothek.gui.dock.DockFactory)
+     */
+    public boolean isRebuildRequired( DockStation station ){
+    	if( changedDisplayerFactories == null ){
+    		return true;
+    	}
+    	List<DefaultDisplayerFactoryValue> values = displayerFactoryValues.get( station );
+    	if( values == null ){
+    		return true;
+    	}
+    	if( changedDisplayerFactories.contains( station )){
+    		return true;
+    	}
+    	for( DefaultDisplayerFactoryValue value : values ){
+    		if( oldDisplayerFactories.get( value ) != resolveDisplayerFactory( value )){
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+    
+    /**
+     * Gets the {@link DisplayerFactory} that is actually used by <code>value</code>. If <code>value</code> uses
+     * a {@link ThemeDisplayerFactory}, then the factory of the current theme is returned.
+     * @param value the value whose factory is searched
+     * @return the factory, may be <code>null</code>
+     */
+    private DisplayerFactory resolveDisplayerFactory( DefaultDisplayerFactoryValue value ){
+    	DisplayerFactory factory = value.get();
+    	if( factory instanceof ThemeDisplayerFactory ){
+    		return ((ThemeDisplayerFactory)factory).getDelegate( value.getStation() );
+    	}
+    	return factory;
+    }
+    
+    /**
+     * Stores the {@link DisplayerFactory} that is currently used by each known {@link DisplayerFactoryValue}.
+     * @return the factory of each value
+     */
+    private Map<DefaultDisplayerFactoryValue, DisplayerFactory> resolveDisplayerFactories(){
+    	Map<DefaultDisplayerFactoryValue, DisplayerFactory> result = new HashMap<DefaultDisplayerFactoryValue, DisplayerFactory>();
+    	for( List<DefaultDisplayerFactoryValue> values : displayerFactoryValues.values() ){
+    		for( DefaultDisplayerFactoryValue value : values ){
+    			result.put( value, resolveDisplayerFactory( value ) );
+    		}
+    	}
+    	return result;
+    }
+    
     /**
      * Sets the theme of this manager. This method fires events on registered {@link UIListener}s
-     * and ensures that all {@link DockStation}s receive the update
+     * and ensures that all {@link DockStation}s receive the update. Updates of colors, fonts and icons 
+     * are collected and delivered once the new theme is installed, and the layout is validated only once.
      * @param theme the new theme
+     * @see #setIncremental(boolean)
      */
     public void setTheme( DockTheme theme ){
     	if( theme == null )
@@ -262,28 +402,58 @@ public class ThemeManager extends TypedUIProperties{
     		DockRegister register = controller.getRegister();
     		DockTheme oldTheme = this.theme;
     		Dockable focused = null;
+    		register.setStalled( true );
     		try{
-    			register.setStalled( true );
-    			focused = controller.getFocusedDockable();
-    			
-	    		if( this.theme != null )
-	    			this.theme.uninstall( controller );
-	    		
-	    		this.theme = theme;
-	    		
-	    		ExtensionName<DockThemeExtension> name = new ExtensionName<DockThemeExtension>( 
-	    				DockThemeExtension.DOCK_THEME_EXTENSION, DockThemeExtension.class, DockThemeExtension.THEME_PARAMETER, theme );
-	    		List<DockThemeExtension> extensions = controller.getExtensions().load( name );
-	    		
-	    		theme.install( controller, extensions.toArray( new DockThemeExtension[ extensions.size() ] ) );
-	    		controller.getDockTitleManager().registerTheme( DockTitleManager.THEME_FACTORY_ID, theme.getTitleFactory( controller ) );
-	    		
-	    		// update only those station which are registered to this controller
-	    		for( DockStation station : register.listDockStations() ){
-	    			if( station.getController() == controller ){
-	    				station.updateTheme();
+    			controller.getDeferredValidation().freeze();
+    			try{
+	    			controller.getColors().lockUpdate();
+	    			controller.getFonts().lockUpdate();
+	    			controller.getIcons().lockUpdate();
+	    			try{
+		    			if( incremental ){
+		    				changedDisplayerFactories = new HashSet<DockStation>();
+		    				oldDisplayerFactories = resolveDisplayerFactories();
+		    			}
+		    			focused = controller.getFocusedDockable();
+		    			
+			    		if( this.theme != null )
+			    			this.theme.uninstall( controller );
+			    		
+			    		this.theme = theme;
+			    		
+			    		ExtensionName<DockThemeExtension> name = new ExtensionName<DockThemeExtension>( 
+			    				DockThemeExtension.DOCK_THEME_EXTENSION, DockThemeExtension.class, DockThemeExtension.THEME_PARAMETER, theme );
+			    		List<DockThemeExtension> extensions = controller.getExtensions().load( name );
+			    		
+			    		theme.install( controller, extensions.toArray( new DockThemeExtension[ extensions.size() ] ) );
+			    		controller.getDockTitleManager().registerTheme( DockTitleManager.THEME_FACTORY_ID, theme.getTitleFactory( controller ) );
+			    		
+			    		// update only those station which are registered to this controller
+			    		for( DockStation station : register.listDockStations() ){
+			    			if( station.getController() == controller ){
+			    				station.updateTheme();
+			    			}
+			    		}
+	    			}
+	    			finally{
+	    				changedDisplayerFactories = null;
+	    				oldDisplayerFactories = null;
+	    				try{
+	    					controller.getIcons().unlockUpdate();
+	    				}
+	    				finally{
+	    					try{
+	    						controller.getFonts().unlockUpdate();
+	    					}
+	    					finally{
+	    						controller.getColors().unlockUpdate();
+	    					}
+	    				}
 	    			}
-	    		}
+    			}
+    			finally{
+    				controller.getDeferredValidation().melt();
+    			}
     		}
     		finally{
     			register.setStalled( false );
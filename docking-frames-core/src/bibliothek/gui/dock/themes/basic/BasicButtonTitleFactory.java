@@ -26,14 +26,15 @@
 
 package bibliothek.gui.dock.themes.basic;
 
-import bibliothek.gui.dock.title.DockTitleFactory;
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 
 /**
  * A {@link DockTitleFactory factory} for the {@link BasicButtonDockTitle}
  * @author Benjamin Sigg
  */
-public class BasicButtonTitleFactory implements DockTitleFactory {
+public class BasicButtonTitleFactory implements RecyclingDockTitleFactory {
     /** A static instance of this factory, can be used everywhere */
     public static final BasicButtonTitleFactory FACTORY = new BasicButtonTitleFactory();
 
@@ -45,6 +46,10 @@ public class BasicButtonTitleFactory implements DockTitleFactory {
     	request.answer( new BasicButtonDockTitle( request.getTarget(), request.getVersion() ) );
     }
     
+    public boolean canReuse( DockTitleRequest request, DockTitle title ){
+        return true;
+    }
+    
     public void uninstall( DockTitleRequest request ){
 	    // ignore	
     }
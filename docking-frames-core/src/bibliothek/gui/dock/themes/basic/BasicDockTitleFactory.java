@@ -26,15 +26,17 @@
 
 package bibliothek.gui.dock.themes.basic;
 
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleFactory;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 
 /**
  * A {@link DockTitleFactory} which created instances of {@link BasicDockTitle}
  * and of {@link BasicStationTitle}. 
  * @author Benjamin Sigg
  */
-public class BasicDockTitleFactory implements DockTitleFactory {
+public class BasicDockTitleFactory implements RecyclingDockTitleFactory {
     /** An instance of this factory which can be used an any place */
     public static final DockTitleFactory FACTORY = new BasicDockTitleFactory();
     
@@ -54,4 +56,8 @@ public class BasicDockTitleFactory implements DockTitleFactory {
     		request.answer( new BasicStationTitle( request.getTarget(), request.getVersion() ) );
     	}
     }
+    
+    public boolean canReuse( DockTitleRequest request, DockTitle title ){
+        return true;
+    }
 }
@@ -33,6 +33,8 @@ import java.awt.ContainerOrderFocusTraversalPolicy;
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.Insets;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -58,7 +60,9 @@ import bibliothek.gui.dock.event.DockHierarchyListener;
 import bibliothek.gui.dock.themes.basic.action.BasicTitleViewItem;
 import bibliothek.gui.dock.themes.basic.action.DockActionImportanceOrder;
 import bibliothek.gui.dock.title.DockTitle.Orientation;
+import bibliothek.gui.dock.util.PropertyKey;
 import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 
 /**
  * A panel showing some {@link bibliothek.gui.dock.action.DockAction}s. The
@@ -66,10 +70,22 @@ import bibliothek.gui.dock.util.PropertyValue;
  * using this panel should call {@link #getPreferredSizes()} to get a list of 
  * possible sizes of this panel, and then {@link #setVisibleActions(int)}
  * in order to use one size. This panel will {@link #revalidate()} itself 
- * whenever the number of actions changes.  
+ * whenever the number of actions changes.<br>
+ * If {@link #LAZY_VIEWS} is set, which is the default, then the panel does not create any views nor
+ * does it observe its {@link DockActionSource} while it is not {@link #isDisplayable() displayable}.
  * @author Benjamin Sigg
  */
 public class ButtonPanel extends JPanel{
+	/**
+	 * If set to <code>true</code>, then a {@link ButtonPanel} creates the views for its {@link DockAction}s only
+	 * when it becomes {@link #isDisplayable() displayable}, and releases them, and its listener to the
+	 * {@link DockActionSource}, once it is no longer displayable. This saves resources if there are many
+	 * hidden titles or tabs. An invisible panel reports the preferred sizes it had when its views were
+	 * released, or no size at all if it was never displayable. The default value is <code>true</code>.
+	 */
+	public static final PropertyKey<Boolean> LAZY_VIEWS = 
+		new PropertyKey<Boolean>( "dock.buttonPanel.lazy_views", new ConstantPropertyFactory<Boolean>( true ), true );
+	
 	/** how to layout the panel */
 	private Orientation orientation = Orientation.FREE_HORIZONTAL;
 	
@@ -83,6 +99,12 @@ public class ButtonPanel extends JPanel{
 	
 	/** The list of actions which are currently known */
 	private List<ActionItem> actions = new ArrayList<ActionItem>();
+	
+	/** whether {@link #listener} is added to {@link #source} and the views are created */
+	private boolean connected = false;
+	
+	/** the result of {@link #getPreferredSizes()} when the views were released the last time, can be <code>null</code> */
+	private Dimension[] disconnectedSizes;
     
     /** the list of actions shown in the menu */
     private DefaultDockActionSource menuSource;
@@ -104,6 +126,14 @@ public class ButtonPanel extends JPanel{
     	}
     };
     
+    /** whether views are only created while this panel is displayable */
+    private PropertyValue<Boolean> lazyViews = new PropertyValue<Boolean>( LAZY_VIEWS ){
+    	@Override
+    	protected void valueChanged( Boolean oldValue, Boolean newValue ){
+    		updateConnection();
+    	}
+    };
+    
 	/**
 	 * Creates a new panel
 	 * @param menu whether a menu should be used or not
@@ -125,6 +155,14 @@ public class ButtonPanel extends JPanel{
 		setFocusable( false );
 		setFocusTraversalPolicyProvider( true );
 		setFocusTraversalPolicy( new ContainerOrderFocusTraversalPolicy() );
+		
+		addHierarchyListener( new HierarchyListener(){
+			public void hierarchyChanged( HierarchyEvent e ){
+				if( (e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0 ){
+					updateConnection();
+				}
+			}
+		});
 	}
 	
     /**
@@ -161,6 +199,7 @@ public class ButtonPanel extends JPanel{
     public void setOrientation( Orientation orientation ){
     	if( this.orientation != orientation ){
     		this.orientation = orientation;
+    		disconnectedSizes = null;
     		
     		if( menuItem != null )
     			menuItem.setOrientation( orientation );
@@ -202,10 +241,14 @@ public class ButtonPanel extends JPanel{
 	}
     
     /**
-     * Tells whether this panel shows at least one {@link DockAction}.
+     * Tells whether this panel shows at least one {@link DockAction}. If the views
+     * are not yet created, then this method tells whether there are actions that could be shown.
      * @return whether at least one action is present
      */
     public boolean hasActions(){
+    	if( !connected && source != null ){
+    		return source.getDockActionCount() > 0;
+    	}
     	return actions.size() > 0;
     }
     
@@ -215,6 +258,7 @@ public class ButtonPanel extends JPanel{
      */
     public void setController( DockController controller ){
     	actionOrder.setProperties( controller );
+    	lazyViews.setProperties( controller );
     }
     
     /**
@@ -249,29 +293,9 @@ public class ButtonPanel extends JPanel{
     		throw new IllegalArgumentException( "Either both arguments are null, or none" );
     	
     	if( force || this.source != source || this.dockable != dockable ){
-    		if( this.source != null ){
-    			// remove old items
-    			removeAll();
-    			
-    			for( ActionItem item : actions ){
-    				if( item.item != null ){
-    					item.item.unbind();
-    					item.action.unbind( this.dockable );
-    				}
-    			}
-    			
-    			if( menuAction != null ){
-	    			if( menuItem != null ){
-	    				menuItem.unbind();
-	    				menuItem = null;
-	    			}
-	    			
-	    			menuAction.unbind( this.dockable );
-	    			menuSource.removeAll();
-    			}
-    			
-    			actions.clear();
-    			this.source.removeDockActionSourceListener( listener );
+    		disconnect();
+    		if( this.source != source || this.dockable != dockable ){
+    			disconnectedSizes = null;
     		}
     		
     		this.source = source;
@@ -279,41 +303,9 @@ public class ButtonPanel extends JPanel{
     		
     		listener.setDockable( dockable );
     		
-    		if( source != null ){
-    			if( menuAction != null ){
-	    			menuAction.bind( dockable );
-	    			
-	    			if( dockable.getController() != null ){
-		    			menuItem = createItemFor( menuAction, dockable );
-		    			if( menuItem != null ){
-			    			menuItem.setOrientation( orientation );
-			    			menuItem.setForeground( getForeground() );
-			    			menuItem.setBackground( getBackground() );
-			    			menuItem.bind();
-		    			}
-	    			}
-    			}
-    			
-    			source.addDockActionSourceListener( listener );
-    			for( DockAction action : source ){
-    				ActionItem actionItem = new ActionItem();
-    				actionItem.action = action;
-    				actions.add( actionItem );
-    				if( dockable.getController() != null ){
-	    				BasicTitleViewItem<JComponent> item = createItemFor( action, dockable );
-	    				if( item != null ){
-	    					action.bind( dockable );
-	    					item.bind();
-	    					actionItem.item = item;
-	    					
-	    					item.setOrientation( orientation );
-	    					item.setForeground( getForeground() );
-	    					item.setBackground( getBackground() );
-	    				}
-    				}
-    			}
+    		if( shouldConnect() ){
+    			connect();
     		}
-        	
     		
     		visibleActions = actions.size();
     		resetVisibleActions();
@@ -322,6 +314,100 @@ public class ButtonPanel extends JPanel{
     	}
 	}
     
+    /**
+     * Tells whether the views of this panel should currently exist.
+     * @return <code>true</code> if there is a {@link #getSource() source} and this panel
+     * is either displayable or not {@link #LAZY_VIEWS lazy}
+     */
+    private boolean shouldConnect(){
+    	return source != null && (!lazyViews.getValue() || isDisplayable());
+    }
+    
+    /**
+     * Creates or releases the views of this panel if its state no longer matches
+     * {@link #shouldConnect()}.
+     */
+    private void updateConnection(){
+    	if( connected != shouldConnect() ){
+    		set();
+    	}
+    }
+    
+    /**
+     * Removes all views of this panel and the listener from the current {@link DockActionSource}.
+     */
+    private void disconnect(){
+    	if( connected ){
+    		disconnectedSizes = getPreferredSizes();
+    		connected = false;
+    		
+    		// remove old items
+    		removeAll();
+    		
+    		for( ActionItem item : actions ){
+    			if( item.item != null ){
+    				item.item.unbind();
+    				item.action.unbind( this.dockable );
+    			}
+    		}
+    		
+    		if( menuAction != null ){
+	    		if( menuItem != null ){
+	    			menuItem.unbind();
+	    			menuItem = null;
+	    		}
+	    		
+	    		menuAction.unbind( this.dockable );
+	    		menuSource.removeAll();
+    		}
+    		
+    		actions.clear();
+    		this.source.removeDockActionSourceListener( listener );
+    	}
+    }
+    
+    /**
+     * Adds the listener to the current {@link DockActionSource} and creates a view for each action.
+     */
+    private void connect(){
+    	if( !connected && source != null ){
+    		connected = true;
+    		
+    		if( menuAction != null ){
+	    		menuAction.bind( dockable );
+	    		
+	    		if( dockable.getController() != null ){
+		    		menuItem = createItemFor( menuAction, dockable );
+		    		if( menuItem != null ){
+			    		menuItem.setOrientation( orientation );
+			    		menuItem.setForeground( getForeground() );
+			    		menuItem.setBackground( getBackground() );
+			    		menuItem.bind();
+		    		}
+	    		}
+    		}
+    		
+    		source.addDockActionSourceListener( listener );
+    		for( DockAction action : source ){
+    			ActionItem actionItem = new ActionItem();
+    			actionItem.action = action;
+    			actions.add( actionItem );
+    			if( dockable.getController() != null ){
+	    			BasicTitleViewItem<JComponent> item = createItemFor( action, dockable );
+	    			if( item != null ){
+	    				action.bind( dockable );
+	    				item.bind();
+	    				actionItem.item = item;
+	    				
+	    				item.setOrientation( orientation );
+	    				item.setForeground( getForeground() );
+	    				item.setBackground( getBackground() );
+	    			}
+    			}
+    		}
+    	}
+    }
+    
     
     @Override
     public void setForeground( Color fg ) {
@@ -369,6 +455,9 @@ public class ButtonPanel extends JPanel{
     
 	@Override
 	public Dimension getMinimumSize(){
+		if( !connected && disconnectedSizes != null )
+			return new Dimension( disconnectedSizes[0] );
+		
 		if( actions.isEmpty() )
 			return new Dimension( 0, 0 );
 		
@@ -434,6 +523,14 @@ public class ButtonPanel extends JPanel{
 	 * @see #setVisibleActions(int)
 	 */
 	public Dimension[] getPreferredSizes(){
+		if( !connected && disconnectedSizes != null ){
+			Dimension[] results = new Dimension[ disconnectedSizes.length ];
+			for( int i = 0; i < results.length; i++ ){
+				results[i] = new Dimension( disconnectedSizes[i] );
+			}
+			return results;
+		}
+		
 		if( actions.isEmpty() )
 			return new Dimension[]{ new Dimension( 0, 0 ) };
 		
@@ -519,6 +616,9 @@ public class ButtonPanel extends JPanel{
 	
 	@Override
 	public Dimension getPreferredSize(){
+		if( !connected && disconnectedSizes != null )
+			return new Dimension( disconnectedSizes[ disconnectedSizes.length-1 ] );
+		
 		int width = 0;
 		int height = 0;
 		
@@ -31,15 +31,17 @@ import bibliothek.gui.dock.FlapDockStation;
 import bibliothek.gui.dock.ScreenDockStation;
 import bibliothek.gui.dock.SplitDockStation;
 import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleFactory;
 import bibliothek.gui.dock.title.DockTitleRequest;
+import bibliothek.gui.dock.title.RecyclingDockTitleFactory;
 
 /**
  * A {@link DockTitleFactory} which does not create titles for 
  * {@link StackDockStation StackDockStations} but uses another 
  * factory as delegate to create titles for the other stations.
  */
-public class NoStackTitleFactory implements DockTitleFactory{
+public class NoStackTitleFactory implements RecyclingDockTitleFactory{
     /** The delegate to create titles */
     private DockTitleFactory base;
     
@@ -64,20 +66,40 @@ public class NoStackTitleFactory implements DockTitleFactory{
     }
     
     public void request( DockTitleRequest request ){
+    	if( isHidden( request )){
+    		request.answer( null );
+    	}
+    	else{
+    		base.request( request );
+    	}
+    }
+    
+    public boolean canReuse( DockTitleRequest request, DockTitle title ){
+    	if( isHidden( request )){
+    		return false;
+    	}
+    	if( base instanceof RecyclingDockTitleFactory ){
+    		return ((RecyclingDockTitleFactory)base).canReuse( request, title );
+    	}
+    	return false;
+    }
+    
+    /**
+     * Tells whether <code>request</code> must not be answered with a title because
+     * its target is a {@link StackDockStation}.
+     * @param request the request to check
+     * @return <code>true</code> if there should be no title
+     */
+    private boolean isHidden( DockTitleRequest request ){
     	Dockable dockable = request.getTarget();
     	
     	if( dockable instanceof StackDockStation ){
             String id = request.getVersion().getID();
-            if( id.equals( StackDockStation.TITLE_ID ) ||
+            return id.equals( StackDockStation.TITLE_ID ) ||
                 id.equals( FlapDockStation.WINDOW_TITLE_ID ) ||
                 id.equals( ScreenDockStation.TITLE_ID ) ||
-                id.equals( SplitDockStation.TITLE_ID )){
-            	
-            	request.answer( null );
-            	return;
-            }
+                id.equals( SplitDockStation.TITLE_ID );
         }
-        
-    	base.request( request );
+    	return false;
     }
 }
@@ -35,7 +35,7 @@ import bibliothek.gui.DockTheme;
  * the involved {@link DockController controller}
  * @author Benjamin Sigg
  */
-public class ControllerTitleFactory implements DockTitleFactory{
+public class ControllerTitleFactory implements RecyclingDockTitleFactory{
 	/**
 	 * An instance of this factory.<br>
 	 * Note: it is safe to use {@link #install(DockTitleRequest)} and
@@ -56,6 +56,10 @@ public class ControllerTitleFactory implements DockTitleFactory{
     	getControllerVersion( request ).request( request );
     }
     
+    public boolean canReuse( DockTitleRequest request, DockTitle title ){
+    	return getControllerVersion( request ).canReuse( request, title );
+    }
+    
     public void uninstall( DockTitleRequest request ){
 	    getControllerVersion( request ).uninstall( request );	
     }
@@ -26,8 +26,13 @@
 
 package bibliothek.gui.dock.title;
 
+import java.awt.EventQueue;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockTheme;
@@ -35,6 +40,9 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.DockFactory;
 import bibliothek.gui.dock.event.UIListener;
 import bibliothek.gui.dock.util.Priority;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.gui.dock.util.extension.Extension;
 import bibliothek.gui.dock.util.extension.ExtensionName;
 import bibliothek.util.Path;
@@ -46,10 +54,22 @@ import bibliothek.util.Path;
  * Every version consists of three slots for factories, each with different
  * priority. If a new title is required, the factory with the highest priority
  * will be used.<br>
- * <code>DockTitleVersion</code> implements {@link DockTitleFactory} for convenience.
+ * <code>DockTitleVersion</code> implements {@link DockTitleFactory} for convenience.<br>
+ * Titles created by the current factory are kept in a small pool once their {@link DockTitleRequest} is
+ * uninstalled, if the factory is a {@link RecyclingDockTitleFactory}. If the same {@link Dockable} requests a 
+ * title of this version again, and if the factory {@link RecyclingDockTitleFactory#canReuse(DockTitleRequest, DockTitle) agrees},
+ * then the pooled title is reused instead of asking the factory for a new one. The pool is emptied once the
+ * current event is processed, it only helps if a {@link Dockable} is moved or its parent rebuilds its content.
  * @author Benjamin Sigg
  */
-public class DockTitleVersion implements DockTitleFactory{
+public class DockTitleVersion implements RecyclingDockTitleFactory{
+	/**
+	 * The maximum number of unused {@link DockTitle}s each {@link DockTitleVersion} keeps for later reuse.
+	 * A value of <code>0</code> disables recycling of titles.
+	 */
+	public static final PropertyKey<Integer> RECYCLE_CAPACITY = new PropertyKey<Integer>( "dock.title.recycleCapacity",
+			new ConstantPropertyFactory<Integer>( 16 ), true );
+	
 	/** 
 	 * Name of the {@link ExtensionName} that allows to load additional {@link DockFactory}s into this 
 	 * {@link DockTitleVersion}. These factories will be asked to create a {@link DockTitle} before
@@ -74,6 +94,36 @@ public class DockTitleVersion implements DockTitleFactory{
     
     /** whether the theme is currently changing, a version does automatically call {@link DockTitleRequest#request()} while the theme changes */
     private boolean onThemeChange = false;
+    
+    /** the factories that created the titles of this version, only titles of the current factory can be recycled */
+    private Map<DockTitle, DockTitleFactory> creators = new WeakHashMap<DockTitle, DockTitleFactory>();
+    
+    /** unused titles that can be reused, ordered by the time they were released */
+    private LinkedHashMap<Dockable, DockTitle> recycled = new LinkedHashMap<Dockable, DockTitle>(){
+    	@Override
+    	protected boolean removeEldestEntry( Map.Entry<Dockable, DockTitle> eldest ){
+    		return size() > recycleCapacity.getValue();
+    	}
+    };
+    
+    /** how many titles may be stored in {@link #recycled} */
+    private PropertyValue<Integer> recycleCapacity = new PropertyValue<Integer>( RECYCLE_CAPACITY ){
+    	@Override
+    	protected void valueChanged( Integer oldValue, Integer newValue ){
+    		trimRecycled();
+    	}
+    };
+    
+    /** whether {@link #clearRecycled} is scheduled to run on the EDT */
+    private boolean clearRecycledPending = false;
+    
+    /** empties {@link #recycled} once the current event is processed */
+    private Runnable clearRecycled = new Runnable(){
+    	public void run(){
+    		clearRecycledPending = false;
+    		recycled.clear();
+    	}
+    };
     
     /**
      * Creates a new version.
@@ -96,6 +146,7 @@ public class DockTitleVersion implements DockTitleFactory{
 			
 			public void themeWillChange( DockController controller, DockTheme oldTheme, DockTheme newTheme ){
 				onThemeChange = true;
+				recycled.clear();
 			}
 			
 			public void themeChanged( DockController controller, DockTheme oldTheme, DockTheme newTheme ){
@@ -103,6 +154,8 @@ public class DockTitleVersion implements DockTitleFactory{
 			}
 		});
         
+        recycleCapacity.setProperties( controller );
+        
         List<DockTitleFactory> list = controller.getExtensions().load( new ExtensionName<DockTitleFactory>( DOCK_TITLE_VERSION_EXTENSION, DockTitleFactory.class, DOCK_TITLE_VERSION_EXTENSION_PARAMETER, this ) );
         if( !list.isEmpty() ){
         	extensionFactories = list.toArray( new DockTitleFactory[ list.size() ] );
@@ -136,6 +189,89 @@ public class DockTitleVersion implements DockTitleFactory{
     	if( factory != null ){
     		factory.uninstall( request );
     	}
+    	recycle( request.getTarget(), request.getAnswer() );
+    }
+    
+    /**
+     * Stores <code>title</code> for later reuse, if <code>title</code> was created by the current factory
+     * and if the current factory is a {@link RecyclingDockTitleFactory}. Titles are not stored while the
+     * theme changes.
+     * @param dockable the owner of <code>title</code>
+     * @param title the title that is no longer used by its request, may be <code>null</code>
+     */
+    private void recycle( Dockable dockable, DockTitle title ){
+    	if( title != null && !onThemeChange && recycleCapacity.getValue() > 0 ){
+    		DockTitleFactory factory = getFactory();
+    		if( factory instanceof RecyclingDockTitleFactory && creators.get( title ) == factory ){
+    			recycled.remove( dockable );
+    			recycled.put( dockable, title );
+    			if( !clearRecycledPending ){
+    				clearRecycledPending = true;
+    				EventQueue.invokeLater( clearRecycled );
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Searches a recycled title that can be used to answer <code>request</code>.
+     * @param request the request to answer
+     * @param factory the current factory
+     * @return a title that is neither bound nor shown, or <code>null</code>
+     */
+    private DockTitle reuse( DockTitleRequest request, DockTitleFactory factory ){
+    	Dockable dockable = request.getTarget();
+    	DockTitle title = recycled.remove( dockable );
+    	if( title == null ){
+    		return null;
+    	}
+    	if( creators.get( title ) != factory || !(factory instanceof RecyclingDockTitleFactory) ){
+    		return null;
+    	}
+    	if( title.getComponent().getParent() != null ){
+    		return null;
+    	}
+    	for( DockTitle bound : dockable.listBoundTitles() ){
+    		if( bound == title ){
+    			return null;
+    		}
+    	}
+    	if( !((RecyclingDockTitleFactory)factory).canReuse( request, title )){
+    		return null;
+    	}
+    	return title;
+    }
+    
+    /**
+     * Tells whether the current factory of this version would accept <code>title</code> as answer
+     * to <code>request</code>. This method returns <code>false</code> if there are
+     * {@link #DOCK_TITLE_VERSION_EXTENSION extensions} that could answer <code>request</code> instead.
+     * @param request the request to answer
+     * @param title an unused title
+     * @return whether <code>title</code> can be reused
+     */
+    public boolean canReuse( DockTitleRequest request, DockTitle title ){
+    	if( extensionFactories != null ){
+    		return false;
+    	}
+    	DockTitleFactory factory = getFactory();
+    	if( factory instanceof RecyclingDockTitleFactory ){
+    		return ((RecyclingDockTitleFactory)factory).canReuse( request, title );
+    	}
+    	return false;
+    }
+    
+    /**
+     * Removes titles from the pool of recycled titles until its size no longer exceeds
+     * the {@link #RECYCLE_CAPACITY capacity}.
+     */
+    private void trimRecycled(){
+    	int capacity = recycleCapacity.getValue();
+    	Iterator<DockTitle> iterator = recycled.values().iterator();
+    	while( recycled.size() > capacity && iterator.hasNext() ){
+    		iterator.next();
+    		iterator.remove();
+    	}
     }
     
     /**
@@ -156,7 +292,19 @@ public class DockTitleVersion implements DockTitleFactory{
     	
     	DockTitleFactory factory = getFactory();
     	if( factory != null ){
+    		DockTitle title = reuse( request, factory );
+    		if( title != null ){
+    			request.answer( title );
+    			return;
+    		}
+    		
     		factory.request( request );
+    		if( request.isAnswered() ){
+    			title = request.getAnswer();
+    			if( title != null && title.getOrigin() == this ){
+    				creators.put( title, factory );
+    			}
+    		}
     	}
     }
     
@@ -209,6 +357,7 @@ public class DockTitleVersion implements DockTitleFactory{
     	DockTitleFactory newFactory = getFactory();
     	
     	if( oldFactory != newFactory ){
+    		recycled.clear();
     		if( oldFactory != null ){
     			for( DockTitleRequest request : requests ){
     				oldFactory.uninstall( request );
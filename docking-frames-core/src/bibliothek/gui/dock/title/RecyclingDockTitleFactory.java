@@ -0,0 +1,47 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.title;
+
+import bibliothek.gui.Dockable;
+
+/**
+ * A {@link DockTitleFactory} that allows a {@link DockTitleVersion} to answer a {@link DockTitleRequest} with
+ * a {@link DockTitle} that was created by this factory earlier, but is no longer used. A {@link DockTitleVersion}
+ * only recycles titles of factories implementing this interface.
+ * @author Benjamin Sigg
+ */
+public interface RecyclingDockTitleFactory extends DockTitleFactory{
+	/**
+	 * Tells whether <code>title</code>, which was created by this factory for the same {@link Dockable} and which
+	 * is currently not used, can be used to answer <code>request</code>. This method must return <code>false</code>
+	 * if {@link #request(DockTitleRequest)} would not answer <code>request</code> with a title like <code>title</code>,
+	 * e.g. because the answer depends on the {@link DockTitleRequest#getParent() parent} of the request.
+	 * @param request the request to answer
+	 * @param title an unused title created by this factory
+	 * @return whether <code>title</code> can be the answer to <code>request</code>
+	 */
+	public boolean canReuse( DockTitleRequest request, DockTitle title );
+}
@@ -0,0 +1,59 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.util;
+
+import java.awt.Component;
+
+/**
+ * An {@link Animation} is some property that changes smoothly over time, e.g. a color that
+ * fades into another color. {@link Animation}s are executed by the {@link AnimationEngine}, which
+ * calls {@link #step(int)} at regular intervals.
+ * @author Benjamin Sigg
+ */
+public interface Animation {
+	/**
+	 * Gets the {@link Component} which shows this animation. The {@link AnimationEngine} does
+	 * not advance an animation whose component is not {@link Component#isShowing() showing}.
+	 * @return the component that shows this animation, can be <code>null</code> in which case
+	 * the animation is always advanced
+	 */
+	public Component getComponent();
+	
+	/**
+	 * Advances this animation.
+	 * @param delta the time that passed since the last step in milliseconds
+	 * @return <code>true</code> if this animation is not yet finished and needs more
+	 * steps, <code>false</code> if the animation reached its final state
+	 */
+	public boolean step( int delta );
+	
+	/**
+	 * Immediately puts this animation into its final state. This method is called by the
+	 * {@link AnimationEngine} if {@link AnimationEngine#isAnimated() animations are disabled}.
+	 */
+	public void finish();
+}
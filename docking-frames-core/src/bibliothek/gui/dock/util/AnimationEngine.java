@@ -0,0 +1,355 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.util;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.Timer;
+
+import bibliothek.util.ClientOnly;
+
+/**
+ * The {@link AnimationEngine} drives all the {@link Animation}s of the themes with one single
+ * clock. The engine runs only while there are {@link Animation}s that are not finished and whose
+ * {@link Animation#getComponent() component} is showing. Animations of components that are not
+ * visible are paused, they continue as soon as their component becomes visible again. Animations
+ * whose component is no longer displayable, e.g. because it was removed from its window, are
+ * {@link Animation#finish() finished} and forgotten.<br>
+ * Components that need to be repainted because of an {@link Animation} should be reported
+ * through {@link #repaint(Component)}. The engine collects all these components and repaints
+ * them once at the end of the current frame, a component is not repainted if one of its parents
+ * is repainted as well.<br>
+ * Clients can reduce the CPU usage of the animations by {@link #setFrameDelay(int) increasing the time between
+ * two frames}, or by {@link #setAnimated(boolean) disabling} animations altogether.<br>
+ * {@link AnimationEngine} is implemented as singleton, the engine must only be accessed from the EDT.
+ * @author Benjamin Sigg
+ */
+public class AnimationEngine {
+	private static AnimationEngine engine = new AnimationEngine();
+	
+	/**
+	 * Gets access to the {@link AnimationEngine} that is currently used by the framework.
+	 * @return the current engine
+	 */
+	public static AnimationEngine getDefault(){
+		return engine;
+	}
+	
+	/**
+	 * Sets the {@link AnimationEngine} that should be used. This method will never be called from
+	 * the framework itself. Calling this method has no effect on animations that are already running.
+	 * @param engine the new engine, not <code>null</code>
+	 */
+	@ClientOnly
+	public static void setDefault( AnimationEngine engine ){
+		if( engine == null ){
+			throw new IllegalArgumentException( "engine must not be null" );
+		}
+		AnimationEngine.engine = engine;
+	}
+	
+	/** all the animations that are currently running or paused */
+	private Set<Animation> animations = new LinkedHashSet<Animation>();
+	
+	/** the components which are observed because their animation is paused */
+	private Set<Component> paused = new HashSet<Component>();
+	
+	/** the components which have to be repainted at the end of the current frame */
+	private Set<Component> repaints = new LinkedHashSet<Component>();
+	
+	/** whether a frame is currently executed */
+	private boolean onFrame = false;
+	
+	/** whether animations are enabled at all */
+	private boolean animated = true;
+	
+	/** the time when the last frame was executed */
+	private long time;
+	
+	/** the clock of this engine */
+	private Timer timer;
+	
+	/** resumes the engine when a paused component becomes visible, finishes animations of discarded components */
+	private HierarchyListener showingListener = new HierarchyListener(){
+		public void hierarchyChanged( HierarchyEvent e ){
+			Component component = e.getComponent();
+			if( (e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0 && !component.isDisplayable() ){
+				finish( component );
+			}
+			else if( (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 ){
+				if( component.isShowing() ){
+					resume();
+				}
+			}
+		}
+	};
+	
+	/**
+	 * Creates a new engine with a delay of 20 milliseconds between two frames.
+	 */
+	public AnimationEngine(){
+		timer = new Timer( 20, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				frame();
+			}
+		});
+		timer.setCoalesce( true );
+	}
+	
+	/**
+	 * Sets the number of milliseconds between two frames. A higher delay results in less
+	 * CPU usage and in less smooth animations.
+	 * @param delay the delay, at least 1
+	 */
+	public void setFrameDelay( int delay ){
+		if( delay < 1 ){
+			throw new IllegalArgumentException( "delay must be at least 1: " + delay );
+		}
+		timer.setDelay( delay );
+	}
+	
+	/**
+	 * Gets the number of milliseconds between two frames.
+	 * @return the delay
+	 * @see #setFrameDelay(int)
+	 */
+	public int getFrameDelay(){
+		return timer.getDelay();
+	}
+	
+	/**
+	 * Enables or disables animations. If disabled, then each {@link Animation} is
+	 * {@link Animation#finish() finished} immediately instead of running smoothly.
+	 * @param animated whether animations are enabled
+	 */
+	public void setAnimated( boolean animated ){
+		if( this.animated != animated ){
+			this.animated = animated;
+			if( !animated ){
+				for( Animation animation : animations.toArray( new Animation[ animations.size() ] )){
+					remove( animation );
+					animation.finish();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Tells whether animations are enabled.
+	 * @return <code>true</code> if animations run smoothly
+	 * @see #setAnimated(boolean)
+	 */
+	public boolean isAnimated(){
+		return animated;
+	}
+	
+	/**
+	 * Starts running <code>animation</code>. Nothing happens if <code>animation</code> is
+	 * already running.
+	 * @param animation the new animation, not <code>null</code>
+	 */
+	public void add( Animation animation ){
+		if( animation == null ){
+			throw new IllegalArgumentException( "animation must not be null" );
+		}
+		if( !animated ){
+			animation.finish();
+		}
+		else if( animations.add( animation )){
+			resume();
+		}
+	}
+	
+	/**
+	 * Stops running <code>animation</code>, leaving <code>animation</code> in its current
+	 * state.
+	 * @param animation the animation to stop
+	 */
+	public void remove( Animation animation ){
+		if( animations.remove( animation ) && animations.isEmpty() ){
+			timer.stop();
+			clearPaused();
+		}
+	}
+	
+	/**
+	 * Tells whether <code>animation</code> is currently running or paused.
+	 * @param animation the animation to search
+	 * @return <code>true</code> if <code>animation</code> is not yet finished
+	 */
+	public boolean isRunning( Animation animation ){
+		return animations.contains( animation );
+	}
+	
+	/**
+	 * Requests a repaint of <code>component</code>. If a frame is currently executed, then
+	 * the repaint is delayed until the end of the frame and merged with the repaints of other
+	 * components. Otherwise <code>component</code> is repainted immediately.
+	 * @param component the component to repaint
+	 */
+	public void repaint( Component component ){
+		if( onFrame ){
+			repaints.add( component );
+		}
+		else{
+			component.repaint();
+		}
+	}
+	
+	/**
+	 * Makes sure the clock of this engine is running, assuming there is at least one animation.
+	 */
+	private void resume(){
+		if( !animations.isEmpty() && !timer.isRunning() ){
+			time = System.currentTimeMillis();
+			timer.start();
+		}
+	}
+	
+	/**
+	 * Finishes and removes all the animations whose component is <code>component</code>.
+	 * @param component a component that is no longer displayable
+	 */
+	private void finish( Component component ){
+		if( paused.remove( component )){
+			component.removeHierarchyListener( showingListener );
+		}
+		for( Animation animation : animations.toArray( new Animation[ animations.size() ] )){
+			if( animation.getComponent() == component ){
+				remove( animation );
+				animation.finish();
+			}
+		}
+	}
+	
+	/**
+	 * Stops observing components of paused animations.
+	 */
+	private void clearPaused(){
+		for( Component component : paused ){
+			component.removeHierarchyListener( showingListener );
+		}
+		paused.clear();
+	}
+	
+	/**
+	 * Executes one frame, advancing all the animations whose component is showing.
+	 */
+	protected void frame(){
+		long current = System.currentTimeMillis();
+		int delta = (int)(current - time);
+		time = current;
+		
+		boolean active = false;
+		List<Component> invisible = null;
+		
+		onFrame = true;
+		try{
+			for( Animation animation : animations.toArray( new Animation[ animations.size() ] )){
+				Component component = animation.getComponent();
+				if( component == null || component.isShowing() ){
+					if( animation.step( delta )){
+						active = true;
+					}
+					else{
+						animations.remove( animation );
+					}
+				}
+				else if( !component.isDisplayable() ){
+					// the component is discarded, it may never be shown again
+					animations.remove( animation );
+					animation.finish();
+				}
+				else{
+					if( invisible == null ){
+						invisible = new ArrayList<Component>();
+					}
+					invisible.add( component );
+				}
+			}
+		}
+		finally{
+			onFrame = false;
+		}
+		
+		clearPaused();
+		if( !active ){
+			timer.stop();
+			if( invisible != null ){
+				for( Component component : invisible ){
+					if( paused.add( component )){
+						component.addHierarchyListener( showingListener );
+					}
+				}
+			}
+		}
+		
+		flushRepaints();
+	}
+	
+	/**
+	 * Repaints all the components that were collected by {@link #repaint(Component)} during
+	 * the last frame.
+	 */
+	private void flushRepaints(){
+		if( repaints.isEmpty() ){
+			return;
+		}
+		
+		for( Component component : repaints ){
+			if( !hasRepaintingParent( component )){
+				component.repaint();
+			}
+		}
+		repaints.clear();
+	}
+	
+	/**
+	 * Tells whether one of the parents of <code>component</code> is repainted anyway.
+	 * @param component some component that needs to be repainted
+	 * @return <code>true</code> if one of the parents will be repainted
+	 */
+	private boolean hasRepaintingParent( Component component ){
+		Component parent = component.getParent();
+		while( parent != null ){
+			if( repaints.contains( parent )){
+				return true;
+			}
+			parent = parent.getParent();
+		}
+		return false;
+	}
+}
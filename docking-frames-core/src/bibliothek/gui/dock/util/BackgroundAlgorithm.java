@@ -95,6 +95,22 @@ public abstract class BackgroundAlgorithm implements BackgroundComponent{
 		}
 	}
 	
+	/**
+	 * Gets the controller from which the {@link BackgroundPaint} is read.
+	 * @return the controller, can be <code>null</code>
+	 */
+	public DockController getController(){
+		return controller;
+	}
+	
+	/**
+	 * Gets the kind of {@link UIValue} this is.
+	 * @return the kind
+	 */
+	public Path getKind(){
+		return kind;
+	}
+	
 	public void repaint(){
 		getComponent().repaint();	
 	}
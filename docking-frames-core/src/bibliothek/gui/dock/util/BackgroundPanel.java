@@ -31,6 +31,10 @@ import java.awt.LayoutManager;
 
 import javax.swing.JPanel;
 
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.control.PaintProfiler;
+import bibliothek.util.Path;
+
 
 /**
  * This {@link JPanel} implements {@link PaintableComponent} and 
@@ -98,8 +102,47 @@ public abstract class BackgroundPanel extends JPanel implements PaintableCompone
 		return background;
 	}
 	
+	/**
+	 * Gets the {@link PaintProfiler} which measures how long this panel needs for painting and layouting.
+	 * @return the profiler or <code>null</code> if this panel is not in the realm of a {@link DockController}
+	 */
+	protected PaintProfiler getPaintProfiler(){
+		if( background == null ){
+			return null;
+		}
+		DockController controller = background.getController();
+		if( controller == null ){
+			return null;
+		}
+		return controller.getPaintProfiler();
+	}
+	
 	@Override
 	public void paint( Graphics g ){
+		PaintProfiler profiler = getPaintProfiler();
+		if( profiler == null || !profiler.begin() ){
+			doPaint( g );
+		}
+		else{
+			Path kind = background.getKind();
+			long duration;
+			try{
+				doPaint( g );
+			}
+			finally{
+				duration = profiler.end( kind, PaintProfiler.Operation.PAINT );
+			}
+			if( profiler.isOverlay() ){
+				profiler.paintOverlay( this, g, duration );
+			}
+		}
+	}
+	
+	/**
+	 * Paints this panel, either directly or using the {@link BackgroundAlgorithm}.
+	 * @param g the graphics context to use
+	 */
+	private void doPaint( Graphics g ){
 		if( background == null || background.getPaint() == null ){
 			super.paint( g );
 			paintOverlay( g );
@@ -108,6 +151,23 @@ public abstract class BackgroundPanel extends JPanel implements PaintableCompone
 			background.paint( this, g );
 		}
 	}
+	
+	@Override
+	protected void validateTree(){
+		PaintProfiler profiler = getPaintProfiler();
+		if( profiler == null || !profiler.begin() ){
+			super.validateTree();
+		}
+		else{
+			Path kind = background.getKind();
+			try{
+				super.validateTree();
+			}
+			finally{
+				profiler.end( kind, PaintProfiler.Operation.LAYOUT );
+			}
+		}
+	}
 
 	protected void paintComponent( Graphics g ){
 		paintBackground( g );
@@ -0,0 +1,126 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+/**
+ * Durations of some piece of work collected by a profiler that uses a {@link NestedTimer}. All
+ * times are in nanoseconds. The <i>self time</i> of a measurement is its duration minus the duration
+ * of all the measurements that were nested inside it. Subclasses add information about what
+ * was measured.
+ * @author Benjamin Sigg
+ */
+public class DurationStatistics {
+	/** how many measurements were made */
+	private long count;
+	/** the sum of all durations */
+	private long totalTime;
+	/** the sum of all self times */
+	private long selfTime;
+	/** the longest duration */
+	private long maxTime;
+	
+	/**
+	 * Creates new, empty statistics.
+	 */
+	public DurationStatistics(){
+		// nothing
+	}
+	
+	/**
+	 * Creates a copy of <code>original</code>.
+	 * @param original the statistics to copy
+	 */
+	public DurationStatistics( DurationStatistics original ){
+		count = original.count;
+		totalTime = original.totalTime;
+		selfTime = original.selfTime;
+		maxTime = original.maxTime;
+	}
+	
+	/**
+	 * Adds one measurement to these statistics.
+	 * @param total the duration of the measurement
+	 * @param self the self time of the measurement
+	 */
+	public void add( long total, long self ){
+		count++;
+		totalTime += total;
+		selfTime += self;
+		maxTime = Math.max( maxTime, total );
+	}
+	
+	/**
+	 * Gets the number of measurements.
+	 * @return the number of measurements
+	 */
+	public long getCount(){
+		return count;
+	}
+	
+	/**
+	 * Gets the sum of the durations of all measurements.
+	 * @return the total time in nanoseconds
+	 */
+	public long getTotalTime(){
+		return totalTime;
+	}
+	
+	/**
+	 * Gets the sum of the self times of all measurements.
+	 * @return the self time in nanoseconds
+	 */
+	public long getSelfTime(){
+		return selfTime;
+	}
+	
+	/**
+	 * Gets the longest duration of any measurement.
+	 * @return the maximum time in nanoseconds
+	 */
+	public long getMaxTime(){
+		return maxTime;
+	}
+	
+	/**
+	 * Appends the count and the times of these statistics to <code>builder</code>, used
+	 * by the {@link #toString()} methods of subclasses.
+	 * @param builder the builder to write into
+	 */
+	protected void appendTimes( StringBuilder builder ){
+		builder.append( ": count=" ).append( count );
+		builder.append( ", total=" ).append( totalTime / 1000 ).append( "us" );
+		builder.append( ", self=" ).append( selfTime / 1000 ).append( "us" );
+		builder.append( ", max=" ).append( maxTime / 1000 ).append( "us" );
+	}
+	
+	@Override
+	public String toString(){
+		StringBuilder builder = new StringBuilder();
+		builder.append( getClass().getSimpleName() );
+		appendTimes( builder );
+		return builder.toString();
+	}
+}
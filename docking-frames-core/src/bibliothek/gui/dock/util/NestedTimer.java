@@ -0,0 +1,98 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+/**
+ * A {@link NestedTimer} measures the duration of pieces of work that may be nested into each other. For
+ * each measurement the timer knows its <i>total time</i>, and its <i>self time</i>: the total time minus
+ * the total time of all the measurements that were nested directly inside it.<br>
+ * Each call to {@link #begin()} must be followed by exactly one call to {@link #end()}, even if the
+ * work was aborted by an exception. A timer must only be used by one thread at a time.
+ * @author Benjamin Sigg
+ */
+public class NestedTimer {
+	/** the number of currently running measurements */
+	private int depth = 0;
+	/** the start times of the currently running measurements */
+	private long[] starts = new long[ 16 ];
+	/** the time spent in measurements nested into the currently running measurements */
+	private long[] nested = new long[ 16 ];
+	/** the self time of the measurement that ended last */
+	private long selfTime;
+	
+	/**
+	 * Starts a new measurement, which is nested into the currently running measurement.
+	 */
+	public void begin(){
+		if( depth == starts.length ){
+			long[] newStarts = new long[ depth * 2 ];
+			long[] newNested = new long[ depth * 2 ];
+			System.arraycopy( starts, 0, newStarts, 0, depth );
+			System.arraycopy( nested, 0, newNested, 0, depth );
+			starts = newStarts;
+			nested = newNested;
+		}
+		nested[ depth ] = 0;
+		starts[ depth ] = System.nanoTime();
+		depth++;
+	}
+	
+	/**
+	 * Finishes the measurement that was started by the last call to {@link #begin()}. The self time
+	 * of the measurement can be read with {@link #getSelfTime()}.
+	 * @return the total time of the measurement in nanoseconds, 0 if there was no running measurement
+	 */
+	public long end(){
+		long now = System.nanoTime();
+		if( depth == 0 ){
+			selfTime = 0;
+			return 0;
+		}
+		depth--;
+		long total = now - starts[ depth ];
+		selfTime = total - nested[ depth ];
+		if( depth > 0 ){
+			nested[ depth-1 ] += total;
+		}
+		return total;
+	}
+	
+	/**
+	 * Gets the self time of the measurement that was finished by the last call to {@link #end()}.
+	 * @return the self time in nanoseconds
+	 */
+	public long getSelfTime(){
+		return selfTime;
+	}
+	
+	/**
+	 * Tells how many measurements are currently running.
+	 * @return the number of calls to {@link #begin()} that were not yet followed by {@link #end()}
+	 */
+	public int getDepth(){
+		return depth;
+	}
+}
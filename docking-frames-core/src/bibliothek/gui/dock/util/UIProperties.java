@@ -25,13 +25,14 @@
  */
 package bibliothek.gui.dock.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -65,12 +66,24 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     /** all the listeners to the {@link #schemes} */
     private PriorityValue<UISchemeListener<V, U, B>> schemeListeners = new PriorityValue<UISchemeListener<V,U,B>>();
     
-    /** a list of all observers */
-    private List<Observer> observers = new LinkedList<Observer>();
+    /** all observers, grouped by the identifier of the resource they observe */
+    private Map<String, List<Observer>> observers = new HashMap<String, List<Observer>>();
+    
+    /** all observers, grouped by the {@link UIValue} they forward values to */
+    private Map<U, List<Observer>> observersByValue = new IdentityHashMap<U, List<Observer>>();
     
     /** whether to stall updates or not */
     private int updateLock = 0;
     
+    /** the resources that changed while updates were stalled */
+    private Set<String> pendingResources = new HashSet<String>();
+    
+    /** whether some bridges changed while updates were stalled */
+    private boolean pendingBridges = false;
+    
+    /** whether all {@link UIValue}s need to be updated once updates are no longer stalled */
+    private boolean pendingAll = false;
+    
     /** the owner of this properties map */
     private DockController controller;
     
@@ -99,17 +112,72 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     }
     
     /**
-     * Tells this manager no longer to stall updates. This triggers a full
-     * update on all {@link UIValue}s.
+     * Tells this manager no longer to stall updates. This triggers an update on 
+     * all the {@link UIValue}s whose resource or bridge changed while updates were
+     * stalled. Each {@link UIValue} is updated at most once.
      */
     public void unlockUpdate(){
         updateLock--;
         if( updateLock == 0 ){
-            for( Observer observer : observers )
-                observer.resetAll();
+            flushUpdates();
         }
     }
     
+    /**
+     * Updates all the {@link UIValue}s that are affected by the changes that happened
+     * while updates were stalled.
+     */
+    private void flushUpdates(){
+    	boolean all = pendingAll;
+    	boolean bridges = pendingBridges;
+    	Set<String> resources = pendingResources;
+    	
+    	pendingAll = false;
+    	pendingBridges = false;
+    	pendingResources = new HashSet<String>();
+    	
+    	if( all ){
+    		for( Observer observer : getObservers() ){
+    			observer.resetAll();
+    		}
+    		return;
+    	}
+    	
+    	Set<Observer> updated = null;
+    	if( bridges ){
+    		updated = new HashSet<Observer>();
+    		for( Observer observer : getObservers() ){
+    			if( observer.resetBridge() ){
+    				updated.add( observer );
+    			}
+    		}
+    	}
+    	
+    	for( String id : resources ){
+    		List<Observer> list = observers.get( id );
+    		if( list != null ){
+    			V value = get( id );
+    			for( Observer observer : new ArrayList<Observer>( list ) ){
+    				if( updated == null || !updated.contains( observer )){
+    					observer.update( value );
+    				}
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Gets a snapshot of all the observers that are currently registered.
+     * @return all the observers
+     */
+    private List<Observer> getObservers(){
+    	List<Observer> result = new ArrayList<Observer>();
+    	for( List<Observer> list : observers.values() ){
+    		result.addAll( list );
+    	}
+    	return result;
+    }
+    
     /**
      * Gets the {@link UIScheme} that is used to fill up missing values in
      * the level <code>priority</code>.
@@ -205,6 +273,11 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     			changedBridges = usedBridges;
     		}
     		
+    		pendingResources.addAll( changedResources );
+    		if( !changedBridges.isEmpty() ){
+    			pendingBridges = true;
+    		}
+    		
     		UIScheme<V, U, B> scheme = schemes.get( priority );
     		
     		// resources
@@ -277,19 +350,11 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     }
     
     private Set<String> getAllUsedResources(){
-    	Set<String> result = new HashSet<String>();
-    	for( Observer observer : observers ){
-    		result.add( observer.id );
-    	}
-    	return result;
+    	return new HashSet<String>( resourcesAccess.keySet() );
     }
     
     private Set<Path> getAllUsedBridges(){
-    	Set<Path> result = new HashSet<Path>();
-    	for( Observer observer : observers ){
-    		result.add( observer.path );
-    	}
-    	return result;
+    	return new HashSet<Path>( bridgesAccess.keySet() );
     }
     
     /**
@@ -314,11 +379,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         }
         
         if( value.set( priority, bridge, null )){
-            if( updateLock == 0 ){
-                for( Observer check : observers ){
-                    check.resetBridge();
-                }
-            }
+            resetBridges();
         }
     }
     
@@ -345,10 +406,8 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
                 bridges.remove( path );
             }
             
-            if( change && updateLock == 0 ){
-                for( Observer check : observers ){
-                    check.resetBridge();
-                }
+            if( change ){
+                resetBridges();
             }   
         }
     }
@@ -386,13 +445,26 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             }
         }
         
-        if( change && updateLock == 0 ){
-            for( Observer check : observers ){
-                check.resetBridge();
-            }
+        if( change ){
+            resetBridges();
         }
     }
     
+    /**
+     * Ensures that all {@link UIValue}s use the correct bridge, or remembers to do so
+     * once updates are no longer stalled.
+     */
+    private void resetBridges(){
+    	if( updateLock == 0 ){
+    		for( Observer check : getObservers() ){
+    			check.resetBridge();
+    		}
+    	}
+    	else{
+    		pendingBridges = true;
+    	}
+    }
+    
     /**
      * Gets the bridge which is stored on level <code>priority</code> for {@link UIValue}s
      * of kind <code>path</code>.
@@ -479,7 +551,21 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             throw new IllegalArgumentException( "value must not be null" );
         
         Observer combination = new Observer( id, path, value );
-        observers.add( combination );
+        
+        List<Observer> list = observers.get( id );
+        if( list == null ){
+        	list = new LinkedList<Observer>();
+        	observers.put( id, list );
+        }
+        list.add( combination );
+        
+        list = observersByValue.get( value );
+        if( list == null ){
+        	list = new LinkedList<Observer>();
+        	observersByValue.put( value, list );
+        }
+        list.add( combination );
+        
         combination.resetAll();
     }
     
@@ -488,15 +574,21 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      * @param value the observer to remove
      */
     public void remove( U value ){
-        ListIterator<Observer> list = observers.listIterator();
-        while( list.hasNext() ){
-            Observer next = list.next();
-            if( next.getValue() == value ){
-                list.remove();
-                next.destroy();
-                return;
-            }
-        }
+    	List<Observer> list = observersByValue.get( value );
+    	if( list != null ){
+    		Observer next = list.remove( 0 );
+    		if( list.isEmpty() ){
+    			observersByValue.remove( value );
+    		}
+    		
+    		list = observers.get( next.id );
+    		list.remove( next );
+    		if( list.isEmpty() ){
+    			observers.remove( next.id );
+    		}
+    		
+    		next.destroy();
+    	}
     }
     
     /**
@@ -582,11 +674,15 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         	
 	        if( value.set( priority, resource, scheme ) ){
 	            if( updateLock == 0 ){
-	                for( Observer observer : observers ){
-	                    if( observer.id.equals( id )){
-	                        observer.update( resource );
-	                    }
-	                }
+	            	List<Observer> list = observers.get( id );
+	            	if( list != null ){
+		                for( Observer observer : list ){
+		                    observer.update( resource );
+		                }
+	            	}
+	            }
+	            else{
+	            	pendingResources.add( id );
 	            }
 	        }
 	        
@@ -675,10 +771,13 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         }
         
         if( updateLock == 0 ){
-            for( Observer observer : observers ){
+            for( Observer observer : getObservers() ){
                 observer.resetAll();
             }
         }
+        else{
+        	pendingAll = true;
+        }
     }
     
     /**
@@ -815,9 +914,10 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         
         /**
          * Ensures that the correct {@link UIBridge} is used.
+         * @return <code>true</code> if the bridge changed and the {@link UIValue} was updated
          */
-        public void resetBridge(){
-            setBridge( getBridgeFor( path ), false );
+        public boolean resetBridge(){
+            return setBridge( getBridgeFor( path ), false );
         }
         
         /**
@@ -826,8 +926,9 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
          * @param force if <code>true</code>, than an update of the resources will
          * be done anyway. Otherwise an update will only be done if a new
          * bridge is set.
+         * @return <code>true</code> if the {@link UIValue} was updated
          */
-        public void setBridge( B bridge, boolean force ) {
+        public boolean setBridge( B bridge, boolean force ) {
             if( this.bridge != bridge ){
                 if( this.bridge != null )
                     this.bridge.remove( id, value );
@@ -839,10 +940,13 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
                 }
                 
                 update( get( id ));
+                return true;
             }
             else if( force ){
                 update( get( id ));
+                return true;
             }
+            return false;
         }
         
         /**
@@ -52,6 +52,9 @@ public class ExtensionManager {
 	/** all shared extensions */
 	private Map<ExtensionName<?>, Share<?>> shared = new HashMap<ExtensionName<?>, Share<?>>();
 	
+	/** the results of {@link #load(ExtensionName)} for {@link ExtensionName#isCacheable() cacheable} names */
+	private Map<ExtensionName<?>, List<?>> cache = new HashMap<ExtensionName<?>, List<?>>();
+	
 	/**
 	 * Creates a new manager.
 	 * @param controller the controller in whose realm this manager works
@@ -96,6 +99,7 @@ public class ExtensionManager {
 	 */
 	public void add( Extension extension ){
 		extensions.add( extension );
+		cache.clear();
 		if( alive ){
 			extension.install( controller );
 		}
@@ -107,6 +111,7 @@ public class ExtensionManager {
 	 */
 	public void remove( Extension extension ){
 		if( extensions.remove( extension ) ){
+			cache.clear();
 			if( alive ){
 				extension.uninstall( controller );
 			}
@@ -122,12 +127,28 @@ public class ExtensionManager {
 	}
 	
 	/**
-	 * Loads all extensions matching <code>name</code>.
+	 * Loads all extensions matching <code>name</code>. If <code>name</code> is
+	 * {@link ExtensionName#isCacheable() cacheable}, then the result is cached until an {@link Extension}
+	 * is {@link #add(Extension) added} or {@link #remove(Extension) removed}, and repeated calls return
+	 * the same extension objects.
 	 * @param <E> the type of extensions that is loaded
 	 * @param name the name of the extensions
-	 * @return a list containing all non-<code>null</code> extensions, may be empty
+	 * @return an unmodifiable list containing all non-<code>null</code> extensions, may be empty
 	 */
+	@SuppressWarnings("unchecked")
 	public <E> List<E> load( ExtensionName<E> name ){
+		if( !name.isCacheable() ){
+			return Collections.unmodifiableList( loadUncached( name ) );
+		}
+		List<E> result = (List<E>)cache.get( name );
+		if( result == null ){
+			result = Collections.unmodifiableList( loadUncached( name ) );
+			cache.put( name.copy(), result );
+		}
+		return result;
+	}
+	
+	private <E> List<E> loadUncached( ExtensionName<E> name ){
 		List<E> result = new ArrayList<E>();
 		for( Extension extension : extensions ){
 			Collection<E> es = extension.load( controller, name );
@@ -238,7 +259,7 @@ public class ExtensionManager {
 		 */
 		public List<T> get(){
 			if( extensions == null ){
-				extensions = Collections.unmodifiableList( load( name ) );
+				extensions = load( name );
 			}
 			return extensions;
 		}
@@ -264,6 +285,7 @@ public class ExtensionManager {
 				extension.uninstall( controller );
 			}
 			extensions.clear();
+			cache.clear();
 		}
 	}
 	
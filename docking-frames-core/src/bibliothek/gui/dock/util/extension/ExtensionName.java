@@ -26,6 +26,7 @@
 package bibliothek.gui.dock.util.extension;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import bibliothek.util.Path;
@@ -109,6 +110,41 @@ public class ExtensionName<E> {
 	public Object get( String parameter ){
 		return parameter == null ? null : parameters.get( parameter );
 	}
+	
+	/**
+	 * Tells whether the result of loading this name depends only on the name itself. This is the case
+	 * if there are no parameters, or if all parameters are simple values like {@link String}s, {@link Number}s,
+	 * {@link Enum}s, {@link Locale}s or {@link Path}s. Names with other parameters, e.g. the object that
+	 * loads the extensions, are never cached by the {@link ExtensionManager}.
+	 * @return whether the extensions loaded by this name can be reused
+	 */
+	public boolean isCacheable(){
+		if( parameters == null ){
+			return true;
+		}
+		for( Object value : parameters.values() ){
+			if( value != null && !isValue( value )){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private boolean isValue( Object value ){
+		return value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Character ||
+			value instanceof Enum<?> || value instanceof Locale || value instanceof Path;
+	}
+	
+	/**
+	 * Creates a copy of this name, the copy does not share its parameters with this name.
+	 * @return the independent copy
+	 */
+	ExtensionName<E> copy(){
+		if( parameters == null ){
+			return new ExtensionName<E>( name, type );
+		}
+		return new ExtensionName<E>( name, type, new HashMap<String, Object>( parameters ) );
+	}
 
 	@Override
 	public String toString(){
@@ -0,0 +1,143 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Replaces the content of a file such that readers either see the old or the new content, but never
+ * an incomplete file. The new content is first written into a temporary file, which then replaces
+ * the original file. Some platforms do not allow to rename a file onto an existing file, on these
+ * platforms the original file has to be deleted before the temporary file can be renamed. If the
+ * application crashes in that moment, the file is missing and only the complete replacement exists.
+ * {@link #recover(File)} finishes such an interrupted replacement and has to be called before a file
+ * is read or written.<br>
+ * The following files are used, where <code>file</code> is the file whose content is replaced:
+ * <ul>
+ * 	<li><code>file.tmp</code>: the new content while it is written, this file may be incomplete</li>
+ * 	<li><code>file.new</code>: the complete new content, only used if <code>file.tmp</code> cannot be renamed onto <code>file</code></li>
+ * </ul>
+ * @author Benjamin Sigg
+ */
+public final class FileReplacement {
+	private FileReplacement(){
+		// do not create any instances of this class
+	}
+	
+	/**
+	 * Gets the file into which the new content of <code>file</code> is written.
+	 * @param file the file whose content is replaced
+	 * @return the temporary file, <code>file.tmp</code>
+	 */
+	public static File getTemporaryFile( File file ){
+		return new File( file.getPath() + ".tmp" );
+	}
+	
+	/**
+	 * Gets the file which contains the complete new content of <code>file</code> while the
+	 * old version of <code>file</code> is deleted.
+	 * @param file the file whose content is replaced
+	 * @return the replacement, <code>file.new</code>
+	 */
+	public static File getReplacementFile( File file ){
+		return new File( file.getPath() + ".new" );
+	}
+	
+	/**
+	 * Replaces the content of <code>file</code> by <code>content</code>. This method calls
+	 * {@link #recover(File)}, writes the {@link #getTemporaryFile(File) temporary file}, forces
+	 * its content onto the disk and calls {@link #replace(File)}.
+	 * @param file the file to write
+	 * @param content the new content of <code>file</code>
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write( File file, byte[] content ) throws IOException{
+		recover( file );
+		File temp = getTemporaryFile( file );
+		FileOutputStream out = new FileOutputStream( temp );
+		try{
+			out.write( content );
+			out.flush();
+			out.getFD().sync();
+		}
+		finally{
+			out.close();
+		}
+		replace( file );
+	}
+	
+	/**
+	 * Replaces <code>file</code> by its {@link #getTemporaryFile(File) temporary file}. The temporary
+	 * file must be complete and its content must be forced onto the disk.
+	 * @param file the file to replace
+	 * @throws IOException if the file cannot be replaced
+	 */
+	public static void replace( File file ) throws IOException{
+		File temp = getTemporaryFile( file );
+		if( temp.renameTo( file )){
+			return;
+		}
+		
+		// some platforms do not allow to replace an existing file
+		File next = getReplacementFile( file );
+		if( next.exists() && !next.delete() ){
+			throw new IOException( "cannot delete " + next );
+		}
+		if( !temp.renameTo( next )){
+			throw new IOException( "cannot rename " + temp + " to " + next );
+		}
+		finish( file, next );
+	}
+	
+	/**
+	 * Cleans up after a replacement of <code>file</code> was interrupted. If the complete new content
+	 * exists, then the replacement is finished. An incomplete {@link #getTemporaryFile(File) temporary file}
+	 * is deleted.
+	 * @param file the file which may have been replaced
+	 * @throws IOException if the replacement cannot be finished
+	 */
+	public static void recover( File file ) throws IOException{
+		File next = getReplacementFile( file );
+		if( next.exists() ){
+			finish( file, next );
+		}
+		File temp = getTemporaryFile( file );
+		if( temp.exists() && !temp.delete() ){
+			throw new IOException( "cannot delete " + temp );
+		}
+	}
+	
+	private static void finish( File file, File next ) throws IOException{
+		if( file.exists() && !file.delete() ){
+			throw new IOException( "cannot delete " + file );
+		}
+		if( !next.renameTo( file )){
+			throw new IOException( "cannot rename " + next + " to " + file );
+		}
+	}
+}
@@ -52,6 +52,7 @@ import bibliothek.gui.DockUI;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.Orientation;
 import bibliothek.gui.Position;
+import bibliothek.gui.dock.control.DeferredValidation;
 import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.gui.dock.layout.location.AsideRequest;
@@ -1000,7 +1001,7 @@ public class ToolbarContainerDockStation extends AbstractDockableStation impleme
 			getContainerPanel().remove( childHandle.getDisplayer().getComponent() );
 			childHandle.destroy();
 
-			mainPanel.getContentPane().revalidate();
+			DeferredValidation.revalidate( getController(), mainPanel.getContentPane() );
 			mainPanel.getContentPane().repaint();
 			listeners.fireDockableRemoved( dockable );
 			fireDockablesRepositioned( index );
@@ -1064,7 +1065,7 @@ public class ToolbarContainerDockStation extends AbstractDockableStation impleme
 			finally {
 				token.release();
 			}
-			mainPanel.revalidate();
+			DeferredValidation.revalidate( getController(), mainPanel );
 			mainPanel.repaint();
 			return true;
 		}
@@ -1075,7 +1076,7 @@ public class ToolbarContainerDockStation extends AbstractDockableStation impleme
 		final Dockable dockable = handle.getDockable();
 		dockable.setDockParent( this );
 		getContainerPanel().add( handle.getDisplayer().getComponent(), index );
-		mainPanel.getContentPane().revalidate();
+		DeferredValidation.revalidate( getController(), mainPanel.getContentPane() );
 		mainPanel.getContentPane().repaint();
 	}
 
@@ -1118,7 +1119,7 @@ public class ToolbarContainerDockStation extends AbstractDockableStation impleme
 			setBasePane( containerPanel );
 			setContentPane( containerPanel );
 			setSolid( true );
-			getContentPane().revalidate();
+			DeferredValidation.revalidate( getController(), getContentPane() );
 			getContentPane().repaint();
 		}
 
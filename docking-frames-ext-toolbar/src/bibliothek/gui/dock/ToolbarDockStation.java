@@ -52,6 +52,7 @@ import bibliothek.gui.DockStation;
 import bibliothek.gui.DockUI;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.Orientation;
+import bibliothek.gui.dock.control.DeferredValidation;
 import bibliothek.gui.dock.displayer.DockableDisplayerHints;
 import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.layout.DockableProperty;
@@ -346,7 +347,7 @@ public class ToolbarDockStation extends AbstractToolbarDockStation {
 		// dockables first, else doLayout() is done on wrong inside information
 		this.orientation = orientation;
 		fireOrientingEvent();
-		mainPanel.revalidate();
+		DeferredValidation.revalidate( getController(), mainPanel );
 	}
 
 	// ########################################################
@@ -580,7 +581,7 @@ public class ToolbarDockStation extends AbstractToolbarDockStation {
 		// mainPanel.getContentPane().getPreferredSize().width,
 		// mainPanel.getContentPane().getPreferredSize().height ) );
 		// mainPanel.doLayout();
-		mainPanel.revalidate();
+		DeferredValidation.revalidate( getController(), mainPanel );
 		mainPanel.getContentPane().repaint();
 	}
 
@@ -621,7 +622,7 @@ public class ToolbarDockStation extends AbstractToolbarDockStation {
 			dockables.remove( index );
 			mainPanel.getContentPane().remove( handle.getDisplayer().getComponent() );
 			mainPanel.doLayout();
-			mainPanel.revalidate();
+			DeferredValidation.revalidate( getController(), mainPanel );
 			mainPanel.repaint();
 			handle.destroy();
 			listeners.fireDockableRemoved( dockable );
@@ -658,7 +659,7 @@ public class ToolbarDockStation extends AbstractToolbarDockStation {
 			dockables.remove( index );
 			mainPanel.getContentPane().remove( handle.getDisplayer().getComponent() );
 			mainPanel.doLayout();
-			mainPanel.getContentPane().revalidate();
+			DeferredValidation.revalidate( getController(), mainPanel.getContentPane() );
 			mainPanel.getContentPane().repaint();
 			handle.destroy();
 			listeners.fireDockableRemoved( dockable );
@@ -57,6 +57,7 @@ import bibliothek.gui.DockStation;
 import bibliothek.gui.DockUI;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.Orientation;
+import bibliothek.gui.dock.control.DeferredValidation;
 import bibliothek.gui.dock.event.DockStationListener;
 import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.gui.dock.layout.location.AsideRequest;
@@ -588,7 +589,7 @@ public class ToolbarGroupDockStation extends AbstractToolbarDockStation {
 			mainPanel.addHeaderComponent( groupHeader.getComponent() );
 		}
 		mainPanel.updateAlignment();
-		mainPanel.revalidate();
+		DeferredValidation.revalidate( getController(), mainPanel );
 	}
 
 	// ########################################################
@@ -852,7 +853,7 @@ public class ToolbarGroupDockStation extends AbstractToolbarDockStation {
 	 */
 	private void addComponent( StationChildHandle handle ){
 		mainPanel.dockablePane.add( handle.getDisplayer().getComponent() );
-		mainPanel.getContentPane().revalidate();
+		DeferredValidation.revalidate( getController(), mainPanel.getContentPane() );
 	}
 
 	/**
@@ -866,7 +867,7 @@ public class ToolbarGroupDockStation extends AbstractToolbarDockStation {
 	 */
 	private void removeComponent( StationChildHandle handle ){
 		mainPanel.dockablePane.remove( handle.getDisplayer().getComponent() );
-		mainPanel.getContentPane().revalidate();
+		DeferredValidation.revalidate( getController(), mainPanel.getContentPane() );
 	}
 
 	/**
@@ -1140,7 +1141,7 @@ public class ToolbarGroupDockStation extends AbstractToolbarDockStation {
 	private void setDividerStrategy( ToolbarGroupDividerStrategy dividerStrategy ){
 		this.dividerStrategy = dividerStrategy;
 		layoutManager.setDividerStrategy( dividerStrategy );
-		mainPanel.revalidate();
+		DeferredValidation.revalidate( getController(), mainPanel );
 	}
 	
 	/**
@@ -1284,7 +1285,7 @@ public class ToolbarGroupDockStation extends AbstractToolbarDockStation {
 				layoutManager.setDividerStrategy( dividerStrategy );
 				layoutManager.setController( getController() );
 			}
-			mainPanel.revalidate();
+			DeferredValidation.revalidate( getController(), mainPanel );
 		}
 
 		/**
@@ -1668,6 +1669,6 @@ public class ToolbarGroupDockStation extends AbstractToolbarDockStation {
 			level = Level.DOCKABLE;
 		}
 		dockables.move( sourceColumn, sourceLine, destinationColumn, destinationLine, level );
-		mainPanel.getContentPane().revalidate();
+		DeferredValidation.revalidate( getController(), mainPanel.getContentPane() );
 	}
 }